@@ -2,60 +2,76 @@ package lancaster.boxOfficeInterface;
 
 import lancaster.model.Booking;
 import lancaster.model.Seat;
+import lancaster.model.SeatStateStore;
+import lancaster.utils.ConnectionPool;
+import lancaster.utils.InMemoryDatabase;
+import lancaster.utils.StorageBackend;
 
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 import java.io.IOException;
-import java.io.InputStream;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Properties;
+import java.util.Map;
+import java.util.Objects;
 
 
 /**
  * The {@code BoxOfficeJDBC} class utilises the methods that need a connection to the database.
  * <p>
- * This class uses all of the methods that will require a {@code connection} to the database via JDBC
+ * This class uses all of the methods that will require a {@code connection} to the database via JDBC.
+ * Every call borrows a {@code connection} from the shared {@link ConnectionPool} and returns it afterwards.
+ * </p>
+ * <p>
+ * When the {@link StorageBackend#MEMORY} backend is configured the DAOs are served by the
+ * {@link InMemoryDatabase} instead and no connection is borrowed.
  * </p>
  *
  */
 public class BoxOfficeJDBC {
-    private final Connection connection;
-    private final SeatDAOImpl seatingConfigDAO;
-    private final EventDAOImpl eventDAO;
-    private final RoomDAOImpl roomDAO;
-    private final DailySheetDAOImpl dailySheetDAO;
+    private final ConnectionPool pool; //Null when the in-memory backend is used
+    private final SeatDAO seatingConfigDAO;
+    private final EventDAO eventDAO;
+    private final RoomDAO roomDAO;
+    private final DailySheetDAO dailySheetDAO;
+    private final EventSnapshotCache eventCache = EventSnapshotCache.SHARED; //Recently loaded events, shared by all instances
 
 
     /**
-     * Constructor for DBUtils that creates a connection between the user and the database
+     * Constructor for BoxOfficeJDBC that attaches to the configured storage backend
      * @throws SQLException             If a database access error occurs
      * @throws IOException              If an error occurs reading from input stream
      * @throws ClassNotFoundException   If the jdbc class cannot be found
      */
     public BoxOfficeJDBC() throws SQLException, ClassNotFoundException, IOException {
-        Properties properties = new Properties();
-
-        //read the credentials on given config file
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream("config.properties")) {
-            if (input != null) {
-                throw new IOException("Unable to load config.properties file");
-            }
-            properties.load(input);
+        if (StorageBackend.configured() == StorageBackend.MEMORY) {
+            InMemoryDatabase db = InMemoryDatabase.getInstance();
+            this.pool = null;
+            this.seatingConfigDAO = new InMemorySeatDAO(db);
+            this.roomDAO = new InMemoryRoomDAO(db);
+            this.eventDAO = new InMemoryEventDAO(db);
+            this.dailySheetDAO = new InMemoryDailySheetDAO(db);
+        } else {
+            this.pool = ConnectionPool.getInstance();
+            this.seatingConfigDAO = new SeatDAOImpl();
+            this.roomDAO = new RoomDAOImpl();
+            this.eventDAO = new EventDAOImpl();
+            this.dailySheetDAO = new DailySheetDAOImpl();
         }
+    }
 
-
-        String url = properties.getProperty("db.url");
-        String username = properties.getProperty("db.username");
-        String password = properties.getProperty("db.password");
-
-        Class.forName("com.mysql.cj.jdbc.Driver");
-
-        this.connection = DriverManager.getConnection(url, username, password);
-        this.seatingConfigDAO = new SeatDAOImpl();
-        this.roomDAO = new RoomDAOImpl();
-        this.eventDAO = new EventDAOImpl();
-        this.dailySheetDAO = new DailySheetDAOImpl();
+    /**
+     * Borrows a connection for one call, or returns null for the in-memory backend which needs none.
+     * @return              A pooled connection to close after the call, or null
+     * @throws SQLException If no connection can be borrowed
+     */
+    private Connection borrow() throws SQLException {
+        return pool == null ? null : pool.getConnection();
     }
 
     /**
@@ -70,7 +86,9 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs
      */
     public boolean hasAccessibleSeating(int roomId) throws SQLException {
-        return seatingConfigDAO.hasAccessableSeating(connection, roomId);
+        try (Connection connection = borrow()) {
+            return seatingConfigDAO.hasAccessableSeating(connection, roomId);
+        }
     }
 
     /**
@@ -84,7 +102,9 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs
      */
     public List<Seat> getSeatsByRoomId(int roomId) throws SQLException {
-        return seatingConfigDAO.getSeatsByRoomId(connection, roomId);
+        try (Connection connection = borrow()) {
+            return seatingConfigDAO.getSeatsByRoomId(connection, roomId);
+        }
     }
 
     /**
@@ -99,7 +119,9 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs
      */
     public List<Seat> getAccessibleSeats(int roomId) throws SQLException {
-        return seatingConfigDAO.getAccessibleSeats(connection, roomId);
+        try (Connection connection = borrow()) {
+            return seatingConfigDAO.getAccessibleSeats(connection, roomId);
+        }
     }
 
     /**
@@ -114,7 +136,90 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs
      */
     public List<Seat> getWheelchairSeats(int roomId) throws SQLException {
-        return seatingConfigDAO.getWheelchairSeats(connection, roomId);
+        try (Connection connection = borrow()) {
+            return seatingConfigDAO.getWheelchairSeats(connection, roomId);
+        }
+    }
+
+    /**
+     * Reads the accessibility of every seat of a room into a seat state store, without creating seat objects.
+     *
+     * @param roomId the unique identifier of the room
+     * @param store  the store to record the seats in
+     * @return the number of seats of the room that were found in the store's layout
+     * @throws SQLException if a database access error occurs
+     */
+    public int loadSeats(int roomId, SeatStateStore store) throws SQLException {
+        try (Connection connection = borrow()) {
+            return seatingConfigDAO.loadSeats(connection, roomId, store);
+        }
+    }
+
+    /**
+     * Retrieves every field of the specified event in one query.
+     * <p>
+     * Snapshots are kept for a couple of seconds, so asking about the same event again shortly afterwards, as
+     * the single-field getters below do, is answered without going back to the database.
+     * </p>
+     *
+     * @param eventID the unique identifier of the event
+     * @return an {@link EventSnapshot} of the event, or null if not found
+     * @throws SQLException if a database access error occurs
+     */
+    public EventSnapshot getEvent(int eventID) throws SQLException {
+        EventSnapshot event = eventCache.get(eventID);
+        if (event == null) {
+            try (Connection connection = borrow()) {
+                event = eventDAO.getEvent(connection, eventID);
+            }
+            if (event != null) {
+                eventCache.put(event);
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Retrieves every field of several events, fetching the ones that are not cached together.
+     *
+     * @param eventIDs the unique identifiers of the events
+     * @return the snapshots found keyed by event ID, in the order the IDs were given; IDs with no event are left out
+     * @throws SQLException if a database access error occurs
+     */
+    public Map<Integer, EventSnapshot> getEvents(Collection<Integer> eventIDs) throws SQLException {
+        Map<Integer, EventSnapshot> events = new LinkedHashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int eventID : eventIDs) {
+            EventSnapshot event = eventCache.get(eventID);
+            events.put(eventID, event);
+            if (event == null) {
+                missing.add(eventID);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Integer, EventSnapshot> loaded;
+            try (Connection connection = borrow()) {
+                loaded = eventDAO.getEvents(connection, missing);
+            }
+            for (EventSnapshot event : loaded.values()) {
+                eventCache.put(event);
+            }
+            for (int eventID : missing) {
+                events.put(eventID, loaded.get(eventID));
+            }
+        }
+        events.values().removeIf(Objects::isNull);
+        return events;
+    }
+
+    /**
+     * Forgets the cached snapshot of an event so the next call reads it from the database again.
+     *
+     * @param eventID the unique identifier of the event that was changed
+     */
+    public void invalidateEvent(int eventID) {
+        eventCache.invalidate(eventID);
     }
 
     /**
@@ -125,7 +230,8 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs
      */
     public LocalTime getEventStartTime(int eventID) throws SQLException {
-        return eventDAO.getStartTime(connection, eventID);
+        EventSnapshot event = getEvent(eventID);
+        return event == null ? null : event.getStartTime();
     }
 
     /**
@@ -136,7 +242,8 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs
      */
     public LocalTime getEventEndTime(int eventID) throws SQLException {
-        return eventDAO.getEndTime(connection, eventID);
+        EventSnapshot event = getEvent(eventID);
+        return event == null ? null : event.getEndTime();
     }
 
     /**
@@ -147,13 +254,14 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs
      */
     public LocalDate getEventDate(int eventID) throws SQLException {
-        return eventDAO.getEventStartDate(connection, eventID);
+        EventSnapshot event = getEvent(eventID);
+        return event == null ? null : event.getEventDate();
     }
 
     /**
      * Retrieves the duration of the specified event in minutes.
      * <p>
-     * The duration is calculated as the difference between the event's start and end times.
+     * The duration is the difference between the event's start and end times, worked out when the event was loaded.
      * </p>
      *
      * @param eventID the unique identifier of the event
@@ -161,7 +269,8 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs
      */
     public int getEventDuration(int eventID) throws SQLException {
-        return eventDAO.getDuration(connection, eventID);
+        EventSnapshot event = getEvent(eventID);
+        return event == null ? -1 : event.getDurationMinutes();
     }
 
     /**
@@ -172,13 +281,15 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs
      */
     public int getEventRoomID(int eventID) throws SQLException {
-        return eventDAO.getRoomID(connection, eventID);
+        EventSnapshot event = getEvent(eventID);
+        return event == null ? -1 : event.getRoomId();
     }
 
     /**
      * Retrieves all data for the specified event.
      * <p>
-     * The result is provided as a {@link ResultSet} containing all columns for the event.
+     * The result is provided as a {@link ResultSet} containing all columns for the event. The rows are copied
+     * into a disconnected {@link CachedRowSet} so they stay readable after the connection goes back to the pool.
      * </p>
      *
      * @param eventID the unique identifier of the event
@@ -186,7 +297,12 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs
      */
     public ResultSet getEventData(int eventID) throws SQLException {
-        return eventDAO.getData(connection, eventID);
+        try (Connection connection = borrow();
+             ResultSet rs = eventDAO.getData(connection, eventID)) {
+            CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+            rowSet.populate(rs);
+            return rowSet;
+        }
     }
 
     /**
@@ -202,7 +318,9 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs during the query
      */
     public Timestamp getLastBookingTime(int roomId) throws SQLException {
-        return roomDAO.getLastBookingTime(connection, roomId);
+        try (Connection connection = borrow()) {
+            return roomDAO.getLastBookingTime(connection, roomId);
+        }
     }
 
     /**
@@ -213,7 +331,9 @@ public class BoxOfficeJDBC {
      * @throws SQLException if the roomID is not found or a database access error occurs
      */
     public int getRoomCapacity(int roomID) throws SQLException {
-        return roomDAO.getRoomCapacity(connection, roomID);
+        try (Connection connection = borrow()) {
+            return roomDAO.getRoomCapacity(connection, roomID);
+        }
     }
 
     /**
@@ -230,7 +350,9 @@ public class BoxOfficeJDBC {
      * @throws SQLException if a database access error occurs during the query execution
      */
     public List<Booking> getDailySheet(LocalDate date) throws SQLException {
-        return dailySheetDAO.getDailySheet(connection, date);
+        try (Connection connection = borrow()) {
+            return dailySheetDAO.getDailySheet(connection, date);
+        }
     }
 
     public static void main(String[] args) {
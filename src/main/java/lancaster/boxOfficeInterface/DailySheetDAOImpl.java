@@ -55,16 +55,16 @@ public class DailySheetDAOImpl implements DailySheetDAO {
 
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setDate(1, Date.valueOf(date));
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                String roomName = rs.getString("room_name");
-                LocalDate endDate = rs.getDate("end_date").toLocalDate();
-                LocalTime startTime = rs.getTime("start_time").toLocalTime();
-                LocalTime endTime = rs.getTime("end_time").toLocalTime();
-                String customerName = rs.getString("customer_name");
-                String configName = rs.getString("configuration_name");
-                sheet.add(new Booking(roomName, date, endDate, startTime, endTime, customerName, configName));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String roomName = rs.getString("room_name");
+                    LocalDate endDate = rs.getDate("end_date").toLocalDate();
+                    LocalTime startTime = rs.getTime("start_time").toLocalTime();
+                    LocalTime endTime = rs.getTime("end_time").toLocalTime();
+                    String customerName = rs.getString("customer_name");
+                    String configName = rs.getString("configuration_name");
+                    sheet.add(new Booking(roomName, date, endDate, startTime, endTime, customerName, configName));
+                }
             }
         }
 
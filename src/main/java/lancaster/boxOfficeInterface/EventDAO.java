@@ -5,6 +5,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) interface for events.
@@ -74,4 +76,24 @@ public interface EventDAO {
      * @throws SQLException if a database access error occurs
      */
     LocalDate getEventStartDate(Connection conn, int eventID) throws SQLException;
+
+    /**
+     * Retrieves every field of a specified event in one query.
+     *
+     * @param conn the database connection to use for the query
+     * @param eventID the unique identifier of the event
+     * @return an {@link EventSnapshot} of the event, or null if not found
+     * @throws SQLException if a database access error occurs
+     */
+    EventSnapshot getEvent(Connection conn, int eventID) throws SQLException;
+
+    /**
+     * Retrieves every field of several events with as few queries as possible.
+     *
+     * @param conn the database connection to use for the query
+     * @param eventIDs the unique identifiers of the events
+     * @return the snapshots found, keyed by event ID; IDs with no event are left out
+     * @throws SQLException if a database access error occurs
+     */
+    Map<Integer, EventSnapshot> getEvents(Connection conn, Collection<Integer> eventIDs) throws SQLException;
 }
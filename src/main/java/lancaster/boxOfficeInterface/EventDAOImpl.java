@@ -7,6 +7,12 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of the {@link EventDAO} interface.
@@ -16,6 +22,12 @@ import java.time.LocalTime;
  * </p>
  */
 public class EventDAOImpl implements EventDAO {
+    private static final String SNAPSHOT_QUERY = "SELECT event_id, booking_id, room_id, seating_config_id, name, "
+            + "event_date, start_time, end_time FROM events WHERE event_id ";
+
+    //IN lists are padded up to one of these sizes so the statement cache only ever holds a few variants
+    private static final int[] BATCH_SIZES = {1, 8, 32, 128, 512};
+    private static final int MAX_BATCH = 512;
 
     /**
      * Retrieves the start time of the specified event.
@@ -29,10 +41,11 @@ public class EventDAOImpl implements EventDAO {
         String query = "SELECT event_date, start_time FROM events WHERE event_id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, eventID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                Time time = rs.getTime("start_time");
-                return time.toLocalTime();
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Time time = rs.getTime("start_time");
+                    return time.toLocalTime();
+                }
             }
         }
         return null;
@@ -50,10 +63,11 @@ public class EventDAOImpl implements EventDAO {
         String query = "SELECT event_date, end_time FROM events WHERE event_id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, eventID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                Time time = rs.getTime("end_time");
-                return time.toLocalTime();
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Time time = rs.getTime("end_time");
+                    return time.toLocalTime();
+                }
             }
         }
         return null;
@@ -71,11 +85,12 @@ public class EventDAOImpl implements EventDAO {
         String query = "SELECT event_date FROM events WHERE event_id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, eventID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                Date eventDate = rs.getDate("event_date");
-                if (eventDate != null) {
-                    return eventDate.toLocalDate();
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Date eventDate = rs.getDate("event_date");
+                    if (eventDate != null) {
+                        return eventDate.toLocalDate();
+                    }
                 }
             }
         }
@@ -97,18 +112,19 @@ public class EventDAOImpl implements EventDAO {
         String query = "SELECT event_date, start_time, end_time FROM events WHERE event_id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, eventID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                Date eventDate = rs.getDate("event_date");
-                Time startTime = rs.getTime("start_time");
-                Time endTime = rs.getTime("end_time");
-
-                if (eventDate != null && startTime != null && endTime != null) {
-                    LocalDateTime startDateTime = LocalDateTime.of(eventDate.toLocalDate(), startTime.toLocalTime());
-                    LocalDateTime endDateTime = LocalDateTime.of(eventDate.toLocalDate(), endTime.toLocalTime());
-
-                    Duration duration = Duration.between(startDateTime, endDateTime);
-                    return (int) duration.toMinutes();
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Date eventDate = rs.getDate("event_date");
+                    Time startTime = rs.getTime("start_time");
+                    Time endTime = rs.getTime("end_time");
+
+                    if (eventDate != null && startTime != null && endTime != null) {
+                        LocalDateTime startDateTime = LocalDateTime.of(eventDate.toLocalDate(), startTime.toLocalTime());
+                        LocalDateTime endDateTime = LocalDateTime.of(eventDate.toLocalDate(), endTime.toLocalTime());
+
+                        Duration duration = Duration.between(startDateTime, endDateTime);
+                        return (int) duration.toMinutes();
+                    }
                 }
             }
         }
@@ -127,9 +143,10 @@ public class EventDAOImpl implements EventDAO {
         String query = "SELECT room_id FROM events WHERE event_id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, eventID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("room_id");
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("room_id");
+                }
             }
         }
         return -1;
@@ -138,7 +155,8 @@ public class EventDAOImpl implements EventDAO {
     /**
      * Retrieves all data for the specified event.
      * <p>
-     * The result is provided as a {@link ResultSet} containing all columns for the event.
+     * The result is provided as a {@link ResultSet} containing all columns for the event. The caller must close
+     * the result set, the statement behind it is released when the connection is returned to the pool.
      * </p>
      *
      * @param conn    the database connection to be used for the query
@@ -152,4 +170,92 @@ public class EventDAOImpl implements EventDAO {
         stmt.setInt(1, eventID);
         return stmt.executeQuery();
     }
+
+    /**
+     * Retrieves every field of the specified event in one query.
+     *
+     * @param conn    the database connection to be used for the query
+     * @param eventID the unique identifier of the event
+     * @return an {@link EventSnapshot} of the event, or null if not found
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public EventSnapshot getEvent(Connection conn, int eventID) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SNAPSHOT_QUERY + "= ?")) {
+            stmt.setInt(1, eventID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? toSnapshot(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Retrieves every field of several events.
+     * <p>
+     * The IDs are looked up with {@code IN} lists of at most {@value #MAX_BATCH} IDs, so a large request takes a
+     * handful of queries rather than one per event. Each list is padded to a fixed size by repeating its last ID,
+     * which keeps the number of distinct statements small enough for the pooled statement cache to reuse them.
+     * </p>
+     *
+     * @param conn     the database connection to be used for the query
+     * @param eventIDs the unique identifiers of the events
+     * @return the snapshots found, keyed by event ID; IDs with no event are left out
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Map<Integer, EventSnapshot> getEvents(Connection conn, Collection<Integer> eventIDs) throws SQLException {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(eventIDs));
+        Map<Integer, EventSnapshot> events = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += MAX_BATCH) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_BATCH));
+            int size = batchSize(chunk.size());
+
+            StringBuilder query = new StringBuilder(SNAPSHOT_QUERY).append("IN (?");
+            query.append(",?".repeat(size - 1)).append(')');
+            try (PreparedStatement stmt = conn.prepareStatement(query.toString())) {
+                for (int i = 0; i < size; i++) {
+                    stmt.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        EventSnapshot event = toSnapshot(rs);
+                        events.put(event.getEventId(), event);
+                    }
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * @return  The smallest padded list size that fits the number of IDs
+     */
+    private static int batchSize(int ids) {
+        for (int size : BATCH_SIZES) {
+            if (ids <= size) {
+                return size;
+            }
+        }
+        return MAX_BATCH;
+    }
+
+    /**
+     * Reads the current row of a snapshot query.
+     */
+    private static EventSnapshot toSnapshot(ResultSet rs) throws SQLException {
+        Date eventDate = rs.getDate("event_date");
+        Time startTime = rs.getTime("start_time");
+        Time endTime = rs.getTime("end_time");
+        return new EventSnapshot(
+                rs.getInt("event_id"),
+                rs.getInt("booking_id"),
+                rs.getInt("room_id"),
+                rs.getInt("seating_config_id"),
+                rs.getString("name"),
+                eventDate == null ? null : eventDate.toLocalDate(),
+                startTime == null ? null : startTime.toLocalTime(),
+                endTime == null ? null : endTime.toLocalTime()
+        );
+    }
 }
@@ -0,0 +1,144 @@
+package lancaster.boxOfficeInterface;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * An immutable copy of one row of the {@code events} table.
+ * <p>
+ * A snapshot is read in a single query and carries everything the box office asks about an event, so building an
+ * event summary no longer needs a separate round trip for each field. The duration is worked out once, when the
+ * snapshot is created.
+ * </p>
+ */
+public final class EventSnapshot {
+    private final int eventId;
+    private final int bookingId;
+    private final int roomId;
+    private final int seatingConfigId;
+    private final String name;
+    private final LocalDate eventDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final int durationMinutes;
+
+    /**
+     * Constructs a snapshot of an event.
+     *
+     * @param eventId         the unique identifier of the event
+     * @param bookingId       the booking the event belongs to, or 0 if it has none
+     * @param roomId          the room where the event is held
+     * @param seatingConfigId the seating configuration used for the event
+     * @param name            the name of the event
+     * @param eventDate       the date of the event
+     * @param startTime       the start time of the event
+     * @param endTime         the end time of the event
+     */
+    public EventSnapshot(int eventId, int bookingId, int roomId, int seatingConfigId, String name,
+                         LocalDate eventDate, LocalTime startTime, LocalTime endTime) {
+        this.eventId = eventId;
+        this.bookingId = bookingId;
+        this.roomId = roomId;
+        this.seatingConfigId = seatingConfigId;
+        this.name = name;
+        this.eventDate = eventDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.durationMinutes = eventDate == null || startTime == null || endTime == null
+                ? -1 : (int) Duration.between(startTime, endTime).toMinutes();
+    }
+
+    /**
+     * Returns the unique identifier of the event.
+     *
+     * @return the event ID as an int
+     */
+    public int getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Returns the booking the event belongs to.
+     *
+     * @return the booking ID, or 0 if the event has no booking
+     */
+    public int getBookingId() {
+        return bookingId;
+    }
+
+    /**
+     * Returns the room where the event is held.
+     *
+     * @return the room ID as an int
+     */
+    public int getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Returns the seating configuration used for the event.
+     *
+     * @return the seating configuration ID as an int
+     */
+    public int getSeatingConfigId() {
+        return seatingConfigId;
+    }
+
+    /**
+     * Returns the name of the event.
+     *
+     * @return the event name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the date of the event.
+     *
+     * @return the event date as a {@link LocalDate}
+     */
+    public LocalDate getEventDate() {
+        return eventDate;
+    }
+
+    /**
+     * Returns the start time of the event.
+     *
+     * @return the start time as a {@link LocalTime}
+     */
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the end time of the event.
+     *
+     * @return the end time as a {@link LocalTime}
+     */
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Returns the duration of the event, the difference between its start and end times.
+     *
+     * @return the duration in minutes, or -1 if a time is missing
+     */
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    @Override
+    public String toString() {
+        return "EventSnapshot{" +
+                "eventId=" + eventId +
+                ", roomId=" + roomId +
+                ", name='" + name + '\'' +
+                ", eventDate=" + eventDate +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                '}';
+    }
+}
@@ -0,0 +1,91 @@
+package lancaster.boxOfficeInterface;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A short-lived cache of {@link EventSnapshot}s shared by every {@link BoxOfficeJDBC}.
+ * <p>
+ * The box office tends to ask several questions about the same event in quick succession, for example its start
+ * time, end time and room while building one summary. Keeping each snapshot for a couple of seconds answers the
+ * follow-up questions without another query, while an event changed in the database is picked up again soon
+ * after. Missing events are not cached.
+ * </p>
+ */
+final class EventSnapshotCache {
+    private static final long DEFAULT_TTL_MS = 2000;
+    private static final int MAX_ENTRIES = 4096;
+
+    static final EventSnapshotCache SHARED = new EventSnapshotCache(DEFAULT_TTL_MS);
+
+    private final long ttlNanos;
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param ttlMs how long a snapshot is served for after it was loaded, in milliseconds
+     */
+    EventSnapshotCache(long ttlMs) {
+        this.ttlNanos = ttlMs * 1_000_000L;
+    }
+
+    /**
+     * @return  The cached snapshot of the event, or null if there is none or it has expired
+     */
+    EventSnapshot get(int eventId) {
+        Entry entry = entries.get(eventId);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt > ttlNanos) {
+            entries.remove(eventId, entry);
+            return null;
+        }
+        return entry.snapshot;
+    }
+
+    /**
+     * Caches a freshly loaded snapshot.
+     */
+    void put(EventSnapshot snapshot) {
+        if (entries.size() >= MAX_ENTRIES) {
+            purgeExpired();
+        }
+        entries.put(snapshot.getEventId(), new Entry(snapshot, System.nanoTime()));
+    }
+
+    /**
+     * Drops the cached snapshot of one event, for callers that have just changed it.
+     */
+    void invalidate(int eventId) {
+        entries.remove(eventId);
+    }
+
+    /**
+     * Drops every cached snapshot.
+     */
+    void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Removes expired snapshots, and everything if the cache is still full of live ones.
+     */
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().loadedAt > ttlNanos) {
+                it.remove();
+            }
+        }
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+    }
+
+    private record Entry(EventSnapshot snapshot, long loadedAt) {
+    }
+}
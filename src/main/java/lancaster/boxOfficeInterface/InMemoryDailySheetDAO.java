@@ -0,0 +1,49 @@
+package lancaster.boxOfficeInterface;
+
+import lancaster.model.Booking;
+import lancaster.utils.InMemoryDatabase;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An implementation of the {@link DailySheetDAO} interface backed by the {@link InMemoryDatabase}.
+ * <p>
+ * The connection argument is ignored. Events for the date come from the store's date index and are joined with
+ * their room, booking and seating configuration, skipping any event missing one of them as the SQL inner join
+ * would.
+ * </p>
+ */
+class InMemoryDailySheetDAO implements DailySheetDAO {
+    private final InMemoryDatabase db;
+
+    /**
+     * Creates a daily sheet DAO over the given store.
+     *
+     * @param db the in-memory store to read from
+     */
+    InMemoryDailySheetDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<Booking> getDailySheet(Connection conn, LocalDate date) {
+        List<Booking> sheet = new ArrayList<>();
+        for (InMemoryDatabase.EventRow event : db.getEventsOn(date)) {
+            InMemoryDatabase.RoomRow room = db.getRoom(event.roomId());
+            InMemoryDatabase.BookingRow booking = db.getBooking(event.bookingId());
+            String configName = db.getSeatingConfigurationName(event.seatingConfigId());
+            if (room == null || booking == null || configName == null) {
+                continue;
+            }
+            sheet.add(new Booking(room.roomName(), date, booking.endDate(), event.startTime(), event.endTime(),
+                    booking.customerName(), configName));
+        }
+
+        sheet.sort(Comparator.comparing(Booking::getSpace).thenComparing(Booking::getStartTime));
+        return sheet;
+    }
+}
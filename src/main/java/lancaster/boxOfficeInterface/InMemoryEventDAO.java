@@ -0,0 +1,132 @@
+package lancaster.boxOfficeInterface;
+
+import lancaster.utils.InMemoryDatabase;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An implementation of the {@link EventDAO} interface backed by the {@link InMemoryDatabase}.
+ * <p>
+ * The connection argument is ignored. Every lookup is a single hash lookup on the event ID. {@link #getData}
+ * returns a disconnected result set with the same columns as the {@code events} table.
+ * </p>
+ */
+class InMemoryEventDAO implements EventDAO {
+    private static final String[] COLUMNS = {"event_id", "booking_id", "room_id", "seating_config_id", "name",
+            "event_date", "start_time", "end_time", "status"};
+    private static final int[] TYPES = {Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.VARCHAR,
+            Types.DATE, Types.TIME, Types.TIME, Types.VARCHAR};
+
+    private final InMemoryDatabase db;
+
+    /**
+     * Creates an event DAO over the given store.
+     *
+     * @param db the in-memory store to read from
+     */
+    InMemoryEventDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public LocalTime getStartTime(Connection conn, int eventID) {
+        InMemoryDatabase.EventRow event = db.getEvent(eventID);
+        return event == null ? null : event.startTime();
+    }
+
+    @Override
+    public LocalTime getEndTime(Connection conn, int eventID) {
+        InMemoryDatabase.EventRow event = db.getEvent(eventID);
+        return event == null ? null : event.endTime();
+    }
+
+    @Override
+    public int getDuration(Connection conn, int eventID) {
+        InMemoryDatabase.EventRow event = db.getEvent(eventID);
+        if (event == null || event.startTime() == null || event.endTime() == null) {
+            return -1;
+        }
+        return (int) Duration.between(event.startTime(), event.endTime()).toMinutes();
+    }
+
+    @Override
+    public int getRoomID(Connection conn, int eventID) {
+        InMemoryDatabase.EventRow event = db.getEvent(eventID);
+        return event == null ? -1 : event.roomId();
+    }
+
+    @Override
+    public ResultSet getData(Connection conn, int eventID) throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            metaData.setColumnName(i + 1, COLUMNS[i]);
+            metaData.setColumnLabel(i + 1, COLUMNS[i]);
+            metaData.setColumnType(i + 1, TYPES[i]);
+        }
+
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+
+        InMemoryDatabase.EventRow event = db.getEvent(eventID);
+        if (event != null) {
+            rowSet.moveToInsertRow();
+            rowSet.updateInt(1, event.eventId());
+            rowSet.updateInt(2, event.bookingId());
+            rowSet.updateInt(3, event.roomId());
+            rowSet.updateInt(4, event.seatingConfigId());
+            rowSet.updateString(5, event.name());
+            rowSet.updateDate(6, Date.valueOf(event.eventDate()));
+            rowSet.updateTime(7, Time.valueOf(event.startTime()));
+            rowSet.updateTime(8, Time.valueOf(event.endTime()));
+            rowSet.updateString(9, event.status());
+            rowSet.insertRow();
+            rowSet.moveToCurrentRow();
+        }
+        rowSet.beforeFirst();
+        return rowSet;
+    }
+
+    @Override
+    public LocalDate getEventStartDate(Connection conn, int eventID) {
+        InMemoryDatabase.EventRow event = db.getEvent(eventID);
+        return event == null ? null : event.eventDate();
+    }
+
+    @Override
+    public EventSnapshot getEvent(Connection conn, int eventID) {
+        InMemoryDatabase.EventRow event = db.getEvent(eventID);
+        return event == null ? null : toSnapshot(event);
+    }
+
+    @Override
+    public Map<Integer, EventSnapshot> getEvents(Connection conn, Collection<Integer> eventIDs) {
+        Map<Integer, EventSnapshot> events = new HashMap<>();
+        for (int eventID : eventIDs) {
+            InMemoryDatabase.EventRow event = db.getEvent(eventID);
+            if (event != null) {
+                events.put(eventID, toSnapshot(event));
+            }
+        }
+        return events;
+    }
+
+    private static EventSnapshot toSnapshot(InMemoryDatabase.EventRow event) {
+        return new EventSnapshot(event.eventId(), event.bookingId(), event.roomId(), event.seatingConfigId(),
+                event.name(), event.eventDate(), event.startTime(), event.endTime());
+    }
+}
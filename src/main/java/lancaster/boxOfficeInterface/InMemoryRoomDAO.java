@@ -0,0 +1,46 @@
+package lancaster.boxOfficeInterface;
+
+import lancaster.utils.InMemoryDatabase;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * An implementation of the {@link RoomDAO} interface backed by the {@link InMemoryDatabase}.
+ * <p>
+ * The connection argument is ignored. The last booking time comes from the store's per-room index of event end
+ * times, so it is a single lookup rather than a sort.
+ * </p>
+ */
+class InMemoryRoomDAO implements RoomDAO {
+    private final InMemoryDatabase db;
+
+    /**
+     * Creates a room DAO over the given store.
+     *
+     * @param db the in-memory store to read from
+     */
+    InMemoryRoomDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public int getRoomCapacity(Connection connection, int roomID) throws SQLException {
+        InMemoryDatabase.RoomRow room = db.getRoom(roomID);
+        if (room == null) {
+            throw new SQLException("Room ID not found: " + roomID);
+        }
+        return room.capacity();
+    }
+
+    @Override
+    public Timestamp getLastBookingTime(Connection connection, int roomId) {
+        InMemoryDatabase.EventRow last = db.getLastEventInRoom(roomId);
+        if (last == null) {
+            return null;
+        }
+        return Timestamp.valueOf(LocalDateTime.of(last.eventDate(), last.endTime()));
+    }
+}
@@ -0,0 +1,85 @@
+package lancaster.boxOfficeInterface;
+
+import lancaster.model.Seat;
+import lancaster.model.SeatStateStore;
+import lancaster.utils.InMemoryDatabase;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * An implementation of the {@link SeatDAO} interface backed by the {@link InMemoryDatabase}.
+ * <p>
+ * The connection argument is ignored. Seats are read from the store's per-room seat plan and copied, so callers
+ * can change the returned seats without touching the store, just as with rows read from the database.
+ * </p>
+ */
+class InMemorySeatDAO implements SeatDAO {
+    private final InMemoryDatabase db;
+
+    /**
+     * Creates a seat DAO over the given store.
+     *
+     * @param db the in-memory store to read from
+     */
+    InMemorySeatDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public boolean hasAccessableSeating(Connection conn, int roomID) {
+        for (Seat seat : db.getSeats(roomID)) {
+            if (seat.isWheelchairFriendly()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<Seat> getSeatsByRoomId(Connection conn, int roomId) {
+        return copySeats(roomId, seat -> true);
+    }
+
+    @Override
+    public List<Seat> getAccessibleSeats(Connection conn, int roomId) {
+        return copySeats(roomId, Seat::isAccessible);
+    }
+
+    @Override
+    public List<Seat> getWheelchairSeats(Connection conn, int roomId) {
+        return copySeats(roomId, Seat::isWheelchairFriendly);
+    }
+
+    @Override
+    public int loadSeats(Connection conn, int roomId, SeatStateStore store) {
+        int loaded = 0;
+        for (Seat seat : db.getSeats(roomId)) {
+            if (store.loadSeat(seat.getRowNumber(), seat.getSeatNumber(), seat.isAccessible(),
+                    seat.isWheelchairFriendly())) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Copies the seats of a room that match the filter.
+     *
+     * @param roomId the unique identifier of the room
+     * @param filter which seats to include
+     * @return copies of the matching seats, ordered by row and seat number
+     */
+    private List<Seat> copySeats(int roomId, Predicate<Seat> filter) {
+        List<Seat> seats = new ArrayList<>();
+        for (Seat seat : db.getSeats(roomId)) {
+            if (filter.test(seat)) {
+                seats.add(new Seat(seat.getSeatId(), seat.getRoomId(), seat.getRowNumber(), seat.getSeatNumber(),
+                        seat.isAccessible(), seat.isWheelchairFriendly()));
+            }
+        }
+        return seats;
+    }
+}
@@ -24,11 +24,12 @@ public class RoomDAOImpl implements RoomDAO {
         String query = "SELECT capacity FROM rooms WHERE room_id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, roomID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("capacity");
-            } else {
-                throw new SQLException("Room ID not found: " + roomID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("capacity");
+                } else {
+                    throw new SQLException("Room ID not found: " + roomID);
+                }
             }
         }
     }
@@ -53,15 +54,16 @@ public class RoomDAOImpl implements RoomDAO {
         try (PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, roomId);  // Set the room_id as the parameter
 
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                // Retrieve the event date and end time
-                Date eventDate = rs.getDate("booking_date");
-                Time endTime = rs.getTime("end_time");
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    // Retrieve the event date and end time
+                    Date eventDate = rs.getDate("booking_date");
+                    Time endTime = rs.getTime("end_time");
 
-                // Combine event date and end time into a single timestamp
-                Timestamp lastBookingTime = new Timestamp(eventDate.getTime() + endTime.getTime());
-                return lastBookingTime;
+                    // Combine event date and end time into a single timestamp
+                    Timestamp lastBookingTime = new Timestamp(eventDate.getTime() + endTime.getTime());
+                    return lastBookingTime;
+                }
             }
         }
 
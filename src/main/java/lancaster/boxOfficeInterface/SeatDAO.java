@@ -1,6 +1,7 @@
 package lancaster.boxOfficeInterface;
 
 import lancaster.model.Seat;
+import lancaster.model.SeatStateStore;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -54,4 +55,18 @@ public interface SeatDAO {
      * @throws SQLException if a database access error occurs during the query
      */
     List<Seat> getWheelchairSeats(Connection conn, int roomId) throws SQLException;
+
+    /**
+     * Reads the accessibility of every seat of the specified room straight into a seat state store.
+     * <p>
+     * No {@code Seat} objects are created. Seats the store's layout does not have are skipped.
+     * </p>
+     *
+     * @param conn   the {@code Connection} object used for the database query
+     * @param roomId the unique identifier of the room
+     * @param store  the store to record the seats in
+     * @return the number of seats of the room that were found in the store's layout
+     * @throws SQLException if a database access error occurs during the query
+     */
+    int loadSeats(Connection conn, int roomId, SeatStateStore store) throws SQLException;
 }
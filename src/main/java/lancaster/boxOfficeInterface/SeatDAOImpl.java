@@ -1,6 +1,7 @@
 package lancaster.boxOfficeInterface;
 
 import lancaster.model.Seat;
+import lancaster.model.SeatStateStore;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -36,9 +37,10 @@ class SeatDAOImpl implements SeatDAO {
         String query = "SELECT COUNT(*) FROM Seats WHERE room_id = ? AND is_wheelchair_friendly = TRUE";
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, roomID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) > 0;
+                }
             }
         }
         return false;
@@ -98,6 +100,36 @@ class SeatDAOImpl implements SeatDAO {
         return executeSeatQuery(conn, query, roomId);
     }
 
+    /**
+     * Reads the accessibility of every seat of a room into a seat state store.
+     * <p>
+     * Only the four columns the store needs are selected, and each row is recorded directly from the
+     * {@code ResultSet} without building a {@code Seat}.
+     * </p>
+     *
+     * @param conn   the {@code Connection} object used for the database query
+     * @param roomId the unique identifier of the room
+     * @param store  the store to record the seats in
+     * @return the number of seats of the room that were found in the store's layout
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public int loadSeats(Connection conn, int roomId, SeatStateStore store) throws SQLException {
+        String query = "SELECT row_number, seat_number, is_accessible, is_wheelchair_friendly FROM Seats WHERE room_id = ?";
+        int loaded = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, roomId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (store.loadSeat(rs.getInt(1), rs.getInt(2), rs.getBoolean(3), rs.getBoolean(4))) {
+                        loaded++;
+                    }
+                }
+            }
+        }
+        return loaded;
+    }
+
     /**
      * Executes a seat query and maps the result set to a list of {@code Seat} objects.
      * <p>
@@ -115,15 +147,16 @@ class SeatDAOImpl implements SeatDAO {
         List<Seat> seats = new ArrayList<>();
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, roomId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                Seat seat = new Seat();
-                seat.setSeatId(rs.getInt("seat_id"));
-                seat.setRowNumber(rs.getInt("row_number"));
-                seat.setSeatNumber(rs.getInt("seat_number"));
-                seat.setAccessible(rs.getBoolean("is_accessible"));
-                seat.setWheelchairFriendly(rs.getBoolean("is_wheelchair_friendly"));
-                seats.add(seat);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Seat seat = new Seat();
+                    seat.setSeatId(rs.getInt("seat_id"));
+                    seat.setRowNumber(rs.getInt("row_number"));
+                    seat.setSeatNumber(rs.getInt("seat_number"));
+                    seat.setAccessible(rs.getBoolean("is_accessible"));
+                    seat.setWheelchairFriendly(rs.getBoolean("is_wheelchair_friendly"));
+                    seats.add(seat);
+                }
             }
         }
         return seats;
@@ -2,15 +2,17 @@ package lancaster.controller;
 
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.Cursor;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
+import lancaster.model.BookingDetails;
+import lancaster.utils.AsyncDatabase;
 import lancaster.utils.DBUtils;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.Date;
 import java.sql.SQLException;
-import java.sql.Time;
+import java.util.List;
 import java.util.ResourceBundle;
 
 /**
@@ -18,7 +20,8 @@ import java.util.ResourceBundle;
  * <p>
  * This class handles user interface logic for creating and confirming bookings,
  * including the selection of venues, choosing event dates and times, and inputting client information.
- * It configures UI components, validates user input, and interacts with the database via {@link DBUtils}.
+ * It configures UI components, validates user input, and interacts with the database via {@link DBUtils},
+ * off the JavaFX thread through {@link AsyncDatabase}.
  * </p>
  */
 public class BookingsController implements Initializable {
@@ -215,54 +218,59 @@ public class BookingsController implements Initializable {
                 alert.setContentText("Please enter all fields");
                 alert.show();
             } else {
-                try {
-                    // Initialize DBUtils to interact with the database
-                    DBUtils db = new DBUtils();
-
-                    // Check for booking conflicts at the selected venue, date, and time
-                    if (!db.bookingConflict(
-                            Date.valueOf(eventDatePicker.getValue()),
-                            Time.valueOf(startTimeBox.getValue() + ":00"),
-                            Time.valueOf(selectEndTime.getValue() + ":00"),
-                            db.getRoomId(selectVenue.getValue())
-                    )) {
-                        // Create a new booking entry
-                        db.createBooking(
-                                db.getRoomId(selectVenue.getValue()),
-                                Date.valueOf(eventDatePicker.getValue()),
-                                Date.valueOf(eventDatePicker.getValue()),
-                                clientInput.getText(),
-                                clientEmailInput.getText(),
-                                clientTelephoneInput.getText(),
-                                clientAddressInput.getText(),
-                                "pending"
-                        );
-                        // Create a new event associated with the booking
-                        db.createEvent(
-                                db.getRoomId(selectVenue.getValue()),
-                                1,
-                                eventNameInput.getText(),
-                                Date.valueOf(eventDatePicker.getValue()),
-                                Time.valueOf(startTimeBox.getValue() + ":00"),
-                                Time.valueOf(selectEndTime.getValue() + ":00")
-                        );
-                        // Show confirmation alert
-                        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-                        alert.setContentText("You have created a booking");
-                        alert.show();
-                    } else {
-                        // Notify the user if a booking conflict exists
-                        Alert alert = new Alert(Alert.AlertType.ERROR);
-                        alert.setContentText("Already an event at this time");
-                        alert.show();
-                    }
-                } catch (SQLException | IOException | ClassNotFoundException e) {
-                    throw new RuntimeException(e);
-                }
+                // Read the form on the FX thread before handing the work to the database executor
+                String venue = selectVenue.getValue();
+                String clientEmail = clientEmailInput.getText();
+                String clientPhone = clientTelephoneInput.getText();
+                String clientAddress = clientAddressInput.getText();
+
+                BookingDetails details = new BookingDetails();
+                details.setDate(eventDatePicker.getValue());
+                details.setRoom(venue);
+                details.setStartTime(startTimeBox.getValue());
+                details.setEndTime(selectEndTime.getValue());
+                details.setEventName(eventNameInput.getText());
+                details.setClientName(clientInput.getText());
+                details.setRoomType(selectConfiguration.getValue());
+
+                // Show that the booking is being saved and stop it being submitted twice
+                confirmBookingButton.setDisable(true);
+                confirmBookingButton.getScene().setCursor(Cursor.WAIT);
+
+                // Create the booking and its event together in one transaction, which also checks for clashes
+                AsyncDatabase.onFxThread(
+                        AsyncDatabase.getInstance().createBookingsWithEvents(List.of(details), clientEmail,
+                                clientPhone, clientAddress, "pending"),
+                        ids -> {
+                            finishConfirm();
+                            // Show confirmation alert
+                            Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+                            alert.setContentText("You have created a booking");
+                            alert.show();
+                        },
+                        error -> {
+                            finishConfirm();
+                            Alert alert = new Alert(Alert.AlertType.ERROR);
+                            if (error instanceof IllegalStateException) {
+                                // Notify the user if a booking conflict exists
+                                alert.setContentText("Already an event at this time: " + error.getMessage());
+                            } else {
+                                alert.setContentText("Could not save the booking: " + error.getMessage());
+                            }
+                            alert.show();
+                        });
             }
         });
     }
 
+    /**
+     * Re-enables the confirm button once the booking has been saved or has failed.
+     */
+    private void finishConfirm() {
+        confirmBookingButton.setDisable(false);
+        confirmBookingButton.getScene().setCursor(Cursor.DEFAULT);
+    }
+
     /**
      * Checks whether the selected end time is after the start time.
      * <p>
@@ -9,18 +9,19 @@ import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Parent;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import lancaster.model.Event;
-import lancaster.utils.DBUtils;
+import lancaster.utils.AsyncDatabase;
+import lancaster.utils.CalendarDataService;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.Date;
-import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.ResourceBundle;
 
 /**
@@ -88,27 +89,37 @@ public class DailySheetController implements Initializable {
     }
 
     /**
-     * Loads event data for the specified date from the database and populates the daily events table.
+     * Loads event data for the specified date and populates the daily events table.
      * <p>
-     * This method retrieves a list of events scheduled for the given date using the {@link DBUtils#getEventForDay(Date)} method,
-     * wraps the list in an {@link ObservableList}, and sets it as the data source for the table view.
+     * The events come from the {@link CalendarDataService}, which holds whole months of events. If the month was
+     * already loaded, for example because the calendar prefetched it, the table is filled straight away.
+     * Otherwise a progress indicator is shown in the table while the month is loaded in the background, and an
+     * error message replaces it if the query fails.
      * </p>
-     *
-     * @throws RuntimeException if there is an error retrieving event data from the database.
      */
     private void loadDailyData() {
-        try {
-            DBUtils db = new DBUtils();
-            // Retrieve events for the specified date and wrap them in an ObservableList.
-            ObservableList<Event> events = FXCollections.observableArrayList(
-                    db.getEventForDay(Date.valueOf(this.date))
-            );
-            // Populate the table view with the retrieved events.
-            tableDaily.setItems(events);
-        } catch (SQLException | IOException | ClassNotFoundException e) {
-            // Wrap any exceptions into a RuntimeException to signal an unrecoverable error.
-            throw new RuntimeException("Error getting daily data", e);
+        CalendarDataService calendarData = CalendarDataService.getInstance();
+        List<Event> cached = calendarData.getDayIfLoaded(this.date);
+        if (cached != null) {
+            tableDaily.setPlaceholder(new Label("No events on this day"));
+            tableDaily.setItems(FXCollections.observableArrayList(cached));
+            return;
         }
+
+        tableDaily.setItems(FXCollections.observableArrayList());
+        tableDaily.setPlaceholder(new ProgressIndicator());
+
+        AsyncDatabase.onFxThread(
+                calendarData.getDay(this.date),
+                events -> {
+                    // Populate the table view with the retrieved events.
+                    tableDaily.setPlaceholder(new Label("No events on this day"));
+                    tableDaily.setItems(FXCollections.observableArrayList(events));
+                },
+                error -> {
+                    error.printStackTrace();
+                    tableDaily.setPlaceholder(new Label("Error getting daily data"));
+                });
     }
 
     /**
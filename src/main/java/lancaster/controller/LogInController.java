@@ -5,11 +5,14 @@ import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.scene.Cursor;
 import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
-import lancaster.utils.DBUtils;
+import lancaster.utils.AsyncDatabase;
+import lancaster.utils.StartupTimer;
 
+import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
 
@@ -41,7 +44,8 @@ public class LogInController implements Initializable {
      * <ul>
      *   <li>Sets the focus to the welcome label after the application starts.</li>
      *   <li>Registers an action handler for the login button that validates input fields
-     *       and delegates the authentication process to the {@link DBUtils#loginUser(ActionEvent, String, String)} method.</li>
+     *       and checks the credentials with {@link AsyncDatabase#checkCredentials(String, String)}, so the
+     *       window stays responsive while the database is queried.</li>
      * </ul>
      * </p>
      *
@@ -55,22 +59,76 @@ public class LogInController implements Initializable {
 
         // Set up the login button's action handler.
         btn_login.setOnAction((ActionEvent event) -> {
-            try {
-                // Verify that neither the username nor the password field is empty.
-                if (!tf_password.getText().isEmpty() && !tf_username.getText().isEmpty()) {
-                    // Instantiate DBUtils to perform database operations and attempt user login.
-                    DBUtils dbUtils = new DBUtils();
-                    dbUtils.loginUser(event, tf_username.getText(), tf_password.getText());
-                } else {
-                    // Display an error alert if either the username or password field is empty.
-                    Alert alert = new Alert(Alert.AlertType.ERROR);
-                    alert.setContentText("Username/Password field is empty");
-                    alert.show();
-                }
-            } catch (Exception e) {
-                // Print the stack trace for debugging any exceptions during the login process.
-                e.printStackTrace();
+            // Verify that neither the username nor the password field is empty.
+            if (tf_password.getText().isEmpty() || tf_username.getText().isEmpty()) {
+                // Display an error alert if either the username or password field is empty.
+                showError("Username/Password field is empty");
+                return;
             }
+
+            // Time from here until the main window can be used.
+            StartupTimer.startRun("login submitted");
+
+            // Show that the login is in progress and stop it being submitted twice.
+            String buttonText = btn_login.getText();
+            btn_login.setDisable(true);
+            btn_login.setText("Signing in...");
+            btn_login.getScene().setCursor(Cursor.WAIT);
+
+            AsyncDatabase.onFxThread(
+                    AsyncDatabase.getInstance().checkCredentials(tf_username.getText(), tf_password.getText()),
+                    valid -> {
+                        restoreButton(buttonText);
+                        if (valid) {
+                            StartupTimer.mark("credentials checked");
+                            showSelectionPane();
+                        } else {
+                            showError("Provided credentials are incorrect");
+                        }
+                    },
+                    error -> {
+                        restoreButton(buttonText);
+                        error.printStackTrace();
+                        showError("Could not reach the database: " + error.getMessage());
+                    });
         });
     }
+
+    /**
+     * Re-enables the login button once the credential check has finished.
+     *
+     * @param buttonText The text the button had before the check started.
+     */
+    private void restoreButton(String buttonText) {
+        btn_login.setDisable(false);
+        btn_login.setText(buttonText);
+        btn_login.getScene().setCursor(Cursor.DEFAULT);
+    }
+
+    /**
+     * Relocates the user to the selection page after a successful login.
+     */
+    private void showSelectionPane() {
+        try {
+            Stage primaryStage = (Stage) btn_login.getScene().getWindow();
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/lancaster/ui/selectionPane.fxml"));
+            Parent selectionPane = loader.load();
+            primaryStage.getScene().setRoot(selectionPane);
+            primaryStage.show();
+        } catch (IOException e) {
+            // Print the stack trace for debugging any exceptions while loading the selection page.
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Displays an error alert with the given message.
+     *
+     * @param message The message to display.
+     */
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setContentText(message);
+        alert.show();
+    }
 }
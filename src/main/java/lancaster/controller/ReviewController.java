@@ -11,11 +11,10 @@ import javafx.scene.layout.VBox;
 import lancaster.model.Review;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import lancaster.utils.AsyncDatabase;
 import lancaster.utils.DBUtils;
 
-import java.io.IOException;
 import java.net.URL;
-import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
@@ -109,11 +108,6 @@ public class ReviewController implements Initializable {
         reviews = FXCollections.observableArrayList();
         // Retrieve the header node from the center VBox
         reviewsHeader = (HBox) centerVBox.getChildren().get(0);
-        try {
-            initializeSampleData();  // Load initial review data from the database.
-        } catch (SQLException | IOException | ClassNotFoundException e) {
-            throw new RuntimeException(e);  // Wrap and rethrow exceptions for higher-level handling.
-        }
         // Configure rating spinner: values from 1 to 5 with a default of 3.
         SpinnerValueFactory<Integer> valueFactory = new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 5, 3);
         ratingSpinner.setValueFactory(valueFactory);
@@ -139,8 +133,7 @@ public class ReviewController implements Initializable {
         addReviewForm.setVisible(false);  // Initially hide the review form.
         centerVBox.getChildren().clear();  // Clear center container.
         centerVBox.getChildren().addAll(reviewsHeader, reviewsGrid);  // Add header and review grid back into center.
-        populateReviewsGrid();  // Display reviews in the grid.
-        updateSummary();  // Update summary information such as total reviews and average rating.
+        initializeSampleData();  // Load initial review data from the database in the background.
 
         // Set up sort selection event: sorts reviews based on selected criteria and refreshes the grid.
         sortComboBox.setOnAction(event -> {
@@ -162,25 +155,30 @@ public class ReviewController implements Initializable {
     /**
      * Initializes sample review data by fetching it from the database and assigning timestamps.
      * <p>
-     * This method retrieves reviews using the {@link DBUtils#getReviews()} method, and assigns a
-     * timestamp to each review.
+     * This method retrieves reviews with {@link DBUtils#getReviews()} through {@link AsyncDatabase}, so the
+     * interface is shown straight away with a progress indicator in the grid. When the reviews arrive each is
+     * assigned a timestamp and the grid and summary are refreshed.
      * </p>
-     *
-     * @throws SQLException           If a database access error occurs.
-     * @throws IOException            If an I/O error occurs during data retrieval.
-     * @throws ClassNotFoundException If the required database driver class is not found.
      */
-    private void initializeSampleData() throws SQLException, IOException, ClassNotFoundException {
-        LocalDateTime baseTime = LocalDateTime.now();  // Base time for generating timestamps.
-        DBUtils db = new DBUtils();  // Create a database utility instance.
-        reviews.addAll(db.getReviews());  // Fetch reviews from the database.
-
-        // Assign timestamps to each review, with each timestamp 10 minutes apart.
-        for (int i = 0; i < reviews.size(); i++) {
-            LocalDateTime reviewTime = baseTime.minusMinutes(i * 10);
-            String timestamp = reviewTime.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-            reviews.get(i).setTimestamp(timestamp);
-        }
+    private void initializeSampleData() {
+        reviewsGrid.getChildren().setAll(new ProgressIndicator());  // Show progress until the reviews arrive.
+
+        AsyncDatabase.onFxThread(AsyncDatabase.getInstance().getReviews(), loaded -> {
+            LocalDateTime baseTime = LocalDateTime.now();  // Base time for generating timestamps.
+
+            // Assign timestamps to each review, with each timestamp 10 minutes apart.
+            for (int i = 0; i < loaded.size(); i++) {
+                LocalDateTime reviewTime = baseTime.minusMinutes(i * 10);
+                String timestamp = reviewTime.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
+                loaded.get(i).setTimestamp(timestamp);
+            }
+            reviews.addAll(loaded);  // Keep any review submitted while loading ahead of the fetched ones.
+            populateReviewsGrid();  // Display reviews in the grid.
+            updateSummary();  // Update summary information such as total reviews and average rating.
+        }, error -> {
+            error.printStackTrace();
+            reviewsGrid.getChildren().setAll(new Label("Could not load reviews"));
+        });
     }
 
     /**
@@ -1,7 +1,10 @@
 package lancaster.controller;
 
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
+import javafx.scene.Scene;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.layout.BorderPane;
@@ -13,12 +16,17 @@ import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 import lancaster.ui.RevenueTrackingUI;
+import lancaster.ui.ViewRegistry;
+import lancaster.utils.StartupTimer;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.time.YearMonth;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 /**
  * Controller class for managing the selection pane in the Lancaster application.
@@ -55,17 +63,22 @@ public class SelectionPaneController implements Initializable {
     @FXML
     private Button btnDailySheet;         // Button to navigate to the daily sheet view.
 
-    private FullCalendarView bookingCalendarView;      // Calendar view for booking-related scheduling.
-    private FullCalendarView regularCalendarView;      // Calendar view for regular event scheduling.
-    private FullCalendarView dailySheetCalenderView;     // Calendar view specifically for daily sheets.
-    private RevenueTrackingUI revenueTrackingUI;         // UI component for revenue tracking.
+    // Names of the views kept in the view registry, in the order they are preloaded.
+    private static final String CALENDAR_VIEW = "calendar";
+    private static final String DAILY_SHEET_CALENDAR_VIEW = "daily sheet calendar";
+    private static final String SEATING_VIEW = "seating";
+    private static final String SMALL_HALL_SEATING_VIEW = "small hall seating";
+    private static final String THEATER_SEATING_VIEW = "main hall seating";
+    private static final String ROOM_LAYOUT_VIEW = "room layouts";
+    private static final String REVENUE_VIEW = "revenue";
+
+    // How long the home pane is left alone after it is first shown before views are preloaded.
+    private static final Duration PRELOAD_DELAY = Duration.seconds(1);
+
+    private final ViewRegistry views = new ViewRegistry();   // Views created on first use or preloaded.
     private Node reviewPane;                             // Node representing the review pane.
     private Node seatingPane;                            // Node representing the seating pane.
     private Node homePane;                               // Node representing the home pane.
-    private Node smallHallSeatingPane;                   // Node for seating layout of the small hall.
-    private Node theaterSeatingPane;                     // Node for seating layout of the theater.
-    private Node roomLayoutPane;                         // Node for the room layout view.
-    private BorderPane combinedSeatingPane;              // Combined pane that holds various seating options.
 
     // Button style constants.
     private final String BUTTON_DEFAULT_STYLE = "-fx-background-color: transparent; -fx-text-fill: white; -fx-border-width: 0 0 0 5; -fx-border-color: transparent;";
@@ -77,8 +90,10 @@ public class SelectionPaneController implements Initializable {
      * Initializes the selection pane controller after FXML fields are injected.
      * <p>
      * This method sets up the home pane from the main container, configures button actions,
-     * initializes all the related UI views (calendars, seating, revenue), and resets navigation
-     * button styles to the default state.
+     * registers the related UI views (calendars, seating, revenue), and resets navigation
+     * button styles to the default state. The views are not created here: each is created when it is first
+     * opened, or preloaded in the background once the home pane has been shown, so that opening the main
+     * window only costs the home pane.
      * </p>
      *
      * @param url The location used to resolve relative paths for the root object, or {@code null} if unknown.
@@ -90,6 +105,45 @@ public class SelectionPaneController implements Initializable {
         setupButtonActions();
         initializeViews();
         resetButtonStyles();
+        StartupTimer.mark("selection pane loaded");
+        whenShown(this::onHomePaneShown);
+    }
+
+    /**
+     * Runs an action once the selection pane has been put in a scene.
+     *
+     * @param action The action, given the scene.
+     */
+    private void whenShown(Consumer<Scene> action) {
+        if (mainContainer.getScene() != null) {
+            action.accept(mainContainer.getScene());
+            return;
+        }
+        mainContainer.sceneProperty().addListener(new ChangeListener<>() {
+            @Override
+            public void changed(ObservableValue<? extends Scene> observable, Scene oldScene, Scene scene) {
+                if (scene != null) {
+                    mainContainer.sceneProperty().removeListener(this);
+                    action.accept(scene);
+                }
+            }
+        });
+    }
+
+    /**
+     * Finishes the startup timing and starts preloading the views once the home pane has been laid out, which is
+     * when the user can start using it.
+     *
+     * @param scene The scene showing the selection pane.
+     */
+    private void onHomePaneShown(Scene scene) {
+        StartupTimer.finishAfterLayout("home pane interactive", scene);
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            views.preloadWhenIdle(PRELOAD_DELAY);
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
     }
 
     /**
@@ -116,20 +170,39 @@ public class SelectionPaneController implements Initializable {
     }
 
     /**
-     * Initializes the various views used in the application.
+     * Registers the various views used in the application.
      * <p>
-     * This includes setting up the booking calendar, regular calendar, daily sheet calendar,
-     * revenue tracking UI, and seating layouts.
+     * This includes the regular calendar, daily sheet calendar, seating layouts and revenue tracking UI.
+     * Each is created by the view registry the first time it is needed.
      * </p>
      */
     private void initializeViews() {
-        bookingCalendarView = new FullCalendarView(YearMonth.now(), mainContainer, homePane);
-        regularCalendarView = new FullCalendarView(YearMonth.now(), mainContainer, homePane);
-        dailySheetCalenderView = new FullCalendarView(YearMonth.now(), mainContainer, homePane, true);
-        revenueTrackingUI = new RevenueTrackingUI();
+        views.register(CALENDAR_VIEW,
+                () -> new FullCalendarView(YearMonth.now(), mainContainer, homePane).getCalendarView());
+        views.register(DAILY_SHEET_CALENDAR_VIEW,
+                () -> new FullCalendarView(YearMonth.now(), mainContainer, homePane, true).getCalendarView());
+        views.register(SEATING_VIEW, this::createCombinedSeatingPane);
+        views.register(SMALL_HALL_SEATING_VIEW, () -> loadView("/lancaster/ui/SmallHallSeating.fxml"));
+        views.register(THEATER_SEATING_VIEW, () -> loadView("/lancaster/ui/TheaterSeatingLayout.fxml"));
+        views.register(ROOM_LAYOUT_VIEW, () -> loadView("/lancaster/ui/RoomLayout.fxml"));
+        views.register(REVENUE_VIEW, RevenueTrackingUI::new);
         // Optionally create placeholder panes if needed:
         // createPlaceholderPanes();
-        initializeSeatingPanes();
+    }
+
+    /**
+     * Loads a view from an FXML resource.
+     *
+     * @param resource The path of the FXML resource.
+     * @return The root node of the view.
+     * @throws UncheckedIOException if the resource cannot be loaded.
+     */
+    private Node loadView(String resource) {
+        try {
+            return FXMLLoader.load(getClass().getResource(resource));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load " + resource, e);
+        }
     }
 
     /**
@@ -183,39 +256,19 @@ public class SelectionPaneController implements Initializable {
         resetButtonStyles();
     }
 
-    /**
-     * Initializes seating-related panes by loading FXML files.
-     * <p>
-     * Attempts to load seating layouts from external FXML resources. In case of failure, a seating placeholder is created.
-     * </p>
-     */
-    private void initializeSeatingPanes() {
-        try {
-            FXMLLoader smallHallLoader = new FXMLLoader(getClass().getResource("/lancaster/ui/SmallHallSeating.fxml"));
-            smallHallSeatingPane = smallHallLoader.load();
-
-            FXMLLoader theaterLoader = new FXMLLoader(getClass().getResource("/lancaster/ui/TheaterSeatingLayout.fxml"));
-            theaterSeatingPane = theaterLoader.load();
-
-            FXMLLoader roomLoader = new FXMLLoader(getClass().getResource("/lancaster/ui/RoomLayout.fxml"));
-            roomLayoutPane = roomLoader.load();
-
-            createCombinedSeatingPane();
-        } catch (IOException e) {
-            e.printStackTrace();
-            createSeatingPlaceholder();
-        }
-    }
-
     /**
      * Creates a combined seating pane that allows the user to toggle between different seating layouts.
      * <p>
      * This method creates a BorderPane containing toggle buttons for "Small Hall", "Main Hall", and "Rooms".
      * The user can switch between seating layouts, and the default selection is set to "Small Hall".
+     * Each layout is taken from the view registry when it is selected, so only the layouts that are looked at
+     * are loaded.
      * </p>
+     *
+     * @return The combined seating pane.
      */
-    private void createCombinedSeatingPane() {
-        combinedSeatingPane = new BorderPane();
+    private BorderPane createCombinedSeatingPane() {
+        BorderPane combinedSeatingPane = new BorderPane();
         combinedSeatingPane.setStyle("-fx-background-color: #122023;");
 
         // Create toggle buttons for seating options.
@@ -236,7 +289,7 @@ public class SelectionPaneController implements Initializable {
         // Add listeners for toggle button selection.
         smallHallButton.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
             if (isSelected) {
-                combinedSeatingPane.setCenter(smallHallSeatingPane);
+                showSeatingLayout(combinedSeatingPane, SMALL_HALL_SEATING_VIEW);
                 smallHallButton.setStyle(TOGGLE_BUTTON_SELECTED_STYLE);
                 mainHallButton.setStyle(TOGGLE_BUTTON_STYLE);
                 roomsButton.setStyle(TOGGLE_BUTTON_STYLE);
@@ -245,7 +298,7 @@ public class SelectionPaneController implements Initializable {
 
         mainHallButton.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
             if (isSelected) {
-                combinedSeatingPane.setCenter(theaterSeatingPane);
+                showSeatingLayout(combinedSeatingPane, THEATER_SEATING_VIEW);
                 mainHallButton.setStyle(TOGGLE_BUTTON_SELECTED_STYLE);
                 smallHallButton.setStyle(TOGGLE_BUTTON_STYLE);
                 roomsButton.setStyle(TOGGLE_BUTTON_STYLE);
@@ -254,7 +307,7 @@ public class SelectionPaneController implements Initializable {
 
         roomsButton.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
             if (isSelected) {
-                combinedSeatingPane.setCenter(roomLayoutPane);
+                showSeatingLayout(combinedSeatingPane, ROOM_LAYOUT_VIEW);
                 roomsButton.setStyle(TOGGLE_BUTTON_SELECTED_STYLE);
                 smallHallButton.setStyle(TOGGLE_BUTTON_STYLE);
                 mainHallButton.setStyle(TOGGLE_BUTTON_STYLE);
@@ -271,8 +324,26 @@ public class SelectionPaneController implements Initializable {
 
         // Set default selection.
         smallHallButton.setSelected(true);
-        combinedSeatingPane.setCenter(smallHallSeatingPane);
         smallHallButton.setStyle(TOGGLE_BUTTON_SELECTED_STYLE);
+        return combinedSeatingPane;
+    }
+
+    /**
+     * Shows a seating layout in the combined seating pane, loading it if it has not been loaded yet.
+     * <p>
+     * If the layout fails to load, a seating placeholder is shown in its place.
+     * </p>
+     *
+     * @param combinedSeatingPane The combined seating pane.
+     * @param view                The name of the layout's view in the registry.
+     */
+    private void showSeatingLayout(BorderPane combinedSeatingPane, String view) {
+        try {
+            combinedSeatingPane.setCenter(views.get(view));
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            combinedSeatingPane.setCenter(createSeatingPlaceholder());
+        }
     }
 
     /**
@@ -280,8 +351,10 @@ public class SelectionPaneController implements Initializable {
      * <p>
      * This placeholder informs the user that seating arrangements could not be loaded.
      * </p>
+     *
+     * @return The placeholder pane.
      */
-    private void createSeatingPlaceholder() {
+    private Node createSeatingPlaceholder() {
         VBox seatingPlaceholder = new VBox();
         seatingPlaceholder.setStyle("-fx-background-color: #122023;");
         seatingPlaceholder.setAlignment(javafx.geometry.Pos.CENTER);
@@ -296,7 +369,7 @@ public class SelectionPaneController implements Initializable {
         seatingSubtitle.setTextFill(javafx.scene.paint.Color.web("#2ECC40"));
 
         seatingPlaceholder.getChildren().addAll(seatingTitle, seatingSubtitle);
-        combinedSeatingPane = new BorderPane(seatingPlaceholder);
+        return seatingPlaceholder;
     }
 
     /**
@@ -320,11 +393,12 @@ public class SelectionPaneController implements Initializable {
     /**
      * Displays the regular calendar view.
      * <p>
-     * Sets the regular calendar view as the main view and marks the calendar button as active.
+     * Sets the regular calendar view as the main view, creating it on first use, and marks the calendar button
+     * as active.
      * </p>
      */
     public void showRegularCalendar() {
-        mainContainer.getChildren().setAll(regularCalendarView.getCalendarView());
+        mainContainer.getChildren().setAll(views.get(CALENDAR_VIEW));
         setActiveButton(btnCalendar);
     }
 
@@ -336,7 +410,7 @@ public class SelectionPaneController implements Initializable {
      */
     @FXML
     private void showDailySheetCalendar() {
-        mainContainer.getChildren().setAll(dailySheetCalenderView.getCalendarView());
+        mainContainer.getChildren().setAll(views.get(DAILY_SHEET_CALENDAR_VIEW));
         setActiveButton(btnDailySheet);
     }
 
@@ -365,7 +439,7 @@ public class SelectionPaneController implements Initializable {
      * </p>
      */
     private void showRevenueTracking() {
-        mainContainer.getChildren().setAll(revenueTrackingUI);
+        mainContainer.getChildren().setAll(views.get(REVENUE_VIEW));
         setActiveButton(btnRevenue);
     }
 
@@ -376,7 +450,7 @@ public class SelectionPaneController implements Initializable {
      * </p>
      */
     private void showSeatingPane() {
-        mainContainer.getChildren().setAll(combinedSeatingPane);
+        mainContainer.getChildren().setAll(views.get(SEATING_VIEW));
         setActiveButton(btnSeating);
     }
 
@@ -2,17 +2,23 @@ package lancaster.controller;
 
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
-import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
-import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
+import javafx.scene.layout.Region;
+import javafx.util.StringConverter;
+import lancaster.model.Event;
+import lancaster.model.SeatStateStore;
+import lancaster.model.SeatStatus;
+import lancaster.model.SeatingLayout;
+import lancaster.model.SeatingLayouts;
+import lancaster.ui.SeatMapCanvas;
+import lancaster.utils.AsyncDatabase;
+import lancaster.utils.SeatHoldService;
 
 import java.net.URL;
+import java.time.LocalDate;
 import java.util.*;
 
 /**
@@ -32,74 +38,40 @@ public class SmallHallSeatingController implements Initializable {
     private BorderPane mainBorderPane; // Main container; used if needed for additional layout management.
 
     @FXML
-    private Pane seatingContainer; // Container pane that holds all seat nodes and additional layout elements.
+    private Pane seatingContainer; // Container pane that holds the seat map.
 
     @FXML
     private Label eventLabel; // Label to display event information related to the seating arrangement.
 
+    @FXML
+    private ComboBox<Event> eventBox; // The hall's upcoming events; seats are held and sold for the one chosen.
+
     @FXML
     private Button bookButton; // Button used to confirm the booking of selected seats.
 
-    private double scaleFactor = 1.0; // Current scale factor for zooming the seating layout.
-    private static final double SEAT_WIDTH = 20; // Width of each seat in pixels.
-    private static final double SEAT_HEIGHT = 20; // Height of each seat in pixels.
-    private static final double SEAT_SPACING = 5; // Spacing between seats in pixels.
-    private static final double AISLE_WIDTH = 15; // Width reserved for aisles (if applicable).
+    private final SeatMapCanvas seatMap = new SeatMapCanvas(); // Canvas that draws every seat, label and area.
+    private static final String ROOM = "Small Hall"; // Room whose seating layout is shown.
+    private static final String CONFIGURATION = "Standard"; // Configuration of the room's seating layout.
 
-    // Map to store the current status (AVAILABLE, RESERVED, UNAVAILABLE) for each seat by its identifier.
-    private Map<String, SeatStatus> seatStatusMap = new HashMap<>();
+    // Compiled seating plan of the hall, shared by the seat map and the seat state.
+    private final SeatingLayout layout = SeatingLayouts.getInstance().get(ROOM, CONFIGURATION);
 
-    // Set that keeps track of seat IDs currently selected by the user for booking.
-    private Set<String> selectedSeats = new HashSet<>();
+    // Status and selection of every seat, numbered as in the layout.
+    private final SeatStateStore seats = layout.newSeatStore();
 
-    /**
-     * Enum representing the various statuses a seat can have(available, reserved or unavailable).
-     * <p>
-     * Each status defines a background color, border color, and descriptive text.
-     * </p>
-     */
-    public enum SeatStatus {
-        AVAILABLE("#E8F5E9", "#4CAF50", "Available"),
-        RESERVED("#FFF8E1", "#FFA000", "Reserved"),
-        UNAVAILABLE("#FFEBEE", "#D32F2F", "Unavailable");
-
-        private final String backgroundColor;
-        private final String borderColor;
-        private final String description;
-
-        SeatStatus(String backgroundColor, String borderColor, String description) {
-            this.backgroundColor = backgroundColor;
-            this.borderColor = borderColor;
-            this.description = description;
-        }
+    private static final long HOLD_TTL_MS = 10 * 60 * 1000; // How long a selected seat is held for this terminal.
+    private static final int EVENT_DAYS_AHEAD = 90; // How far ahead the event box lists the hall's events.
 
-        /**
-         * Returns the background color associated with this seat status.
-         *
-         * @return A hexadecimal color string for the background.
-         */
-        public String getBackgroundColor() { return backgroundColor; }
-
-        /**
-         * Returns the border color associated with this seat status.
-         *
-         * @return A hexadecimal color string for the border.
-         */
-        public String getBorderColor() { return borderColor; }
-
-        /**
-         * Returns the descriptive text for this seat status.
-         *
-         * @return A description of the seat status.
-         */
-        public String getDescription() { return description; }
-    }
+    private int eventId; // The event whose seats are being sold; 0 until an event is chosen.
+
+    // Hold on each selected seat, so no other terminal can take it while it is selected.
+    private final SeatHoldService.Hold[] holds = new SeatHoldService.Hold[seats.size()];
 
     /**
      * Called to initialize the controller after its root element has been processed.
      * <p>
-     * This method sets up the scroll behavior, creates the seating layout, adds additional areas (stage, entrance, aisle),
-     * randomly initializes seat statuses, updates the seating display, and finally updates the state of the booking button.
+     * This method sets up the scroll behavior and the seat map, shows the hall's compiled seating layout (seats, stage,
+     * entrance, and aisle), randomly initializes seat statuses, updates the seating display, and finally updates the state of the booking button.
      * </p>
      *
      * @param location  The location used to resolve relative paths for the root object, or {@code null} if unknown.
@@ -107,334 +79,265 @@ public class SmallHallSeatingController implements Initializable {
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        scrollPane.setOnScroll(this::handleScroll);
+        // A filter, so Ctrl-scroll zooms instead of also scrolling the pane.
+        scrollPane.addEventFilter(ScrollEvent.SCROLL, this::handleScroll);
         scrollPane.setFitToWidth(true);
         scrollPane.setFitToHeight(true);
-        createSeatingLayout();
-        addStageArea();
-        addEntrance();
-        addAisleLabel();
+        seatingContainer.getChildren().setAll(seatMap);
+        // Keep the container at least as big as the zoomed map so the scroll pane can scroll it.
+        seatingContainer.setMinSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        seatMap.setOnSeatClicked(this::handleSeatClick);
+        seatMap.setTooltipText(seat -> seats.getSeatId(seat) + " - " + seats.getStatus(seat).getDescription());
+        seatMap.setLayout(layout);
+        eventBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Event event) {
+                return event == null ? ""
+                        : event.getName() + " - " + event.getEvent_date() + " " + event.getStart_time();
+            }
+
+            @Override
+            public Event fromString(String text) {
+                return null;
+            }
+        });
+        eventBox.valueProperty().addListener((obs, oldEvent, event) ->
+                setEventId(event == null ? 0 : event.getEvent_id()));
+        loadEvents();
         initializeRandomSeatStatuses();
         updateSeatingDisplay();
+        seatMap.redraw();
         updateBookButtonState();
     }
 
     /**
-     * Creates the seating layout by clearing the container and generating the stalls area and sound desk.
-     */
-    private void createSeatingLayout() {
-        seatingContainer.getChildren().clear();
-        double centerX = 400; // Fixed center coordinate for layout positioning.
-        createStallsArea(centerX);
-        createSoundDesk(centerX);
-    }
-
-    /**
-     * Creates the stalls area containing rows of seats.
+     * Handles a click on a seat of the seat map.
      * <p>
-     * Rows are labeled from "N" to "A" and the number of seats per row can vary.
-     * The method calculates starting positions for each row to center the seats.
+     * Toggles the selection state of the seat if it is available, updates its appearance, and adjusts the booking button state.
+     * Selecting a seat holds it for this terminal, and deselecting it releases the hold. If another terminal already holds
+     * or has sold the seat, it is shown as reserved instead. Nothing is held until an event has been chosen.
      * </p>
      *
-     * @param centerX The x-coordinate to be used as the center reference for seat layout.
+     * @param index The index of the clicked seat, in the layout and the seat state store.
      */
-    private void createStallsArea(double centerX) {
-        String[] rows = {"N", "M", "L", "K", "J", "I", "H", "G", "F", "E", "D", "C", "B", "A"};
-        double startY = 50;
-        double commonStartX = 0;
-
-        for (int rowIndex = 0; rowIndex < rows.length; rowIndex++) {
-            String row = rows[rowIndex];
-            double y = startY + rowIndex * (SEAT_HEIGHT + SEAT_SPACING);
-            int seatsPerRow;
-            double startX = 0;
-
-            if (row.equals("N")) {
-                seatsPerRow = 4;
-                double totalWidth = seatsPerRow * (SEAT_WIDTH + SEAT_SPACING) - SEAT_SPACING;
-                startX = centerX - (totalWidth / 2);
-            } else if (row.equals("M")) {
-                seatsPerRow = 4;
-                double totalWidth = seatsPerRow * (SEAT_WIDTH + SEAT_SPACING) - SEAT_SPACING;
-                double offset = SEAT_WIDTH + SEAT_SPACING;
-                startX = centerX - (totalWidth / 2) + offset;
-                commonStartX = startX;
-            } else if (row.equals("C") || row.equals("B") || row.equals("A")) {
-                seatsPerRow = 8;
-                startX = commonStartX;
+    private void handleSeatClick(int index) {
+        if (eventId == 0) {
+            showNoEventAlert();
+            return;
+        }
+        if (seats.getStatus(index) == SeatStatus.AVAILABLE) {
+            SeatHoldService holdService = SeatHoldService.getInstance();
+            if (seats.isSelected(index)) {
+                holdService.release(holds[index]);
+                holds[index] = null;
+                seats.setSelected(index, false);
             } else {
-                seatsPerRow = 7;
-                startX = commonStartX;
+                holds[index] = holdService.hold(eventId, seats, SeatHoldService.LOCAL_TERMINAL, new int[]{index},
+                        HOLD_TTL_MS);
+                if (holds[index] != null) {
+                    seats.setSelected(index, true);
+                } else {
+                    seats.setStatus(index, SeatStatus.RESERVED);
+                }
             }
-
-            // Create seat nodes for the row.
-            for (int seatNum = 1; seatNum <= seatsPerRow; seatNum++) {
-                String seatId = row + seatNum;
-                double x = startX + (seatNum - 1) * (SEAT_WIDTH + SEAT_SPACING);
-                StackPane seat = createSeat(seatId, x, y, SeatStatus.AVAILABLE);
-                seatingContainer.getChildren().add(seat);
-            }
-
-            // Add row label.
-            Label rowLabel = new Label(row);
-            rowLabel.setFont(Font.font("System", FontWeight.BOLD, 12));
-            rowLabel.setLayoutX(startX - 25);
-            rowLabel.setLayoutY(y);
-            seatingContainer.getChildren().add(rowLabel);
+            updateSeatAppearance(index);
+            updateBookButtonState();
         }
     }
 
     /**
-     * Creates and adds a sound desk to the seating layout.
+     * Updates the visual appearance of a seat based on its status and selection state.
      * <p>
-     * The sound desk is positioned to the right of the seating area.
+     * The seat map only redraws the seat if its colors or selection actually changed.
      * </p>
      *
-     * @param centerX The x-coordinate for centering purposes.
+     * @param index The index of the seat in the seat state store.
      */
-    private void createSoundDesk(double centerX) {
-        double soundDeskX = centerX + 80;
-        double soundDeskY = 50;
-
-        StackPane soundDesk = new StackPane();
-        soundDesk.setPrefSize(60, 50);
-        soundDesk.setLayoutX(soundDeskX);
-        soundDesk.setLayoutY(soundDeskY);
-        soundDesk.setStyle("-fx-background-color: #CCCCCC; -fx-background-radius: 5;");
-
-        Label soundDeskLabel = new Label("SOUND\nDESK");
-        soundDeskLabel.setFont(Font.font("System", FontWeight.BOLD, 10));
-        soundDeskLabel.setTextFill(Color.BLACK);
-
-        soundDesk.getChildren().add(soundDeskLabel);
-        seatingContainer.getChildren().add(soundDesk);
+    private void updateSeatAppearance(int index) {
+        SeatStatus status = seats.getStatus(index);
+        seatMap.setSeatColors(index, status.getFill(), status.getStroke());
+        seatMap.setSelected(index, seats.isSelected(index));
     }
 
     /**
-     * Adds a stage area to the seating layout.
+     * Iterates over all seats to update their appearance.
      * <p>
-     * The stage is placed below the lowest seat row with a fixed margin.
+     * Ensures the seat map reflects the current status of each seat; only seats that changed are redrawn.
      * </p>
      */
-    private void addStageArea() {
-        double maxY = 0;
-        for (Node node : seatingContainer.getChildren()) {
-            if (node instanceof StackPane && node.getId() != null && node.getId().startsWith("seat-")) {
-                double seatY = node.getLayoutY() + SEAT_HEIGHT;
-                if (seatY > maxY) maxY = seatY;
-            }
+    private void updateSeatingDisplay() {
+        for (int index = 0; index < seats.size(); index++) {
+            updateSeatAppearance(index);
         }
-        double stageDistance = 50;
-        StackPane stageArea = new StackPane();
-        stageArea.setPrefSize(450, 30);
-        stageArea.setLayoutX(175);
-        stageArea.setLayoutY(maxY + stageDistance);
-        stageArea.setStyle("-fx-background-color: #CCCCCC; -fx-background-radius: 5 5 0 0;");
-
-        Label stageLabel = new Label("STAGE");
-        stageLabel.setFont(Font.font("System", FontWeight.BOLD, 20));
-        stageArea.getChildren().add(stageLabel);
-
-        seatingContainer.getChildren().add(stageArea);
     }
 
     /**
-     * Adds an entrance label to the seating layout.
+     * Updates the enabled state of the booking button.
      * <p>
-     * The entrance label indicates the entry point for the hall.
+     * The button is enabled only when there is at least one selected seat.
      * </p>
      */
-    private void addEntrance() {
-        double commonStartX = 0;
-        String rowM = "M";
-        double centerX = 400;
-        double totalWidth = 4 * (SEAT_WIDTH + SEAT_SPACING) - SEAT_SPACING;
-        double offset = SEAT_WIDTH + SEAT_SPACING;
-        commonStartX = centerX - (totalWidth / 2) + offset;
-
-        double entranceX = commonStartX - 150;
-        double entranceY = 50 + 1 * (SEAT_HEIGHT + SEAT_SPACING);
-
-        Label entranceLabel = new Label("↓ ENTRANCE");
-        entranceLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
-        entranceLabel.setLayoutX(entranceX);
-        entranceLabel.setLayoutY(entranceY);
-        seatingContainer.getChildren().add(entranceLabel);
+    private void updateBookButtonState() {
+        bookButton.setDisable(eventId == 0 || seats.countSelected() == 0);
     }
 
     /**
-     * Adds an aisle label to the seating layout.
+     * Initializes seat statuses for demonstration purposes.
      * <p>
-     * The label "AISLE" is displayed vertically to indicate the presence of an aisle in the hall.
+     * This method assigns a status (AVAILABLE, RESERVED, or UNAVAILABLE) to each seat.
      * </p>
      */
-    private void addAisleLabel() {
-        double commonStartX = 0;
-        String rowM = "M";
-        double centerX = 400;
-        double totalWidth = 4 * (SEAT_WIDTH + SEAT_SPACING) - SEAT_SPACING;
-        double offset = SEAT_WIDTH + SEAT_SPACING;
-        commonStartX = centerX - (totalWidth / 2) + offset;
-
-        int rowIndexF = 6;
-        double y = 50 + rowIndexF * (SEAT_HEIGHT + SEAT_SPACING);
-        double aisleX = commonStartX - 100;
-
-        Label aisleLabel = new Label("A\nI\nS\nL\nE");
-        aisleLabel.setFont(Font.font("System", FontWeight.BOLD, 10));
-        aisleLabel.setLayoutX(aisleX);
-        aisleLabel.setLayoutY(y - 10);
-        seatingContainer.getChildren().add(aisleLabel);
+    private void initializeRandomSeatStatuses() {
+        Random random = new Random();
+        for (int index = 0; index < seats.size(); index++) {
+            int rand = random.nextInt(10);
+            seats.setStatus(index, rand < 6 ? SeatStatus.AVAILABLE : rand < 8 ? SeatStatus.RESERVED : SeatStatus.UNAVAILABLE);
+        }
     }
 
     /**
-     * Creates a seat node for the given seat identifier and status.
+     * Handles the booking action when the book button is clicked.
      * <p>
-     * Each seat is represented as a StackPane with a label, tooltip, and click handler.
+     * Displays a confirmation dialog showing the selected seats. After confirmation, this terminal's holds on the
+     * seats are confirmed in one batch; once the sale is recorded the selected seats are marked as RESERVED, and the
+     * seating display is updated. If a hold has expired or the sale fails, the holds are released and an error is shown.
      * </p>
-     *
-     * @param seatId The unique identifier for the seat.
-     * @param x      The x-coordinate where the seat is placed.
-     * @param y      The y-coordinate where the seat is placed.
-     * @param status The initial status of the seat.
-     * @return A StackPane representing the seat.
      */
-    private StackPane createSeat(String seatId, double x, double y, SeatStatus status) {
-        StackPane seat = new StackPane();
-        seat.setId("seat-" + seatId);
-        seat.setLayoutX(x);
-        seat.setLayoutY(y);
-        seat.setPrefSize(SEAT_WIDTH, SEAT_HEIGHT);
-        seat.getStyleClass().add("seat");
-        String style = "-fx-background-color: " + status.getBackgroundColor() + ";" +
-                "-fx-border-color: " + status.getBorderColor() + ";" +
-                "-fx-background-radius: 5; -fx-border-radius: 5; -fx-border-width: 1;";
-        seat.setStyle(style);
-
-        Label seatLabel = new Label(seatId);
-        seatLabel.setFont(Font.font("System", FontWeight.NORMAL, 6));
-        seatLabel.setTextFill(Color.BLACK);
-        seat.getChildren().add(seatLabel);
-
-        seatStatusMap.put(seatId, status);
-
-        // Set up mouse click handler for seat selection.
-        seat.setOnMouseClicked(event -> handleSeatClick(seatId, seat));
-        Tooltip tooltip = new Tooltip(seatId + " - " + status.getDescription());
-        Tooltip.install(seat, tooltip);
-
-        return seat;
+    @FXML
+    private void handleBookSeats() {
+        if (seats.countSelected() > 0) {
+            List<String> selectedSeats = new ArrayList<>();
+            for (int index = seats.nextSelected(0); index >= 0; index = seats.nextSelected(index + 1)) {
+                selectedSeats.add(seats.getSeatId(index));
+            }
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Booking Confirmation");
+            alert.setHeaderText("Seat Booking");
+            String seatsText = "You have selected the following seats:\n" + String.join(", ", selectedSeats);
+            alert.setContentText(seatsText);
+            alert.showAndWait();
+
+            List<SeatHoldService.Hold> selectedHolds = new ArrayList<>();
+            for (int index = seats.nextSelected(0); index >= 0; index = seats.nextSelected(index + 1)) {
+                selectedHolds.add(holds[index]);
+            }
+            bookButton.setDisable(true);
+            AsyncDatabase.onFxThread(SeatHoldService.getInstance().confirm(selectedHolds), result -> {
+                clearHolds();
+                seats.reserveSelected();
+                updateSeatingDisplay();
+                updateBookButtonState();
+            }, error -> {
+                releaseHolds();
+                updateSeatingDisplay();
+                updateBookButtonState();
+                new Alert(Alert.AlertType.ERROR, "The seats could not be booked: " + error.getMessage()).showAndWait();
+            });
+        }
     }
 
     /**
-     * Handles a click event on a seat.
-     * <p>
-     * Toggles the selection state of the seat if it is available, updates its appearance,
-     * and then updates the booking button state.
-     * </p>
-     *
-     * @param seatId The unique identifier of the clicked seat.
-     * @param seat   The StackPane representing the seat.
+     * Forgets the holds of the selected seats once they have been sold.
      */
-    private void handleSeatClick(String seatId, StackPane seat) {
-        if (seatStatusMap.get(seatId) == SeatStatus.AVAILABLE) {
-            if (selectedSeats.contains(seatId)) {
-                selectedSeats.remove(seatId);
-                updateSeatAppearance(seat, seatId, false);
-            } else {
-                selectedSeats.add(seatId);
-                updateSeatAppearance(seat, seatId, true);
-            }
-            updateBookButtonState();
+    private void clearHolds() {
+        for (int index = seats.nextSelected(0); index >= 0; index = seats.nextSelected(index + 1)) {
+            holds[index] = null;
         }
     }
 
     /**
-     * Updates the visual appearance of a seat based on its selection state.
-     *
-     * @param seat       The StackPane representing the seat.
-     * @param seatId     The unique identifier of the seat.
-     * @param isSelected True if the seat is selected, false otherwise.
+     * Releases the holds of the selected seats, if they are still held, and clears the selection.
      */
-    private void updateSeatAppearance(StackPane seat, String seatId, boolean isSelected) {
-        SeatStatus status = seatStatusMap.get(seatId);
-        String style = "-fx-background-color: " + status.getBackgroundColor() + ";" +
-                "-fx-border-color: " + status.getBorderColor() + ";" +
-                "-fx-background-radius: 5; -fx-border-radius: 5; -fx-border-width: " + (isSelected ? "2" : "1") + ";";
-        if (isSelected) style += "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.8), 10, 0, 0, 0);";
-        seat.setStyle(style);
+    private void releaseHolds() {
+        SeatHoldService holdService = SeatHoldService.getInstance();
+        for (int index = seats.nextSelected(0); index >= 0; index = seats.nextSelected(index + 1)) {
+            holdService.release(holds[index]);
+            holds[index] = null;
+        }
+        seats.clearSelection();
     }
 
     /**
-     * Iterates over all seat nodes to update their appearance.
+     * Lists the hall's events from today on in the event box, choosing the first.
      * <p>
-     * Ensures the UI reflects the current status of each seat and re-installs tooltips.
+     * The events are read on the database executor. If they cannot be read the box stays empty, and no seat can be
+     * held until an event is chosen.
      * </p>
      */
-    private void updateSeatingDisplay() {
-        seatingContainer.getChildren().forEach(node -> {
-            if (node instanceof StackPane && node.getId() != null && node.getId().startsWith("seat-")) {
-                String seatId = node.getId().substring(5);
-                boolean isSelected = selectedSeats.contains(seatId);
-                updateSeatAppearance((StackPane) node, seatId, isSelected);
-                SeatStatus status = seatStatusMap.get(seatId);
-                Tooltip.install(node, new Tooltip(seatId + " - " + status.getDescription()));
+    private void loadEvents() {
+        LocalDate today = LocalDate.now();
+        AsyncDatabase.onFxThread(AsyncDatabase.getInstance().submit(db -> db.getEventsBetween(
+                java.sql.Date.valueOf(today), java.sql.Date.valueOf(today.plusDays(EVENT_DAYS_AHEAD)))), events -> {
+            events.removeIf(event -> !ROOM.equals(event.getRoom_name()));
+            eventBox.getItems().setAll(events);
+            if (!events.isEmpty()) {
+                eventBox.setValue(events.get(0));
             }
+        }, error -> {
+            error.printStackTrace();
+            eventBox.setPromptText("Events could not be loaded");
         });
     }
 
     /**
-     * Updates the enabled state of the booking button.
-     * <p>
-     * The button is enabled only when there is at least one selected seat.
-     * </p>
+     * Tells the user to choose an event before selecting seats.
      */
-    private void updateBookButtonState() {
-        bookButton.setDisable(selectedSeats.isEmpty());
+    private void showNoEventAlert() {
+        new Alert(Alert.AlertType.INFORMATION, "Choose an event before selecting seats.").showAndWait();
     }
 
     /**
-     * Initializes seat statuses for demonstration purposes.
+     * Sets the event whose seats are sold, releasing any seats held for the previous event.
      * <p>
-     * This method assigns a status (AVAILABLE, RESERVED, or UNAVAILABLE) to each seat.
+     * This is called when an event is chosen in the event box. With no event, 0, seats cannot be held or booked.
+     * Otherwise every seat is shown as available and the seats already sold for the event are then loaded.
      * </p>
+     *
+     * @param eventId The identifier of the event, or 0 for none.
      */
-    private void initializeRandomSeatStatuses() {
-        Random random = new Random();
-        for (String seatId : seatStatusMap.keySet()) {
-            int rand = random.nextInt(10);
-            seatStatusMap.put(seatId, rand < 6 ? SeatStatus.AVAILABLE : rand < 8 ? SeatStatus.RESERVED : SeatStatus.UNAVAILABLE);
+    public void setEventId(int eventId) {
+        releaseHolds();
+        this.eventId = eventId;
+        if (eventId != 0) {
+            seats.reset();
+            loadSoldSeats(eventId);
         }
+        updateSeatingDisplay();
+        updateBookButtonState();
     }
 
     /**
-     * Handles the booking action when the book button is clicked.
+     * Marks the seats sold for an event, by this or any other terminal, as reserved.
      * <p>
-     * Displays a confirmation dialog showing the selected seats. After confirmation,
-     * the selected seats are marked as RESERVED, and the seating display is updated.
+     * The sold seats are read on the database executor. If another event has been chosen by the time they arrive,
+     * they are ignored.
      * </p>
+     *
+     * @param eventId The identifier of the event.
      */
-    @FXML
-    private void handleBookSeats() {
-        if (!selectedSeats.isEmpty()) {
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Booking Confirmation");
-            alert.setHeaderText("Seat Booking");
-            String seatsText = "You have selected the following seats:\n" + String.join(", ", selectedSeats);
-            alert.setContentText(seatsText);
-            alert.showAndWait();
-            for (String seatId : selectedSeats) seatStatusMap.put(seatId, SeatStatus.RESERVED);
-            selectedSeats.clear();
-            updateSeatingDisplay();
+    private void loadSoldSeats(int eventId) {
+        AsyncDatabase.onFxThread(SeatHoldService.getInstance().loadSoldSeats(eventId, seats), sold -> {
+            if (eventId != this.eventId) {
+                return;
+            }
+            for (int index : sold) {
+                if (seats.isSelected(index)) {
+                    SeatHoldService.getInstance().release(holds[index]);
+                    holds[index] = null;
+                }
+                seats.setStatus(index, SeatStatus.RESERVED);
+                updateSeatAppearance(index);
+            }
             updateBookButtonState();
-        }
+        }, error -> new Alert(Alert.AlertType.ERROR,
+                "The sold seats could not be loaded: " + error.getMessage()).showAndWait());
     }
 
     /**
      * Handles scroll events to implement zoom functionality on the seating layout.
      * <p>
-     * When the Control key is pressed, the scale factor is adjusted (zoom in or out) within a defined range
-     * and applied to the seating container.
+     * When the Control key is pressed, the zoom is adjusted (zoom in or out) within a defined range
+     * and the seat map is redrawn at the new scale.
      * </p>
      *
      * @param event The ScrollEvent triggered by the user.
@@ -442,9 +345,7 @@ public class SmallHallSeatingController implements Initializable {
     private void handleScroll(ScrollEvent event) {
         if (event.isControlDown()) {
             double deltaY = event.getDeltaY();
-            scaleFactor = Math.max(0.5, Math.min(3.0, deltaY > 0 ? scaleFactor * 1.1 : scaleFactor / 1.1));
-            seatingContainer.setScaleX(scaleFactor);
-            seatingContainer.setScaleY(scaleFactor);
+            seatMap.setZoom(deltaY > 0 ? seatMap.getZoom() * 1.1 : seatMap.getZoom() / 1.1);
             event.consume();
         }
     }
@@ -452,16 +353,17 @@ public class SmallHallSeatingController implements Initializable {
     /**
      * Updates the status of a specific seat.
      * <p>
-     * If the seat exists, its status is updated and the seating display is refreshed.
+     * If the seat exists, its status is updated and the seat is redrawn.
      * </p>
      *
      * @param seatId The identifier of the seat to update.
      * @param status The new status to set.
      */
     public void updateSeatStatus(String seatId, SeatStatus status) {
-        if (seatStatusMap.containsKey(seatId)) {
-            seatStatusMap.put(seatId, status);
-            updateSeatingDisplay();
+        int index = seats.indexOf(seatId);
+        if (index >= 0) {
+            seats.setStatus(index, status);
+            updateSeatAppearance(index);
         }
     }
 
@@ -2,17 +2,24 @@ package lancaster.controller;
 
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
-import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
-import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
+import javafx.scene.layout.Region;
+import javafx.util.StringConverter;
+import lancaster.model.Event;
+import lancaster.model.SeatAllocator;
+import lancaster.model.SeatStateStore;
+import lancaster.model.SeatStatus;
+import lancaster.model.SeatingLayout;
+import lancaster.model.SeatingLayouts;
+import lancaster.ui.SeatMapCanvas;
+import lancaster.utils.AsyncDatabase;
+import lancaster.utils.SeatHoldService;
 
 import java.net.URL;
+import java.time.LocalDate;
 import java.util.*;
 
 /**
@@ -32,74 +39,65 @@ public class TheaterSeatingController implements Initializable {
     private BorderPane mainBorderPane; // Main container (if used for additional layout management).
 
     @FXML
-    private Pane seatingContainer; // Container that holds all seat nodes and related layout elements.
+    private Pane seatingContainer; // Container that holds the seat map.
 
     @FXML
     private Label eventLabel; // Label to display current event information.
 
+    @FXML
+    private ComboBox<Event> eventBox; // The hall's upcoming events; seats are held and sold for the one chosen.
+
     @FXML
     private Button bookButton; // Button that confirms booking of selected seats.
 
-    private double scaleFactor = 1.0; // Current scaling factor for zoom operations.
+    @FXML
+    private Spinner<Integer> partySizeSpinner; // Number of seats to find with Best Available.
 
-    private static final double SEAT_WIDTH = 20; // Width of each seat in pixels.
-    private static final double SEAT_HEIGHT = 20; // Height of each seat in pixels.
-    private static final double SEAT_SPACING = 5; // Spacing between seats in pixels.
+    @FXML
+    private ComboBox<String> sectionBox; // Part of the hall Best Available looks in.
 
-    // Map that holds the current status of each seat identified by its seat ID.
-    private Map<String, SeatStatus> seatStatusMap = new HashMap<>();
+    @FXML
+    private CheckBox wheelchairCheck; // Whether Best Available must include a wheelchair place.
 
-    // Set of seat IDs that are currently selected for booking.
-    private Set<String> selectedSeats = new HashSet<>();
+    @FXML
+    private CheckBox splitCheck; // Whether Best Available may seat the party in two rows.
 
-    /**
-     * Enum representing the possible status values for a seat.
-     * <p>
-     * Each status contains its own background color, border color, and a descriptive text.
-     * </p>
-     */
-    public enum SeatStatus {
-        AVAILABLE("#E8F5E9", "#4CAF50", "Available"),
-        RESERVED("#FFF8E1", "#FFA000", "Reserved"),
-        UNAVAILABLE("#FFEBEE", "#D32F2F", "Unavailable");
-
-        private final String backgroundColor;
-        private final String borderColor;
-        private final String description;
-
-        SeatStatus(String backgroundColor, String borderColor, String description) {
-            this.backgroundColor = backgroundColor;
-            this.borderColor = borderColor;
-            this.description = description;
-        }
+    private final SeatMapCanvas seatMap = new SeatMapCanvas(); // Canvas that draws every seat and the stage.
 
-        /**
-         * Returns the background color associated with this seat status.
-         *
-         * @return a String representing the background color in hex format.
-         */
-        public String getBackgroundColor() { return backgroundColor; }
-
-        /**
-         * Returns the border color associated with this seat status.
-         *
-         * @return a String representing the border color in hex format.
-         */
-        public String getBorderColor() { return borderColor; }
-
-        /**
-         * Returns the descriptive text for this seat status.
-         *
-         * @return a String describing the seat status.
-         */
-        public String getDescription() { return description; }
-    }
+    private static final String ROOM = "Main Hall"; // Room whose seating layout is shown.
+    private static final String CONFIGURATION = "Standard"; // Configuration of the room's seating layout.
+
+    private static final String ANY_SECTION = "Any";
+    private static final String STALLS_SECTION = "Stalls";
+    private static final String BALCONY_SECTION = "Balcony";
+    private static final int MAX_ALLOCATION_ATTEMPTS = 5; // Tries when other terminals hold the seats found.
+
+    // Compiled seating plan of the hall, shared by the seat map, the seat state, and the allocator.
+    private final SeatingLayout layout = SeatingLayouts.getInstance().get(ROOM, CONFIGURATION);
+
+    // Status and selection of every seat, numbered as in the layout.
+    private final SeatStateStore seats = layout.newSeatStore();
+
+    // Finds the best free block for a party, scoring by distance to the stage.
+    private final SeatAllocator allocator = new SeatAllocator(seats, layout);
+
+    private final int stallsLastRow = layout.indexOfRow("Q"); // Rows up to Q are the stalls.
+    private final int balconyFirstRow = layout.indexOfRow("AA"); // Rows from AA on are the balcony.
+
+    private static final long HOLD_TTL_MS = 10 * 60 * 1000; // How long a selected seat is held for this terminal.
+    private static final int EVENT_DAYS_AHEAD = 90; // How far ahead the event box lists the hall's events.
+
+    private int eventId; // The event whose seats are being sold; 0 until an event is chosen.
+
+    // Hold on each selected seat, so no other terminal can take it while it is selected. The seats of a block found by
+    // Best Available share one hold.
+    private final SeatHoldService.Hold[] holds = new SeatHoldService.Hold[seats.size()];
 
     /**
      * Initializes the TheaterSeatingController after the FXML elements have been injected.
      * <p>
-     * This method sets up the scroll pane, creates the seating layout, adds additional layout elements
-     * (such as stage area), initializes seat statuses, and updates the seating display and booking button state.
+     * This method sets up the scroll pane and the seat map, shows the hall's compiled seating layout, initializes seat
+     * statuses, and updates the seating display and booking button state.
      * </p>
      *
      * @param location  The location used to resolve relative paths for the root object, or {@code null} if unknown.
@@ -107,348 +105,374 @@ public class TheaterSeatingController implements Initializable {
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        // A filter, so Ctrl-scroll zooms instead of also scrolling the pane.
+        scrollPane.addEventFilter(ScrollEvent.SCROLL, this::handleScroll);
         scrollPane.setFitToWidth(true);
         scrollPane.setFitToHeight(true);
-        createSeatingLayout();
-        addStageArea();
+        seatingContainer.getChildren().setAll(seatMap);
+        // Keep the container at least as big as the zoomed map so the scroll pane can scroll it.
+        seatingContainer.setMinSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        seatMap.setOnSeatClicked(this::handleSeatClick);
+        seatMap.setTooltipText(seat -> seats.getSeatId(seat) + " - " + seats.getStatus(seat).getDescription());
+        partySizeSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 10, 2));
+        sectionBox.getItems().setAll(ANY_SECTION, STALLS_SECTION, BALCONY_SECTION);
+        sectionBox.setValue(ANY_SECTION);
+        seatMap.setLayout(layout);
+        eventBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Event event) {
+                return event == null ? ""
+                        : event.getName() + " - " + event.getEvent_date() + " " + event.getStart_time();
+            }
+
+            @Override
+            public Event fromString(String text) {
+                return null;
+            }
+        });
+        eventBox.valueProperty().addListener((obs, oldEvent, event) -> {
+            setEventId(event == null ? 0 : event.getEvent_id());
+            if (event != null) {
+                setRoomId(event.getRoom_id());
+            }
+        });
+        loadEvents();
         initializeRandomSeatStatuses();
         updateSeatingDisplay();
+        seatMap.redraw();
         // Update the book button's enabled state based on seat selections.
         updateBookButtonState();
     }
 
     /**
-     * Creates the seating layout for the theater.
+     * Handles a click on a seat of the seat map.
      * <p>
-     * This method clears the seating container and generates the seating layout by creating balcony areas,
-     * a stalls area, and adding section labels.
+     * Toggles the selection state of the seat if it is available, updates its appearance, and adjusts the booking button state.
+     * Selecting a seat holds it for this terminal, and deselecting it releases the hold, together with the rest of its
+     * block if Best Available chose it. If another terminal already holds or has sold the seat, it is shown as reserved
+     * instead. Nothing is held until an event has been chosen.
      * </p>
-     */
-    private void createSeatingLayout() {
-        seatingContainer.getChildren().clear();
-        double centerX = 500; // Center position used to horizontally center the seating layout.
-        createBalconyAreas(centerX);
-        createStallsArea(centerX);
-        createSectionLabel("BALCONY", centerX - 50, 10);
-        createSectionLabel("STALLS", centerX - 50, 200);
-    }
-
-    /**
-     * Creates the three balcony areas: left, right, and center.
      *
-     * @param centerX The horizontal center coordinate used for layout calculations.
+     * @param index The index of the clicked seat, in the layout and the seat state store.
      */
-    private void createBalconyAreas(double centerX) {
-        createLeftBalconyArea();
-        createRightBalconyArea();
-        createCenterBalconyArea(centerX);
+    private void handleSeatClick(int index) {
+        if (eventId == 0) {
+            showNoEventAlert();
+            return;
+        }
+        if (seats.getStatus(index) == SeatStatus.AVAILABLE) {
+            SeatHoldService holdService = SeatHoldService.getInstance();
+            if (seats.isSelected(index)) {
+                releaseHold(index);
+            } else {
+                holds[index] = holdService.hold(eventId, seats, SeatHoldService.LOCAL_TERMINAL, new int[]{index},
+                        HOLD_TTL_MS);
+                if (holds[index] != null) {
+                    seats.setSelected(index, true);
+                } else {
+                    seats.setStatus(index, SeatStatus.RESERVED);
+                }
+            }
+            updateSeatAppearance(index);
+            updateBookButtonState();
+        }
     }
 
     /**
-     * Creates the center balcony area with rows of seats.
-     *
-     * @param centerX The horizontal center coordinate for centering the balcony rows.
+     * Handles the Best Available button.
+     * <p>
+     * Finds the best free block for the party size, section, and wheelchair needs chosen in the toolbar, holds it for
+     * this terminal, and selects it, keeping any seats already selected. If another terminal holds one of the seats
+     * found, that seat is shown as reserved and the search is repeated.
+     * </p>
      */
-    private void createCenterBalconyArea(double centerX) {
-        String[] rowLabels = {"CC", "BB", "AA"};
-        int[] startSeatNums = {1, 6, 21};
-        int[] endSeatNums = {8, 23, 33};
-        double centerBalconyStartY = 40;
-
-        for (int rowIndex = 0; rowIndex < rowLabels.length; rowIndex++) {
-            String row = rowLabels[rowIndex];
-            int startSeat = startSeatNums[rowIndex];
-            int endSeat = endSeatNums[rowIndex];
-            int numSeats = endSeat - startSeat + 1;
-
-            double totalWidthRow = numSeats * (SEAT_WIDTH + SEAT_SPACING) - SEAT_SPACING;
-            double rowStartX = centerX - (totalWidthRow / 2);
-            double y = centerBalconyStartY + rowIndex * (SEAT_HEIGHT + SEAT_SPACING);
-
-            for (int seatNum = startSeat; seatNum <= endSeat; seatNum++) {
-                String seatId = row + seatNum;
-                double x = rowStartX + (seatNum - startSeat) * (SEAT_WIDTH + SEAT_SPACING);
-                StackPane seat = createSeat(seatId, x, y, SeatStatus.AVAILABLE);
-                seatingContainer.getChildren().add(seat);
+    @FXML
+    private void handleBestAvailable() {
+        if (eventId == 0) {
+            showNoEventAlert();
+            return;
+        }
+        int partySize = partySizeSpinner.getValue();
+        int firstRow = BALCONY_SECTION.equals(sectionBox.getValue()) ? balconyFirstRow : 0;
+        int lastRow = STALLS_SECTION.equals(sectionBox.getValue()) ? stallsLastRow : seats.getRowCount() - 1;
+        int wheelchairPlaces = wheelchairCheck.isSelected() ? 1 : 0;
+
+        for (int attempt = 0; attempt < MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            int[] block = allocator.allocate(partySize, firstRow, lastRow, wheelchairPlaces, splitCheck.isSelected());
+            if (block == null) {
+                break;
+            }
+            if (holdBlock(block)) {
+                updateBookButtonState();
+                return;
             }
         }
+        updateBookButtonState();
+        new Alert(Alert.AlertType.INFORMATION, "There are no " + partySize
+                + " free seats together that match the request.").showAndWait();
     }
 
     /**
-     * Creates the left balcony area.
+     * Holds every seat of a block for this terminal in one hold and selects them.
      * <p>
-     * This area contains two sets of seats with identifiers starting with "BB" and "AA".
+     * The block is held all or nothing, so no seat of it is held if any is taken. The seats another terminal holds or
+     * has sold are then marked as reserved, so the next search avoids them, and nothing is selected.
      * </p>
+     *
+     * @param block The indexes of the seats in the seat state store.
+     * @return {@code true} if the whole block was held and selected.
      */
-    private void createLeftBalconyArea() {
-        double balconyStartX = 50;
-        double balconyStartY = 40;
-
-        int bbSeatCount = 5;
-        double bbX = balconyStartX;
-        for (int i = bbSeatCount; i >= 1; i--) {
-            double y = balconyStartY + (bbSeatCount - i) * (SEAT_HEIGHT + SEAT_SPACING);
-            String seatId = "BB" + i;
-            StackPane seat = createSeat(seatId, bbX, y, SeatStatus.AVAILABLE);
-            seatingContainer.getChildren().add(seat);
+    private boolean holdBlock(int[] block) {
+        SeatHoldService holdService = SeatHoldService.getInstance();
+        SeatHoldService.Hold hold = holdService.hold(eventId, seats, SeatHoldService.LOCAL_TERMINAL, block,
+                HOLD_TTL_MS);
+        if (hold == null) {
+            for (int index : block) {
+                if (!holdService.isFree(eventId, index)) {
+                    seats.setStatus(index, SeatStatus.RESERVED);
+                    updateSeatAppearance(index);
+                }
+            }
+            return false;
         }
-
-        int aaSeatCount = 20;
-        double aaX = balconyStartX + (SEAT_WIDTH + SEAT_SPACING) * 2;
-        for (int i = aaSeatCount; i >= 1; i--) {
-            double y = balconyStartY + (aaSeatCount - i) * (SEAT_HEIGHT + SEAT_SPACING);
-            String seatId = "AA" + i;
-            StackPane seat = createSeat(seatId, aaX, y, SeatStatus.AVAILABLE);
-            seatingContainer.getChildren().add(seat);
+        for (int index : block) {
+            holds[index] = hold;
+            seats.setSelected(index, true);
+            updateSeatAppearance(index);
         }
+        return true;
     }
 
     /**
-     * Creates the right balcony area.
+     * Releases the hold on a selected seat and deselects every seat it covers.
      * <p>
-     * This method creates two sets of seats for the right balcony with identifiers starting with "AA" and "BB".
+     * A block found by Best Available is held as one, so deselecting any of its seats lets go of the whole block.
      * </p>
+     *
+     * @param index The index of the seat in the seat state store.
      */
-    private void createRightBalconyArea() {
-        double balconyStartX = 830;
-        double balconyStartY = 40;
-
-        int aaSeatCount = 20;
-        double aaX = balconyStartX;
-        for (int i = 0; i < aaSeatCount; i++) {
-            double y = balconyStartY + i * (SEAT_HEIGHT + SEAT_SPACING);
-            int seatNumber = 34 + i;
-            String seatId = "AA" + seatNumber;
-            StackPane seat = createSeat(seatId, aaX, y, SeatStatus.AVAILABLE);
-            seatingContainer.getChildren().add(seat);
-        }
-
-        int bbSeatCount = 5;
-        double bbX = balconyStartX + (SEAT_WIDTH + SEAT_SPACING) * 2;
-        for (int i = 0; i < bbSeatCount; i++) {
-            double y = balconyStartY + i * (SEAT_HEIGHT + SEAT_SPACING);
-            int seatNumber = 24 + i;
-            String seatId = "BB" + seatNumber;
-            StackPane seat = createSeat(seatId, bbX, y, SeatStatus.AVAILABLE);
-            seatingContainer.getChildren().add(seat);
+    private void releaseHold(int index) {
+        SeatHoldService.Hold hold = holds[index];
+        SeatHoldService.getInstance().release(hold);
+        for (int seat : hold.getSeats()) {
+            holds[seat] = null;
+            seats.setSelected(seat, false);
+            updateSeatAppearance(seat);
         }
     }
 
     /**
-     * Creates the stalls area for the theater seating.
+     * Updates the visual appearance of a seat based on its status and selection state.
      * <p>
-     * This method iterates through defined stall rows, determines the number of seats per row,
-     * and generates seat nodes accordingly.
+     * The seat map only redraws the seat if its colors or selection actually changed.
      * </p>
      *
-     * @param centerX The horizontal center coordinate to center each row.
+     * @param index The index of the seat in the seat state store.
      */
-    private void createStallsArea(double centerX) {
-        String[] stallRows = {"Q", "P", "O", "N", "M", "L", "K", "J", "I", "H", "G", "F", "E", "D", "C", "B", "A"};
-        double startY = 220;
-
-        for (int rowIndex = 0; rowIndex < stallRows.length; rowIndex++) {
-            String row = stallRows[rowIndex];
-            int seatsPerRow;
-            switch (row) {
-                case "Q":
-                    seatsPerRow = 10;
-                    break;
-                case "P":
-                    seatsPerRow = 11;
-                    break;
-                case "O":
-                    seatsPerRow = 20;
-                    break;
-                case "M":
-                    seatsPerRow = 16;
-                    break;
-                default:
-                    seatsPerRow = 19;
-                    break;
-            }
-
-            double totalWidthRow = seatsPerRow * (SEAT_WIDTH + SEAT_SPACING) - SEAT_SPACING;
-            double startX = centerX - (totalWidthRow / 2);
-            double y = startY + rowIndex * (SEAT_HEIGHT + SEAT_SPACING);
+    private void updateSeatAppearance(int index) {
+        SeatStatus status = seats.getStatus(index);
+        seatMap.setSeatColors(index, status.getFill(), status.getStroke());
+        seatMap.setSelected(index, seats.isSelected(index));
+    }
 
-            for (int seatNum = 1; seatNum <= seatsPerRow; seatNum++) {
-                String seatId = row + seatNum;
-                double x = startX + (seatNum - 1) * (SEAT_WIDTH + SEAT_SPACING);
-                StackPane seat = createSeat(seatId, x, y, SeatStatus.AVAILABLE);
-                seatingContainer.getChildren().add(seat);
-            }
+    /**
+     * Iterates through all seats to update their appearance based on current status and selection.
+     */
+    private void updateSeatingDisplay() {
+        for (int index = 0; index < seats.size(); index++) {
+            updateSeatAppearance(index);
         }
     }
 
     /**
-     * Adds a stage area below the seating layout.
+     * Updates the enabled state of the booking button.
      * <p>
-     * The stage area is created as a StackPane with a label "STAGE" and is positioned based on the maximum y-coordinate of the seats.
+     * The booking button is enabled only if at least one seat is selected.
      * </p>
      */
-    private void addStageArea() {
-        double maxY = 0;
-        for (Node node : seatingContainer.getChildren()) {
-            if (node instanceof StackPane) {
-                double seatY = node.getLayoutY() + SEAT_HEIGHT;
-                if (seatY > maxY) maxY = seatY;
-            }
-        }
-        StackPane stageArea = new StackPane();
-        stageArea.setPrefSize(1000, 25);
-        stageArea.setLayoutX(0);
-        stageArea.setLayoutY(maxY + 5);
-        stageArea.setStyle("-fx-background-color: #CCCCCC; -fx-background-radius: 5 5 0 0;");
-        Label stageLabel = new Label("STAGE");
-        stageLabel.setFont(Font.font("System", FontWeight.BOLD, 20));
-        stageArea.getChildren().add(stageLabel);
-        seatingContainer.getChildren().add(stageArea);
+    private void updateBookButtonState() {
+        bookButton.setDisable(eventId == 0 || seats.countSelected() == 0);
     }
 
     /**
-     * Creates a seat node with the given identifier, coordinates, and status.
+     * Initializes seat statuses for all seats.
      * <p>
-     * Each seat is represented as a StackPane with a label and tooltip.
-     * A click handler is assigned to allow selection if the seat is available.
+     * For demonstration purposes, each seat is assigned a status:
+     * AVAILABLE, RESERVED, or UNAVAILABLE.
      * </p>
-     *
-     * @param seatId The unique identifier for the seat.
-     * @param x The x-coordinate for the seat placement.
-     * @param y The y-coordinate for the seat placement.
-     * @param status The initial status for the seat.
-     * @return A StackPane representing the seat.
      */
-    private StackPane createSeat(String seatId, double x, double y, SeatStatus status) {
-        StackPane seat = new StackPane();
-        seat.setId("seat-" + seatId);
-        seat.setLayoutX(x);
-        seat.setLayoutY(y);
-        seat.setPrefSize(SEAT_WIDTH, SEAT_HEIGHT);
-        seat.getStyleClass().add("seat");
-        String style = "-fx-background-color: " + status.getBackgroundColor() + ";" +
-                "-fx-border-color: " + status.getBorderColor() + ";" +
-                "-fx-background-radius: 5; -fx-border-radius: 5; -fx-border-width: 1;";
-        seat.setStyle(style);
-
-        Label seatLabel = new Label(seatId);
-        seatLabel.setFont(Font.font("System", FontWeight.NORMAL, 6));
-        seatLabel.setTextFill(Color.BLACK);
-        seat.getChildren().add(seatLabel);
-
-        seatStatusMap.put(seatId, status);
-        seat.setOnMouseClicked(event -> handleSeatClick(seatId, seat));
-        Tooltip tooltip = new Tooltip(seatId + " - " + status.getDescription());
-        Tooltip.install(seat, tooltip);
-
-        return seat;
+    private void initializeRandomSeatStatuses() {
+        Random random = new Random();
+        for (int index = 0; index < seats.size(); index++) {
+            int rand = random.nextInt(10);
+            seats.setStatus(index, rand < 6 ? SeatStatus.AVAILABLE : rand < 8 ? SeatStatus.RESERVED : SeatStatus.UNAVAILABLE);
+        }
     }
 
     /**
-     * Handles a mouse click event on a seat.
+     * Handles the booking action when the booking button is clicked.
      * <p>
-     * Toggles the selection state of the seat if it is available, updates its appearance, and adjusts the booking button state.
+     * Displays a confirmation dialog with the selected seat IDs, then confirms this terminal's holds on them in one
+     * batch. Once the sale is recorded the seats are marked as RESERVED, the current selection is cleared, and the
+     * seating display is updated. If a hold has expired or the sale fails, the holds are released and an error is shown.
      * </p>
-     *
-     * @param seatId The unique identifier of the clicked seat.
-     * @param seat The StackPane representing the seat.
      */
-    private void handleSeatClick(String seatId, StackPane seat) {
-        if (seatStatusMap.get(seatId) == SeatStatus.AVAILABLE) {
-            if (selectedSeats.contains(seatId)) {
-                selectedSeats.remove(seatId);
-                updateSeatAppearance(seat, seatId, false);
-            } else {
-                selectedSeats.add(seatId);
-                updateSeatAppearance(seat, seatId, true);
+    @FXML
+    private void handleBookSeats() {
+        if (seats.countSelected() > 0) {
+            List<String> selectedSeats = new ArrayList<>();
+            for (int index = seats.nextSelected(0); index >= 0; index = seats.nextSelected(index + 1)) {
+                selectedSeats.add(seats.getSeatId(index));
             }
-            updateBookButtonState();
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Booking Confirmation");
+            alert.setHeaderText("Seat Booking");
+            String seatsText = "You have selected the following seats:\n" + String.join(", ", selectedSeats);
+            alert.setContentText(seatsText);
+            alert.showAndWait();
+
+            //a block's seats share a hold, which is confirmed once
+            Set<SeatHoldService.Hold> selectedHolds = new LinkedHashSet<>();
+            for (int index = seats.nextSelected(0); index >= 0; index = seats.nextSelected(index + 1)) {
+                selectedHolds.add(holds[index]);
+            }
+            bookButton.setDisable(true);
+            AsyncDatabase.onFxThread(SeatHoldService.getInstance().confirm(selectedHolds), result -> {
+                clearHolds();
+                seats.reserveSelected();
+                updateSeatingDisplay();
+                updateBookButtonState();
+            }, error -> {
+                releaseHolds();
+                updateSeatingDisplay();
+                updateBookButtonState();
+                new Alert(Alert.AlertType.ERROR, "The seats could not be booked: " + error.getMessage()).showAndWait();
+            });
         }
     }
 
     /**
-     * Updates the visual appearance of a seat based on its selection state.
-     *
-     * @param seat The StackPane representing the seat.
-     * @param seatId The unique identifier of the seat.
-     * @param isSelected True if the seat is selected; false otherwise.
+     * Forgets the holds of the selected seats once they have been sold.
      */
-    private void updateSeatAppearance(StackPane seat, String seatId, boolean isSelected) {
-        SeatStatus status = seatStatusMap.get(seatId);
-        String style = "-fx-background-color: " + status.getBackgroundColor() + ";" +
-                "-fx-border-color: " + status.getBorderColor() + ";" +
-                "-fx-background-radius: 5; -fx-border-radius: 5; -fx-border-width: " + (isSelected ? "2" : "1") + ";";
-        if (isSelected) style += "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.8), 10, 0, 0, 0);";
-        seat.setStyle(style);
+    private void clearHolds() {
+        for (int index = seats.nextSelected(0); index >= 0; index = seats.nextSelected(index + 1)) {
+            holds[index] = null;
+        }
     }
 
     /**
-     * Iterates through all seat nodes to update their appearance based on current status and selection.
+     * Releases the holds of the selected seats, if they are still held, and clears the selection.
      */
-    private void updateSeatingDisplay() {
-        seatingContainer.getChildren().forEach(node -> {
-            if (node instanceof StackPane && node.getId() != null && node.getId().startsWith("seat-")) {
-                String seatId = node.getId().substring(5);
-                boolean isSelected = selectedSeats.contains(seatId);
-                updateSeatAppearance((StackPane) node, seatId, isSelected);
-                SeatStatus status = seatStatusMap.get(seatId);
-                Tooltip.install(node, new Tooltip(seatId + " - " + status.getDescription()));
-            }
-        });
+    private void releaseHolds() {
+        SeatHoldService holdService = SeatHoldService.getInstance();
+        for (int index = seats.nextSelected(0); index >= 0; index = seats.nextSelected(index + 1)) {
+            holdService.release(holds[index]);
+            holds[index] = null;
+        }
+        seats.clearSelection();
     }
 
     /**
-     * Updates the enabled state of the booking button.
+     * Lists the hall's events from today on in the event box, choosing the first.
      * <p>
-     * The booking button is enabled only if at least one seat is selected.
+     * The events are read on the database executor. If they cannot be read the box stays empty, and no seat can be
+     * held until an event is chosen.
      * </p>
      */
-    private void updateBookButtonState() {
-        bookButton.setDisable(selectedSeats.isEmpty());
+    private void loadEvents() {
+        LocalDate today = LocalDate.now();
+        AsyncDatabase.onFxThread(AsyncDatabase.getInstance().submit(db -> db.getEventsBetween(
+                java.sql.Date.valueOf(today), java.sql.Date.valueOf(today.plusDays(EVENT_DAYS_AHEAD)))), events -> {
+            events.removeIf(event -> !ROOM.equals(event.getRoom_name()));
+            eventBox.getItems().setAll(events);
+            if (!events.isEmpty()) {
+                eventBox.setValue(events.get(0));
+            }
+        }, error -> {
+            error.printStackTrace();
+            eventBox.setPromptText("Events could not be loaded");
+        });
     }
 
     /**
-     * Initializes seat statuses for all seats.
+     * Tells the user to choose an event before selecting seats.
+     */
+    private void showNoEventAlert() {
+        new Alert(Alert.AlertType.INFORMATION, "Choose an event before selecting seats.").showAndWait();
+    }
+
+    /**
+     * Sets the event whose seats are sold, releasing any seats held for the previous event.
      * <p>
-     * For demonstration purposes, each seat is assigned a status:
-     * AVAILABLE, RESERVED, or UNAVAILABLE.
+     * This is called when an event is chosen in the event box. With no event, 0, seats cannot be held or booked.
+     * Otherwise every seat is shown as available and the seats already sold for the event are then loaded.
      * </p>
+     *
+     * @param eventId The identifier of the event, or 0 for none.
      */
-    private void initializeRandomSeatStatuses() {
-        Random random = new Random();
-        for (String seatId : seatStatusMap.keySet()) {
-            int rand = random.nextInt(10);
-            seatStatusMap.put(seatId, rand < 6 ? SeatStatus.AVAILABLE : rand < 8 ? SeatStatus.RESERVED : SeatStatus.UNAVAILABLE);
+    public void setEventId(int eventId) {
+        releaseHolds();
+        this.eventId = eventId;
+        if (eventId != 0) {
+            seats.reset();
+            loadSoldSeats(eventId);
         }
+        updateSeatingDisplay();
+        updateBookButtonState();
     }
 
     /**
-     * Handles the booking action when the booking button is clicked.
+     * Marks the seats sold for an event, by this or any other terminal, as reserved.
      * <p>
-     * Displays a confirmation dialog with the selected seat IDs, then marks those seats as RESERVED,
-     * clears the current selection, and updates the seating display.
+     * The sold seats are read on the database executor. If another event has been chosen by the time they arrive,
+     * they are ignored.
      * </p>
+     *
+     * @param eventId The identifier of the event.
      */
-    @FXML
-    private void handleBookSeats() {
-        if (!selectedSeats.isEmpty()) {
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Booking Confirmation");
-            alert.setHeaderText("Seat Booking");
-            String seatsText = "You have selected the following seats:\n" + String.join(", ", selectedSeats);
-            alert.setContentText(seatsText);
-            alert.showAndWait();
-            for (String seatId : selectedSeats) seatStatusMap.put(seatId, SeatStatus.RESERVED);
-            selectedSeats.clear();
-            updateSeatingDisplay();
+    private void loadSoldSeats(int eventId) {
+        AsyncDatabase.onFxThread(SeatHoldService.getInstance().loadSoldSeats(eventId, seats), sold -> {
+            if (eventId != this.eventId) {
+                return;
+            }
+            for (int index : sold) {
+                if (seats.isSelected(index)) {
+                    releaseHold(index);
+                }
+                seats.setStatus(index, SeatStatus.RESERVED);
+                updateSeatAppearance(index);
+            }
             updateBookButtonState();
-        }
+        }, error -> new Alert(Alert.AlertType.ERROR,
+                "The sold seats could not be loaded: " + error.getMessage()).showAndWait());
+    }
+
+    /**
+     * Loads which seats are accessible and which are wheelchair places from the room's seat table, for Best Available.
+     * <p>
+     * The seats are read on the database executor and copied into the layout on the JavaFX thread.
+     * </p>
+     *
+     * @param roomId The identifier of the room whose seats are shown.
+     */
+    public void setRoomId(int roomId) {
+        AsyncDatabase.onFxThread(AsyncDatabase.getInstance().submitBoxOffice(boxOffice -> {
+            SeatStateStore loaded = layout.newSeatStore();
+            boxOffice.loadSeats(roomId, loaded);
+            return loaded;
+        }), loaded -> {
+            for (int index = 0; index < seats.size(); index++) {
+                seats.loadSeat(seats.rowOf(index) + 1, seats.seatNumberOf(index),
+                        loaded.isAccessible(index), loaded.isWheelchair(index));
+            }
+        }, error -> new Alert(Alert.AlertType.ERROR,
+                "The seat details could not be loaded: " + error.getMessage()).showAndWait());
     }
 
     /**
      * Handles scroll events to implement zooming on the seating layout.
      * <p>
-     * When the Control key is pressed while scrolling, the seating container is scaled (zoomed in or out)
+     * When the Control key is pressed while scrolling, the seat map is redrawn at a larger or smaller scale
      * based on the scroll delta, within a defined range.
      * </p>
      *
@@ -457,45 +481,25 @@ public class TheaterSeatingController implements Initializable {
     private void handleScroll(ScrollEvent event) {
         if (event.isControlDown()) {
             double deltaY = event.getDeltaY();
-            scaleFactor = Math.max(0.5, Math.min(3.0, deltaY > 0 ? scaleFactor * 1.1 : scaleFactor / 1.1));
-            seatingContainer.setScaleX(scaleFactor);
-            seatingContainer.setScaleY(scaleFactor);
+            seatMap.setZoom(deltaY > 0 ? seatMap.getZoom() * 1.1 : seatMap.getZoom() / 1.1);
             event.consume();
         }
     }
 
     /**
-     * Updates the status of a specific seat and refreshes the seating display.
+     * Updates the status of a specific seat and redraws it.
      *
      * @param seatId The identifier of the seat to update.
      * @param status The new status for the seat.
      */
     public void updateSeatStatus(String seatId, SeatStatus status) {
-        if (seatStatusMap.containsKey(seatId)) {
-            seatStatusMap.put(seatId, status);
-            updateSeatingDisplay();
+        int index = seats.indexOf(seatId);
+        if (index >= 0) {
+            seats.setStatus(index, status);
+            updateSeatAppearance(index);
         }
     }
 
-    /**
-     * Creates and adds a section label to the seating container.
-     * <p>
-     * Section labels (e.g., "BALCONY" or "STALLS") help denote different areas within the seating layout.
-     * </p>
-     *
-     * @param text The text to display in the label.
-     * @param x The x-coordinate for label placement.
-     * @param y The y-coordinate for label placement.
-     */
-    private void createSectionLabel(String text, double x, double y) {
-        Label label = new Label(text);
-        label.setFont(Font.font("System", FontWeight.BOLD, 14));
-        label.setTextFill(Color.BLACK);
-        label.setLayoutX(x);
-        label.setLayoutY(y);
-        seatingContainer.getChildren().add(label);
-    }
-
     /**
      * Sets the event information to be displayed on the seating layout.
      * <p>
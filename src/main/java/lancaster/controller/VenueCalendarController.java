@@ -1,7 +1,10 @@
 package lancaster.controller;
 
 import lancaster.model.BookingDetails;
+import lancaster.model.SlotAvailability;
+import lancaster.utils.FxFrameProfiler;
 import lancaster.model.VenueStatus;
+import javafx.css.PseudoClass;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
@@ -9,7 +12,6 @@ import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 
@@ -70,12 +72,35 @@ public class VenueCalendarController implements Initializable {
     );
 
     /**
-     * A map storing booking status data.
+     * Booking status of every room, kept as a bitset of 15-minute slots per room and day.
      * <p>
-     * The key is the room name and the value is another map containing booking date/times and their venue statuses.
+     * Rooms are indexed by their position in {@link #rooms}.
      * </p>
      */
-    private Map<String, Map<LocalDateTime, VenueStatus>> bookings = new HashMap<>();
+    private final SlotAvailability availability = new SlotAvailability(rooms.size());
+
+    /**
+     * Position of each room in {@link #rooms}, keyed by room name.
+     */
+    private final Map<String, Integer> roomIndexes = new HashMap<>();
+
+    private static final int FIRST_HOUR = 10;   // First time slot shown on the calendar
+    private static final int LAST_HOUR = 24;    // Time slots run up to midnight
+
+    // States of a booking cell, styled by the venue-slot rules in bookingStyles.css
+    private static final PseudoClass AVAILABLE = PseudoClass.getPseudoClass("available");
+    private static final PseudoClass RESERVED = PseudoClass.getPseudoClass("reserved");
+    private static final PseudoClass UNAVAILABLE = PseudoClass.getPseudoClass("unavailable");
+
+    /**
+     * The booking cells of the grid, by time slot row and room column. They are created once and updated in place.
+     */
+    private BookingData[][] cells;
+
+    /**
+     * One tooltip shared by every booking cell, created the first time a cell is hovered.
+     */
+    private Tooltip cellTooltip;
 
     private double scaleFactor = 1.0;
     private LocalDate currentDate = LocalDate.now();
@@ -104,6 +129,9 @@ public class VenueCalendarController implements Initializable {
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        for (int i = 0; i < rooms.size(); i++) {
+            roomIndexes.put(rooms.get(i), i);
+        }
         datePicker.setValue(currentDate);
         updateCurrentDateLabel();
         mainBorderPane.setOnScroll(this::handleScroll);
@@ -112,18 +140,19 @@ public class VenueCalendarController implements Initializable {
             updateCurrentDateLabel();
             populateCalendar();
         });
+        buildCalendarGrid();
         populateCalendar();
     }
 
     /**
-     * Populates the calendar grid with time slots and room booking cells.
+     * Builds the calendar grid with time slots and room booking cells.
      * <p>
-     * The grid is first cleared and its constraints are reset.
      * A time column and a header row with room names are created followed by time slot rows from 10:00 AM to midnight.
-     * For each time slot and room, a cell is created reflecting the booking status.
+     * For each time slot and room, an empty booking cell is created. This runs once; changing the date or the
+     * bookings only updates the cells through {@link #populateCalendar()}.
      * </p>
      */
-    private void populateCalendar() {
+    private void buildCalendarGrid() {
         calendarGrid.getChildren().clear();
         calendarGrid.getColumnConstraints().clear();
         calendarGrid.getRowConstraints().clear();
@@ -146,7 +175,7 @@ public class VenueCalendarController implements Initializable {
         // Add header cell for Time / Room
         VBox headerBox = new VBox();
         headerBox.setAlignment(Pos.CENTER);
-        headerBox.setStyle("-fx-background-color: #F5F5F5; -fx-padding: 10; -fx-border-color: #E0E0E0; -fx-border-width: 0 1 1 0;");
+        headerBox.getStyleClass().add("venue-header");
         Label headerLabel = new Label("Time / Room");
         headerLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
         headerBox.getChildren().add(headerLabel);
@@ -156,7 +185,7 @@ public class VenueCalendarController implements Initializable {
         for (int i = 0; i < rooms.size(); i++) {
             VBox roomHeader = new VBox();
             roomHeader.setAlignment(Pos.CENTER);
-            roomHeader.setStyle("-fx-background-color: #F5F5F5; -fx-padding: 10; -fx-border-color: #E0E0E0; -fx-border-width: 0 1 1 0;");
+            roomHeader.getStyleClass().add("venue-header");
             Label roomLabel = new Label(rooms.get(i));
             roomLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
             roomLabel.setWrapText(true);
@@ -165,14 +194,15 @@ public class VenueCalendarController implements Initializable {
         }
 
         // Create time slots from 10:00 AM to midnight (00:00)
-        int rowIndex = 1;
-        for (int hour = 10; hour < 24; hour++) {
-            LocalTime startTime = LocalTime.of(hour % 24, 0);
+        cells = new BookingData[LAST_HOUR - FIRST_HOUR][rooms.size()];
+        for (int hour = FIRST_HOUR; hour < LAST_HOUR; hour++) {
+            int rowIndex = hour - FIRST_HOUR + 1;
+            LocalTime startTime = LocalTime.of(hour, 0);
             LocalTime endTime = startTime.plusHours(1);
             // Create time label cell
             VBox timeBox = new VBox();
             timeBox.setAlignment(Pos.CENTER);
-            timeBox.setStyle("-fx-background-color: #F5F5F5; -fx-padding: 10; -fx-border-color: #E0E0E0; -fx-border-width: 0 1 1 0;");
+            timeBox.getStyleClass().add("venue-header");
             String timeText = startTime.format(timeFormatter) + " - " + endTime.format(timeFormatter);
             Label timeLabel = new Label(timeText);
             timeBox.getChildren().add(timeLabel);
@@ -180,96 +210,123 @@ public class VenueCalendarController implements Initializable {
 
             // Create cells for each room at the current time slot
             for (int i = 0; i < rooms.size(); i++) {
-                String room = rooms.get(i);
-                LocalDateTime dateTime = LocalDateTime.of(currentDate, startTime);
-                VenueStatus status = getBookingStatus(room, dateTime);
-                StackPane cellPane = createBookingCell(room, dateTime, status);
-                calendarGrid.add(cellPane, i + 1, rowIndex);
+                BookingData cell = createBookingCell(rooms.get(i), startTime);
+                cells[hour - FIRST_HOUR][i] = cell;
+                calendarGrid.add(cell.pane, i + 1, rowIndex);
+            }
+        }
+    }
+
+    /**
+     * Updates every booking cell to show the current date.
+     * <p>
+     * Each cell looks up its status for the current date and only touches its nodes if the status changed, so
+     * moving between days allocates no scene-graph nodes.
+     * </p>
+     */
+    private void populateCalendar() {
+        FxFrameProfiler.begin("venue calendar", calendarGrid.getScene());
+        for (int hour = FIRST_HOUR; hour < LAST_HOUR; hour++) {
+            LocalTime startTime = LocalTime.of(hour, 0);
+            LocalTime endTime = startTime.plusHours(1);
+            for (int i = 0; i < rooms.size(); i++) {
+                BookingData cell = cells[hour - FIRST_HOUR][i];
+                cell.dateTime = LocalDateTime.of(currentDate, startTime);
+                updateBookingCell(cell, getBookingStatus(i, currentDate, startTime, endTime));
             }
-            rowIndex++;
         }
     }
 
     /**
-     * Creates and returns a booking cell for a specific room and time.
+     * Creates a booking cell for a specific room and time slot.
      * <p>
-     * This cell visually represents the booking status using color coding and includes a tooltip with detailed information.
+     * The cell starts out empty; {@link #updateBookingCell(BookingData, VenueStatus)} gives it a status. A tooltip
+     * with detailed information is attached the first time the cell is hovered.
      * </p>
      *
-     * @param room     the room name.
-     * @param dateTime the specific date and time slot for the booking.
-     * @param status   the current booking status for the slot.
-     * @return a {@link StackPane} representing the booking cell.
+     * @param room      the room name.
+     * @param startTime the start of the time slot.
+     * @return the {@link BookingData} holding the cell's nodes.
      */
-    private StackPane createBookingCell(String room, LocalDateTime dateTime, VenueStatus status) {
+    private BookingData createBookingCell(String room, LocalTime startTime) {
         StackPane cellPane = new StackPane();
+        cellPane.getStyleClass().add("venue-slot");
         cellPane.setPadding(new Insets(10));
-        cellPane.setUserData(new BookingData(room, dateTime, status));
-
-        // Apply style based on the booking status
-        switch (status) {
-            case AVAILABLE:
-                cellPane.setStyle("-fx-background-color: #E8F5E9; -fx-border-color: #E0E0E0; -fx-border-width: 0 1 1 0;");
-                break;
-            case RESERVED:
-                cellPane.setStyle("-fx-background-color: #FFF8E1; -fx-border-color: #E0E0E0; -fx-border-width: 0 1 1 0;");
-                break;
-            case UNAVAILABLE:
-                cellPane.setStyle("-fx-background-color: #FFEBEE; -fx-border-color: #E0E0E0; -fx-border-width: 0 1 1 0;");
-                break;
-        }
 
         VBox content = new VBox(5);
         content.setAlignment(Pos.CENTER);
 
-        Label statusLabel = new Label(status.name());
+        Label statusLabel = new Label();
+        statusLabel.getStyleClass().add("venue-slot-status");
         statusLabel.setWrapText(true);
 
-        // Apply text color based on status
-        switch (status) {
-            case AVAILABLE:
-                statusLabel.setTextFill(Color.valueOf("#4CAF50"));
-                break;
-            case RESERVED:
-                statusLabel.setTextFill(Color.valueOf("#FFA000"));
-                break;
-            case UNAVAILABLE:
-                statusLabel.setTextFill(Color.valueOf("#D32F2F"));
-                break;
-        }
-
         content.getChildren().add(statusLabel);
         cellPane.getChildren().add(content);
 
-        // Set tooltip with detailed booking information
-        Tooltip tooltip = new Tooltip(room + "\n" +
-                dateTime.format(DateTimeFormatter.ofPattern("HH:mm")) + " - " +
-                dateTime.plusHours(1).format(DateTimeFormatter.ofPattern("HH:mm")) + "\n" +
-                status.getDescription());
-        Tooltip.install(cellPane, tooltip);
+        BookingData cell = new BookingData(room, LocalDateTime.of(currentDate, startTime), null, cellPane, statusLabel);
+        cellPane.setUserData(cell);
+        cellPane.setOnMouseEntered(event -> showCellTooltip(cell));
+        return cell;
+    }
 
-        return cellPane;
+    /**
+     * Shows a booking status in a cell, using color coding, if it differs from the status already shown.
+     * <p>
+     * The colours come from the stylesheet; the cell only switches its status pseudo-class, so no style string is
+     * parsed when the status changes.
+     * </p>
+     *
+     * @param cell   the cell to update.
+     * @param status the current booking status for the slot.
+     */
+    private void updateBookingCell(BookingData cell, VenueStatus status) {
+        if (status == cell.status) {
+            return;
+        }
+        cell.status = status;
+
+        cell.pane.pseudoClassStateChanged(AVAILABLE, status == VenueStatus.AVAILABLE);
+        cell.pane.pseudoClassStateChanged(RESERVED, status == VenueStatus.RESERVED);
+        cell.pane.pseudoClassStateChanged(UNAVAILABLE, status == VenueStatus.UNAVAILABLE);
+        cell.statusLabel.setText(status.name());
+    }
+
+    /**
+     * Points the shared tooltip at a cell when the mouse enters it, creating the tooltip on first use.
+     *
+     * @param cell the cell being hovered.
+     */
+    private void showCellTooltip(BookingData cell) {
+        if (cellTooltip == null) {
+            cellTooltip = new Tooltip();
+        }
+        if (!cell.tooltipInstalled) {
+            Tooltip.install(cell.pane, cellTooltip);
+            cell.tooltipInstalled = true;
+        }
+        // Set tooltip with detailed booking information
+        cellTooltip.setText(cell.room + "\n" +
+                cell.dateTime.format(timeFormatter) + " - " +
+                cell.dateTime.plusHours(1).format(timeFormatter) + "\n" +
+                cell.status.getDescription());
     }
 
     /**
      * Updates the calendar grid with a list of booking details.
      * <p>
-     * For each booking detail, the booking status of the corresponding room and time slot is set to UNAVAILABLE,
-     * and the calendar is refreshed to reflect these changes.
+     * For each booking detail, every slot of the corresponding room from the booking's start time to its end time
+     * is set to UNAVAILABLE, and the calendar is refreshed to reflect these changes. Bookings for rooms that are
+     * not shown on the calendar are ignored.
      * </p>
      *
      * @param bookingList a list of {@link BookingDetails} containing booking information.
      */
     public void updateCalendarWithBookings(List<BookingDetails> bookingList) {
         for (BookingDetails booking : bookingList) {
-            LocalTime startTime = LocalTime.parse(booking.getStartTime());
-            LocalDateTime dateTime = LocalDateTime.of(booking.getDate(), startTime);
-            if (bookings.containsKey(booking.getRoom())) {
-                bookings.get(booking.getRoom()).put(dateTime, VenueStatus.UNAVAILABLE);
-            } else {
-                Map<LocalDateTime, VenueStatus> roomBookings = new HashMap<>();
-                roomBookings.put(dateTime, VenueStatus.UNAVAILABLE);
-                bookings.put(booking.getRoom(), roomBookings);
+            Integer room = roomIndexes.get(booking.getRoom());
+            if (room != null) {
+                availability.mark(room, booking.getDate(), LocalTime.parse(booking.getStartTime()),
+                        LocalTime.parse(booking.getEndTime()), VenueStatus.UNAVAILABLE);
             }
         }
         populateCalendar();
@@ -359,44 +416,51 @@ public class VenueCalendarController implements Initializable {
     /**
      * Retrieves the booking status for a given room and time slot.
      * <p>
-     * Checks if there is a booked status for the room at the specific date and time,
-     * otherwise returns {@code AVAILABLE} as the default status.
+     * The status is read from the slot bitsets: the slot is {@code UNAVAILABLE} if any part of it is booked,
+     * otherwise {@code AVAILABLE} unless part of it is reserved.
      * </p>
      *
-     * @param room     the room name.
-     * @param dateTime the date and time slot to check for a booking.
+     * @param room      the index of the room in the room list.
+     * @param date      the date of the time slot.
+     * @param startTime the start of the time slot.
+     * @param endTime   the end of the time slot, midnight meaning the end of the day.
      * @return the {@link VenueStatus} associated with the given room and time slot.
      */
-    private VenueStatus getBookingStatus(String room, LocalDateTime dateTime) {
-        if (bookings.containsKey(room) && bookings.get(room).containsKey(dateTime)) {
-            return bookings.get(room).get(dateTime);
-        }
-        return VenueStatus.AVAILABLE; // Default status
+    private VenueStatus getBookingStatus(int room, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        return availability.getStatus(room, date, startTime, endTime);
     }
 
     /**
      * A helper class to encapsulate booking data for each calendar cell.
      * <p>
-     * This data structure stores the room name, the date/time of the booking, and its current status.
-     * It is set as the user data for each booking cell in the calendar grid.
+     * This data structure stores the room name, the date/time of the booking, and its current status, along with
+     * the cell's nodes so they can be updated in place. It is set as the user data for each booking cell in the
+     * calendar grid.
      * </p>
      */
     private static class BookingData {
         String room;
         LocalDateTime dateTime;
         VenueStatus status;
+        final StackPane pane;
+        final Label statusLabel;
+        boolean tooltipInstalled;
 
         /**
-         * Constructs a {@code BookingData} instance with specified room, time, and status.
+         * Constructs a {@code BookingData} instance with specified room, time, status and nodes.
          *
-         * @param room     the room name.
-         * @param dateTime the date and time associated with the booking.
-         * @param status   the booking status.
+         * @param room        the room name.
+         * @param dateTime    the date and time associated with the booking.
+         * @param status      the booking status, or {@code null} before the cell is first shown.
+         * @param pane        the cell's root node.
+         * @param statusLabel the label showing the status.
          */
-        BookingData(String room, LocalDateTime dateTime, VenueStatus status) {
+        BookingData(String room, LocalDateTime dateTime, VenueStatus status, StackPane pane, Label statusLabel) {
             this.room = room;
             this.dateTime = dateTime;
             this.status = status;
+            this.pane = pane;
+            this.statusLabel = statusLabel;
         }
     }
 }
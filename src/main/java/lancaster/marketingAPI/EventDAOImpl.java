@@ -18,6 +18,9 @@ import java.util.List;
  *This class is part of the marketing API to query events based on their status and schedules.
  */
 public class EventDAOImpl implements EventDAO {
+    //Event columns joined with the room name, so mapping a row never needs a second query
+    private static final String EVENT_COLUMNS =
+            "SELECT e.*, r.room_name FROM events e LEFT JOIN rooms r ON e.room_id = r.room_id ";
 
     /**
      * Retrieves all events with a status of "SCHEDULED" from the database.
@@ -29,10 +32,10 @@ public class EventDAOImpl implements EventDAO {
     @Override
     public List<Event> getAllScheduledEvents(Connection connection) throws SQLException {
         List<Event> events = new ArrayList<>();
-        String query = "SELECT * FROM events WHERE status = 'SCHEDULED'";
+        String query = EVENT_COLUMNS + "WHERE e.status = 'SCHEDULED'";
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        try (PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 events.add(mapRowToEvent(rs));
@@ -52,7 +55,7 @@ public class EventDAOImpl implements EventDAO {
     @Override
     public Event getEventById(Connection connection, String eventId) throws SQLException {
         Event event = null;
-        String query = "SELECT * FROM events WHERE event_id = ?";
+        String query = EVENT_COLUMNS + "WHERE e.event_id = ?";
 
         try (PreparedStatement pstmt = connection.prepareStatement(query)) {
             pstmt.setString(1, eventId);
@@ -75,10 +78,10 @@ public class EventDAOImpl implements EventDAO {
     @Override
     public List<Event> getUpcomingEvents(Connection connection) throws SQLException {
         List<Event> events = new ArrayList<>();
-        String query = "SELECT * FROM events WHERE event_date >= NOW() AND event_date <= DATE_ADD(NOW(), INTERVAL 2 DAY)";
+        String query = EVENT_COLUMNS + "WHERE e.event_date >= NOW() AND e.event_date <= DATE_ADD(NOW(), INTERVAL 2 DAY)";
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        try (PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 events.add(mapRowToEvent(rs));
@@ -91,7 +94,7 @@ public class EventDAOImpl implements EventDAO {
      * Maps the current row of the given {@code ResultSet} to an {@link Event} object.
      * <p>
      * This is a helper method that extracts event details such as event ID, booking ID, room ID,
-     * seating configuration ID, event name, date, start time, and end time.
+     * room name, seating configuration ID, event name, date, start time, and end time.
      * </p>
      *
      * @param rs the {@code ResultSet} positioned at the current row of event data
@@ -103,6 +106,7 @@ public class EventDAOImpl implements EventDAO {
                 rs.getInt("event_id"),
                 rs.getInt("booking_id"),
                 rs.getInt("room_id"),
+                rs.getString("room_name"),
                 rs.getInt("seating_config_id"),
                 rs.getString("name"),
                 rs.getDate("event_date"),
@@ -0,0 +1,84 @@
+package lancaster.marketingAPI;
+
+import lancaster.model.Event;
+import lancaster.utils.InMemoryDatabase;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An implementation of the {@link EventDAO} interface backed by the {@link InMemoryDatabase}.
+ * <p>
+ * The connection argument is ignored. Upcoming events are read from the store's date index, so only the days in
+ * the two-day window are visited.
+ * </p>
+ *
+ * This class is part of the marketing API and is used for load testing without a database.
+ */
+class InMemoryEventDAO implements EventDAO {
+    private final InMemoryDatabase db;
+
+    /**
+     * Creates an event DAO over the given store.
+     *
+     * @param db the in-memory store to read from
+     */
+    InMemoryEventDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<Event> getAllScheduledEvents(Connection connection) {
+        List<Event> events = new ArrayList<>();
+        for (InMemoryDatabase.EventRow row : db.getEvents()) {
+            if ("SCHEDULED".equals(row.status())) {
+                events.add(toEvent(row));
+            }
+        }
+        return events;
+    }
+
+    @Override
+    public Event getEventById(Connection connection, String eventId) {
+        InMemoryDatabase.EventRow row;
+        try {
+            row = db.getEvent(Integer.parseInt(eventId.trim()));
+        } catch (NumberFormatException e) {
+            //a non-numeric ID matches nothing, as it would in the SQL comparison
+            return null;
+        }
+        return row == null ? null : toEvent(row);
+    }
+
+    @Override
+    public List<Event> getUpcomingEvents(Connection connection) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plusDays(2);
+        List<Event> events = new ArrayList<>();
+        for (InMemoryDatabase.EventRow row : db.getEventsBetween(now.toLocalDate(), until.toLocalDate())) {
+            //event_date has no time, so it compares as midnight like it does in MySQL
+            LocalDateTime eventDate = row.eventDate().atStartOfDay();
+            if (!eventDate.isBefore(now) && !eventDate.isAfter(until)) {
+                events.add(toEvent(row));
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Maps a stored event row to an {@link Event}, resolving the room name from the store.
+     *
+     * @param row the stored event
+     * @return the event value
+     */
+    private Event toEvent(InMemoryDatabase.EventRow row) {
+        InMemoryDatabase.RoomRow room = db.getRoom(row.roomId());
+        return new Event(row.eventId(), row.bookingId(), row.roomId(), room == null ? null : room.roomName(),
+                row.seatingConfigId(), row.name(), Date.valueOf(row.eventDate()),
+                Time.valueOf(row.startTime()), Time.valueOf(row.endTime()));
+    }
+}
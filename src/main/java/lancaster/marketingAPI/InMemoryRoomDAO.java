@@ -0,0 +1,41 @@
+package lancaster.marketingAPI;
+
+import lancaster.model.Room;
+import lancaster.utils.InMemoryDatabase;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An implementation of the {@link RoomDAO} interface backed by the {@link InMemoryDatabase}.
+ * <p>
+ * The connection argument is ignored. Rooms are mapped the same way as {@link RoomDAOImpl} maps database rows.
+ * </p>
+ *
+ * This class is part of the marketing API and is used for load testing without a database.
+ */
+class InMemoryRoomDAO implements RoomDAO {
+    private final InMemoryDatabase db;
+
+    /**
+     * Creates a room DAO over the given store.
+     *
+     * @param db the in-memory store to read from
+     */
+    InMemoryRoomDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<Room> getAllRooms(Connection connection) {
+        List<Room> rooms = new ArrayList<>();
+        for (InMemoryDatabase.RoomRow row : db.getRooms()) {
+            List<Integer> capacities = List.of(row.capacity(), row.classroomCapacity(), row.boardroomCapacity(),
+                    row.presentationCapacity());
+            rooms.add(new Room(row.roomId(), row.roomName(), capacities, row.facilities(), row.bookingPriority(),
+                    row.usageRestrictions()));
+        }
+        return rooms;
+    }
+}
@@ -4,53 +4,59 @@ import lancaster.boxOfficeInterface.BoxOfficeJDBC;
 import lancaster.model.Event;
 import lancaster.model.Room;
 import lancaster.model.Seat;
+import lancaster.utils.ConnectionPool;
+import lancaster.utils.InMemoryDatabase;
+import lancaster.utils.StorageBackend;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Properties;
 
 /**
  * The {@code MarketingJDBC} class utilises the methods that need a connection to the database.
  * <p>
- * This class uses all of the methods that will require a {@code connection} to the database via JDBC
+ * This class uses all of the methods that will require a {@code connection} to the database via JDBC.
+ * Every call borrows a {@code connection} from the shared {@link ConnectionPool} and returns it afterwards.
+ * </p>
+ * <p>
+ * When the {@link StorageBackend#MEMORY} backend is configured the DAOs are served by the
+ * {@link InMemoryDatabase} instead and no connection is borrowed.
  * </p>
  *
  */
 public class MarketingJDBC {
-    private final Connection connection;
-    private final RoomDAOImpl roomDAO;
-    private final EventDAOImpl eventDAO;
+    private final ConnectionPool pool; //Null when the in-memory backend is used
+    private final RoomDAO roomDAO;
+    private final EventDAO eventDAO;
 
     /**
-     * Constructor for DBUtils that creates a connection between the user and the database
+     * Constructor for MarketingJDBC that attaches to the configured storage backend
      * @throws SQLException             If a database access error occurs
      * @throws IOException              If an error occurs reading from input stream
      * @throws ClassNotFoundException   If the jdbc class cannot be found
      */
     public MarketingJDBC() throws ClassNotFoundException, SQLException, IOException {
-        Properties properties = new Properties();
-
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream("config.properties")) {
-            //reads credentials from config file provided
-            if (input != null) {
-                throw new IOException("Unable to load config.properties file");
-            }
-            properties.load(input);
+        if (StorageBackend.configured() == StorageBackend.MEMORY) {
+            InMemoryDatabase db = InMemoryDatabase.getInstance();
+            this.pool = null;
+            this.roomDAO = new InMemoryRoomDAO(db);
+            this.eventDAO = new InMemoryEventDAO(db);
+        } else {
+            this.pool = ConnectionPool.getInstance();
+            this.roomDAO = new RoomDAOImpl();
+            this.eventDAO = new EventDAOImpl();
         }
+    }
 
-
-        String url = properties.getProperty("db.url");
-        String username = properties.getProperty("db.username");
-        String password = properties.getProperty("db.password");
-
-        this.connection = DriverManager.getConnection(url, username, password);
-        this.roomDAO = new RoomDAOImpl();
-        this.eventDAO = new EventDAOImpl();
+    /**
+     * Borrows a connection for one call, or returns null for the in-memory backend which needs none.
+     * @return              A pooled connection to close after the call, or null
+     * @throws SQLException If no connection can be borrowed
+     */
+    private Connection borrow() throws SQLException {
+        return pool == null ? null : pool.getConnection();
     }
 
     /**
@@ -65,7 +71,9 @@ public class MarketingJDBC {
      * @throws RuntimeException if an {@link SQLException} occurs during the database access
      */
     public List<Room> getAllRooms() throws SQLException {
-        return roomDAO.getAllRooms(connection);
+        try (Connection connection = borrow()) {
+            return roomDAO.getAllRooms(connection);
+        }
     }
 
     /**
@@ -75,7 +83,9 @@ public class MarketingJDBC {
      * @throws SQLException if a database access error occurs
      */
     public List<Event> getAllScheduledEvents() throws SQLException {
-        return eventDAO.getAllScheduledEvents(connection);
+        try (Connection connection = borrow()) {
+            return eventDAO.getAllScheduledEvents(connection);
+        }
     }
 
     /**
@@ -86,7 +96,9 @@ public class MarketingJDBC {
      * @throws SQLException if a database access error occurs
      */
     public Event getEventById(String eventId) throws SQLException {
-        return eventDAO.getEventById(connection, eventId);
+        try (Connection connection = borrow()) {
+            return eventDAO.getEventById(connection, eventId);
+        }
     }
 
     /**
@@ -96,7 +108,9 @@ public class MarketingJDBC {
      * @throws SQLException if a database access error occurs
      */
     public List<Event> getUpcomingEvents() throws SQLException {
-        return eventDAO.getUpcomingEvents(connection);
+        try (Connection connection = borrow()) {
+            return eventDAO.getUpcomingEvents(connection);
+        }
     }
 
     public static void main(String[] args) {
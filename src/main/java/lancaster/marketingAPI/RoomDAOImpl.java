@@ -42,23 +42,23 @@ public class RoomDAOImpl implements RoomDAO {
         List<Room> rooms = new ArrayList<>();
 
         try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            ResultSet rs = stmt.executeQuery();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int roomId = rs.getInt("room_id");
+                    String roomName = rs.getString("room_name");
+                    String roomType = rs.getString("room_type");
+                    int capacity = rs.getInt("capacity");
+                    int classroomCapacity = rs.getInt("classroom_capacity");
+                    int boardroomCapacity = rs.getInt("boardroom_capacity");
+                    int presentationCapacity = rs.getInt("presentation_capacity");
+                    String facilities = rs.getString("facilities");
+                    String bookingPriority = rs.getString("booking_priority");
+                    String usageRestrictions = rs.getString("usage_restrictions");
 
-            while (rs.next()) {
-                int roomId = rs.getInt("room_id");
-                String roomName = rs.getString("room_name");
-                String roomType = rs.getString("room_type");
-                int capacity = rs.getInt("capacity");
-                int classroomCapacity = rs.getInt("classroom_capacity");
-                int boardroomCapacity = rs.getInt("boardroom_capacity");
-                int presentationCapacity = rs.getInt("presentation_capacity");
-                String facilities = rs.getString("facilities");
-                String bookingPriority = rs.getString("booking_priority");
-                String usageRestrictions = rs.getString("usage_restrictions");
-
-                List<Integer> capacities = List.of(capacity, classroomCapacity, boardroomCapacity, presentationCapacity);
-                Room room = new Room(roomId, roomName, capacities, facilities, bookingPriority, usageRestrictions);
-                rooms.add(room);
+                    List<Integer> capacities = List.of(capacity, classroomCapacity, boardroomCapacity, presentationCapacity);
+                    Room room = new Room(roomId, roomName, capacities, facilities, bookingPriority, usageRestrictions);
+                    rooms.add(room);
+                }
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error retrieving rooms", e);
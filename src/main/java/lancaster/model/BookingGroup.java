@@ -1,7 +1,13 @@
 package lancaster.model;
 
+import lancaster.utils.AsyncDatabase;
+import lancaster.utils.DBUtils;
+
+import java.io.IOException;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a group of booking details to be processed together.
@@ -29,16 +35,37 @@ public class BookingGroup {
     /**
      * Submits all bookings in the group.
      * <p>
-     * This method iterates over each {@link BookingDetails} in the group for submission.
+     * The whole group is written in one database transaction through
+     * {@link DBUtils#createBookingsWithEvents(List, String, String, String, String)}. The group is only cleared
+     * once the transaction commits, so after a failure nothing is saved and the bookings can be submitted again.
      * </p>
+     *
+     * @throws RuntimeException if the bookings could not be saved.
      */
     public void submitAll() {
-        for (BookingDetails booking : bookings) {
-            System.out.println("Submitting booking: " + booking);
+        try {
+            DBUtils db = new DBUtils();
+            db.createBookingsWithEvents(bookings, null, null, null, "pending");
+        } catch (SQLException | IOException | ClassNotFoundException e) {
+            throw new RuntimeException("Error submitting bookings", e);
         }
         bookings.clear();
     }
 
+    /**
+     * Submits all bookings in the group without blocking the calling thread.
+     * <p>
+     * The same transaction as {@link #submitAll()} runs on the {@link AsyncDatabase} executor against a copy of
+     * the group, so the JavaFX thread stays responsive. The group is not cleared here; the caller clears it on the
+     * JavaFX thread once the returned future succeeds.
+     * </p>
+     *
+     * @return a future completed with the IDs of the new bookings, or exceptionally if nothing was saved.
+     */
+    public CompletableFuture<List<Integer>> submitAllAsync() {
+        return AsyncDatabase.getInstance().createBookingsWithEvents(List.copyOf(bookings), null, null, null, "pending");
+    }
+
     /**
      * Retrieves the list of booking details in the group.
      * <p>
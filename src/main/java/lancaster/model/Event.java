@@ -1,10 +1,6 @@
 package lancaster.model;
 
-import lancaster.utils.DBUtils;
-
-import java.io.IOException;
 import java.sql.Date;
-import java.sql.SQLException;
 import java.sql.Time;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -15,7 +11,8 @@ import java.time.LocalTime;
  * <p>
  * The {@code Event} class encapsulates the details of an event, including its identifiers,
  * associated booking and room details, event name, date, and time information.
- * It retrieves additional room information from the database based on the provided room identifier.
+ * It is a plain value: the room name is supplied by the query that loads the event, so creating an event
+ * never touches the database.
  * </p>
  */
 public class Event {
@@ -33,31 +30,25 @@ public class Event {
      * Constructs a new {@code Event} instance with the specified details.
      * <p>
      * This constructor initializes the event with its identifiers, booking information, room
-     * configurations, name, date, and start/end times. It also retrieves the room name from the
-     * database using the provided {@code room_id}.
+     * details, configurations, name, date, and start/end times.
      * </p>
      *
      * @param event_id                    the unique identifier for the event.
      * @param booking_id                  the identifier linking the event with a booking.
      * @param room_id                     the unique identifier for the room where the event takes place.
+     * @param room_name                   the name of the room where the event takes place.
      * @param seating_configurations_id   the identifier for seating configurations related to the event.
      * @param name                        the name of the event.
      * @param event_date                  the date on which the event is scheduled.
      * @param start_time                  the starting time of the event.
      * @param end_time                    the ending time of the event.
-     * @throws RuntimeException if an error occurs while retrieving the room name from the database.
      */
-    public Event(int event_id, int booking_id, int room_id, int seating_configurations_id, String name,
-                 Date event_date, Time start_time, Time end_time) {
+    public Event(int event_id, int booking_id, int room_id, String room_name, int seating_configurations_id,
+                 String name, Date event_date, Time start_time, Time end_time) {
         this.event_id = event_id;
         this.booking_id = booking_id;
-        try {
-            DBUtils db = new DBUtils();
-            this.room_name = db.getRoomName(room_id);
-        } catch (SQLException | IOException | ClassNotFoundException e) {
-            throw new RuntimeException(e);
-        }
         this.room_id = room_id;
+        this.room_name = room_name;
         this.seating_configurations_id = seating_configurations_id;
         this.name = name;
         this.event_date = event_date;
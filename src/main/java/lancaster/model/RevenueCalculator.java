@@ -1,5 +1,8 @@
 package lancaster.model;
 
+import java.text.Normalizer;
+import java.util.Locale;
+
 /**
  * Utility class for calculating revenue based on various booking parameters.
  * <p>
@@ -7,12 +10,40 @@ package lancaster.model;
  * booking duration type, and whether VAT should be included. It supports revenue calculations for whole venue bookings,
  * individual hall bookings, rehearsal space bookings, and specific room bookings.
  * </p>
+ * <p>
+ * Prices and the VAT rate come from a {@link Tariff}, a price matrix compiled from a tariff file. A calculator made
+ * with the default constructor always quotes on the tariff currently installed, so installing a new price list
+ * takes effect for the next quote.
+ * </p>
  */
 public class RevenueCalculator {
+    // The tariff to quote on, or null to follow the installed one.
+    private final Tariff tariff;
+
     /**
-     * The Value Added Tax rate used in revenue calculations.
+     * Creates a calculator that quotes on the installed tariff.
      */
-    private static final double VAT_RATE = 0.20; // Standard UK VAT rate
+    public RevenueCalculator() {
+        this(null);
+    }
+
+    /**
+     * Creates a calculator that always quotes on one tariff, whatever is installed later.
+     *
+     * @param tariff the tariff to quote on, or {@code null} to follow the installed tariff.
+     */
+    public RevenueCalculator(Tariff tariff) {
+        this.tariff = tariff;
+    }
+
+    /**
+     * Returns the tariff quotes are worked out on.
+     *
+     * @return the fixed tariff of this calculator, or else the installed tariff.
+     */
+    public Tariff getTariff() {
+        return tariff != null ? tariff : Tariff.getInstance();
+    }
 
     /**
      * Enum representing groups of days for pricing variations.
@@ -116,23 +147,7 @@ public class RevenueCalculator {
      * @return the calculated revenue.
      */
     public double calculateWholeVenueRevenue(DayType day, BookingType bookingType, boolean includeVAT) {
-        double basePrice = 0.0;
-
-        if (bookingType == BookingType.EVENING) {
-            if (day == DayType.FRIDAY_TO_SATURDAY) {
-                basePrice = 6750.0;
-            } else {
-                basePrice = 6250.0;
-            }
-        } else if (bookingType == BookingType.FULL_DAY) {
-            if (day == DayType.FRIDAY_TO_SATURDAY) {
-                basePrice = 9500.0;
-            } else {
-                basePrice = 8500.0;
-            }
-        }
-
-        return includeVAT ? basePrice * (1 + VAT_RATE) : basePrice;
+        return getTariff().price(VenueSpace.WHOLE_VENUE, day, bookingType, 0, includeVAT);
     }
 
     /**
@@ -148,27 +163,7 @@ public class RevenueCalculator {
      * @return the calculated revenue.
      */
     public double calculateMainHallRevenue(DayType day, BookingType bookingType, int hours, boolean includeVAT) {
-        double basePrice = 0.0;
-
-        if (bookingType == BookingType.HOURLY) {
-            // Minimum of 3 hours
-            hours = Math.max(3, hours);
-            basePrice = 325.0 * hours;
-        } else if (bookingType == BookingType.EVENING) {
-            if (day == DayType.FRIDAY_TO_SATURDAY) {
-                basePrice = 2200.0;
-            } else {
-                basePrice = 1850.0;
-            }
-        } else if (bookingType == BookingType.FULL_DAY) {
-            if (day == DayType.FRIDAY_TO_SATURDAY) {
-                basePrice = 4200.0;
-            } else {
-                basePrice = 3800.0;
-            }
-        }
-
-        return includeVAT ? basePrice * (1 + VAT_RATE) : basePrice;
+        return getTariff().price(VenueSpace.MAIN_HALL, day, bookingType, hours, includeVAT);
     }
 
     /**
@@ -184,27 +179,7 @@ public class RevenueCalculator {
      * @return the calculated revenue.
      */
     public double calculateSmallHallRevenue(DayType day, BookingType bookingType, int hours, boolean includeVAT) {
-        double basePrice = 0.0;
-
-        if (bookingType == BookingType.HOURLY) {
-            // Minimum of 3 hours
-            hours = Math.max(3, hours);
-            basePrice = 225.0 * hours;
-        } else if (bookingType == BookingType.EVENING) {
-            if (day == DayType.FRIDAY_TO_SATURDAY) {
-                basePrice = 1300.0;
-            } else {
-                basePrice = 950.0;
-            }
-        } else if (bookingType == BookingType.FULL_DAY) {
-            if (day == DayType.FRIDAY_TO_SATURDAY) {
-                basePrice = 2500.0;
-            } else {
-                basePrice = 2200.0;
-            }
-        }
-
-        return includeVAT ? basePrice * (1 + VAT_RATE) : basePrice;
+        return getTariff().price(VenueSpace.SMALL_HALL, day, bookingType, hours, includeVAT);
     }
 
     /**
@@ -221,35 +196,7 @@ public class RevenueCalculator {
      * @return the calculated revenue.
      */
     public double calculateRehearsalSpaceRevenue(DayType day, BookingType bookingType, int hours, boolean includeVAT) {
-        double basePrice = 0.0;
-
-        if (bookingType == BookingType.HOURLY) {
-            // Minimum of 3 hours
-            hours = Math.max(3, hours);
-            basePrice = 60.0 * hours;
-        } else if (bookingType == BookingType.FULL_DAY) {
-            if (day == DayType.MONDAY_TO_THURSDAY || day == DayType.FRIDAY_TO_SATURDAY) {
-                if (hours <= 7) { // Assuming 10:00-17:00 is 7 hours
-                    basePrice = 240.0;
-                } else { // Assuming 10:00-23:00 is full day
-                    basePrice = 450.0;
-                }
-            } else { // Sunday
-                if (hours <= 7) { // Assuming 10:00-17:00 is 7 hours
-                    basePrice = 340.0;
-                } else { // Assuming 10:00-23:00 is full day
-                    basePrice = 500.0;
-                }
-            }
-        } else if (bookingType == BookingType.WEEKLY) {
-            if (hours <= 8) { // Assuming 10:00-18:00 is 8 hours
-                basePrice = 1000.0;
-            } else { // Assuming 10:00-23:00 is daily access
-                basePrice = 1500.0;
-            }
-        }
-
-        return includeVAT ? basePrice * (1 + VAT_RATE) : basePrice;
+        return getTariff().price(VenueSpace.REHEARSAL_SPACE, day, bookingType, hours, includeVAT);
     }
 
     /**
@@ -264,84 +211,14 @@ public class RevenueCalculator {
      * @return the calculated revenue.
      */
     public double calculateRoomRevenue(VenueSpace room, BookingType bookingType, boolean includeVAT) {
-        double basePrice = 0.0;
-
-        switch (room) {
-            case GREEN_ROOM:
-                if (bookingType == BookingType.HOURLY) {
-                    basePrice = 25.0;
-                } else if (bookingType == BookingType.MORNING_AFTERNOON) {
-                    basePrice = 75.0;
-                } else if (bookingType == BookingType.FULL_DAY) {
-                    basePrice = 130.0;
-                } else if (bookingType == BookingType.WEEKLY) {
-                    basePrice = 600.0;
-                }
-                break;
-            case BRONTE_BOARDROOM:
-                if (bookingType == BookingType.HOURLY) {
-                    basePrice = 40.0;
-                } else if (bookingType == BookingType.MORNING_AFTERNOON) {
-                    basePrice = 120.0;
-                } else if (bookingType == BookingType.FULL_DAY) {
-                    basePrice = 200.0;
-                } else if (bookingType == BookingType.WEEKLY) {
-                    basePrice = 900.0;
-                }
-                break;
-            case DICKENS_DEN:
-                if (bookingType == BookingType.HOURLY) {
-                    basePrice = 30.0;
-                } else if (bookingType == BookingType.MORNING_AFTERNOON) {
-                    basePrice = 90.0;
-                } else if (bookingType == BookingType.FULL_DAY) {
-                    basePrice = 150.0;
-                } else if (bookingType == BookingType.WEEKLY) {
-                    basePrice = 700.0;
-                }
-                break;
-            case POE_PARLOR:
-                if (bookingType == BookingType.HOURLY) {
-                    basePrice = 35.0;
-                } else if (bookingType == BookingType.MORNING_AFTERNOON) {
-                    basePrice = 100.0;
-                } else if (bookingType == BookingType.FULL_DAY) {
-                    basePrice = 170.0;
-                } else if (bookingType == BookingType.WEEKLY) {
-                    basePrice = 800.0;
-                }
-                break;
-            case GLOBE_ROOM:
-                if (bookingType == BookingType.HOURLY) {
-                    basePrice = 50.0;
-                } else if (bookingType == BookingType.MORNING_AFTERNOON) {
-                    basePrice = 150.0;
-                } else if (bookingType == BookingType.FULL_DAY) {
-                    basePrice = 250.0;
-                } else if (bookingType == BookingType.WEEKLY) {
-                    basePrice = 1100.0;
-                }
-                break;
-            case CHEKHOV_CHAMBER:
-                if (bookingType == BookingType.HOURLY) {
-                    basePrice = 38.0;
-                } else if (bookingType == BookingType.MORNING_AFTERNOON) {
-                    basePrice = 110.0;
-                } else if (bookingType == BookingType.FULL_DAY) {
-                    basePrice = 180.0;
-                } else if (bookingType == BookingType.WEEKLY) {
-                    basePrice = 850.0;
-                }
-                break;
-        }
-
-        return includeVAT ? basePrice * (1 + VAT_RATE) : basePrice;
+        //room prices are the same every day and do not depend on the hours booked
+        return getTariff().price(room, DayType.MONDAY_TO_THURSDAY, bookingType, 0, includeVAT);
     }
 
     /**
      * Calculates the total revenue for a booking based on the venue space, day type, booking type, and hours.
      * <p>
-     * This method delegates the revenue calculation to the appropriate method according to the venue space.
+     * The booking is looked up in the price matrix of the tariff, whatever the venue space.
      * </p>
      *
      * @param space       the {@link VenueSpace} representing the booked space.
@@ -353,27 +230,93 @@ public class RevenueCalculator {
      */
     public double calculateTotalRevenue(VenueSpace space, DayType day, BookingType bookingType,
                                         int hours, boolean includeVAT) {
-        double revenue = 0.0;
+        return getTariff().price(space, day, bookingType, hours, includeVAT);
+    }
 
-        switch (space) {
-            case WHOLE_VENUE:
-                revenue = calculateWholeVenueRevenue(day, bookingType, includeVAT);
-                break;
-            case MAIN_HALL:
-                revenue = calculateMainHallRevenue(day, bookingType, hours, includeVAT);
-                break;
-            case SMALL_HALL:
-                revenue = calculateSmallHallRevenue(day, bookingType, hours, includeVAT);
-                break;
-            case REHEARSAL_SPACE:
-                revenue = calculateRehearsalSpaceRevenue(day, bookingType, hours, includeVAT);
-                break;
-            default:
-                revenue = calculateRoomRevenue(space, bookingType, includeVAT);
-                break;
+    /**
+     * Finds the venue space a room of the database is priced as.
+     * <p>
+     * Room names are matched to {@link VenueSpace} names ignoring case, accents and a leading "The", so
+     * "Brontë Boardroom" is {@link VenueSpace#BRONTE_BOARDROOM} and "The Green Room" is {@link VenueSpace#GREEN_ROOM}.
+     * </p>
+     *
+     * @param roomName the name of the room.
+     * @return the venue space, or {@code null} if the tariff has no space of that name.
+     */
+    public static VenueSpace spaceOf(String roomName) {
+        String name = Normalizer.normalize(roomName.strip(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toUpperCase(Locale.ROOT)
+                .replaceAll("[^A-Z0-9]+", "_");
+        if (name.startsWith("THE_")) {
+            name = name.substring(4);
         }
+        try {
+            return VenueSpace.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        return revenue;
+    /**
+     * Works out the booking type an event is charged as.
+     * <p>
+     * The type suggested by the event's times is used when the tariff prices it for the space. Otherwise the event
+     * is charged by the hour or, for spaces without hourly prices such as the whole venue, as a full day.
+     * </p>
+     *
+     * @param space     the {@link VenueSpace} of the event.
+     * @param day       the {@link DayType} of the event.
+     * @param suggested the {@link BookingType} the event's times suggest.
+     * @return the booking type to charge.
+     */
+    public BookingType chargedBookingType(VenueSpace space, DayType day, BookingType suggested) {
+        Tariff prices = getTariff();
+        if (prices.hasPrice(space, day, suggested)) {
+            return suggested;
+        }
+        return prices.hasPrice(space, day, BookingType.HOURLY) ? BookingType.HOURLY : BookingType.FULL_DAY;
+    }
+
+    /**
+     * Calculates the room hire of one event.
+     * <p>
+     * Events are priced like bookings, except that a weekly price covers the seven days of a week, so each event of
+     * a weekly booking is charged a seventh of it.
+     * </p>
+     *
+     * @param space       the {@link VenueSpace} of the event.
+     * @param day         the {@link DayType} of the event.
+     * @param bookingType the {@link BookingType} the event is charged as.
+     * @param hours       the number of hours the event lasts, counting part of an hour as a whole one.
+     * @param includeVAT  {@code true} to include VAT in the calculation, {@code false} otherwise.
+     * @return the room hire of the event.
+     */
+    public double calculateEventRevenue(VenueSpace space, DayType day, BookingType bookingType, int hours,
+                                        boolean includeVAT) {
+        double price = getTariff().price(space, day, bookingType, hours, includeVAT);
+        return bookingType == BookingType.WEEKLY ? price / 7 : price;
+    }
+
+    /**
+     * Prices many bookings at once on one tariff, such as when re-pricing a whole season, without allocating.
+     * <p>
+     * The arrays hold one booking per index. Every booking is priced on the same tariff, even if another tariff is
+     * installed while the bookings are being priced.
+     * </p>
+     *
+     * @param spaces       the {@link VenueSpace} of each booking.
+     * @param days         the {@link DayType} of each booking.
+     * @param bookingTypes the {@link BookingType} of each booking.
+     * @param hours        the number of hours of each booking.
+     * @param count        the number of bookings to price, from index 0.
+     * @param includeVAT   {@code true} to include VAT in the prices, {@code false} otherwise.
+     * @param quotes       receives the price of each booking.
+     * @return the sum of the prices.
+     */
+    public double priceAll(VenueSpace[] spaces, DayType[] days, BookingType[] bookingTypes, int[] hours, int count,
+                           boolean includeVAT, double[] quotes) {
+        return getTariff().priceAll(spaces, days, bookingTypes, hours, count, includeVAT, quotes);
     }
 
     /**
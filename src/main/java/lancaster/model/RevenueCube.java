@@ -0,0 +1,292 @@
+package lancaster.model;
+
+import lancaster.model.RevenueCalculator.BookingType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Room hire, ticket sales and entry counts pre-summed by venue, day and booking type, so the total of any date
+ * range takes the same time however much history is held.
+ * <p>
+ * For every venue and {@link BookingType}, plus one slot for booking types that are not one of the enum's names,
+ * the cube keeps running totals along the day axis: slot {@code d + 1} holds the sum of every day up to and
+ * including day {@code d} of the cube. The total of a date range is then the difference of two slots, so a venue
+ * breakdown costs a few reads per venue and booking type, and a breakdown by month a few reads per venue per month.
+ * </p>
+ * <p>
+ * Entries can be added one at a time, such as a new booking or a batch of ticket sales, and are summed in place.
+ * Adding to a day updates the running totals of that day and every later day held, so adding to recent days, where
+ * new revenue normally lands, is cheapest. Days before or after those held are added by growing the day axis.
+ * A whole store is summed in one pass with {@link #rebuild(RevenueStore)}.
+ * </p>
+ * <p>
+ * This class is not thread-safe; the revenue screens use it from the JavaFX thread only.
+ * </p>
+ */
+public final class RevenueCube {
+    private static final BookingType[] TYPES = BookingType.values();
+    // One slot per booking type, then one for any other booking type.
+    private static final int TYPE_SLOTS = TYPES.length + 1;
+    private static final int OTHER_TYPE = TYPES.length;
+    private static final int MEASURES = 3;
+    private static final int ROOM_HIRE = 0;
+    private static final int TICKET_SALES = 1;
+    private static final int ENTRIES = 2;
+
+    private final List<String> venues = new ArrayList<>();
+    private final Map<String, Integer> venueIndex = new HashMap<>();
+
+    // Running totals, one array per venue, booking type and measure, indexed by (venue * TYPE_SLOTS + type) *
+    // MEASURES + measure. Each array has days + 1 slots, slot 0 being 0.
+    private double[][] sums = new double[0][];
+    private int firstDay;
+    private int days;
+
+    /**
+     * Removes every total and venue.
+     */
+    public void clear() {
+        venues.clear();
+        venueIndex.clear();
+        sums = new double[0][];
+        days = 0;
+    }
+
+    /**
+     * Replaces the totals with the sums of every row of a store, in one pass over the rows and one over the cube.
+     *
+     * @param store the rows to sum
+     */
+    public void rebuild(RevenueStore store) {
+        clear();
+        int size = store.size();
+        if (size == 0) {
+            return;
+        }
+        //the store is in date order, so its first and last rows bound the day axis
+        firstDay = store.getEpochDay(0);
+        days = store.getEpochDay(size - 1) - firstDay + 1;
+        int[] venueOf = new int[store.getVenueCount()];
+        Arrays.fill(venueOf, -1);
+        for (int row = 0; row < size; row++) {
+            int code = store.getVenueCode(row);
+            if (venueOf[code] < 0) {
+                venueOf[code] = venue(store.getVenueName(code));
+            }
+            int cell = (venueOf[code] * TYPE_SLOTS + typeSlot(store.getBookingTypeName(store.getBookingTypeCode(row))))
+                    * MEASURES;
+            int slot = store.getEpochDay(row) - firstDay + 1;
+            sums[cell + ROOM_HIRE][slot] += store.getRoomRate(row);
+            sums[cell + TICKET_SALES][slot] += store.getTicketSales(row);
+            sums[cell + ENTRIES][slot] += 1;
+        }
+        //turn the daily amounts into running totals
+        for (double[] totals : sums) {
+            for (int slot = 1; slot <= days; slot++) {
+                totals[slot] += totals[slot - 1];
+            }
+        }
+    }
+
+    /**
+     * Adds an entry to the totals in place.
+     *
+     * @param venue       the name of the venue
+     * @param epochDay    the date as a day count from 1970-01-01
+     * @param bookingType the type of booking, normally the name of a {@link BookingType}
+     * @param roomHire    the room hire revenue
+     * @param ticketSales the ticket sales revenue
+     */
+    public void add(String venue, int epochDay, String bookingType, double roomHire, double ticketSales) {
+        int cell = (venue(venue) * TYPE_SLOTS + typeSlot(bookingType)) * MEASURES;
+        if (days == 0) {
+            firstDay = epochDay;
+            resize(1);
+        } else if (epochDay < firstDay) {
+            int shift = firstDay - epochDay;
+            for (int i = 0; i < sums.length; i++) {
+                //the new earlier days hold nothing, so the running totals start at 0 and are shifted along
+                double[] shifted = new double[days + shift + 1];
+                System.arraycopy(sums[i], 0, shifted, shift, days + 1);
+                sums[i] = shifted;
+            }
+            firstDay = epochDay;
+            days += shift;
+        } else if (epochDay >= firstDay + days) {
+            resize(epochDay - firstDay + 1);
+        }
+        int from = epochDay - firstDay + 1;
+        addFrom(sums[cell + ROOM_HIRE], from, roomHire);
+        addFrom(sums[cell + TICKET_SALES], from, ticketSales);
+        addFrom(sums[cell + ENTRIES], from, 1);
+    }
+
+    private void addFrom(double[] totals, int from, double amount) {
+        if (amount == 0) {
+            return;
+        }
+        for (int slot = from; slot <= days; slot++) {
+            totals[slot] += amount;
+        }
+    }
+
+    /**
+     * Grows the day axis to a number of days, carrying the last running total of each array into the new days.
+     */
+    private void resize(int newDays) {
+        for (int i = 0; i < sums.length; i++) {
+            double last = sums[i][days];
+            sums[i] = Arrays.copyOf(sums[i], newDays + 1);
+            Arrays.fill(sums[i], days + 1, newDays + 1, last);
+        }
+        days = newDays;
+    }
+
+    private int venue(String name) {
+        Integer index = venueIndex.get(name);
+        if (index == null) {
+            index = venues.size();
+            venues.add(name);
+            venueIndex.put(name, index);
+            int cells = (index + 1) * TYPE_SLOTS * MEASURES;
+            int oldCells = sums.length;
+            sums = Arrays.copyOf(sums, cells);
+            for (int i = oldCells; i < cells; i++) {
+                sums[i] = new double[days + 1];
+            }
+        }
+        return index;
+    }
+
+    private static int typeSlot(String bookingType) {
+        for (BookingType type : TYPES) {
+            if (type.name().equals(bookingType)) {
+                return type.ordinal();
+            }
+        }
+        return OTHER_TYPE;
+    }
+
+    /**
+     * @return the number of venues with totals
+     */
+    public int getVenueCount() {
+        return venues.size();
+    }
+
+    /**
+     * @param venue the index of a venue
+     * @return the name of the venue
+     */
+    public String getVenueName(int venue) {
+        return venues.get(venue);
+    }
+
+    /**
+     * Works out which venues a filter lets through.
+     *
+     * @param filter accepts the names of the venues to keep
+     * @return a flag for each venue index, set if the venue is kept
+     */
+    public boolean[] venueMask(Predicate<String> filter) {
+        boolean[] mask = new boolean[venues.size()];
+        for (int venue = 0; venue < mask.length; venue++) {
+            mask[venue] = filter.test(venues.get(venue));
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the room hire of a venue and booking type over a date range.
+     *
+     * @param venue       the index of the venue
+     * @param bookingType the type of booking
+     * @param from        the first day of the range
+     * @param to          the last day of the range, inclusive
+     * @return the room hire
+     */
+    public double getRoomHire(int venue, BookingType bookingType, LocalDate from, LocalDate to) {
+        return total(cell(venue, bookingType.ordinal()) + ROOM_HIRE, (int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Gets the ticket sales of a venue and booking type over a date range.
+     *
+     * @param venue       the index of the venue
+     * @param bookingType the type of booking
+     * @param from        the first day of the range
+     * @param to          the last day of the range, inclusive
+     * @return the ticket sales
+     */
+    public double getTicketSales(int venue, BookingType bookingType, LocalDate from, LocalDate to) {
+        return total(cell(venue, bookingType.ordinal()) + TICKET_SALES, (int) from.toEpochDay(),
+                (int) to.toEpochDay());
+    }
+
+    /**
+     * Sums a date range by venue and month, reading two running totals per venue, booking type, measure and month.
+     *
+     * @param from      the first day of the range
+     * @param to        the last day of the range, inclusive
+     * @param venueMask the venues to include, from {@link #venueMask(Predicate)}, or {@code null} for all
+     * @param first     the venues to show first in the summary, in order
+     * @return the totals of the range
+     */
+    public RevenueSummary summarize(LocalDate from, LocalDate to, boolean[] venueMask, List<String> first) {
+        RevenueSummary summary = new RevenueSummary();
+        int[] summaryVenue = new int[venues.size()];
+        for (int venue = 0; venue < venues.size(); venue++) {
+            boolean included = venueMask == null || (venue < venueMask.length && venueMask[venue]);
+            summaryVenue[venue] = included ? summary.addVenue(venues.get(venue)) : -1;
+        }
+        LocalDate monthStart = from.withDayOfMonth(1);
+        while (!monthStart.isAfter(to)) {
+            LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
+            int start = (int) (monthStart.isBefore(from) ? from : monthStart).toEpochDay();
+            int end = (int) (monthEnd.isAfter(to) ? to : monthEnd).toEpochDay();
+            int month = monthStart.getYear() * 12 + monthStart.getMonthValue() - 1;
+            for (int venue = 0; venue < venues.size(); venue++) {
+                if (summaryVenue[venue] < 0) {
+                    continue;
+                }
+                double roomHire = 0;
+                double ticketSales = 0;
+                int entries = 0;
+                for (int type = 0; type < TYPE_SLOTS; type++) {
+                    int cell = cell(venue, type);
+                    roomHire += total(cell + ROOM_HIRE, start, end);
+                    ticketSales += total(cell + TICKET_SALES, start, end);
+                    entries += (int) Math.round(total(cell + ENTRIES, start, end));
+                }
+                if (entries > 0) {
+                    summary.add(summaryVenue[venue], month, roomHire, ticketSales, entries);
+                }
+            }
+            monthStart = monthStart.plusMonths(1);
+        }
+        summary.finish(first);
+        return summary;
+    }
+
+    private static int cell(int venue, int typeSlot) {
+        return (venue * TYPE_SLOTS + typeSlot) * MEASURES;
+    }
+
+    /**
+     * Gets the total of one array over the days from one day to another, inclusive, clipped to the days held.
+     */
+    private double total(int array, int fromDay, int toDay) {
+        int from = Math.max(fromDay - firstDay, 0);
+        int to = Math.min(toDay - firstDay + 1, days);
+        if (days == 0 || from >= to) {
+            return 0;
+        }
+        return sums[array][to] - sums[array][from];
+    }
+}
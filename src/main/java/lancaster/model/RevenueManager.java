@@ -1,13 +1,24 @@
 package lancaster.model;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.chart.PieChart;
 import javafx.scene.chart.XYChart;
 
+import lancaster.utils.RevenueRollupCache;
+import lancaster.utils.RevenueRollupCache.DailyRevenue;
+import lancaster.utils.TicketSaleSource;
+import lancaster.utils.TicketSalesPipeline;
+import lancaster.utils.TicketSalesPipeline.TicketSale;
+
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 /**
  * A manager for venue revenue data, handling bookings, filtering, and chart-ready aggregates.
@@ -15,72 +26,280 @@ import java.util.*;
  * This class acts as a revenue assistant, providing insights into room hire and ticket sales. It aggregates
  * revenue entries and supports filtering and chart data generation, with data loaded via a pre-defined data load method.
  * </p>
+ * <p>
+ * The entries are held in a {@link RevenueStore}, one primitive column per field in date order, and the lists this
+ * class hands out are views of the store that create entries only as they are read. Filtering finds the date range
+ * with a binary search and matches venues by dictionary code, and the summaries read the columns of a view directly,
+ * so the dashboard stays responsive with millions of entries.
+ * </p>
+ * <p>
+ * Revenue comes from the {@code events} and {@code RoomPrice} tables, summed by the database per room and day or per
+ * room and month and cached by month in the {@link RevenueRollupCache}. {@link #fetchRange(LocalDate, LocalDate)}
+ * gets the days of a date range, querying only the months not already held, and
+ * {@link #loadRange(LoadedDays)} puts them in the store, one entry per room and day.
+ * </p>
+ * <p>
+ * The totals of the entries are also kept in a {@link RevenueCube}, summed by venue, day and booking type, so the
+ * totals of any date range and venue held are read in time that does not depend on how many days are held. The
+ * range held only grows when a filter reaches outside it, so most filter changes need neither a query nor a pass
+ * over the entries, and {@link #recordRevenue} adds new revenue to both the entries and the cube in place.
+ * </p>
+ * <p>
+ * Ticket sales are not in the database. {@link #loadTicketSalesData()} pulls the sales added to the configured
+ * {@link TicketSaleSource} since the last pull through a {@link TicketSalesPipeline} and adds them in place, and
+ * every sale pulled is also kept in a ledger so it is added again whenever a new range is loaded.
+ * </p>
  */
 public class RevenueManager {
-    private ObservableList<RevenueEntry> revenueData;
+    private static final String ALL_VENUES = "All Venues";
+    private static final String ROOMS = "Rooms";
+    private static final String WHOLE_VENUE = "Whole Venue";
+    private static final List<String> VENUE_ORDER = List.of("Main Hall", "Small Hall", "Rehearsal Space");
+    private static final Set<String> ROOM_VENUES = Set.of(
+            "Green Room", "Brontë Boardroom", "Dickens Den", "Poe Parlor", "Globe Room", "Chekhov Chamber");
+    // The longest range the held range is widened to, matching the months the rollup cache keeps.
+    private static final int MAX_HELD_MONTHS = 48;
+    private static final String TICKET_SALES = "Ticket sales";
+
+    private final RevenueStore store;
+    private final RevenueCube cube;
+    private final RevenueStore ticketLedger; //Every ticket sale pulled, with ticket sales as the only revenue
     private RevenueCalculator calculator;
+    private TicketSalesPipeline ticketSalesPipeline; //Null when no ticket sale source is configured
+    //the dates held in the store and cube, or null when nothing is held
+    private LocalDate loadedFrom;
+    private LocalDate loadedTo;
+    private long loadedVersion; //The rollup cache version the held range was read at
+    private boolean sampleData; //Whether the held entries are made up rather than read from the database
+
+    /**
+     * The revenue of every room for each day of a date range, as read by {@link #fetchRange(LocalDate, LocalDate)}.
+     *
+     * @param from    the first day of the range.
+     * @param to      the last day of the range, inclusive.
+     * @param days    the revenue of each room and day with events.
+     * @param version the {@link RevenueRollupCache} version when the read started.
+     */
+    public record LoadedDays(LocalDate from, LocalDate to, List<DailyRevenue> days, long version) {
+    }
 
     /**
      * Creates a new revenue manager with an empty revenue entry list and a revenue calculator.
      * <p>
-     * The revenue data is loaded using a default data load method.
+     * No revenue is held until a date range is loaded with {@link #loadRange(LoadedDays)}.
      * </p>
      */
     public RevenueManager() {
-        revenueData = FXCollections.observableArrayList();
+        store = new RevenueStore();
+        cube = new RevenueCube();
+        ticketLedger = new RevenueStore();
         calculator = new RevenueCalculator();
-        loadSampleData(); // In production, this would be replaced with actual data loading
+        TicketSaleSource source = TicketSaleSource.configured();
+        ticketSalesPipeline = source == null ? null : new TicketSalesPipeline(source);
     }
 
     /**
      * Gets the full list of revenue entries for all venue bookings.
      *
-     * @return the observable list of revenue entries.
+     * @return the observable list of revenue entries, in date order.
      */
     public ObservableList<RevenueEntry> getRevenueData() {
-        return revenueData;
+        return store.rows();
+    }
+
+    /**
+     * Gets the store holding the revenue entries.
+     *
+     * @return the revenue store.
+     */
+    public RevenueStore getStore() {
+        return store;
+    }
+
+    /**
+     * Gets the cube of revenue totals by venue, day and booking type.
+     *
+     * @return the revenue cube.
+     */
+    public RevenueCube getCube() {
+        return cube;
+    }
+
+    /**
+     * Checks whether the revenue of a date range is already held and up to date, so it can be shown without reading
+     * the database.
+     * <p>
+     * Bookings and events written since the range was read invalidate their months in the
+     * {@link RevenueRollupCache}, which makes the held range out of date; reading it again only queries those months.
+     * </p>
+     *
+     * @param fromDate the start date of the range (inclusive).
+     * @param toDate   the end date of the range (inclusive).
+     * @return {@code true} if every day of the range is held and nothing in the database has changed since.
+     */
+    public boolean isLoaded(LocalDate fromDate, LocalDate toDate) {
+        return loadedFrom != null && !fromDate.isBefore(loadedFrom) && !toDate.isAfter(loadedTo)
+                && (sampleData || loadedVersion == RevenueRollupCache.getInstance().getVersion());
+    }
+
+    /**
+     * Gets the revenue of every room for each day of a date range from the database, off the JavaFX thread.
+     * <p>
+     * The range is widened to take in the dates already held, up to {@value #MAX_HELD_MONTHS} months, so going back
+     * to dates seen before needs no query. Months already held in the {@link RevenueRollupCache} are not queried
+     * again, and the missing months are read with one aggregate query.
+     * </p>
+     *
+     * @param fromDate the start date of the range (inclusive).
+     * @param toDate   the end date of the range (inclusive).
+     * @return a future of the revenue of each room and day with events, and the range it covers.
+     */
+    public CompletableFuture<LoadedDays> fetchRange(LocalDate fromDate, LocalDate toDate) {
+        LocalDate from = fromDate;
+        LocalDate to = toDate;
+        if (loadedFrom != null) {
+            LocalDate widenedFrom = loadedFrom.isBefore(fromDate) ? loadedFrom : fromDate;
+            LocalDate widenedTo = loadedTo.isAfter(toDate) ? loadedTo : toDate;
+            if (!widenedTo.isAfter(widenedFrom.plusMonths(MAX_HELD_MONTHS))) {
+                from = widenedFrom;
+                to = widenedTo;
+            }
+        }
+        LocalDate rangeFrom = from;
+        LocalDate rangeTo = to;
+        long version = RevenueRollupCache.getInstance().getVersion();
+        return RevenueRollupCache.getInstance().getDays(from, to)
+                .thenApply(days -> new LoadedDays(rangeFrom, rangeTo, days, version));
+    }
+
+    /**
+     * Replaces the revenue entries with the days of a range, one entry per room, day and booking type, and sums them
+     * into the revenue cube.
+     * <p>
+     * An entry sums the events of one booking type, as worked out by the database, so the revenue cube can be
+     * read by booking type. Ticket sales are not held in the database, so they are 0, and the ticket sales pulled
+     * so far for the range are added as entries of their own.
+     * </p>
+     *
+     * @param loaded the revenue of each room and day, from {@link #fetchRange(LocalDate, LocalDate)}.
+     */
+    public void loadRange(LoadedDays loaded) {
+        store.clear();
+        for (DailyRevenue day : loaded.days()) {
+            store.add(day.venue(), day.date(), day.bookingType().name(), day.roomHire(), 0.0);
+        }
+        addTicketSales(ticketLedger.rows(loaded.from(), loaded.to(), null));
+        cube.rebuild(store);
+        loadedFrom = loaded.from();
+        loadedTo = loaded.to();
+        loadedVersion = loaded.version();
+        sampleData = false;
+    }
+
+    /**
+     * Adds ledger rows to the store as ticket sales entries.
+     */
+    private void addTicketSales(RevenueStore.Rows rows) {
+        for (int index = 0; index < rows.size(); index++) {
+            int row = rows.rowAt(index);
+            store.add(ticketLedger.getVenueName(ticketLedger.getVenueCode(row)), ticketLedger.getEpochDay(row),
+                    TICKET_SALES, 0.0, ticketLedger.getTicketSales(row));
+        }
     }
 
     /**
-     * Loads revenue data by clearing any existing entries and adding varied entries for halls, rehearsal spaces, and rooms.
+     * Adds revenue to the entries held, such as a new booking or a batch of ticket sales, updating the revenue cube
+     * in place rather than summing every entry again.
+     * <p>
+     * Lists from {@link #getFilteredData(LocalDate, LocalDate, String)} made before the call do not show the new
+     * entry and should be fetched again.
+     * </p>
+     *
+     * @param venue       the name of the venue.
+     * @param date        the date of the revenue.
+     * @param bookingType the type of booking, normally the name of a {@link RevenueCalculator.BookingType}.
+     * @param roomHire    the room hire revenue.
+     * @param ticketSales the ticket sales revenue.
+     */
+    public void recordRevenue(String venue, LocalDate date, String bookingType, double roomHire, double ticketSales) {
+        store.add(venue, date, bookingType, roomHire, ticketSales);
+        cube.add(venue, (int) date.toEpochDay(), bookingType, roomHire, ticketSales);
+    }
+
+    /**
+     * Loads made-up revenue data, for trying the dashboard without a database, by clearing any existing entries and
+     * adding varied entries for halls, rehearsal spaces, and rooms.
      */
     public void loadSampleData() {
-        revenueData.clear();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        store.clear();
 
         // Initialize revenue entries for recent dates
         LocalDate now = LocalDate.now();
 
         // Entries for Main Hall
-        revenueData.add(new RevenueEntry("Main Hall", now.minusDays(2).format(formatter), "FULL_DAY", 3800.0, 1950.0));
-        revenueData.add(new RevenueEntry("Main Hall", now.minusDays(9).format(formatter), "EVENING", 2200.0, 1620.0));
-        revenueData.add(new RevenueEntry("Main Hall", now.minusDays(16).format(formatter), "FULL_DAY", 4200.0, 2300.0));
-        revenueData.add(new RevenueEntry("Main Hall", now.minusDays(23).format(formatter), "HOURLY", 975.0, 0.0));
+        store.add("Main Hall", now.minusDays(2), "FULL_DAY", 3800.0, 0.0);
+        store.add("Main Hall", now.minusDays(9), "EVENING", 2200.0, 0.0);
+        store.add("Main Hall", now.minusDays(16), "FULL_DAY", 4200.0, 0.0);
+        store.add("Main Hall", now.minusDays(23), "HOURLY", 975.0, 0.0);
 
         // Entries for Small Hall
-        revenueData.add(new RevenueEntry("Small Hall", now.minusDays(3).format(formatter), "EVENING", 950.0, 480.0));
-        revenueData.add(new RevenueEntry("Small Hall", now.minusDays(10).format(formatter), "FULL_DAY", 2200.0, 750.0));
-        revenueData.add(new RevenueEntry("Small Hall", now.minusDays(17).format(formatter), "EVENING", 1300.0, 520.0));
+        store.add("Small Hall", now.minusDays(3), "EVENING", 950.0, 0.0);
+        store.add("Small Hall", now.minusDays(10), "FULL_DAY", 2200.0, 0.0);
+        store.add("Small Hall", now.minusDays(17), "EVENING", 1300.0, 0.0);
 
         // Entries for Rehearsal Space
-        revenueData.add(new RevenueEntry("Rehearsal Space", now.minusDays(4).format(formatter), "FULL_DAY", 240.0, 0.0));
-        revenueData.add(new RevenueEntry("Rehearsal Space", now.minusDays(11).format(formatter), "WEEKLY", 1000.0, 0.0));
-        revenueData.add(new RevenueEntry("Rehearsal Space", now.minusDays(18).format(formatter), "HOURLY", 180.0, 0.0));
+        store.add("Rehearsal Space", now.minusDays(4), "FULL_DAY", 240.0, 0.0);
+        store.add("Rehearsal Space", now.minusDays(11), "WEEKLY", 1000.0, 0.0);
+        store.add("Rehearsal Space", now.minusDays(18), "HOURLY", 180.0, 0.0);
 
         // Entries for various rooms
-        revenueData.add(new RevenueEntry("Green Room", now.minusDays(5).format(formatter), "FULL_DAY", 130.0, 0.0));
-        revenueData.add(new RevenueEntry("Brontë Boardroom", now.minusDays(6).format(formatter), "MORNING_AFTERNOON", 120.0, 0.0));
-        revenueData.add(new RevenueEntry("Dickens Den", now.minusDays(7).format(formatter), "HOURLY", 30.0, 0.0));
-        revenueData.add(new RevenueEntry("Poe Parlor", now.minusDays(12).format(formatter), "WEEKLY", 800.0, 0.0));
-        revenueData.add(new RevenueEntry("Globe Room", now.minusDays(19).format(formatter), "FULL_DAY", 250.0, 0.0));
-        revenueData.add(new RevenueEntry("Chekhov Chamber", now.minusDays(26).format(formatter), "MORNING_AFTERNOON", 110.0, 0.0));
+        store.add("Green Room", now.minusDays(5), "FULL_DAY", 130.0, 0.0);
+        store.add("Brontë Boardroom", now.minusDays(6), "MORNING_AFTERNOON", 120.0, 0.0);
+        store.add("Dickens Den", now.minusDays(7), "HOURLY", 30.0, 0.0);
+        store.add("Poe Parlor", now.minusDays(12), "WEEKLY", 800.0, 0.0);
+        store.add("Globe Room", now.minusDays(19), "FULL_DAY", 250.0, 0.0);
+        store.add("Chekhov Chamber", now.minusDays(26), "MORNING_AFTERNOON", 110.0, 0.0);
+
+        // Ticket sales come from the ticket sale feed, not the sample
+        addTicketSales(ticketLedger.rows());
+
+        cube.rebuild(store);
+        //the sample is all there is, so every range counts as held and nothing is read from the database
+        loadedFrom = LocalDate.MIN;
+        loadedTo = LocalDate.MAX;
+        sampleData = true;
     }
 
     /**
-     *loading ticket sales data from an external API.
+     * Pulls the ticket sales added to the ticket sale feed since the last pull and adds them to the revenue held.
+     * <p>
+     * The records are read and parsed in the background by the {@link TicketSalesPipeline}. Once the whole pull has
+     * been read, its sales, summed by day and venue, are added on the JavaFX thread in one go with
+     * {@link #applyTicketSales(List)}, without a pipeline thread waiting for it, so a pull that fails part way adds
+     * nothing and is read again in full by the next refresh. Without a configured feed nothing is pulled.
+     * </p>
+     *
+     * @return a future of what was pulled, completed once the sales have been added.
      */
-    public void loadTicketSalesData() {
-        // Future API integration goes here
+    public CompletableFuture<TicketSalesPipeline.Result> loadTicketSalesData() {
+        if (ticketSalesPipeline == null) {
+            return CompletableFuture.completedFuture(new TicketSalesPipeline.Result(0, 0, 0, null, 0));
+        }
+        return ticketSalesPipeline.pull(this::applyTicketSales, Platform::runLater);
+    }
+
+    /**
+     * Adds ticket sales to the ledger, and to the entries and revenue cube in place when their dates are held.
+     *
+     * @param sales the ticket sales, each the sales of one venue on one day.
+     */
+    public void applyTicketSales(List<TicketSale> sales) {
+        for (TicketSale sale : sales) {
+            ticketLedger.add(sale.venue(), sale.date(), TICKET_SALES, 0.0, sale.amount());
+            if (loadedFrom != null && !sale.date().isBefore(loadedFrom) && !sale.date().isAfter(loadedTo)) {
+                recordRevenue(sale.venue(), sale.date(), TICKET_SALES, 0.0, sale.amount());
+            }
+        }
     }
 
     /**
@@ -90,12 +309,7 @@ public class RevenueManager {
      * @return {@code true} if the venue is classified as a room, {@code false} otherwise.
      */
     public boolean isRoomVenue(String venue) {
-        return venue.equals("Green Room") ||
-                venue.equals("Brontë Boardroom") ||
-                venue.equals("Dickens Den") ||
-                venue.equals("Poe Parlor") ||
-                venue.equals("Globe Room") ||
-                venue.equals("Chekhov Chamber");
+        return ROOM_VENUES.contains(venue);
     }
 
     /**
@@ -107,26 +321,126 @@ public class RevenueManager {
      * @return an observable list of revenue entries matching the filter.
      */
     public ObservableList<RevenueEntry> getFilteredData(LocalDate fromDate, LocalDate toDate, String selectedVenue) {
-        ObservableList<RevenueEntry> filteredData = FXCollections.observableArrayList();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        Predicate<String> filter = venueFilter(selectedVenue);
+        return store.rows(fromDate, toDate, filter == null ? null : store.venueMask(filter));
+    }
 
-        for (RevenueEntry entry : revenueData) {
-            LocalDate entryDate = LocalDate.parse(entry.getDate(), formatter);
+    /**
+     * Lists the venues a venue selection covers, for queries that filter by venue name.
+     * <p>
+     * "Whole Venue" is the whole building rather than a room of its own, so like "All Venues" it covers every venue.
+     * </p>
+     *
+     * @param selectedVenue the venue, or "All Venues", "Whole Venue" or "Rooms".
+     * @return the names of the venues, or {@code null} if every venue is selected.
+     */
+    public static Collection<String> getSelectedVenues(String selectedVenue) {
+        if (selectedVenue.equals(ALL_VENUES) || selectedVenue.equals(WHOLE_VENUE)) {
+            return null;
+        }
+        return selectedVenue.equals(ROOMS) ? ROOM_VENUES : List.of(selectedVenue);
+    }
+
+    /**
+     * Works out which venue names a venue selection covers, so the store and cube can match venues by code.
+     *
+     * @param selectedVenue the venue, or "All Venues", "Whole Venue" or "Rooms".
+     * @return a test of venue names, or {@code null} if every venue is selected.
+     */
+    private Predicate<String> venueFilter(String selectedVenue) {
+        if (selectedVenue.equals(ALL_VENUES) || selectedVenue.equals(WHOLE_VENUE)) {
+            return null;
+        }
+        return selectedVenue.equals(ROOMS) ? this::isRoomVenue : selectedVenue::equals;
+    }
 
-            if ((entryDate.isEqual(fromDate) || entryDate.isAfter(fromDate)) &&
-                    (entryDate.isEqual(toDate) || entryDate.isBefore(toDate))) {
+    // Data analysis methods
 
-                if (selectedVenue.equals("All Venues") || entry.getVenue().equals(selectedVenue) ||
-                        (selectedVenue.equals("Rooms") && isRoomVenue(entry.getVenue()))) {
-                    filteredData.add(entry);
-                }
-            }
+    /**
+     * Works out every revenue total of a set of entries in one pass: room hire and ticket sales by venue, by month
+     * and overall.
+     * <p>
+     * Lists from {@link #getFilteredData(LocalDate, LocalDate, String)} are summed straight from the columns of the
+     * revenue store; other lists are read entry by entry.
+     * </p>
+     *
+     * @param filteredData the revenue entries to analyze.
+     * @return the totals, with "Main Hall", "Small Hall" and "Rehearsal Space" as the first venues.
+     */
+    public RevenueSummary summarize(ObservableList<RevenueEntry> filteredData) {
+        RevenueSummary summary = new RevenueSummary();
+        if (filteredData instanceof RevenueStore.Rows) {
+            summarizeRows((RevenueStore.Rows) filteredData, summary);
+        } else {
+            summarizeEntries(filteredData, summary);
         }
+        summary.finish(VENUE_ORDER);
+        return summary;
+    }
 
-        return filteredData;
+    /**
+     * Works out every revenue total of a date range and venue from the revenue cube: room hire and ticket sales by
+     * venue, by month and overall.
+     * <p>
+     * The totals are read from running totals rather than summed from the entries, so this takes the same time
+     * however many days are held. Only dates held are counted; see {@link #isLoaded(LocalDate, LocalDate)}.
+     * </p>
+     *
+     * @param fromDate      the start date of the range (inclusive).
+     * @param toDate        the end date of the range (inclusive).
+     * @param selectedVenue the venue to include, or "All Venues" or "Rooms".
+     * @return the totals, with "Main Hall", "Small Hall" and "Rehearsal Space" as the first venues.
+     */
+    public RevenueSummary summarize(LocalDate fromDate, LocalDate toDate, String selectedVenue) {
+        Predicate<String> filter = venueFilter(selectedVenue);
+        return cube.summarize(fromDate, toDate, filter == null ? null : cube.venueMask(filter), VENUE_ORDER);
     }
 
-    // Data analysis methods
+    /**
+     * Sums a view of the revenue store by venue code. A view is usually in date order, so the month is only worked
+     * out again when a row falls outside the month of the row before.
+     */
+    private static void summarizeRows(RevenueStore.Rows rows, RevenueSummary summary) {
+        RevenueStore store = rows.getStore();
+        //summary index of each venue code, or -1 until the venue is seen
+        int[] venues = new int[store.getVenueCount()];
+        Arrays.fill(venues, -1);
+        int month = 0;
+        int monthStart = 0;
+        int monthEnd = 0;
+        for (int index = 0; index < rows.size(); index++) {
+            int row = rows.rowAt(index);
+            int day = store.getEpochDay(row);
+            if (day < monthStart || day >= monthEnd) {
+                LocalDate date = LocalDate.ofEpochDay(day);
+                month = date.getYear() * 12 + date.getMonthValue() - 1;
+                monthStart = (int) date.withDayOfMonth(1).toEpochDay();
+                monthEnd = (int) date.withDayOfMonth(1).plusMonths(1).toEpochDay();
+            }
+            int code = store.getVenueCode(row);
+            if (venues[code] < 0) {
+                venues[code] = summary.addVenue(store.getVenueName(code));
+            }
+            summary.add(venues[code], month, store.getRoomRate(row), store.getTicketSales(row));
+        }
+    }
+
+    /**
+     * Sums a list of entries, reading the month from the year and month digits of each date.
+     */
+    private static void summarizeEntries(List<RevenueEntry> entries, RevenueSummary summary) {
+        Map<String, Integer> venues = new HashMap<>();
+        for (RevenueEntry entry : entries) {
+            Integer venue = venues.get(entry.getVenue());
+            if (venue == null) {
+                venue = summary.addVenue(entry.getVenue());
+                venues.put(entry.getVenue(), venue);
+            }
+            String date = entry.getDate(); // Format: YYYY-MM-DD
+            int month = Integer.parseInt(date, 0, 4, 10) * 12 + Integer.parseInt(date, 5, 7, 10) - 1;
+            summary.add(venue, month, entry.getRoomRate(), entry.getTicketSales());
+        }
+    }
 
     /**
      * Sums total revenue for each venue from a filtered set of revenue entries.
@@ -135,10 +449,10 @@ public class RevenueManager {
      * @return a map of venue names to their total revenue.
      */
     public Map<String, Double> getVenueRevenueMap(ObservableList<RevenueEntry> filteredData) {
+        RevenueSummary summary = summarize(filteredData);
         Map<String, Double> venueRevenueMap = new HashMap<>();
-        for (RevenueEntry entry : filteredData) {
-            venueRevenueMap.put(entry.getVenue(),
-                    venueRevenueMap.getOrDefault(entry.getVenue(), 0.0) + entry.getTotalRevenue());
+        for (int venue = 0; venue < summary.getVenueCount(); venue++) {
+            venueRevenueMap.put(summary.getVenueName(venue), summary.getVenueRevenue(venue));
         }
         return venueRevenueMap;
     }
@@ -150,11 +464,12 @@ public class RevenueManager {
      * @return a map of month strings (YYYY-MM) to their total revenue.
      */
     public Map<String, Double> getMonthlyRevenueMap(ObservableList<RevenueEntry> filteredData) {
+        RevenueSummary summary = summarize(filteredData);
         Map<String, Double> monthlyRevenueMap = new HashMap<>();
-        for (RevenueEntry entry : filteredData) {
-            String month = entry.getDate().substring(0, 7); // Format: YYYY-MM
-            monthlyRevenueMap.put(month,
-                    monthlyRevenueMap.getOrDefault(month, 0.0) + entry.getTotalRevenue());
+        for (int month = 0; month < summary.getMonthCount(); month++) {
+            if (summary.getMonthEntryCount(month) > 0) {
+                monthlyRevenueMap.put(summary.getMonth(month).toString(), summary.getMonthRevenue(month));
+            }
         }
         return monthlyRevenueMap;
     }
@@ -166,10 +481,10 @@ public class RevenueManager {
      * @return a map of venue names to their room hire revenue.
      */
     public Map<String, Double> getVenueRoomRateMap(ObservableList<RevenueEntry> filteredData) {
+        RevenueSummary summary = summarize(filteredData);
         Map<String, Double> venueRoomRateMap = new HashMap<>();
-        for (RevenueEntry entry : filteredData) {
-            venueRoomRateMap.put(entry.getVenue(),
-                    venueRoomRateMap.getOrDefault(entry.getVenue(), 0.0) + entry.getRoomRate());
+        for (int venue = 0; venue < summary.getVenueCount(); venue++) {
+            venueRoomRateMap.put(summary.getVenueName(venue), summary.getVenueRoomHire(venue));
         }
         return venueRoomRateMap;
     }
@@ -181,10 +496,10 @@ public class RevenueManager {
      * @return a map of venue names to their ticket sales revenue.
      */
     public Map<String, Double> getVenueTicketSalesMap(ObservableList<RevenueEntry> filteredData) {
+        RevenueSummary summary = summarize(filteredData);
         Map<String, Double> venueTicketSalesMap = new HashMap<>();
-        for (RevenueEntry entry : filteredData) {
-            venueTicketSalesMap.put(entry.getVenue(),
-                    venueTicketSalesMap.getOrDefault(entry.getVenue(), 0.0) + entry.getTicketSales());
+        for (int venue = 0; venue < summary.getVenueCount(); venue++) {
+            venueTicketSalesMap.put(summary.getVenueName(venue), summary.getVenueTicketSales(venue));
         }
         return venueTicketSalesMap;
     }
@@ -196,11 +511,7 @@ public class RevenueManager {
      * @return the total room hire revenue.
      */
     public double calculateTotalRoomRate(ObservableList<RevenueEntry> filteredData) {
-        double total = 0;
-        for (RevenueEntry entry : filteredData) {
-            total += entry.getRoomRate();
-        }
-        return total;
+        return summarize(filteredData).getTotalRoomHire();
     }
 
     /**
@@ -210,45 +521,46 @@ public class RevenueManager {
      * @return the total ticket sales revenue.
      */
     public double calculateTotalTicketSales(ObservableList<RevenueEntry> filteredData) {
-        double total = 0;
-        for (RevenueEntry entry : filteredData) {
-            total += entry.getTicketSales();
-        }
-        return total;
+        return summarize(filteredData).getTotalTicketSales();
     }
 
     /**
-     * Provides revenue data for year-over-year comparisons.
+     * Gets monthly revenue of last year and this year from the database for year-over-year comparisons, off the
+     * JavaFX thread.
+     * <p>
+     * The months are summed by the database by year, month and room, and cached by month in the
+     * {@link RevenueRollupCache}, so only months not seen before, or changed since, are queried. This year stops at
+     * the current month.
+     * </p>
+     *
+     * @return a future of a map of years to monthly revenue totals, both in calendar order, with months keyed by their
+     * short names such as "Jan".
+     */
+    public CompletableFuture<Map<String, Map<String, Number>>> fetchYearComparisonData() {
+        YearMonth now = YearMonth.now();
+        YearMonth from = YearMonth.of(now.getYear() - 1, Month.JANUARY);
+        return RevenueRollupCache.getInstance().getMonthTotals(from, now).thenApply(months -> {
+            Map<String, Map<String, Number>> result = new LinkedHashMap<>();
+            for (Map.Entry<YearMonth, Map<String, Double>> month : months.entrySet()) {
+                double total = 0;
+                for (double roomHire : month.getValue().values()) {
+                    total += roomHire;
+                }
+                result.computeIfAbsent(String.valueOf(month.getKey().getYear()), year -> new LinkedHashMap<>())
+                        .put(month.getKey().getMonth().getDisplayName(TextStyle.SHORT, Locale.UK), total);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Provides revenue data for year-over-year comparisons, waiting for it to be read from the database if needed.
+     * Code on the JavaFX thread should use {@link #fetchYearComparisonData()} instead.
      *
      * @return a map of years to monthly revenue totals.
      */
     public Map<String, Map<String, Number>> getYearComparisonData() {
-        Map<String, Map<String, Number>> result = new HashMap<>();
-
-        // Pre-defined revenue data for comparison - replace with actual data when available
-        Map<String, Number> data2024 = new HashMap<>();
-        data2024.put("Jan", 18500);
-        data2024.put("Feb", 19200);
-        data2024.put("Mar", 22500);
-        data2024.put("Apr", 21000);
-        data2024.put("May", 23500);
-        data2024.put("Jun", 25000);
-        data2024.put("Jul", 27000);
-        data2024.put("Aug", 24800);
-        data2024.put("Sep", 21500);
-        data2024.put("Oct", 22300);
-        data2024.put("Nov", 23800);
-        data2024.put("Dec", 26500);
-
-        Map<String, Number> data2025 = new HashMap<>();
-        data2025.put("Jan", 19800);
-        data2025.put("Feb", 21500);
-        data2025.put("Mar", 24750);
-
-        result.put("2024", data2024);
-        result.put("2025", data2025);
-
-        return result;
+        return fetchYearComparisonData().join();
     }
 
     /**
@@ -261,15 +573,9 @@ public class RevenueManager {
      * @return a sorted map with preferred venue order.
      */
     public Map<String, Double> getSortedVenueMap(Map<String, Double> venueMap) {
-        List<String> venueOrder = Arrays.asList(
-                "Main Hall",
-                "Small Hall",
-                "Rehearsal Space"
-        );
-
         Map<String, Double> sortedMap = new LinkedHashMap<>();
 
-        for (String venue : venueOrder) {
+        for (String venue : VENUE_ORDER) {
             if (venueMap.containsKey(venue)) {
                 sortedMap.put(venue, venueMap.get(venue));
             }
@@ -313,6 +619,45 @@ public class RevenueManager {
         return pieChartData;
     }
 
+    /**
+     * Generates pie chart data of total revenue by venue from a revenue summary, in its venue order.
+     *
+     * @param summary the revenue totals.
+     * @return an observable list of pie chart data entries.
+     */
+    public ObservableList<PieChart.Data> generatePieChartData(RevenueSummary summary) {
+        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
+        for (int venue = 0; venue < summary.getVenueCount(); venue++) {
+            pieChartData.add(new PieChart.Data(summary.getVenueName(venue), summary.getVenueRevenue(venue)));
+        }
+        return pieChartData;
+    }
+
+    /**
+     * Generates bar chart data comparing room hire and ticket sales by venue from a revenue summary, in its venue order.
+     *
+     * @param summary the revenue totals.
+     * @return a list of bar chart series for room hire and ticket sales.
+     */
+    public List<XYChart.Series<String, Number>> generateBarChartData(RevenueSummary summary) {
+        XYChart.Series<String, Number> roomHireSeries = new XYChart.Series<>();
+        roomHireSeries.setName("Room Hire");
+
+        XYChart.Series<String, Number> ticketSalesSeries = new XYChart.Series<>();
+        ticketSalesSeries.setName("Ticket Sales");
+
+        for (int venue = 0; venue < summary.getVenueCount(); venue++) {
+            String name = summary.getVenueName(venue);
+            roomHireSeries.getData().add(new XYChart.Data<>(name, summary.getVenueRoomHire(venue)));
+            ticketSalesSeries.getData().add(new XYChart.Data<>(name, summary.getVenueTicketSales(venue)));
+        }
+
+        List<XYChart.Series<String, Number>> result = new ArrayList<>();
+        result.add(roomHireSeries);
+        result.add(ticketSalesSeries);
+        return result;
+    }
+
     /**
      * Generates bar chart data comparing room hire and ticket sales by venue.
      *
@@ -0,0 +1,413 @@
+package lancaster.model;
+
+import javafx.collections.ObservableListBase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A column store of revenue rows, kept in date order.
+ * <p>
+ * Each field of a row lives in its own primitive array: the date as an epoch day, the venue and booking type as
+ * codes into a dictionary of names, and the room hire and ticket sales as doubles. A million rows take about
+ * 24 MB and no objects, and a date range is found with two binary searches on the day column instead of parsing
+ * the date of every row.
+ * </p>
+ * <p>
+ * Rows can be added in any order. Rows added out of date order are sorted into place, keeping the order they were
+ * added in within a day, the next time the store is read, so a bulk load pays for one sort rather than a shift per
+ * row.
+ * </p>
+ * <p>
+ * Rows are read through {@link Rows} views, which are lists of {@link RevenueEntry} that create an entry only when
+ * one is asked for. A view holds row numbers, so it must be asked for again after rows are added or the store is
+ * cleared. This class is not thread-safe; the revenue screens use it from the JavaFX thread only.
+ * </p>
+ */
+public final class RevenueStore {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private int[] venueCodes = new int[INITIAL_CAPACITY];
+    private int[] bookingTypeCodes = new int[INITIAL_CAPACITY];
+    private double[] roomRates = new double[INITIAL_CAPACITY];
+    private double[] ticketSales = new double[INITIAL_CAPACITY];
+    private int size;
+    private boolean sorted = true;
+
+    private final List<String> venues = new ArrayList<>();
+    private final Map<String, Integer> venueIndex = new HashMap<>();
+    private final List<String> bookingTypes = new ArrayList<>();
+    private final Map<String, Integer> bookingTypeIndex = new HashMap<>();
+
+    /**
+     * Adds a row.
+     *
+     * @param venue       the name of the venue
+     * @param date        the date of the booking
+     * @param bookingType the type of booking
+     * @param roomRate    the room hire revenue
+     * @param ticketSales the ticket sales revenue
+     */
+    public void add(String venue, LocalDate date, String bookingType, double roomRate, double ticketSales) {
+        add(venue, (int) date.toEpochDay(), bookingType, roomRate, ticketSales);
+    }
+
+    /**
+     * Adds a row.
+     *
+     * @param venue       the name of the venue
+     * @param epochDay    the date of the booking as a day count from 1970-01-01
+     * @param bookingType the type of booking
+     * @param roomRate    the room hire revenue
+     * @param ticketSales the ticket sales revenue
+     */
+    public void add(String venue, int epochDay, String bookingType, double roomRate, double ticketSales) {
+        if (size == epochDays.length) {
+            grow();
+        }
+        if (size > 0 && epochDay < epochDays[size - 1]) {
+            sorted = false;
+        }
+        epochDays[size] = epochDay;
+        venueCodes[size] = encode(venue, venues, venueIndex);
+        bookingTypeCodes[size] = encode(bookingType, bookingTypes, bookingTypeIndex);
+        roomRates[size] = roomRate;
+        this.ticketSales[size] = ticketSales;
+        size++;
+    }
+
+    /**
+     * Removes every row. The venue and booking type dictionaries are kept, so codes stay valid.
+     */
+    public void clear() {
+        size = 0;
+        sorted = true;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the first row on or after a day.
+     *
+     * @param epochDay the day
+     * @return the number of the first row dated on or after the day, or {@link #size()} if there is none
+     */
+    public int lowerBound(int epochDay) {
+        ensureSorted();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochDays[middle] < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first row after a day.
+     *
+     * @param epochDay the day
+     * @return the number of the first row dated after the day, or {@link #size()} if there is none
+     */
+    public int upperBound(int epochDay) {
+        return epochDay == Integer.MAX_VALUE ? size : lowerBound(epochDay + 1);
+    }
+
+    /**
+     * @param row the number of a row
+     * @return the date of the row as a day count from 1970-01-01
+     */
+    public int getEpochDay(int row) {
+        ensureSorted();
+        return epochDays[row];
+    }
+
+    /**
+     * @param row the number of a row
+     * @return the code of the venue of the row
+     */
+    public int getVenueCode(int row) {
+        ensureSorted();
+        return venueCodes[row];
+    }
+
+    /**
+     * @param row the number of a row
+     * @return the code of the booking type of the row
+     */
+    public int getBookingTypeCode(int row) {
+        ensureSorted();
+        return bookingTypeCodes[row];
+    }
+
+    /**
+     * @param row the number of a row
+     * @return the room hire revenue of the row
+     */
+    public double getRoomRate(int row) {
+        ensureSorted();
+        return roomRates[row];
+    }
+
+    /**
+     * @param row the number of a row
+     * @return the ticket sales revenue of the row
+     */
+    public double getTicketSales(int row) {
+        ensureSorted();
+        return ticketSales[row];
+    }
+
+    /**
+     * @return the number of venues that have been seen, which bounds the venue codes
+     */
+    public int getVenueCount() {
+        return venues.size();
+    }
+
+    /**
+     * @param code the code of a venue
+     * @return the name of the venue
+     */
+    public String getVenueName(int code) {
+        return venues.get(code);
+    }
+
+    /**
+     * @param code the code of a booking type
+     * @return the name of the booking type
+     */
+    public String getBookingTypeName(int code) {
+        return bookingTypes.get(code);
+    }
+
+    /**
+     * Works out which venues a filter lets through, so rows can be filtered by code without comparing names.
+     *
+     * @param filter accepts the names of the venues to keep
+     * @return a flag for each venue code, set if the venue is kept
+     */
+    public boolean[] venueMask(Predicate<String> filter) {
+        boolean[] mask = new boolean[venues.size()];
+        for (int code = 0; code < mask.length; code++) {
+            mask[code] = filter.test(venues.get(code));
+        }
+        return mask;
+    }
+
+    /**
+     * Creates an entry holding the values of a row. The entry is a copy, so changing it does not change the store.
+     *
+     * @param row the number of a row
+     * @return the entry
+     */
+    public RevenueEntry getEntry(int row) {
+        ensureSorted();
+        return new RevenueEntry(venues.get(venueCodes[row]), LocalDate.ofEpochDay(epochDays[row]).toString(),
+                bookingTypes.get(bookingTypeCodes[row]), roomRates[row], ticketSales[row]);
+    }
+
+    /**
+     * @return a view of every row in date order
+     */
+    public Rows rows() {
+        ensureSorted();
+        return new Rows(this, 0, size, null);
+    }
+
+    /**
+     * Returns a view of the rows in a date range, optionally for some venues only.
+     *
+     * @param from      the first day of the range
+     * @param to        the last day of the range, inclusive
+     * @param venueMask the venues to keep, from {@link #venueMask(Predicate)}, or {@code null} to keep all
+     * @return a view of the matching rows in date order
+     */
+    public Rows rows(LocalDate from, LocalDate to, boolean[] venueMask) {
+        int first = lowerBound((int) from.toEpochDay());
+        int end = Math.max(first, upperBound((int) to.toEpochDay()));
+        if (venueMask == null) {
+            return new Rows(this, first, end - first, null);
+        }
+        int[] matches = new int[end - first];
+        int count = 0;
+        for (int row = first; row < end; row++) {
+            int code = venueCodes[row];
+            //codes of venues added after the mask was made are not in it
+            if (code < venueMask.length && venueMask[code]) {
+                matches[count++] = row;
+            }
+        }
+        return new Rows(this, 0, count, matches);
+    }
+
+    private static int encode(String name, List<String> names, Map<String, Integer> index) {
+        Integer code = index.get(name);
+        if (code == null) {
+            code = names.size();
+            names.add(name);
+            index.put(name, code);
+        }
+        return code;
+    }
+
+    private void grow() {
+        int capacity = epochDays.length * 2;
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        venueCodes = Arrays.copyOf(venueCodes, capacity);
+        bookingTypeCodes = Arrays.copyOf(bookingTypeCodes, capacity);
+        roomRates = Arrays.copyOf(roomRates, capacity);
+        ticketSales = Arrays.copyOf(ticketSales, capacity);
+    }
+
+    /**
+     * Puts the rows back in date order after rows were added out of order. Rows of the same day keep the order they
+     * were added in, since the sort key is the day followed by the row number.
+     */
+    private void ensureSorted() {
+        if (sorted) {
+            return;
+        }
+        long[] keys = new long[size];
+        for (int row = 0; row < size; row++) {
+            keys[row] = ((long) epochDays[row] << 32) | row;
+        }
+        Arrays.sort(keys);
+        int[] newDays = new int[epochDays.length];
+        int[] newVenues = new int[epochDays.length];
+        int[] newBookingTypes = new int[epochDays.length];
+        double[] newRoomRates = new double[epochDays.length];
+        double[] newTicketSales = new double[epochDays.length];
+        for (int row = 0; row < size; row++) {
+            int from = (int) keys[row];
+            newDays[row] = epochDays[from];
+            newVenues[row] = venueCodes[from];
+            newBookingTypes[row] = bookingTypeCodes[from];
+            newRoomRates[row] = roomRates[from];
+            newTicketSales[row] = ticketSales[from];
+        }
+        epochDays = newDays;
+        venueCodes = newVenues;
+        bookingTypeCodes = newBookingTypes;
+        roomRates = newRoomRates;
+        ticketSales = newTicketSales;
+        sorted = true;
+    }
+
+    /**
+     * A read-only list of some rows of a store, which creates a {@link RevenueEntry} each time an element is read.
+     * <p>
+     * A table showing the view only reads the rows it has on screen, so filtering a million rows costs two binary
+     * searches, plus one pass over the venue codes when filtering by venue, and no entries. The revenue summaries
+     * of {@link RevenueManager} recognise a view and read the columns directly.
+     * </p>
+     * <p>
+     * The view can be put in another order with {@link #sort(Comparator)}, which is what a table does when a column
+     * header is clicked, and back in date order by sorting with a {@code null} comparator.
+     * </p>
+     */
+    public static final class Rows extends ObservableListBase<RevenueEntry> {
+        private final RevenueStore store;
+        private final int first;
+        private final int size;
+        //the row numbers, or null when the view is the rows first to first + size
+        private int[] rows;
+
+        private Rows(RevenueStore store, int first, int size, int[] rows) {
+            this.store = store;
+            this.first = first;
+            this.size = size;
+            this.rows = rows;
+        }
+
+        /**
+         * @return the store the view reads
+         */
+        public RevenueStore getStore() {
+            return store;
+        }
+
+        /**
+         * @param index the position of an element of the view
+         * @return the number of its row in the store
+         */
+        public int rowAt(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return rows == null ? first + index : rows[index];
+        }
+
+        @Override
+        public RevenueEntry get(int index) {
+            return store.getEntry(rowAt(index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Puts the view in another order. Every row is read once to sort it.
+         *
+         * @param comparator the order of the entries, or {@code null} for date order
+         */
+        @Override
+        public void sort(Comparator<? super RevenueEntry> comparator) {
+            int[] old = new int[size];
+            for (int index = 0; index < size; index++) {
+                old[index] = rowAt(index);
+            }
+            //order[i] is the old position of the element that goes to position i
+            int[] order = new int[size];
+            if (comparator == null) {
+                long[] keys = new long[size];
+                for (int index = 0; index < size; index++) {
+                    keys[index] = ((long) old[index] << 32) | index;
+                }
+                Arrays.sort(keys);
+                for (int index = 0; index < size; index++) {
+                    order[index] = (int) keys[index];
+                }
+            } else {
+                Integer[] boxed = new Integer[size];
+                RevenueEntry[] entries = new RevenueEntry[size];
+                for (int index = 0; index < size; index++) {
+                    boxed[index] = index;
+                    entries[index] = store.getEntry(old[index]);
+                }
+                Arrays.sort(boxed, (a, b) -> comparator.compare(entries[a], entries[b]));
+                for (int index = 0; index < size; index++) {
+                    order[index] = boxed[index];
+                }
+            }
+            int[] sortedRows = new int[size];
+            int[] permutation = new int[size];
+            for (int index = 0; index < size; index++) {
+                sortedRows[index] = old[order[index]];
+                permutation[order[index]] = index;
+            }
+            rows = sortedRows;
+            beginChange();
+            nextPermutation(0, size, permutation);
+            endChange();
+        }
+    }
+}
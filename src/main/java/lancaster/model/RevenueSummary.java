@@ -0,0 +1,296 @@
+package lancaster.model;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The totals of a set of revenue entries by venue and by month, worked out in one pass over the entries.
+ * <p>
+ * Room hire and ticket sales are summed into primitive arrays, one slot per venue and one per calendar month
+ * between the earliest and latest month seen, so filling a summary boxes nothing and builds no keys per entry.
+ * Summaries are made by {@link RevenueManager#summarize(javafx.collections.ObservableList)}, or read from a
+ * {@link RevenueCube} by {@link RevenueManager#summarize(java.time.LocalDate, java.time.LocalDate, String)}.
+ * </p>
+ * <p>
+ * Venues are numbered in display order: the venues {@link RevenueManager} lists first come first, then the rest in
+ * the order they were first seen. Only venues with at least one entry are included. Months are numbered from the
+ * earliest month, and months in between without entries are included with zero totals.
+ * </p>
+ */
+public final class RevenueSummary {
+    private static final int INITIAL_MONTHS = 12;
+
+    private final List<String> venues = new ArrayList<>();
+    private double[] venueRoomHire = new double[8];
+    private double[] venueTicketSales = new double[8];
+    private int[] venueEntries = new int[8];
+
+    //months are counted as year * 12 + month - 1 and stored from firstMonth on
+    private int firstMonth;
+    private int monthCount;
+    private double[] monthRoomHire = new double[INITIAL_MONTHS];
+    private double[] monthTicketSales = new double[INITIAL_MONTHS];
+    private int[] monthEntries = new int[INITIAL_MONTHS];
+
+    private double totalRoomHire;
+    private double totalTicketSales;
+    private int entryCount;
+
+    RevenueSummary() {
+    }
+
+    /**
+     * Adds an entry to the totals.
+     *
+     * @param venue       the index of the venue, from {@link #addVenue(String)}
+     * @param month       the month of the entry as year * 12 + month - 1
+     * @param roomHire    the room hire revenue
+     * @param ticketSales the ticket sales revenue
+     */
+    void add(int venue, int month, double roomHire, double ticketSales) {
+        add(venue, month, roomHire, ticketSales, 1);
+    }
+
+    /**
+     * Adds the totals of several entries of one venue and month, such as those read from a {@link RevenueCube}.
+     *
+     * @param venue       the index of the venue, from {@link #addVenue(String)}
+     * @param month       the month of the entries as year * 12 + month - 1
+     * @param roomHire    the room hire revenue of the entries
+     * @param ticketSales the ticket sales revenue of the entries
+     * @param entries     the number of entries
+     */
+    void add(int venue, int month, double roomHire, double ticketSales, int entries) {
+        venueRoomHire[venue] += roomHire;
+        venueTicketSales[venue] += ticketSales;
+        venueEntries[venue] += entries;
+        int slot = monthSlot(month);
+        monthRoomHire[slot] += roomHire;
+        monthTicketSales[slot] += ticketSales;
+        monthEntries[slot] += entries;
+        totalRoomHire += roomHire;
+        totalTicketSales += ticketSales;
+        entryCount += entries;
+    }
+
+    /**
+     * Adds a venue with no entries yet.
+     *
+     * @param name the name of the venue
+     * @return its index
+     */
+    int addVenue(String name) {
+        int venue = venues.size();
+        if (venue == venueEntries.length) {
+            venueRoomHire = Arrays.copyOf(venueRoomHire, venue * 2);
+            venueTicketSales = Arrays.copyOf(venueTicketSales, venue * 2);
+            venueEntries = Arrays.copyOf(venueEntries, venue * 2);
+        }
+        venues.add(name);
+        return venue;
+    }
+
+    /**
+     * Drops the venues without entries and puts the rest in display order.
+     *
+     * @param first the venues to show first, in order
+     */
+    void finish(List<String> first) {
+        Integer[] order = new Integer[venues.size()];
+        for (int venue = 0; venue < order.length; venue++) {
+            order[venue] = venue;
+        }
+        //stable sort, so venues not in the list keep the order they were seen in
+        Arrays.sort(order, (a, b) -> Integer.compare(rank(first, a), rank(first, b)));
+        List<String> names = new ArrayList<>(order.length);
+        double[] roomHire = new double[order.length];
+        double[] ticketSales = new double[order.length];
+        int[] entries = new int[order.length];
+        for (int venue : order) {
+            if (venueEntries[venue] > 0) {
+                roomHire[names.size()] = venueRoomHire[venue];
+                ticketSales[names.size()] = venueTicketSales[venue];
+                entries[names.size()] = venueEntries[venue];
+                names.add(venues.get(venue));
+            }
+        }
+        venues.clear();
+        venues.addAll(names);
+        venueRoomHire = roomHire;
+        venueTicketSales = ticketSales;
+        venueEntries = entries;
+    }
+
+    private int rank(List<String> first, int venue) {
+        int rank = first.indexOf(venues.get(venue));
+        return rank < 0 ? first.size() : rank;
+    }
+
+    /**
+     * Finds the slot of a month, making room for it if it is outside the months seen so far.
+     */
+    private int monthSlot(int month) {
+        if (monthCount == 0) {
+            firstMonth = month;
+            monthCount = 1;
+            return 0;
+        }
+        if (month < firstMonth) {
+            int shift = firstMonth - month;
+            monthRoomHire = shifted(monthRoomHire, shift, monthCount + shift);
+            monthTicketSales = shifted(monthTicketSales, shift, monthCount + shift);
+            monthEntries = shifted(monthEntries, shift, monthCount + shift);
+            firstMonth = month;
+            monthCount += shift;
+            return 0;
+        }
+        int slot = month - firstMonth;
+        if (slot >= monthCount) {
+            if (slot >= monthRoomHire.length) {
+                int capacity = Math.max(slot + 1, monthRoomHire.length * 2);
+                monthRoomHire = Arrays.copyOf(monthRoomHire, capacity);
+                monthTicketSales = Arrays.copyOf(monthTicketSales, capacity);
+                monthEntries = Arrays.copyOf(monthEntries, capacity);
+            }
+            monthCount = slot + 1;
+        }
+        return slot;
+    }
+
+    private double[] shifted(double[] values, int shift, int length) {
+        double[] result = new double[Math.max(length, values.length)];
+        System.arraycopy(values, 0, result, shift, monthCount);
+        return result;
+    }
+
+    private int[] shifted(int[] values, int shift, int length) {
+        int[] result = new int[Math.max(length, values.length)];
+        System.arraycopy(values, 0, result, shift, monthCount);
+        return result;
+    }
+
+    /**
+     * @return the number of venues with entries
+     */
+    public int getVenueCount() {
+        return venues.size();
+    }
+
+    /**
+     * @param venue the index of a venue, in display order
+     * @return the name of the venue
+     */
+    public String getVenueName(int venue) {
+        return venues.get(venue);
+    }
+
+    /**
+     * @param venue the index of a venue, in display order
+     * @return the room hire revenue of the venue
+     */
+    public double getVenueRoomHire(int venue) {
+        return venueRoomHire[venue];
+    }
+
+    /**
+     * @param venue the index of a venue, in display order
+     * @return the ticket sales revenue of the venue
+     */
+    public double getVenueTicketSales(int venue) {
+        return venueTicketSales[venue];
+    }
+
+    /**
+     * @param venue the index of a venue, in display order
+     * @return the total revenue of the venue
+     */
+    public double getVenueRevenue(int venue) {
+        return venueRoomHire[venue] + venueTicketSales[venue];
+    }
+
+    /**
+     * @param venue the index of a venue, in display order
+     * @return the number of entries for the venue
+     */
+    public int getVenueEntryCount(int venue) {
+        return venueEntries[venue];
+    }
+
+    /**
+     * @return the number of months from the earliest to the latest month with entries, or 0 if there are none
+     */
+    public int getMonthCount() {
+        return monthCount;
+    }
+
+    /**
+     * @param month the index of a month, from 0 for the earliest
+     * @return the month
+     */
+    public YearMonth getMonth(int month) {
+        int value = firstMonth + month;
+        return YearMonth.of(Math.floorDiv(value, 12), Math.floorMod(value, 12) + 1);
+    }
+
+    /**
+     * @param month the index of a month, from 0 for the earliest
+     * @return the room hire revenue of the month
+     */
+    public double getMonthRoomHire(int month) {
+        return monthRoomHire[month];
+    }
+
+    /**
+     * @param month the index of a month, from 0 for the earliest
+     * @return the ticket sales revenue of the month
+     */
+    public double getMonthTicketSales(int month) {
+        return monthTicketSales[month];
+    }
+
+    /**
+     * @param month the index of a month, from 0 for the earliest
+     * @return the total revenue of the month
+     */
+    public double getMonthRevenue(int month) {
+        return monthRoomHire[month] + monthTicketSales[month];
+    }
+
+    /**
+     * @param month the index of a month, from 0 for the earliest
+     * @return the number of entries in the month
+     */
+    public int getMonthEntryCount(int month) {
+        return monthEntries[month];
+    }
+
+    /**
+     * @return the room hire revenue of all entries
+     */
+    public double getTotalRoomHire() {
+        return totalRoomHire;
+    }
+
+    /**
+     * @return the ticket sales revenue of all entries
+     */
+    public double getTotalTicketSales() {
+        return totalTicketSales;
+    }
+
+    /**
+     * @return the total revenue of all entries
+     */
+    public double getTotalRevenue() {
+        return totalRoomHire + totalTicketSales;
+    }
+
+    /**
+     * @return the number of entries summed
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+}
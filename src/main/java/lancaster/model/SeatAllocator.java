@@ -0,0 +1,309 @@
+package lancaster.model;
+
+import java.util.Arrays;
+
+/**
+ * Finds the best free block of seats for a party, so staff do not have to pick seats one by one.
+ * <p>
+ * The allocator works directly on the bitsets of a {@link SeatStateStore}. For each row it takes the free seats as a
+ * 64-bit word and finds every place a block of the party's size fits with a few shift-and-AND steps: after ANDing
+ * the word with itself shifted by 1, 2, 4, ... seats, a bit is left set only where that many free seats follow it.
+ * Each of those starting seats is then scored in constant time from prefix sums of the seat positions, by the
+ * distance from the centre of the block to the centre of the stage. A whole hall is a handful of words and a few
+ * hundred candidates, so an allocation takes microseconds even when the hall is nearly sold out.
+ * </p>
+ * <p>
+ * Seats that follow each other in a row's numbering are not always side by side: the balcony rows run down one side
+ * of the hall, across the back and up the other side. A block never spans a gap wider than the row's seat pitch,
+ * found from the seat positions and kept as a second bitset that is ANDed in the same way as the free seats.
+ * </p>
+ * <p>
+ * A request can be limited to a range of rows, such as the stalls or the balcony, and can ask for a number of
+ * wheelchair places inside the block. If the party may be split and no row has room for it, the allocator looks
+ * for two blocks in neighbouring rows instead, and adds the distance between the two blocks to the score so that
+ * blocks seated one behind the other are preferred.
+ * </p>
+ * <p>
+ * Like the store, the allocator is not thread-safe and is meant to be used from the JavaFX thread.
+ * </p>
+ */
+public final class SeatAllocator {
+    /**
+     * The largest party that can be seated with one request.
+     */
+    public static final int MAX_PARTY_SIZE = 64;
+
+    //seats further apart than this many times the row's pitch are not side by side
+    private static final double GAP_FACTOR = 1.5;
+
+    private final SeatStateStore seats;
+    private final double[] seatX;
+    private final double[] seatY;
+    private final double[] prefixX; // Sum of the x-coordinates of the seats before each index.
+    private final double[] prefixY;
+    private final long[] joined; // Bit i is set when seat i sits right beside seat i + 1 in the same row.
+    private boolean positionsChanged = true;
+    private double stageX;
+    private double stageY;
+
+    //best block found by the last call to bestInRow
+    private int bestStart;
+    private double bestScore;
+
+    /**
+     * Creates an allocator for a layout. Every seat starts at the origin until it is given a position.
+     *
+     * @param seats the state of the seats to allocate from
+     */
+    public SeatAllocator(SeatStateStore seats) {
+        this.seats = seats;
+        this.seatX = new double[seats.size()];
+        this.seatY = new double[seats.size()];
+        this.prefixX = new double[seats.size() + 1];
+        this.prefixY = new double[seats.size() + 1];
+        this.joined = new long[(seats.size() + 63) >>> 6];
+    }
+
+    /**
+     * Creates an allocator that scores seats by where they are in a compiled layout.
+     *
+     * @param seats  the state of the seats to allocate from, numbered as in the layout
+     * @param layout the layout giving the seat positions and the stage centre
+     * @throws IllegalArgumentException if the layout and the seat state have different numbers of seats
+     */
+    public SeatAllocator(SeatStateStore seats, SeatingLayout layout) {
+        this(seats);
+        if (layout.getSeatCount() != seats.size()) {
+            throw new IllegalArgumentException("Layout has " + layout.getSeatCount() + " seats, seat state has "
+                    + seats.size());
+        }
+        for (int index = 0; index < seats.size(); index++) {
+            setPosition(index, layout.getSeatX(index) + layout.getSeatWidth() / 2,
+                    layout.getSeatY(index) + layout.getSeatHeight() / 2);
+        }
+        setStageCentre(layout.getStageX(), layout.getStageY());
+    }
+
+    /**
+     * Sets where a seat is on the seating plan, in the same units as the stage centre.
+     *
+     * @param index the seat index in the store
+     * @param x     the x-coordinate of the centre of the seat
+     * @param y     the y-coordinate of the centre of the seat
+     */
+    public void setPosition(int index, double x, double y) {
+        seatX[index] = x;
+        seatY[index] = y;
+        positionsChanged = true;
+    }
+
+    /**
+     * Sets the point blocks are scored against; the closer a block's centre is to it, the better.
+     *
+     * @param x the x-coordinate of the centre of the stage
+     * @param y the y-coordinate of the centre of the stage
+     */
+    public void setStageCentre(double x, double y) {
+        stageX = x;
+        stageY = y;
+    }
+
+    /**
+     * Finds the best free seats for a party.
+     *
+     * @param partySize        the number of seats wanted
+     * @param firstRow         the first row to consider, from 0
+     * @param lastRow          the last row to consider, inclusive
+     * @param wheelchairPlaces the number of wheelchair places the block must include
+     * @param maySplit         whether the party may be seated in two blocks in neighbouring rows if no row has room
+     * @return the indexes of the seats in the store, in seat order, or {@code null} if the party does not fit
+     * @throws IllegalArgumentException if the party size is not between 1 and {@link #MAX_PARTY_SIZE}, or more
+     *                                  wheelchair places are wanted than seats
+     */
+    public int[] allocate(int partySize, int firstRow, int lastRow, int wheelchairPlaces, boolean maySplit) {
+        if (partySize < 1 || partySize > MAX_PARTY_SIZE) {
+            throw new IllegalArgumentException("Party size must be between 1 and " + MAX_PARTY_SIZE
+                    + ", got " + partySize);
+        }
+        if (wheelchairPlaces < 0 || wheelchairPlaces > partySize) {
+            throw new IllegalArgumentException("Cannot fit " + wheelchairPlaces + " wheelchair places in a party of "
+                    + partySize);
+        }
+        firstRow = Math.max(firstRow, 0);
+        lastRow = Math.min(lastRow, seats.getRowCount() - 1);
+        updatePositions();
+
+        int blockStart = -1;
+        double blockScore = Double.POSITIVE_INFINITY;
+        for (int row = firstRow; row <= lastRow; row++) {
+            if (bestInRow(row, partySize, wheelchairPlaces) && bestScore < blockScore) {
+                blockStart = bestStart;
+                blockScore = bestScore;
+            }
+        }
+        if (blockStart >= 0) {
+            return block(blockStart, partySize, -1, 0);
+        }
+        return maySplit ? allocateSplit(partySize, firstRow, lastRow, wheelchairPlaces) : null;
+    }
+
+    /**
+     * Finds the best way to seat a party as two blocks in neighbouring rows.
+     */
+    private int[] allocateSplit(int partySize, int firstRow, int lastRow, int wheelchairPlaces) {
+        int frontStart = -1;
+        int frontSize = 0;
+        int backStart = -1;
+        double splitScore = Double.POSITIVE_INFINITY;
+        for (int row = firstRow; row < lastRow; row++) {
+            for (int front = 1; front < partySize; front++) {
+                int back = partySize - front;
+                int minFrontPlaces = Math.max(0, wheelchairPlaces - back);
+                int maxFrontPlaces = Math.min(wheelchairPlaces, front);
+                for (int frontPlaces = minFrontPlaces; frontPlaces <= maxFrontPlaces; frontPlaces++) {
+                    if (!bestInRow(row, front, frontPlaces)) {
+                        continue;
+                    }
+                    int start = bestStart;
+                    double score = bestScore;
+                    if (!bestInRow(row + 1, back, wheelchairPlaces - frontPlaces)) {
+                        continue;
+                    }
+                    //weight each block by its seats and keep the two blocks close together
+                    double combined = (score * front + bestScore * back) / partySize
+                            + Math.hypot(centreX(start, front) - centreX(bestStart, back),
+                                         centreY(start, front) - centreY(bestStart, back));
+                    if (combined < splitScore) {
+                        splitScore = combined;
+                        frontStart = start;
+                        frontSize = front;
+                        backStart = bestStart;
+                    }
+                }
+            }
+        }
+        return frontStart < 0 ? null : block(frontStart, frontSize, backStart, partySize - frontSize);
+    }
+
+    /**
+     * Finds the best block of free seats in one row, leaving it in {@code bestStart} and {@code bestScore}.
+     *
+     * @return {@code true} if the row has such a block
+     */
+    private boolean bestInRow(int row, int size, int wheelchairPlaces) {
+        int rowStart = seats.getRowStart(row);
+        int rowLength = seats.getRowLength(row);
+        long blockMask = size == 64 ? -1L : (1L << size) - 1;
+        bestStart = -1;
+        bestScore = Double.POSITIVE_INFINITY;
+
+        //scan 64 seats at a time, overlapping so blocks across a word boundary are not missed
+        for (int offset = 0; offset + size <= rowLength; offset += 64 - size + 1) {
+            int chunk = Math.min(64, rowLength - offset);
+            long free = seats.freeBits(rowStart + offset);
+            if (chunk < 64) {
+                free &= (1L << chunk) - 1;
+            }
+            long starts = runStarts(free, size);
+            if (size > 1) {
+                //the seats of a block must also be side by side, with no gap in the row between them
+                starts &= runStarts(SeatStateStore.bitsAt(joined, rowStart + offset), size - 1);
+            }
+            long wheelchair = wheelchairPlaces > 0 ? seats.wheelchairBits(rowStart + offset) : 0;
+            while (starts != 0) {
+                int bit = Long.numberOfTrailingZeros(starts);
+                starts &= starts - 1;
+                if (wheelchairPlaces > 0 && Long.bitCount(wheelchair & (blockMask << bit)) < wheelchairPlaces) {
+                    continue;
+                }
+                int start = rowStart + offset + bit;
+                double score = Math.hypot(centreX(start, size) - stageX, centreY(start, size) - stageY);
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestStart = start;
+                }
+            }
+            if (chunk < 64) {
+                break;
+            }
+        }
+        return bestStart >= 0;
+    }
+
+    /**
+     * Marks the seats where a run of free seats of the given length starts.
+     *
+     * @param free   the free seats, one per bit
+     * @param length the run length, from 1 to 64
+     * @return a word with a bit set for every seat followed by at least {@code length - 1} more free seats
+     */
+    static long runStarts(long free, int length) {
+        long starts = free;
+        int covered = 1;
+        while (covered < length && starts != 0) {
+            int step = Math.min(covered, length - covered);
+            starts &= starts >>> step;
+            covered += step;
+        }
+        return starts;
+    }
+
+    private double centreX(int start, int size) {
+        return (prefixX[start + size] - prefixX[start]) / size;
+    }
+
+    private double centreY(int start, int size) {
+        return (prefixY[start + size] - prefixY[start]) / size;
+    }
+
+    /**
+     * Rebuilds the prefix sums and the seats that are side by side after seats have been moved.
+     */
+    private void updatePositions() {
+        if (positionsChanged) {
+            for (int index = 0; index < seatX.length; index++) {
+                prefixX[index + 1] = prefixX[index] + seatX[index];
+                prefixY[index + 1] = prefixY[index] + seatY[index];
+            }
+            updateJoined();
+            positionsChanged = false;
+        }
+    }
+
+    /**
+     * Joins each seat to the next one in its row unless they are further apart than the row's pitch allows. The
+     * pitch is the smallest distance between neighbouring seats of the row, so seats that have not been given a
+     * position are all joined.
+     */
+    private void updateJoined() {
+        Arrays.fill(joined, 0);
+        for (int row = 0; row < seats.getRowCount(); row++) {
+            int rowStart = seats.getRowStart(row);
+            int rowEnd = rowStart + seats.getRowLength(row);
+            double pitch = Double.POSITIVE_INFINITY;
+            for (int index = rowStart; index + 1 < rowEnd; index++) {
+                pitch = Math.min(pitch, distance(index, index + 1));
+            }
+            for (int index = rowStart; index + 1 < rowEnd; index++) {
+                if (distance(index, index + 1) <= pitch * GAP_FACTOR) {
+                    joined[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+    }
+
+    private double distance(int a, int b) {
+        return Math.hypot(seatX[a] - seatX[b], seatY[a] - seatY[b]);
+    }
+
+    private static int[] block(int start, int size, int secondStart, int secondSize) {
+        int[] block = new int[size + secondSize];
+        for (int i = 0; i < size; i++) {
+            block[i] = start + i;
+        }
+        for (int i = 0; i < secondSize; i++) {
+            block[size + i] = secondStart + i;
+        }
+        return block;
+    }
+}
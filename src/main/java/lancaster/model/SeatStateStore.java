@@ -0,0 +1,480 @@
+package lancaster.model;
+
+import java.util.Arrays;
+
+/**
+ * The state of every seat of one hall layout for one event, held in bitsets.
+ * <p>
+ * Seats are numbered with a dense index: the rows are laid end to end in the order given to the constructor, and a
+ * seat's index is the start of its row plus its seat number minus one. Row names and lengths are the only per-row
+ * data, so the index of a seat is worked out with arithmetic rather than a map of seat identifiers.
+ * </p>
+ * <p>
+ * State is kept in parallel bitsets packed into {@code long} words: one each for available, reserved and
+ * unavailable (exactly one of which is set for every seat), one for the seats selected on this terminal, and one
+ * each for accessible and wheelchair places. Changing a seat's status flips a bit in each of two words, and counts
+ * and bulk changes such as reserving the whole selection work a word (64 seats) at a time. Seat rows read from the
+ * database are loaded with {@link #loadSeat(int, int, boolean, boolean)}, which needs no seat objects.
+ * </p>
+ * <p>
+ * Row numbers in the database count from 1 in the constructor's row order, so rows should be given front to back.
+ * Seat state is not thread-safe; the seating views use it from the JavaFX thread only. The numbering of seats never
+ * changes after construction, so the row and index methods may be called from any thread.
+ * </p>
+ */
+public final class SeatStateStore {
+    private final String[] rowNames;
+    private final int[] rowStarts; // Index of the first seat of each row, plus the seat count at the end.
+    private final int size;
+
+    private final long[] available;
+    private final long[] reserved;
+    private final long[] unavailable;
+    private final long[] selected;
+    private final long[] accessible;
+    private final long[] wheelchair;
+
+    /**
+     * Creates a store for a layout with every seat available.
+     *
+     * @param rowNames   the names of the rows, front to back, for example {@code "A"} or {@code "AA"}
+     * @param rowLengths the number of seats in each row; seats of a row are numbered from 1
+     * @throws IllegalArgumentException if the arrays differ in length or a row length is negative
+     */
+    public SeatStateStore(String[] rowNames, int[] rowLengths) {
+        if (rowNames.length != rowLengths.length) {
+            throw new IllegalArgumentException("Expected one length per row, got " + rowLengths.length
+                    + " lengths for " + rowNames.length + " rows");
+        }
+        this.rowNames = rowNames.clone();
+        this.rowStarts = new int[rowLengths.length + 1];
+        for (int row = 0; row < rowLengths.length; row++) {
+            if (rowLengths[row] < 0) {
+                throw new IllegalArgumentException("Negative length for row " + rowNames[row]);
+            }
+            rowStarts[row + 1] = rowStarts[row] + rowLengths[row];
+        }
+        this.size = rowStarts[rowLengths.length];
+
+        int words = (size + 63) >>> 6;
+        available = new long[words];
+        reserved = new long[words];
+        unavailable = new long[words];
+        selected = new long[words];
+        accessible = new long[words];
+        wheelchair = new long[words];
+        reset();
+    }
+
+    /**
+     * Returns the number of seats in the layout.
+     *
+     * @return the seat count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of rows in the layout.
+     *
+     * @return the row count
+     */
+    public int getRowCount() {
+        return rowNames.length;
+    }
+
+    /**
+     * Returns the name of a row.
+     *
+     * @param row the position of the row, from 0
+     * @return the row name
+     */
+    public String getRowName(int row) {
+        return rowNames[row];
+    }
+
+    /**
+     * Returns the number of seats in a row.
+     *
+     * @param row the position of the row, from 0
+     * @return the row length
+     */
+    public int getRowLength(int row) {
+        return rowStarts[row + 1] - rowStarts[row];
+    }
+
+    /**
+     * Returns the index of the first seat of a row.
+     *
+     * @param row the position of the row, from 0
+     * @return the index of seat 1 of the row
+     */
+    public int getRowStart(int row) {
+        return rowStarts[row];
+    }
+
+    /**
+     * Works out the index of a seat from its row and seat number.
+     *
+     * @param row        the position of the row, from 0
+     * @param seatNumber the seat number within the row, from 1
+     * @return the seat index, or -1 if there is no such seat
+     */
+    public int indexOf(int row, int seatNumber) {
+        if (row < 0 || row >= rowNames.length || seatNumber < 1 || seatNumber > getRowLength(row)) {
+            return -1;
+        }
+        return rowStarts[row] + seatNumber - 1;
+    }
+
+    /**
+     * Works out the index of a seat from its identifier, a row name followed by a seat number such as {@code "AA21"}.
+     *
+     * @param seatId the seat identifier
+     * @return the seat index, or -1 if there is no such seat
+     */
+    public int indexOf(String seatId) {
+        int digits = 0;
+        while (digits < seatId.length() && !Character.isDigit(seatId.charAt(digits))) {
+            digits++;
+        }
+        if (digits == 0 || digits == seatId.length()) {
+            return -1;
+        }
+        for (int row = 0; row < rowNames.length; row++) {
+            if (rowNames[row].length() == digits && seatId.regionMatches(0, rowNames[row], 0, digits)) {
+                try {
+                    return indexOf(row, Integer.parseInt(seatId, digits, seatId.length(), 10));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the row a seat is in.
+     *
+     * @param index the seat index
+     * @return the position of the row, from 0
+     */
+    public int rowOf(int index) {
+        checkIndex(index);
+        int found = Arrays.binarySearch(rowStarts, index);
+        if (found < 0) {
+            return -found - 2;
+        }
+        //skip empty rows that start at the same index
+        while (rowStarts[found + 1] == index) {
+            found++;
+        }
+        return found;
+    }
+
+    /**
+     * Returns the seat number of a seat within its row.
+     *
+     * @param index the seat index
+     * @return the seat number, from 1
+     */
+    public int seatNumberOf(int index) {
+        return index - rowStarts[rowOf(index)] + 1;
+    }
+
+    /**
+     * Builds the identifier of a seat, for display.
+     *
+     * @param index the seat index
+     * @return the row name followed by the seat number, for example {@code "AA21"}
+     */
+    public String getSeatId(int index) {
+        int row = rowOf(index);
+        return rowNames[row] + (index - rowStarts[row] + 1);
+    }
+
+    /**
+     * Returns the status of a seat.
+     *
+     * @param index the seat index
+     * @return the seat status
+     */
+    public SeatStatus getStatus(int index) {
+        checkIndex(index);
+        if (get(available, index)) {
+            return SeatStatus.AVAILABLE;
+        }
+        return get(reserved, index) ? SeatStatus.RESERVED : SeatStatus.UNAVAILABLE;
+    }
+
+    /**
+     * Changes the status of a seat. A seat that stops being available is no longer selected.
+     *
+     * @param index  the seat index
+     * @param status the new status
+     */
+    public void setStatus(int index, SeatStatus status) {
+        checkIndex(index);
+        int word = index >>> 6;
+        long bit = 1L << index;
+        available[word] &= ~bit;
+        reserved[word] &= ~bit;
+        unavailable[word] &= ~bit;
+        bits(status)[word] |= bit;
+        if (status != SeatStatus.AVAILABLE) {
+            selected[word] &= ~bit;
+        }
+    }
+
+    /**
+     * Returns whether a seat is selected on this terminal.
+     *
+     * @param index the seat index
+     * @return {@code true} if the seat is selected
+     */
+    public boolean isSelected(int index) {
+        checkIndex(index);
+        return get(selected, index);
+    }
+
+    /**
+     * Selects or deselects a seat. Only available seats can be selected.
+     *
+     * @param index      the seat index
+     * @param isSelected {@code true} to select the seat
+     * @return whether the seat is selected afterwards
+     */
+    public boolean setSelected(int index, boolean isSelected) {
+        checkIndex(index);
+        if (isSelected && get(available, index)) {
+            selected[index >>> 6] |= 1L << index;
+            return true;
+        }
+        selected[index >>> 6] &= ~(1L << index);
+        return false;
+    }
+
+    /**
+     * Selects an available seat that is not selected, or deselects one that is.
+     *
+     * @param index the seat index
+     * @return whether the seat is selected afterwards
+     */
+    public boolean toggleSelected(int index) {
+        return setSelected(index, !isSelected(index));
+    }
+
+    /**
+     * Finds the next selected seat, for walking the selection without building a collection.
+     *
+     * @param from the index to start looking at
+     * @return the index of the first selected seat at or after {@code from}, or -1 if there is none
+     */
+    public int nextSelected(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = selected[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == selected.length) {
+                return -1;
+            }
+            bits = selected[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Deselects every seat.
+     */
+    public void clearSelection() {
+        Arrays.fill(selected, 0);
+    }
+
+    /**
+     * Marks every selected seat as reserved and clears the selection.
+     *
+     * @return the number of seats reserved
+     */
+    public int reserveSelected() {
+        int count = 0;
+        for (int word = 0; word < selected.length; word++) {
+            long bits = selected[word];
+            count += Long.bitCount(bits);
+            available[word] &= ~bits;
+            reserved[word] |= bits;
+            selected[word] = 0;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the seats with a status.
+     *
+     * @param status the status to count
+     * @return the number of seats with that status
+     */
+    public int count(SeatStatus status) {
+        return count(bits(status));
+    }
+
+    /**
+     * Counts the selected seats.
+     *
+     * @return the number of seats selected on this terminal
+     */
+    public int countSelected() {
+        return count(selected);
+    }
+
+    /**
+     * Counts the available seats that are wheelchair places.
+     *
+     * @return the number of free wheelchair places
+     */
+    public int countAvailableWheelchair() {
+        int count = 0;
+        for (int word = 0; word < available.length; word++) {
+            count += Long.bitCount(available[word] & wheelchair[word]);
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether a seat is accessible.
+     *
+     * @param index the seat index
+     * @return {@code true} if the seat is step-free
+     */
+    public boolean isAccessible(int index) {
+        checkIndex(index);
+        return get(accessible, index);
+    }
+
+    /**
+     * Returns whether a seat is a wheelchair place.
+     *
+     * @param index the seat index
+     * @return {@code true} if the seat is wheelchair-friendly
+     */
+    public boolean isWheelchair(int index) {
+        checkIndex(index);
+        return get(wheelchair, index);
+    }
+
+    /**
+     * Records the accessibility of a seat read from the database.
+     * <p>
+     * Seats the layout does not have are ignored, so a room's seat table can be loaded into a layout that shows
+     * only part of it.
+     * </p>
+     *
+     * @param rowNumber   the row number, from 1 in the constructor's row order
+     * @param seatNumber  the seat number within the row, from 1
+     * @param isAccessible         whether the seat is step-free
+     * @param isWheelchairFriendly whether the seat is a wheelchair place
+     * @return {@code true} if the seat is part of the layout
+     */
+    public boolean loadSeat(int rowNumber, int seatNumber, boolean isAccessible, boolean isWheelchairFriendly) {
+        int index = indexOf(rowNumber - 1, seatNumber);
+        if (index < 0) {
+            return false;
+        }
+        set(accessible, index, isAccessible);
+        set(wheelchair, index, isWheelchairFriendly);
+        return true;
+    }
+
+    /**
+     * Makes every seat available and clears the selection. Accessibility is kept.
+     */
+    public void reset() {
+        Arrays.fill(reserved, 0);
+        Arrays.fill(unavailable, 0);
+        Arrays.fill(selected, 0);
+        Arrays.fill(available, -1L);
+        if ((size & 63) != 0) {
+            available[available.length - 1] = (1L << size) - 1;
+        }
+    }
+
+    /**
+     * Returns the free seats among 64 seats starting at a seat, for scanning a row a word at a time.
+     *
+     * @param from the index of the first seat
+     * @return a word whose bit {@code i} is set if seat {@code from + i} is available and not selected; bits past the
+     *         last seat are clear
+     */
+    long freeBits(int from) {
+        return bitsAt(available, from) & ~bitsAt(selected, from);
+    }
+
+    /**
+     * Returns the wheelchair places among 64 seats starting at a seat.
+     *
+     * @param from the index of the first seat
+     * @return a word whose bit {@code i} is set if seat {@code from + i} is a wheelchair place
+     */
+    long wheelchairBits(int from) {
+        return bitsAt(wheelchair, from);
+    }
+
+    /**
+     * Reads 64 bits of a bitset starting at any bit, with zeros past its end.
+     *
+     * @param words the bitset
+     * @param from  the first bit to read
+     * @return a word whose bit {@code i} is bit {@code from + i} of the bitset
+     */
+    static long bitsAt(long[] words, int from) {
+        int word = from >>> 6;
+        int shift = from & 63;
+        if (word >= words.length) {
+            return 0;
+        }
+        long bits = words[word] >>> shift;
+        if (shift != 0 && word + 1 < words.length) {
+            bits |= words[word + 1] << (64 - shift);
+        }
+        return bits;
+    }
+
+    private long[] bits(SeatStatus status) {
+        switch (status) {
+            case AVAILABLE:
+                return available;
+            case RESERVED:
+                return reserved;
+            default:
+                return unavailable;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Seat index " + index + " out of range 0.." + (size - 1));
+        }
+    }
+
+    private static boolean get(long[] words, int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] words, int index, boolean value) {
+        if (value) {
+            words[index >>> 6] |= 1L << index;
+        } else {
+            words[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    private static int count(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,76 @@
+package lancaster.model;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Enum representing the status of a seat for an event.
+ * <p>
+ * Each status carries the colours the seating views draw it with and a short description for tooltips.
+ * </p>
+ */
+public enum SeatStatus {
+
+    /**
+     * Seat can be sold.
+     */
+    AVAILABLE("#E8F5E9", "#4CAF50", "Available"),
+
+    /**
+     * Seat has been sold or held for someone.
+     */
+    RESERVED("#FFF8E1", "#FFA000", "Reserved"),
+
+    /**
+     * Seat cannot be sold, for example because it is blocked off.
+     */
+    UNAVAILABLE("#FFEBEE", "#D32F2F", "Unavailable");
+
+    private final String backgroundColor;
+    private final String borderColor;
+    private final String description;
+    private final Color fill;
+    private final Color stroke;
+
+    SeatStatus(String backgroundColor, String borderColor, String description) {
+        this.backgroundColor = backgroundColor;
+        this.borderColor = borderColor;
+        this.description = description;
+        this.fill = Color.web(backgroundColor);
+        this.stroke = Color.web(borderColor);
+    }
+
+    /**
+     * Returns the background color associated with this seat status.
+     *
+     * @return a String representing the background color in hex format.
+     */
+    public String getBackgroundColor() { return backgroundColor; }
+
+    /**
+     * Returns the border color associated with this seat status.
+     *
+     * @return a String representing the border color in hex format.
+     */
+    public String getBorderColor() { return borderColor; }
+
+    /**
+     * Returns the descriptive text for this seat status.
+     *
+     * @return a String describing the seat status.
+     */
+    public String getDescription() { return description; }
+
+    /**
+     * Returns the background color as a paint for the seat map.
+     *
+     * @return the parsed background color.
+     */
+    public Color getFill() { return fill; }
+
+    /**
+     * Returns the border color as a paint for the seat map.
+     *
+     * @return the parsed border color.
+     */
+    public Color getStroke() { return stroke; }
+}
@@ -0,0 +1,362 @@
+package lancaster.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The compiled seating plan of one room in one configuration, such as the Main Hall or the Green Room set out as a
+ * classroom.
+ * <p>
+ * Layouts are read from a descriptor by {@link SeatingLayouts} and compiled once into flat arrays. Seats are
+ * numbered with the same dense index as a {@link SeatStateStore} made by {@link #newSeatStore()}, so the seat map,
+ * the seat state and the {@link SeatAllocator} all refer to a seat by the same number without any mapping between
+ * them. The layout also carries a grid spatial index for finding the seat under a point, built when it is
+ * compiled rather than each time a view is opened.
+ * </p>
+ * <p>
+ * A layout never changes after it is compiled, so one instance is shared by every view that shows the room and
+ * may be read from any thread.
+ * </p>
+ */
+public final class SeatingLayout {
+    private final String room;
+    private final String configuration;
+    private final String[] rowNames;
+    private final int[] rowLengths;
+    private final double seatWidth;
+    private final double seatHeight;
+    private final double[] seatX; // Top-left corner of each seat, by seat index.
+    private final double[] seatY;
+    private final String[] seatLabels;
+    private final List<Decoration> decorations;
+    private final double stageX;
+    private final double stageY;
+    private final double width;
+    private final double height;
+
+    // Grid spatial index: the seats touching each grid cell, whose size is the larger seat dimension.
+    private final double cellSize;
+    private final int gridColumns;
+    private final int gridRows;
+    private final int[][] grid;
+
+    /**
+     * A label or filled block drawn as part of the room, such as the stage or a table.
+     */
+    public static final class Decoration {
+        private final String text;
+        private final double x;
+        private final double y;
+        private final double width;
+        private final double height;
+        private final double fontSize;
+        private final boolean roundBottom;
+        private final String fill;
+        private final String textColor;
+
+        Decoration(String text, double x, double y, double width, double height, double fontSize,
+                   boolean roundBottom, String fill, String textColor) {
+            this.text = text;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.fontSize = fontSize;
+            this.roundBottom = roundBottom;
+            this.fill = fill;
+            this.textColor = textColor;
+        }
+
+        /**
+         * @return  The text, which may span several lines
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return  The x-coordinate of the top-left corner
+         */
+        public double getX() {
+            return x;
+        }
+
+        /**
+         * @return  The y-coordinate of the top-left corner
+         */
+        public double getY() {
+            return y;
+        }
+
+        /**
+         * @return  The width of the block, or 0 for a plain label
+         */
+        public double getWidth() {
+            return width;
+        }
+
+        /**
+         * @return  The height of the block, or 0 for a plain label
+         */
+        public double getHeight() {
+            return height;
+        }
+
+        /**
+         * @return  The size of the bold text
+         */
+        public double getFontSize() {
+            return fontSize;
+        }
+
+        /**
+         * @return  Whether the bottom corners of the block are rounded as well as the top ones
+         */
+        public boolean isRoundBottom() {
+            return roundBottom;
+        }
+
+        /**
+         * @return  The fill of the block in hex format, or null for a plain label
+         */
+        public String getFill() {
+            return fill;
+        }
+
+        /**
+         * @return  The colour of the text in hex format
+         */
+        public String getTextColor() {
+            return textColor;
+        }
+
+        /**
+         * @return  Whether this is a plain label rather than a block
+         */
+        public boolean isLabel() {
+            return width == 0;
+        }
+    }
+
+    SeatingLayout(String room, String configuration, String[] rowNames, int[] rowLengths, double seatWidth,
+                  double seatHeight, double[] seatX, double[] seatY, String[] seatLabels, List<Decoration> decorations,
+                  double stageX, double stageY) {
+        this.room = room;
+        this.configuration = configuration;
+        this.rowNames = rowNames;
+        this.rowLengths = rowLengths;
+        this.seatWidth = seatWidth;
+        this.seatHeight = seatHeight;
+        this.seatX = seatX;
+        this.seatY = seatY;
+        this.seatLabels = seatLabels;
+        this.decorations = List.copyOf(decorations);
+        this.stageX = stageX;
+        this.stageY = stageY;
+
+        double right = 0;
+        double bottom = 0;
+        for (int seat = 0; seat < seatX.length; seat++) {
+            right = Math.max(right, seatX[seat] + seatWidth);
+            bottom = Math.max(bottom, seatY[seat] + seatHeight);
+        }
+        for (Decoration decoration : decorations) {
+            //labels are measured when drawn, so only blocks count towards the size
+            right = Math.max(right, decoration.x + decoration.width);
+            bottom = Math.max(bottom, decoration.y + decoration.height);
+        }
+        this.width = right;
+        this.height = bottom;
+
+        this.cellSize = Math.max(1, Math.max(seatWidth, seatHeight));
+        this.gridColumns = (int) Math.ceil(width / cellSize) + 1;
+        this.gridRows = (int) Math.ceil(height / cellSize) + 1;
+        this.grid = buildGrid();
+    }
+
+    /**
+     * @return  The name of the room
+     */
+    public String getRoom() {
+        return room;
+    }
+
+    /**
+     * @return  The name of the configuration, such as {@code "Standard"} or {@code "Boardroom"}
+     */
+    public String getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Creates seat state for this layout, with every seat available and numbered as in this layout.
+     *
+     * @return a new seat state store
+     */
+    public SeatStateStore newSeatStore() {
+        return new SeatStateStore(rowNames, rowLengths);
+    }
+
+    /**
+     * @return  The number of seats
+     */
+    public int getSeatCount() {
+        return seatX.length;
+    }
+
+    /**
+     * @return  The number of rows
+     */
+    public int getRowCount() {
+        return rowNames.length;
+    }
+
+    /**
+     * Finds a row by name.
+     *
+     * @param rowName the name of the row, for example {@code "AA"}
+     * @return the position of the row, from 0, or -1 if the layout has no such row
+     */
+    public int indexOfRow(String rowName) {
+        return Arrays.asList(rowNames).indexOf(rowName);
+    }
+
+    /**
+     * @return  The width of every seat
+     */
+    public double getSeatWidth() {
+        return seatWidth;
+    }
+
+    /**
+     * @return  The height of every seat
+     */
+    public double getSeatHeight() {
+        return seatHeight;
+    }
+
+    /**
+     * Returns the x-coordinate of a seat's top-left corner.
+     *
+     * @param seat the seat index
+     * @return the x-coordinate in layout units
+     */
+    public double getSeatX(int seat) {
+        return seatX[seat];
+    }
+
+    /**
+     * Returns the y-coordinate of a seat's top-left corner.
+     *
+     * @param seat the seat index
+     * @return the y-coordinate in layout units
+     */
+    public double getSeatY(int seat) {
+        return seatY[seat];
+    }
+
+    /**
+     * Returns the text drawn inside a seat.
+     *
+     * @param seat the seat index
+     * @return the seat identifier, such as {@code "AA21"}, or its number for rooms numbered that way
+     */
+    public String getSeatLabel(int seat) {
+        return seatLabels[seat];
+    }
+
+    /**
+     * @return  The labels and blocks of the room, in drawing order
+     */
+    public List<Decoration> getDecorations() {
+        return decorations;
+    }
+
+    /**
+     * @return  The x-coordinate of the point seats are scored against, normally the centre of the stage
+     */
+    public double getStageX() {
+        return stageX;
+    }
+
+    /**
+     * @return  The y-coordinate of the point seats are scored against
+     */
+    public double getStageY() {
+        return stageY;
+    }
+
+    /**
+     * @return  The right edge of the seats and blocks
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * @return  The bottom edge of the seats and blocks
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Finds the seat under a point.
+     *
+     * @param x the x-coordinate in layout units
+     * @param y the y-coordinate in layout units
+     * @return the index of the seat at that point, or -1 if there is none
+     */
+    public int seatAt(double x, double y) {
+        int column = (int) Math.floor(x / cellSize);
+        int row = (int) Math.floor(y / cellSize);
+        if (column < 0 || row < 0 || column >= gridColumns || row >= gridRows) {
+            return -1;
+        }
+        int[] candidates = grid[row * gridColumns + column];
+        if (candidates == null) {
+            return -1;
+        }
+        for (int seat : candidates) {
+            if (x >= seatX[seat] && x < seatX[seat] + seatWidth && y >= seatY[seat] && y < seatY[seat] + seatHeight) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builds the grid spatial index. Cells are as big as a seat, so every seat touches at most four cells.
+     */
+    private int[][] buildGrid() {
+        int[] sizes = new int[gridColumns * gridRows];
+        int[][] cells = new int[sizes.length][];
+        //two passes: count the seats per cell, then fill arrays of exactly that size
+        for (int pass = 0; pass < 2; pass++) {
+            Arrays.fill(sizes, 0);
+            for (int seat = 0; seat < seatX.length; seat++) {
+                int firstColumn = Math.max(0, (int) (seatX[seat] / cellSize));
+                int lastColumn = Math.min(gridColumns - 1, (int) ((seatX[seat] + seatWidth) / cellSize));
+                int firstRow = Math.max(0, (int) (seatY[seat] / cellSize));
+                int lastRow = Math.min(gridRows - 1, (int) ((seatY[seat] + seatHeight) / cellSize));
+                for (int row = firstRow; row <= lastRow; row++) {
+                    for (int column = firstColumn; column <= lastColumn; column++) {
+                        int cell = row * gridColumns + column;
+                        if (pass == 1) {
+                            cells[cell][sizes[cell]] = seat;
+                        }
+                        sizes[cell]++;
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int cell = 0; cell < sizes.length; cell++) {
+                    if (sizes[cell] > 0) {
+                        cells[cell] = new int[sizes[cell]];
+                    }
+                }
+            }
+        }
+        return cells;
+    }
+}
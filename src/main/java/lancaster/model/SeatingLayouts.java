@@ -0,0 +1,393 @@
+package lancaster.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The seating layouts of every room, read from a descriptor and compiled once.
+ * <p>
+ * Seat positions used to be worked out by loops in each seating controller, every time a view was built or a room
+ * was toggled. They are now described as data in {@code /lancaster/layouts/seating-layouts.txt}, whose header
+ * explains the format, and compiled into immutable {@link SeatingLayout} instances the first time the layouts are
+ * asked for, normally at startup. The compiled layouts are cached by room and configuration, so every view of a
+ * room shares the same arrays for drawing, hit-testing and best-available seating.
+ * </p>
+ * <p>
+ * A descriptor that cannot be read, or that is not valid, stops the application with an exception naming the line
+ * at fault, rather than showing a room with seats missing.
+ * </p>
+ */
+public final class SeatingLayouts {
+    private static final String RESOURCE = "/lancaster/layouts/seating-layouts.txt";
+    private static final Pattern WORDS = Pattern.compile("\\s+");
+
+    private static volatile SeatingLayouts instance;
+
+    // Compiled layouts keyed by room and configuration, in descriptor order.
+    private final Map<String, SeatingLayout> layouts;
+
+    private SeatingLayouts(Map<String, SeatingLayout> layouts) {
+        this.layouts = Collections.unmodifiableMap(layouts);
+    }
+
+    /**
+     * Returns the layouts of every room, reading and compiling the descriptor on first use.
+     * @return  The shared layouts
+     * @throws IllegalStateException If the descriptor is missing or not valid
+     */
+    public static SeatingLayouts getInstance() {
+        SeatingLayouts loaded = instance;
+        if (loaded == null) {
+            synchronized (SeatingLayouts.class) {
+                loaded = instance;
+                if (loaded == null) {
+                    loaded = load();
+                    instance = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the compiled layout of a room in a configuration.
+     * @param room          The name of the room, such as {@code "Main Hall"}
+     * @param configuration The name of the configuration, such as {@code "Standard"} or {@code "Classroom"}
+     * @return              The layout
+     * @throws IllegalArgumentException If there is no such layout
+     */
+    public SeatingLayout get(String room, String configuration) {
+        SeatingLayout layout = layouts.get(key(room, configuration));
+        if (layout == null) {
+            throw new IllegalArgumentException("No seating layout for " + room + " as " + configuration);
+        }
+        return layout;
+    }
+
+    /**
+     * Lists the configurations a room has layouts for.
+     * @param room  The name of the room
+     * @return      The configuration names in descriptor order, empty if the room has no layouts
+     */
+    public List<String> getConfigurations(String room) {
+        List<String> configurations = new ArrayList<>();
+        for (SeatingLayout layout : layouts.values()) {
+            if (layout.getRoom().equals(room)) {
+                configurations.add(layout.getConfiguration());
+            }
+        }
+        return configurations;
+    }
+
+    private static SeatingLayouts load() {
+        try (InputStream in = SeatingLayouts.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Seating layout descriptor " + RESOURCE + " not found");
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8), RESOURCE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read seating layouts from " + RESOURCE, e);
+        }
+    }
+
+    /**
+     * Reads and compiles every layout of a descriptor.
+     * @param reader    The descriptor
+     * @param source    The name of the descriptor, for error messages
+     * @return          The compiled layouts
+     * @throws IOException If the descriptor cannot be read
+     * @throws IllegalStateException If the descriptor is not valid
+     */
+    static SeatingLayouts parse(Reader reader, String source) throws IOException {
+        Map<String, SeatingLayout> layouts = new LinkedHashMap<>();
+        BufferedReader lines = new BufferedReader(reader);
+        LayoutCompiler compiler = null;
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                String[] words = WORDS.split(line);
+                if (words[0].equals("layout")) {
+                    if (compiler != null) {
+                        throw new IllegalArgumentException("Layout " + compiler.room + " has no end");
+                    }
+                    String[] names = line.substring("layout".length()).split("\\|");
+                    if (names.length != 2 || names[0].isBlank() || names[1].isBlank()) {
+                        throw new IllegalArgumentException("Expected layout <room> | <configuration>");
+                    }
+                    compiler = new LayoutCompiler(names[0].strip(), names[1].strip());
+                } else if (compiler == null) {
+                    throw new IllegalArgumentException(words[0] + " outside a layout");
+                } else if (words[0].equals("end")) {
+                    SeatingLayout layout = compiler.compile();
+                    if (layouts.put(key(layout.getRoom(), layout.getConfiguration()), layout) != null) {
+                        throw new IllegalArgumentException("Duplicate layout " + layout.getRoom() + " | "
+                                + layout.getConfiguration());
+                    }
+                    compiler = null;
+                } else {
+                    compiler.add(line, words);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException(source + " line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        if (compiler != null) {
+            throw new IllegalStateException(source + ": layout " + compiler.room + " has no end");
+        }
+        return new SeatingLayouts(layouts);
+    }
+
+    private static String key(String room, String configuration) {
+        return room + '|' + configuration;
+    }
+
+    /**
+     * Collects the directives of one layout and turns them into a {@link SeatingLayout}.
+     */
+    private static final class LayoutCompiler {
+        private final String room;
+        private final String configuration;
+        private final List<String> rowNames = new ArrayList<>();
+        private final List<Integer> rowLengths = new ArrayList<>();
+        private final List<SeatingLayout.Decoration> decorations = new ArrayList<>();
+        private double seatWidth = 20;
+        private double seatHeight = 20;
+        private boolean numbersOnly;
+        private double stageX = Double.NaN;
+        private double stageY = Double.NaN;
+
+        // Seat positions by row and seat number - 1, filled in as seats are placed; NaN until then.
+        private final List<double[]> rowX = new ArrayList<>();
+        private final List<double[]> rowY = new ArrayList<>();
+
+        private LayoutCompiler(String room, String configuration) {
+            this.room = room;
+            this.configuration = configuration;
+        }
+
+        private void add(String line, String[] words) {
+            switch (words[0]) {
+                case "size":
+                    expect(words, 3);
+                    seatWidth = number(words[1]);
+                    seatHeight = number(words[2]);
+                    break;
+                case "labels":
+                    expect(words, 2);
+                    if (!words[1].equals("ids") && !words[1].equals("numbers")) {
+                        throw new IllegalArgumentException("Expected labels ids or labels numbers");
+                    }
+                    numbersOnly = words[1].equals("numbers");
+                    break;
+                case "row":
+                    expect(words, 3);
+                    if (rowNames.contains(words[1])) {
+                        throw new IllegalArgumentException("Duplicate row " + words[1]);
+                    }
+                    int length = (int) number(words[2]);
+                    if (length < 0) {
+                        throw new IllegalArgumentException("Negative length for row " + words[1]);
+                    }
+                    rowNames.add(words[1]);
+                    rowLengths.add(length);
+                    double[] xs = new double[length];
+                    double[] ys = new double[length];
+                    Arrays.fill(xs, Double.NaN);
+                    Arrays.fill(ys, Double.NaN);
+                    rowX.add(xs);
+                    rowY.add(ys);
+                    break;
+                case "seats":
+                    expect(words, 8);
+                    placeRun(row(words[1]), (int) number(words[2]), (int) number(words[3]), number(words[4]),
+                            number(words[5]), number(words[6]), number(words[7]));
+                    break;
+                case "grid":
+                    expect(words, 7);
+                    placeGrid(row(words[1]), (int) number(words[2]), number(words[3]), number(words[4]),
+                            number(words[5]), number(words[6]));
+                    break;
+                case "table":
+                    expect(words, 7);
+                    placeAroundTable(row(words[1]), number(words[2]), number(words[3]), number(words[4]),
+                            number(words[5]), number(words[6]));
+                    break;
+                case "label":
+                    if (words.length < 5) {
+                        throw new IllegalArgumentException("Expected label <x> <y> <font size> <text>");
+                    }
+                    decorations.add(new SeatingLayout.Decoration(text(line, 4), number(words[1]), number(words[2]),
+                            0, 0, number(words[3]), true, null, "#000000"));
+                    break;
+                case "block":
+                    if (words.length < 10) {
+                        throw new IllegalArgumentException("Expected block <x> <y> <width> <height> <font size> "
+                                + "round|flat <fill> <text colour> <text>");
+                    }
+                    if (!words[6].equals("round") && !words[6].equals("flat")) {
+                        throw new IllegalArgumentException("Expected round or flat, got " + words[6]);
+                    }
+                    decorations.add(new SeatingLayout.Decoration(text(line, 9), number(words[1]), number(words[2]),
+                            number(words[3]), number(words[4]), number(words[5]), words[6].equals("round"),
+                            words[7], words[8]));
+                    break;
+                case "stage":
+                    expect(words, 3);
+                    stageX = number(words[1]);
+                    stageY = number(words[2]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown directive " + words[0]);
+            }
+        }
+
+        private void placeRun(int row, int first, int last, double x, double y, double dx, double dy) {
+            for (int seatNumber = first; seatNumber <= last; seatNumber++) {
+                int step = seatNumber - first;
+                place(row, seatNumber, x + step * dx, y + step * dy);
+            }
+        }
+
+        private void placeGrid(int row, int perRow, double centreX, double y, double dx, double dy) {
+            if (perRow < 1) {
+                throw new IllegalArgumentException("Expected at least one seat per line");
+            }
+            int total = rowLengths.get(row);
+            for (int first = 0; first < total; first += perRow) {
+                int count = Math.min(perRow, total - first);
+                double lineWidth = (count - 1) * dx + seatWidth;
+                double startX = centreX - lineWidth / 2;
+                for (int i = 0; i < count; i++) {
+                    place(row, first + i + 1, startX + i * dx, y + (first / perRow) * dy);
+                }
+            }
+        }
+
+        /**
+         * Places seats along the top and bottom of a table, then its left and right ends.
+         */
+        private void placeAroundTable(int row, double centreX, double centreY, double tableWidth,
+                                      double tableHeight, double gap) {
+            int total = rowLengths.get(row);
+            int perLongSide = (int) Math.ceil(total / 4.0);
+            int perShortSide = (total - 2 * perLongSide) / 2;
+            if (perShortSide < 0) {
+                perShortSide = 0;
+                perLongSide = total / 2;
+            }
+            int remaining = total - (2 * perLongSide + 2 * perShortSide);
+            if (remaining > 0) {
+                perLongSide += remaining / 2;
+            }
+
+            double left = centreX - tableWidth / 2;
+            double top = centreY - tableHeight / 2;
+            double longStep = perLongSide > 1 ? (tableWidth - seatWidth) / (perLongSide - 1) : 0;
+            double shortStep = perShortSide > 1 ? (tableHeight - seatHeight) / (perShortSide - 1) : 0;
+            double[] sideY = {top - seatHeight - gap, centreY + tableHeight / 2 + gap};
+            double[] endX = {left - seatWidth - gap, centreX + tableWidth / 2 + gap};
+            int seatNumber = 1;
+            for (double y : sideY) {
+                for (int i = 0; i < perLongSide && seatNumber <= total; i++) {
+                    double x = perLongSide == 1 ? centreX - seatWidth / 2 : left + i * longStep;
+                    place(row, seatNumber++, x, y);
+                }
+            }
+            for (double x : endX) {
+                for (int i = 0; i < perShortSide && seatNumber <= total; i++) {
+                    double y = perShortSide == 1 ? centreY - seatHeight / 2 : top + i * shortStep;
+                    place(row, seatNumber++, x, y);
+                }
+            }
+        }
+
+        private void place(int row, int seatNumber, double x, double y) {
+            double[] xs = rowX.get(row);
+            if (seatNumber < 1 || seatNumber > xs.length) {
+                throw new IllegalArgumentException("Row " + rowNames.get(row) + " has no seat " + seatNumber);
+            }
+            if (!Double.isNaN(xs[seatNumber - 1])) {
+                throw new IllegalArgumentException("Seat " + rowNames.get(row) + seatNumber + " placed twice");
+            }
+            xs[seatNumber - 1] = x;
+            rowY.get(row)[seatNumber - 1] = y;
+        }
+
+        private SeatingLayout compile() {
+            int count = 0;
+            for (int length : rowLengths) {
+                count += length;
+            }
+            double[] seatX = new double[count];
+            double[] seatY = new double[count];
+            String[] labels = new String[count];
+            int seat = 0;
+            for (int row = 0; row < rowNames.size(); row++) {
+                double[] xs = rowX.get(row);
+                double[] ys = rowY.get(row);
+                for (int i = 0; i < xs.length; i++, seat++) {
+                    if (Double.isNaN(xs[i])) {
+                        throw new IllegalArgumentException("Seat " + rowNames.get(row) + (i + 1) + " of " + room
+                                + " | " + configuration + " is never placed");
+                    }
+                    seatX[seat] = xs[i];
+                    seatY[seat] = ys[i];
+                    labels[seat] = numbersOnly ? String.valueOf(i + 1) : rowNames.get(row) + (i + 1);
+                }
+            }
+            if (Double.isNaN(stageX)) {
+                throw new IllegalArgumentException("Layout " + room + " | " + configuration + " has no stage");
+            }
+            return new SeatingLayout(room, configuration, rowNames.toArray(new String[0]),
+                    rowLengths.stream().mapToInt(Integer::intValue).toArray(), seatWidth, seatHeight, seatX, seatY,
+                    labels, decorations, stageX, stageY);
+        }
+
+        private int row(String name) {
+            int row = rowNames.indexOf(name);
+            if (row < 0) {
+                throw new IllegalArgumentException("Unknown row " + name);
+            }
+            return row;
+        }
+
+        private static void expect(String[] words, int count) {
+            if (words.length != count) {
+                throw new IllegalArgumentException("Expected " + (count - 1) + " values after " + words[0]
+                        + ", got " + (words.length - 1));
+            }
+        }
+
+        private static double number(String word) {
+            try {
+                return Double.parseDouble(word);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + word);
+            }
+        }
+
+        /**
+         * Returns the rest of a line after a number of words, with {@code \n} turned into line breaks.
+         */
+        private static String text(String line, int skipWords) {
+            return WORDS.split(line, skipWords + 1)[skipWords].replace("\\n", "\n");
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package lancaster.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compact record of which time slots of each room are taken on each day.
+ * <p>
+ * Every day is cut into fixed slots (15 minutes by default), and each room-day is stored as two bitsets packed
+ * into {@code long} words: one for unavailable slots and one for reserved slots. Room-days are keyed by room
+ * index and epoch day, and days with nothing booked take no space. Marking a time range, checking whether it is
+ * free and finding the next free slot all work a whole word (64 slots) at a time, so checking an hour costs a
+ * couple of mask operations rather than a hash lookup per slot.
+ * </p>
+ * <p>
+ * Time ranges are half-open, so a booking ending at 11:00 leaves the 11:00 slot free. An end time at or before
+ * the start time means the end of the day, which is how midnight is written. Times inside a slot are rounded
+ * out to whole slots. This class is not thread-safe; the calendar uses it from the JavaFX thread only.
+ * </p>
+ */
+public final class SlotAvailability {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int DEFAULT_SLOT_MINUTES = 15;
+
+    private final int roomCount;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final int wordsPerDay;
+    private final Map<Long, long[]> days = new HashMap<>();
+
+    /**
+     * Creates an empty record with 15-minute slots.
+     *
+     * @param roomCount the number of rooms, indexed from 0
+     */
+    public SlotAvailability(int roomCount) {
+        this(roomCount, DEFAULT_SLOT_MINUTES);
+    }
+
+    /**
+     * Creates an empty record.
+     *
+     * @param roomCount   the number of rooms, indexed from 0
+     * @param slotMinutes the length of a slot in minutes, which must divide a day evenly
+     * @throws IllegalArgumentException if the slot length does not divide a day
+     */
+    public SlotAvailability(int roomCount, int slotMinutes) {
+        if (slotMinutes <= 0 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("Slot length must divide a day: " + slotMinutes);
+        }
+        this.roomCount = roomCount;
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+        this.wordsPerDay = (slotsPerDay + 63) / 64;
+    }
+
+    /**
+     * Returns the length of a slot.
+     *
+     * @return the slot length in minutes
+     */
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Marks a time range of a room as taken. Marking a range as {@link VenueStatus#AVAILABLE} frees it instead.
+     *
+     * @param room   the index of the room
+     * @param date   the date of the booking
+     * @param start  the start time of the booking
+     * @param end    the end time of the booking, midnight meaning the end of the day
+     * @param status how the range is taken
+     */
+    public void mark(int room, LocalDate date, LocalTime start, LocalTime end, VenueStatus status) {
+        int from = startSlot(start);
+        int to = endSlot(start, end);
+        if (status == VenueStatus.AVAILABLE) {
+            long[] words = days.get(key(room, date));
+            if (words != null) {
+                clearRange(words, 0, from, to);
+                clearRange(words, wordsPerDay, from, to);
+            }
+            return;
+        }
+        long[] words = days.computeIfAbsent(key(room, date), k -> new long[wordsPerDay * 2]);
+        int offset = status == VenueStatus.UNAVAILABLE ? 0 : wordsPerDay;
+        setRange(words, offset, from, to);
+    }
+
+    /**
+     * Checks whether no slot in a time range of a room is taken.
+     *
+     * @param room  the index of the room
+     * @param date  the date to check
+     * @param start the start of the range
+     * @param end   the end of the range, midnight meaning the end of the day
+     * @return {@code true} if the whole range is free
+     */
+    public boolean isFree(int room, LocalDate date, LocalTime start, LocalTime end) {
+        return getStatus(room, date, start, end) == VenueStatus.AVAILABLE;
+    }
+
+    /**
+     * Works out the status of a time range of a room: unavailable if any slot is unavailable, otherwise reserved
+     * if any slot is reserved, otherwise available.
+     *
+     * @param room  the index of the room
+     * @param date  the date to check
+     * @param start the start of the range
+     * @param end   the end of the range, midnight meaning the end of the day
+     * @return the {@link VenueStatus} of the range
+     */
+    public VenueStatus getStatus(int room, LocalDate date, LocalTime start, LocalTime end) {
+        long[] words = days.get(key(room, date));
+        if (words == null) {
+            return VenueStatus.AVAILABLE;
+        }
+        int from = startSlot(start);
+        int to = endSlot(start, end);
+        if (anyInRange(words, 0, from, to)) {
+            return VenueStatus.UNAVAILABLE;
+        }
+        if (anyInRange(words, wordsPerDay, from, to)) {
+            return VenueStatus.RESERVED;
+        }
+        return VenueStatus.AVAILABLE;
+    }
+
+    /**
+     * Finds the first free slot of a room at or after a time on the same day.
+     *
+     * @param room the index of the room
+     * @param date the date to search
+     * @param from the earliest time to return
+     * @return the start time of the first free slot, or {@code null} if the rest of the day is taken
+     */
+    public LocalTime nextFreeSlot(int room, LocalDate date, LocalTime from) {
+        int slot = startSlot(from);
+        long[] words = days.get(key(room, date));
+        if (words == null) {
+            return slotTime(slot);
+        }
+        for (int w = slot >>> 6; w < wordsPerDay; w++) {
+            long free = ~(words[w] | words[wordsPerDay + w]);
+            if (w == slot >>> 6) {
+                free &= -1L << (slot & 63);
+            }
+            if (free != 0) {
+                int found = (w << 6) + Long.numberOfTrailingZeros(free);
+                return found < slotsPerDay ? slotTime(found) : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Frees every slot of every room on a date.
+     *
+     * @param date the date to clear
+     */
+    public void clear(LocalDate date) {
+        for (int room = 0; room < roomCount; room++) {
+            days.remove(key(room, date));
+        }
+    }
+
+    /**
+     * Frees every slot.
+     */
+    public void clear() {
+        days.clear();
+    }
+
+    private long key(int room, LocalDate date) {
+        if (room < 0 || room >= roomCount) {
+            throw new IndexOutOfBoundsException("Room index " + room + " out of range 0.." + (roomCount - 1));
+        }
+        return date.toEpochDay() * roomCount + room;
+    }
+
+    private int startSlot(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / slotMinutes;
+    }
+
+    /**
+     * @return  The slot just past the end of a range, rounding a part-slot up
+     */
+    private int endSlot(LocalTime start, LocalTime end) {
+        if (!end.isAfter(start)) {
+            return slotsPerDay;
+        }
+        int minutes = end.getHour() * 60 + end.getMinute() + (end.getSecond() > 0 || end.getNano() > 0 ? 1 : 0);
+        return Math.min(slotsPerDay, (minutes + slotMinutes - 1) / slotMinutes);
+    }
+
+    private LocalTime slotTime(int slot) {
+        return slot >= slotsPerDay ? null : LocalTime.of(0, 0).plusMinutes((long) slot * slotMinutes);
+    }
+
+    private static void setRange(long[] words, int offset, int from, int to) {
+        for (int w = from >>> 6; from < to; w++) {
+            int bitEnd = Math.min(to, (w + 1) << 6);
+            words[offset + w] |= mask(from, bitEnd);
+            from = bitEnd;
+        }
+    }
+
+    private static void clearRange(long[] words, int offset, int from, int to) {
+        for (int w = from >>> 6; from < to; w++) {
+            int bitEnd = Math.min(to, (w + 1) << 6);
+            words[offset + w] &= ~mask(from, bitEnd);
+            from = bitEnd;
+        }
+    }
+
+    private static boolean anyInRange(long[] words, int offset, int from, int to) {
+        for (int w = from >>> 6; from < to; w++) {
+            int bitEnd = Math.min(to, (w + 1) << 6);
+            if ((words[offset + w] & mask(from, bitEnd)) != 0) {
+                return true;
+            }
+            from = bitEnd;
+        }
+        return false;
+    }
+
+    /**
+     * @return  A mask of the bits from {@code from} up to but not including {@code to}, which lie in one word
+     */
+    private static long mask(int from, int to) {
+        long high = (to & 63) == 0 ? -1L : (1L << (to & 63)) - 1;
+        return high & (-1L << (from & 63));
+    }
+}
@@ -0,0 +1,286 @@
+package lancaster.model;
+
+import lancaster.model.RevenueCalculator.BookingType;
+import lancaster.model.RevenueCalculator.DayType;
+import lancaster.model.RevenueCalculator.VenueSpace;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * The hire prices of every venue space, compiled from a tariff file into a flat price matrix.
+ * <p>
+ * Prices used to be written into {@link RevenueCalculator} as chains of conditions. They are now described as data
+ * in {@code /lancaster/tariffs/tariffs.txt}, whose header explains the format, and compiled into one cell per
+ * {@link VenueSpace}, {@link DayType} and {@link BookingType}. A cell holds the price, whether it is per hour, the
+ * minimum hours charged and an optional higher price for longer bookings, so quoting a booking is an index
+ * calculation and a few array reads.
+ * </p>
+ * <p>
+ * A tariff is immutable. The tariff in use is the bundled one until another is installed with
+ * {@link #install(Tariff)}, for example after {@link #load(Path)} reads a new price list. Installing swaps a single
+ * reference, so a quote started on the old tariff finishes on it and the next quote sees the new one.
+ * </p>
+ */
+public final class Tariff {
+    private static final String RESOURCE = "/lancaster/tariffs/tariffs.txt";
+    private static final Pattern WORDS = Pattern.compile("\\s+");
+
+    private static final VenueSpace[] SPACES = VenueSpace.values();
+    private static final DayType[] DAYS = DayType.values();
+    private static final BookingType[] TYPES = BookingType.values();
+    private static final int CELLS = SPACES.length * DAYS.length * TYPES.length;
+
+    private static volatile Tariff instance;
+
+    private final double vatRate;
+    // One entry per cell, indexed by cell(space, day, type).
+    private final double[] prices;
+    private final boolean[] perHour;
+    private final int[] minimumHours;
+    private final int[] overHours;
+    private final double[] overPrices;
+
+    private Tariff(double vatRate, double[] prices, boolean[] perHour, int[] minimumHours, int[] overHours,
+                   double[] overPrices) {
+        this.vatRate = vatRate;
+        this.prices = prices;
+        this.perHour = perHour;
+        this.minimumHours = minimumHours;
+        this.overHours = overHours;
+        this.overPrices = overPrices;
+    }
+
+    /**
+     * Returns the tariff in use, reading and compiling the bundled tariff file on first use.
+     * @return  The tariff in use
+     * @throws IllegalStateException If the bundled tariff file is missing or not valid
+     */
+    public static Tariff getInstance() {
+        Tariff loaded = instance;
+        if (loaded == null) {
+            synchronized (Tariff.class) {
+                loaded = instance;
+                if (loaded == null) {
+                    loaded = loadBundled();
+                    instance = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Makes a tariff the one in use. Quotes already being worked out finish on the tariff they started with.
+     * @param tariff    The new tariff
+     */
+    public static void install(Tariff tariff) {
+        if (tariff == null) {
+            throw new IllegalArgumentException("No tariff to install");
+        }
+        synchronized (Tariff.class) {
+            instance = tariff;
+        }
+    }
+
+    /**
+     * Reads and compiles a tariff file. The tariff is not installed.
+     * @param file  The tariff file
+     * @return      The compiled tariff
+     * @throws IOException If the file cannot be read
+     * @throws IllegalStateException If the file is not valid
+     */
+    public static Tariff load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader, file.toString());
+        }
+    }
+
+    private static Tariff loadBundled() {
+        try (InputStream in = Tariff.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Tariff file " + RESOURCE + " not found");
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8), RESOURCE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read tariffs from " + RESOURCE, e);
+        }
+    }
+
+    /**
+     * Reads and compiles a tariff file.
+     * @param reader    The tariff file
+     * @param source    The name of the file, for error messages
+     * @return          The compiled tariff
+     * @throws IOException If the file cannot be read
+     * @throws IllegalStateException If the file is not valid
+     */
+    static Tariff parse(Reader reader, String source) throws IOException {
+        double vatRate = Double.NaN;
+        double[] prices = new double[CELLS];
+        boolean[] perHour = new boolean[CELLS];
+        int[] minimumHours = new int[CELLS];
+        int[] overHours = new int[CELLS];
+        double[] overPrices = new double[CELLS];
+        Arrays.fill(overHours, Integer.MAX_VALUE);
+
+        BufferedReader lines = new BufferedReader(reader);
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                String[] words = WORDS.split(line);
+                switch (words[0]) {
+                    case "vat":
+                        if (words.length != 2) {
+                            throw new IllegalArgumentException("Expected vat <rate>");
+                        }
+                        vatRate = amount(words[1]);
+                        break;
+                    case "price":
+                        if (words.length < 5) {
+                            throw new IllegalArgumentException(
+                                    "Expected price <space> <day>|* <booking type> <price> [options]");
+                        }
+                        VenueSpace space = VenueSpace.valueOf(words[1]);
+                        BookingType type = BookingType.valueOf(words[3]);
+                        double price = amount(words[4]);
+                        boolean hourly = false;
+                        int minimum = 0;
+                        int over = Integer.MAX_VALUE;
+                        double overPrice = 0;
+                        for (int i = 5; i < words.length; i++) {
+                            if (words[i].equals("per-hour")) {
+                                hourly = true;
+                            } else if (words[i].equals("min") && i + 1 < words.length) {
+                                minimum = hours(words[++i]);
+                            } else if (words[i].equals("over") && i + 2 < words.length) {
+                                over = hours(words[++i]);
+                                overPrice = amount(words[++i]);
+                            } else {
+                                throw new IllegalArgumentException("Unknown price option " + words[i]);
+                            }
+                        }
+                        if (minimum > 0 && !hourly) {
+                            throw new IllegalArgumentException("min only applies to per-hour prices");
+                        }
+                        for (DayType day : DAYS) {
+                            if (words[2].equals("*") || day == DayType.valueOf(words[2])) {
+                                int cell = cell(space, day, type);
+                                prices[cell] = price;
+                                perHour[cell] = hourly;
+                                minimumHours[cell] = minimum;
+                                overHours[cell] = over;
+                                overPrices[cell] = overPrice;
+                            }
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown directive " + words[0]);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException(source + " line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        if (Double.isNaN(vatRate)) {
+            throw new IllegalStateException(source + ": no vat rate");
+        }
+        return new Tariff(vatRate, prices, perHour, minimumHours, overHours, overPrices);
+    }
+
+    private static double amount(String word) {
+        double value = Double.parseDouble(word);
+        if (!(value >= 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Expected an amount of at least 0 but found " + word);
+        }
+        return value;
+    }
+
+    private static int hours(String word) {
+        int value = Integer.parseInt(word);
+        if (value < 0) {
+            throw new IllegalArgumentException("Expected hours of at least 0 but found " + word);
+        }
+        return value;
+    }
+
+    private static int cell(VenueSpace space, DayType day, BookingType type) {
+        return (space.ordinal() * DAYS.length + day.ordinal()) * TYPES.length + type.ordinal();
+    }
+
+    /**
+     * @return  The VAT rate, such as 0.2 for 20%
+     */
+    public double getVatRate() {
+        return vatRate;
+    }
+
+    /**
+     * Quotes a booking.
+     * @param space         The space booked
+     * @param day           The day group of the booking
+     * @param bookingType   The kind of booking
+     * @param hours         The hours booked, used by per-hour prices and prices for longer bookings
+     * @param includeVAT    Whether to add VAT
+     * @return              The price, or 0 if the tariff has no price for the booking
+     */
+    public double price(VenueSpace space, DayType day, BookingType bookingType, int hours, boolean includeVAT) {
+        double price = basePrice(cell(space, day, bookingType), hours);
+        return includeVAT ? price * (1 + vatRate) : price;
+    }
+
+    /**
+     * Checks whether the tariff has a price for a kind of booking.
+     * @param space         The space booked
+     * @param day           The day group of the booking
+     * @param bookingType   The kind of booking
+     * @return              Whether a price line covers it; bookings without one are quoted at 0
+     */
+    public boolean hasPrice(VenueSpace space, DayType day, BookingType bookingType) {
+        return prices[cell(space, day, bookingType)] > 0;
+    }
+
+    /**
+     * Quotes many bookings at once, such as every booking of a season, without allocating. The arrays hold one
+     * booking per index, and every booking is quoted on this tariff even if another is installed meanwhile.
+     * @param spaces        The space of each booking
+     * @param days          The day group of each booking
+     * @param bookingTypes  The kind of each booking
+     * @param hours         The hours of each booking
+     * @param count         The number of bookings, from index 0
+     * @param includeVAT    Whether to add VAT
+     * @param quotes        Receives the price of each booking
+     * @return              The sum of the prices
+     */
+    public double priceAll(VenueSpace[] spaces, DayType[] days, BookingType[] bookingTypes, int[] hours, int count,
+                           boolean includeVAT, double[] quotes) {
+        double factor = includeVAT ? 1 + vatRate : 1;
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            double price = basePrice(cell(spaces[i], days[i], bookingTypes[i]), hours[i]) * factor;
+            quotes[i] = price;
+            total += price;
+        }
+        return total;
+    }
+
+    private double basePrice(int cell, int hours) {
+        if (perHour[cell]) {
+            return prices[cell] * Math.max(minimumHours[cell], hours);
+        }
+        return hours > overHours[cell] ? overPrices[cell] : prices[cell];
+    }
+}
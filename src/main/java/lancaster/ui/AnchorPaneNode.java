@@ -12,8 +12,9 @@ import java.time.LocalDate;
 /**
  * A custom {@code AnchorPane} that encapsulates a calendar view and facilitates booking management.
  * <p>
- * This class extends {@link AnchorPane} to provide a custom UI component that displays a calendar view,
- * handles mouse events for style changes, and allows users to select a booking type via the booking manager.
+ * This class extends {@link AnchorPane} to provide a custom UI component that displays a calendar view
+ * and allows users to select a booking type via the booking manager. It is styled by the {@code calendar-day}
+ * class of the stylesheet.
  * </p>
  */
 public class AnchorPaneNode extends AnchorPane {
@@ -26,7 +27,7 @@ public class AnchorPaneNode extends AnchorPane {
     /**
      * Constructs a new {@code AnchorPaneNode} with the specified main view, calendar view, and additional child nodes.
      * <p>
-     * The constructor initializes the layout's size and default styles, sets up mouse event handlers for hover and click behavior,
+     * The constructor initializes the layout's size and style class, sets up the click handler,
      * and initializes the booking manager.
      * </p>
      *
@@ -43,13 +44,7 @@ public class AnchorPaneNode extends AnchorPane {
         this.setPrefSize(120, 100);
         this.setMinSize(100, 80);
 
-        String originalStyle = "-fx-background-color: #e0ffe4; -fx-border-color: #122023; -fx-border-width: 1px;"
-                + " -fx-background-radius: 5px; -fx-border-radius: 3px;";
-        String hoverStyle = "-fx-background-color: #F8F8F8; -fx-border-color: #122023; -fx-border-width: 1px;"
-                + " -fx-background-radius: 5px; -fx-border-radius: 3px;";
-
-        this.setOnMouseEntered(e -> this.setStyle(hoverStyle));
-        this.setOnMouseExited(e -> this.setStyle(originalStyle));
+        this.getStyleClass().add("calendar-day");
         this.setOnMouseClicked(e -> showBookingTypeSelection());
     }
 
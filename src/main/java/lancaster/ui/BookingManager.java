@@ -2,12 +2,17 @@ package lancaster.ui;
 
 import lancaster.model.BookingDetails;
 import lancaster.model.BookingGroup;
+import lancaster.utils.BookingConflictIndex;
+import lancaster.utils.DBUtils;
 
+import java.io.IOException;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Manages booking data including creating bookings, handling multi-day bookings,
@@ -55,8 +60,9 @@ public class BookingManager {
      * @param eventName the name of the event.
      * @param clientName the name of the client booking the event.
      * @param roomType  the type of room being booked.
+     * @return the booking added to the booking group.
      */
-    public void createSingleBooking(LocalDate date, String room, String startTime, String endTime, String eventName, String clientName, String roomType) {
+    public BookingDetails createSingleBooking(LocalDate date, String room, String startTime, String endTime, String eventName, String clientName, String roomType) {
         BookingDetails booking = new BookingDetails();
         booking.setDate(date);
         booking.setRoom(room);
@@ -66,6 +72,7 @@ public class BookingManager {
         booking.setClientName(clientName);
         booking.setRoomType(roomType);
         bookingGroup.addBooking(booking);
+        return booking;
     }
 
     /**
@@ -95,52 +102,60 @@ public class BookingManager {
         }
     }
 
+    /**
+     * Finds the bookings that clash with an event already booked or with another booking in the list.
+     * <p>
+     * Two bookings clash when they are in the same room on the same date and their times overlap. The check is
+     * made in one pass by the shared {@link BookingConflictIndex}, which may read the database the first time a
+     * month is checked, so call this off the JavaFX thread with a copy of the bookings. The index can be a refresh
+     * behind, so this only highlights clashes; saving the group checks the database again and saves nothing if
+     * any booking clashes.
+     * </p>
+     *
+     * @param bookings the bookings to check.
+     * @return the positions in {@code bookings} of the bookings that clash.
+     * @throws RuntimeException if the booked events could not be read.
+     */
+    public Set<Integer> findConflicts(List<BookingDetails> bookings) {
+        try {
+            return new DBUtils().getConflictIndex().findConflicts(bookings);
+        } catch (SQLException | IOException | ClassNotFoundException e) {
+            throw new RuntimeException("Error checking booking conflicts", e);
+        }
+    }
+
     /**
      * Checks for scheduling conflicts within the current set of bookings.
      * <p>
-     * A conflict is detected if two or more bookings have the same date, room, start time, and end time.
+     * A conflict is detected if a booking overlaps another booking in the group or an event already booked.
      * </p>
      *
      * @return {@code true} if a conflict exists; {@code false} otherwise.
+     * @see #findConflicts(List)
      */
     public boolean hasConflicts() {
-        List<BookingDetails> bookings = bookingGroup.getBookings();
-        for (int i = 0; i < bookings.size(); i++) {
-            for (int j = i + 1; j < bookings.size(); j++) {
-                BookingDetails b1 = bookings.get(i);
-                BookingDetails b2 = bookings.get(j);
-                if (b1.getDate().equals(b2.getDate()) &&
-                        b1.getRoom().equals(b2.getRoom()) &&
-                        b1.getStartTime().equals(b2.getStartTime()) &&
-                        b1.getEndTime().equals(b2.getEndTime())) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return !findConflicts(List.copyOf(bookingGroup.getBookings())).isEmpty();
     }
 
     /**
      * Determines whether a specific booking is conflicting with another booking.
      * <p>
-     * The conflict is defined by matching date, room, start time, and end time. If more than one booking
-     * exists with those details, the method returns {@code true}.
+     * The booking conflicts if it overlaps another booking in the group or an event already booked. To check
+     * every booking in the group, call {@link #findConflicts(List)} once instead.
      * </p>
      *
      * @param booking the booking to check for conflicts.
      * @return {@code true} if the booking is conflicting with another; {@code false} otherwise.
      */
     public boolean isBookingConflicting(BookingDetails booking) {
-        int count = 0;
-        for (BookingDetails b : bookingGroup.getBookings()) {
-            if (booking.getDate().equals(b.getDate()) &&
-                    booking.getRoom().equals(b.getRoom()) &&
-                    booking.getStartTime().equals(b.getStartTime()) &&
-                    booking.getEndTime().equals(b.getEndTime())) {
-                count++;
+        List<BookingDetails> bookings = List.copyOf(bookingGroup.getBookings());
+        Set<Integer> conflicts = findConflicts(bookings);
+        for (int i = 0; i < bookings.size(); i++) {
+            if (bookings.get(i) == booking && conflicts.contains(i)) {
+                return true;
             }
         }
-        return count > 1;
+        return false;
     }
 
     /**
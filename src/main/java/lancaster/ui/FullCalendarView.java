@@ -1,6 +1,7 @@
 package lancaster.ui;
 
 import lancaster.controller.DailySheetController;
+import javafx.css.PseudoClass;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
@@ -13,6 +14,7 @@ import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import lancaster.utils.CalendarDataService;
 
 import java.io.IOException;
 import java.net.URL;
@@ -34,6 +36,10 @@ import java.util.Set;
  */
 public class FullCalendarView {
 
+    // States of a day cell, styled by the calendar-day rules of bookingStyles.css, which the selection pane loads
+    private static final PseudoClass SELECTED = PseudoClass.getPseudoClass("selected");
+    private static final PseudoClass OUTSIDE_MONTH = PseudoClass.getPseudoClass("outside-month");
+
     private ArrayList<AnchorPaneNode> allCalendarDays = new ArrayList<>(35);
     private StackPane mainView;    // The main container for swapping views.
     private Text calendarTitle;
@@ -82,7 +88,7 @@ public class FullCalendarView {
 
         // Create a VBox to hold the calendar UI.
         VBox calendarViewVBox = new VBox();
-        calendarViewVBox.setStyle("-fx-background-color: #122023; -fx-padding: 20px;");
+        calendarViewVBox.getStyleClass().add("calendar-view");
         calendarViewVBox.setFillWidth(true);
         this.calendarView = calendarViewVBox;
 
@@ -114,8 +120,6 @@ public class FullCalendarView {
                 AnchorPaneNode ap = new AnchorPaneNode(mainView, calendarView);
                 // Let the cell expand with the grid.
                 ap.setPrefSize(200, 150);
-                ap.setStyle("-fx-background-color: #f8f8f8; -fx-border-color: #122023; -fx-border-width: 1px;"
-                        + " -fx-background-radius: 5px; -fx-border-radius: 3px;");
                 calendar.add(ap, j, i);
                 allCalendarDays.add(ap);
             }
@@ -137,39 +141,34 @@ public class FullCalendarView {
         for (Text txt : dayNames) {
             AnchorPane ap = new AnchorPane();
             ap.setPrefSize(200, 40);
-            txt.setStyle("-fx-font-weight: bold; -fx-font-size: 16px;");
+            txt.getStyleClass().add("calendar-day-name-text");
             AnchorPane.setBottomAnchor(txt, 10.0);
             AnchorPane.setLeftAnchor(txt, 10.0);
             ap.getChildren().add(txt);
-            ap.setStyle("-fx-background-color: #2ECC40; -fx-border-color: #122023; -fx-border-width: 1px;"
-                    + " -fx-background-radius: 5px; -fx-border-radius: 3px;");
+            ap.getStyleClass().add("calendar-day-name");
             dayLabels.add(ap, col++, 0);
         }
 
         // Create a title bar with month navigation buttons and a back button.
         calendarTitle = new Text();
-        calendarTitle.setStyle("-fx-font-size: 24px; -fx-font-weight: bold; -fx-fill: #f8f8f8;");
+        calendarTitle.getStyleClass().add("calendar-title");
 
         Button previousMonth = new Button("<<");
         previousMonth.setPrefSize(80, 40);
-        previousMonth.setStyle("-fx-font-size: 16px;");
+        previousMonth.getStyleClass().add("calendar-nav-button");
         previousMonth.setOnAction(e -> previousMonth());
 
         Button nextMonth = new Button(">>");
         nextMonth.setPrefSize(80, 40);
-        nextMonth.setStyle("-fx-font-size: 16px;");
+        nextMonth.getStyleClass().add("calendar-nav-button");
         nextMonth.setOnAction(e -> nextMonth());
 
         // Back button to return to the selection pane.
         Button backButton = new Button("Back");
         backButton.setPrefSize(100, 40);
-        backButton.setStyle("-fx-font-size: 16px;");
+        backButton.getStyleClass().add("calendar-nav-button");
         backButton.setOnAction(e -> mainView.getChildren().setAll(selectionPane));
 
-        previousMonth.setStyle("-fx-background-color: #2ECC4026; -fx-text-fill: #2ECC40; -fx-font-size: 20px;");
-        nextMonth.setStyle("-fx-background-color: #2ECC4026; -fx-text-fill: #2ECC40; -fx-font-size: 20px;");
-        backButton.setStyle("-fx-background-color: #2ECC4026; -fx-text-fill: #2ECC40; -fx-font-size: 20px;");
-
         // Arrange navigation buttons and title in a horizontal box.
         HBox titleBar = new HBox(20, backButton, previousMonth, calendarTitle, nextMonth);
         titleBar.setAlignment(Pos.CENTER);
@@ -195,7 +194,9 @@ public class FullCalendarView {
      * <p>
      * The calendar starts with the first Sunday before or on the first day of the specified month.
      * Cells corresponding to dates outside the current month are styled with a lighter color.
-     * In selection mode, selected dates are highlighted.
+     * In selection mode, selected dates are highlighted. Both are pseudo-classes of the cell, so the stylesheet
+     * supplies the colours and no style string is parsed when the month changes. The events of the month and the months either side are
+     * prefetched through the {@link CalendarDataService}.
      * </p>
      *
      * @param yearMonth the month and year for which to render the calendar.
@@ -208,35 +209,10 @@ public class FullCalendarView {
         for (AnchorPaneNode ap : allCalendarDays) {
             ap.getChildren().clear();
             Text txt = new Text(String.valueOf(calendarDate.getDayOfMonth()));
+            txt.getStyleClass().add("calendar-day-number");
 
-            String textStyle;
-            if (calendarDate.getMonth() != yearMonth.getMonth()) {
-                textStyle = "-fx-font-size: 24px; -fx-fill: grey;";
-            } else {
-                textStyle = "-fx-font-size: 24px;";
-            }
-            if (selectionMode && selectedDates.contains(calendarDate)) {
-                ap.setStyle("-fx-background-color: #e0ffe4; -fx-background-radius: 5px;");
-                textStyle = "-fx-font-size: 24px; -fx-font-weight: bold;";
-            } else {
-                ap.setStyle("-fx-background-color: #f8f8f8; -fx-background-radius: 5px;");
-            }
-
-            txt.setStyle(textStyle);
-            ap.setOnMouseEntered(e -> {
-                if (selectionMode && selectedDates.contains(ap.getDate())) {
-                    ap.setStyle("-fx-background-color: #e0ffe4; -fx-background-radius: 5px;");
-                } else {
-                    ap.setStyle("-fx-background-color: #f8f8f8; -fx-background-radius: 5px;");
-                }
-            });
-            ap.setOnMouseExited(e -> {
-                if (selectionMode && selectedDates.contains(ap.getDate())) {
-                    ap.setStyle("-fx-background-color: #e0ffe4; -fx-background-radius: 5px;");
-                } else {
-                    ap.setStyle("-fx-background-color: #f8f8f8; -fx-background-radius: 5px;");
-                }
-            });
+            ap.pseudoClassStateChanged(OUTSIDE_MONTH, calendarDate.getMonth() != yearMonth.getMonth());
+            ap.pseudoClassStateChanged(SELECTED, selectionMode && selectedDates.contains(calendarDate));
 
             StackPane sp = new StackPane(txt);
             sp.setAlignment(Pos.CENTER);
@@ -259,6 +235,9 @@ public class FullCalendarView {
             calendarDate = calendarDate.plusDays(1);
         }
         calendarTitle.setText(yearMonth.getMonth().toString() + " " + yearMonth.getYear());
+
+        // Load this month and its neighbours in the background so paging and opening a day are served from memory.
+        CalendarDataService.getInstance().prefetchAround(yearMonth);
     }
 
     /**
@@ -302,20 +281,15 @@ public class FullCalendarView {
         ap.setOnMouseClicked(e -> {
             LocalDate clickedDate = ap.getDate();
 
-            StackPane sp = (StackPane) ap.getChildren().get(0);
-            Text txt = (Text) sp.getChildren().get(0);
-
             if (selectedDates.contains(clickedDate)) {
                 selectedDates.remove(clickedDate);
-                ap.setStyle("-fx-background-color: #f8f8f8; -fx-background-radius: 5px;");
-                txt.setStyle("-fx-font-size: 24px;");
+                ap.pseudoClassStateChanged(SELECTED, false);
             } else {
                 if (!multiSelectEnabled && !e.isControlDown()) {
                     clearAllSelections();
                 }
                 selectedDates.add(clickedDate);
-                ap.setStyle("-fx-background-color: #e0ffe4; -fx-background-radius: 5px;");
-                txt.setStyle("-fx-font-size: 24px; -fx-font-weight: bold;");
+                ap.pseudoClassStateChanged(SELECTED, true);
             }
 
             if (onDateSelectionCallback != null) {
@@ -436,23 +410,19 @@ public class FullCalendarView {
     public Node createEmbeddedCalendarView() {
         // Create a mini version of the calendar by removing the back button.
         VBox embeddedView = new VBox();
-        embeddedView.setStyle("-fx-background-color: #122023; -fx-padding: 10px;");
+        embeddedView.getStyleClass().addAll("calendar-view", "embedded");
         embeddedView.setFillWidth(true);
 
         // Title bar with month navigation buttons only.
-        calendarTitle.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-fill: black;");
-
         Button previousMonth = new Button("<<");
         previousMonth.setPrefSize(60, 30);
-        previousMonth.setStyle("-fx-font-size: 14px;");
+        previousMonth.getStyleClass().add("calendar-nav-button");
         previousMonth.setOnAction(e -> previousMonth());
 
         Button nextMonth = new Button(">>");
         nextMonth.setPrefSize(60, 30);
-        nextMonth.setStyle("-fx-font-size: 14px;");
+        nextMonth.getStyleClass().add("calendar-nav-button");
         nextMonth.setOnAction(e -> nextMonth());
-        previousMonth.setStyle("-fx-background-color: #2ECC4026; -fx-text-fill: #2ECC40; -fx-font-size: 20px;");
-        nextMonth.setStyle("-fx-background-color: #2ECC4026; -fx-text-fill: #2ECC40; -fx-font-size: 20px;");
         HBox titleBar = new HBox(15, previousMonth, calendarTitle, nextMonth);
         titleBar.setAlignment(Pos.CENTER);
         titleBar.setPadding(new Insets(10));
@@ -473,12 +443,11 @@ public class FullCalendarView {
         for (Text txt : dayNames) {
             AnchorPane ap = new AnchorPane();
             ap.setPrefSize(30, 30);
-            txt.setStyle("-fx-font-weight: bold; -fx-font-size: 12px;");
+            txt.getStyleClass().add("calendar-day-name-text");
             AnchorPane.setBottomAnchor(txt, 8.0);
             AnchorPane.setLeftAnchor(txt, 8.0);
             ap.getChildren().add(txt);
-            ap.setStyle("-fx-background-color: #2ECC40; -fx-border-color: #122023; -fx-border-width: 1px;"
-                    + " -fx-background-radius: 5px; -fx-border-radius: 3px;");
+            ap.getStyleClass().add("calendar-day-name");
             dayLabels.add(ap, col++, 0);
         }
 
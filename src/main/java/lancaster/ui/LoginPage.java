@@ -6,6 +6,8 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import lancaster.utils.FxThreadMonitor;
+import lancaster.utils.StartupTimer;
 
 import java.io.IOException;
 
@@ -23,6 +25,7 @@ public class LoginPage extends Application {
      * <p>
      * Loads the user interface from the FXML resource located at <code>/lancaster/ui/logged-in.fxml</code>,
      * sets the stage title to "Lancaster FX", configures the initial scene size, and maximizes the window.
+     * The {@link FxThreadMonitor} is started first when it is enabled.
      * </p>
      *
      * @param primaryStage the primary stage for this application.
@@ -30,6 +33,8 @@ public class LoginPage extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws IOException {
+        FxThreadMonitor.startIfEnabled();
+        StartupTimer.mark("JavaFX started");
         Parent root = FXMLLoader.load(getClass().getResource("/lancaster/ui/logged-in.fxml"));
         primaryStage.setTitle("Lancaster FX");
 
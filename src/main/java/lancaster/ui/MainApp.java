@@ -5,9 +5,13 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import lancaster.model.SeatingLayouts;
+import lancaster.utils.FxThreadMonitor;
 import lancaster.utils.DBUtils;
+import lancaster.utils.StartupTimer;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The main application class for the Lancaster FX application.
@@ -22,13 +26,18 @@ public class MainApp extends Application {
      * Starts the application by loading the selection pane and setting it as the primary scene.
      * <p>
      * The FXML file is loaded using the resource from {@link DBUtils}. If any errors occur during
-     * loading, they are printed to the standard error output.
+     * loading, they are printed to the standard error output. The {@link FxThreadMonitor} is started first
+     * when it is enabled, and the seating layouts are compiled in the background so the seating views do not
+     * wait for them when first opened. The {@link StartupTimer} times startup until the home pane is usable.
      * </p>
      *
      * @param primaryStage the primary stage provided by the JavaFX runtime.
      */
     @Override
     public void start(Stage primaryStage) {
+        FxThreadMonitor.startIfEnabled();
+        StartupTimer.mark("JavaFX started");
+        CompletableFuture.runAsync(SeatingLayouts::getInstance);
         try {
             FXMLLoader loader = new FXMLLoader(DBUtils.class.getResource("/lancaster/ui/selectionPane.fxml"));
             Parent selectionPane = loader.load();
@@ -9,8 +9,11 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import lancaster.model.BookingDetails;
+import lancaster.utils.AsyncDatabase;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The PendingBookingsUI class is responsible for displaying all pending bookings in the application.
@@ -73,17 +76,26 @@ public class PendingBookingsUI {
         bookingsList.setMaxWidth(600);
         bookingsList.setAlignment(Pos.CENTER);
 
-        for (int i = 0; i < bookingManager.getBookingGroup().getBookings().size(); i++) {
-            BookingDetails booking = bookingManager.getBookingGroup().getBookings().get(i);
-            HBox bookingCell = UIUtils.createBookingCell(booking, i, bookingManager.getBookingGroup(), () -> show());
-            if (bookingManager.isBookingConflicting(booking)) {
-                bookingCell.setStyle("-fx-background-color: #e66b7e; -fx-border-color: #122023; -fx-border-width: 1px; " +
-                        "-fx-padding: 10px 20px; -fx-background-radius: 5px;");
-                bookingCell.setAlignment(Pos.CENTER);
-            }
+        List<BookingDetails> bookings = List.copyOf(bookingManager.getBookingGroup().getBookings());
+        List<HBox> bookingCells = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            HBox bookingCell = UIUtils.createBookingCell(bookings.get(i), i, bookingManager.getBookingGroup(), () -> show());
+            bookingCells.add(bookingCell);
             bookingsList.getChildren().add(bookingCell);
         }
 
+        // Check every booking for conflicts in one pass off the FX thread, then highlight the conflicting cells
+        AsyncDatabase.onFxThread(AsyncDatabase.getInstance().supply(() -> bookingManager.findConflicts(bookings)),
+                conflicts -> {
+                    for (int i : conflicts) {
+                        HBox bookingCell = bookingCells.get(i);
+                        bookingCell.setStyle("-fx-background-color: #e66b7e; -fx-border-color: #122023; -fx-border-width: 1px; " +
+                                "-fx-padding: 10px 20px; -fx-background-radius: 5px;");
+                        bookingCell.setAlignment(Pos.CENTER);
+                    }
+                },
+                Throwable::printStackTrace);
+
         StackPane centerWrapper = new StackPane(bookingsList);
         centerWrapper.setAlignment(Pos.CENTER);
         pendingPage.setCenter(centerWrapper);
@@ -101,13 +113,30 @@ public class PendingBookingsUI {
         submitAllButton.setPrefSize(150, 40);
         submitAllButton.setStyle("-fx-font-size: 16px;");
         submitAllButton.setOnAction(e -> {
-            if (bookingManager.hasConflicts()) {
-                UIUtils.showAlert("Error", "There are conflicting bookings. Please resolve these conflicts before submitting.");
-            } else {
-                bookingManager.getBookingGroup().submitAll();
+            // Check for conflicts and save in the background, keeping the page from being submitted twice meanwhile
+            submitAllButton.setDisable(true);
+            submitAllButton.setText("Submitting...");
+            List<BookingDetails> pending = List.copyOf(bookingManager.getBookingGroup().getBookings());
+            CompletableFuture<List<Integer>> submitted = AsyncDatabase.getInstance()
+                    .supply(() -> bookingManager.findConflicts(pending))
+                    .thenCompose(conflicts -> conflicts.isEmpty()
+                            ? bookingManager.getBookingGroup().submitAllAsync()
+                            : CompletableFuture.completedFuture(null));
+            AsyncDatabase.onFxThread(submitted, ids -> {
+                if (ids == null) {
+                    submitAllButton.setDisable(false);
+                    submitAllButton.setText("Submit All");
+                    UIUtils.showAlert("Error", "There are conflicting bookings. Please resolve these conflicts before submitting.");
+                    return;
+                }
+                bookingManager.getBookingGroup().getBookings().clear();
                 UIUtils.showAlert("Success", "All bookings have been submitted.");
                 mainView.getChildren().setAll(calendarView);
-            }
+            }, error -> {
+                submitAllButton.setDisable(false);
+                submitAllButton.setText("Submit All");
+                UIUtils.showAlert("Error", "The bookings could not be submitted, nothing was saved. Please try again.");
+            });
         });
 
         Button clearAllButton = new Button("Clear All");
@@ -0,0 +1,97 @@
+package lancaster.ui;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import lancaster.utils.AsyncDatabase;
+import lancaster.utils.RevenueExporter;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The RevenueExportDialog class asks where to export revenue to and shows the export's progress.
+ * <p>
+ * The export is written by a {@link RevenueExporter} in the background, so the revenue screens stay usable. The
+ * dialog shows the rows written and the rows per second as they go, and closing it or pressing Cancel stops the
+ * export.
+ * </p>
+ */
+public final class RevenueExportDialog {
+
+    private RevenueExportDialog() {
+    }
+
+    /**
+     * Asks for a file and exports the room hire of every event in a date range to it, as CSV or JSON lines
+     * depending on the file type chosen.
+     *
+     * @param owner  the window the dialogs belong to
+     * @param from   the first day of the range
+     * @param to     the last day of the range, inclusive
+     * @param venues the names of the rooms to include, or {@code null} for every room
+     */
+    public static void show(Window owner, LocalDate from, LocalDate to, Collection<String> venues) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Revenue");
+        FileChooser.ExtensionFilter csv = new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv");
+        FileChooser.ExtensionFilter jsonLines = new FileChooser.ExtensionFilter("JSON lines (*.jsonl)", "*.jsonl");
+        chooser.getExtensionFilters().addAll(csv, jsonLines);
+        chooser.setInitialFileName("revenue-" + from + "-to-" + to + ".csv");
+        File file = chooser.showSaveDialog(owner);
+        if (file == null) {
+            return;
+        }
+        RevenueExporter.Format format = chooser.getSelectedExtensionFilter() == jsonLines
+                || file.getName().endsWith(".jsonl") ? RevenueExporter.Format.JSON_LINES : RevenueExporter.Format.CSV;
+        RevenueExporter exporter = new RevenueExporter(format, file.toPath());
+
+        Label status = new Label("Starting export…");
+        ProgressBar progressBar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        progressBar.setPrefWidth(320);
+        Button button = new Button("Cancel");
+
+        VBox content = new VBox(12, status, progressBar, button);
+        content.setPadding(new Insets(20));
+        Stage stage = new Stage();
+        stage.initOwner(owner);
+        stage.initModality(Modality.WINDOW_MODAL);
+        stage.setTitle("Exporting " + file.getName());
+        stage.setScene(new Scene(content));
+        //closing the dialog while the export runs stops it; once done, cancelling does nothing
+        stage.setOnHidden(e -> exporter.cancel());
+        button.setOnAction(e -> stage.close());
+        stage.show();
+
+        AsyncDatabase.onFxThread(exporter.start(from, to, venues,
+                progress -> Platform.runLater(() -> {
+                    if (!progress.done()) {
+                        status.setText(describe(progress));
+                    }
+                })), done -> {
+            status.setText("Exported " + describe(done) + " to " + file.getName());
+            progressBar.setProgress(1);
+            button.setText("Close");
+        }, error -> {
+            stage.close();
+            if (!(error instanceof CancellationException)) {
+                UIUtils.showAlert("Error", "Revenue could not be exported: " + error.getMessage()
+                        + ". Please try again.");
+            }
+        });
+    }
+
+    private static String describe(RevenueExporter.Progress progress) {
+        return String.format("%,d rows (%,.0f rows/s)", progress.rows(), progress.rowsPerSecond());
+    }
+}
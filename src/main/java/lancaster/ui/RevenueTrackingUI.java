@@ -17,6 +17,9 @@ import javafx.stage.Stage;
 import lancaster.model.RevenueCalculator.*;
 import lancaster.model.RevenueEntry;
 import lancaster.model.RevenueManager;
+import lancaster.model.RevenueStore;
+import lancaster.model.RevenueSummary;
+import lancaster.utils.AsyncDatabase;
 
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -32,6 +35,7 @@ import java.util.Map;
 public class RevenueTrackingUI extends BorderPane {
 
     private RevenueManager dataManager;
+    private int chartRequest; //Counts filter changes so a late response to an older one is ignored
 
     private DatePicker fromDatePicker;
     private DatePicker toDatePicker;
@@ -63,6 +67,7 @@ public class RevenueTrackingUI extends BorderPane {
         // Set up UI
         setupUI();
         updateCharts();
+        refreshTicketSales();
     }
 
     /**
@@ -136,16 +141,18 @@ public class RevenueTrackingUI extends BorderPane {
         Button applyFilterButton = new Button("Apply Filter");
         applyFilterButton.setOnAction(e -> updateCharts());
 
-        // Add a refresh button that would trigger API refresh in the future
+        // Pull new ticket sales and redraw; only what changed since the last refresh is read
         Button refreshDataButton = new Button("Refresh Data");
-        refreshDataButton.setOnAction(e -> {
-            // This would call the API integration method in the future
-            dataManager.loadTicketSalesData();
-            updateCharts();
-        });
+        refreshDataButton.setOnAction(e -> refreshTicketSales());
+
+        // Export every event of the current filter, streamed from the database to a file
+        Button exportButton = new Button("Export");
+        exportButton.setOnAction(e -> RevenueExportDialog.show(exportButton.getScene().getWindow(),
+                fromDatePicker.getValue(), toDatePicker.getValue(),
+                RevenueManager.getSelectedVenues(venueSelector.getValue())));
 
         filterBar.getChildren().addAll(fromLabel, fromDatePicker, toLabel, toDatePicker,
-                venueLabel, venueSelector, applyFilterButton, refreshDataButton);
+                venueLabel, venueSelector, applyFilterButton, refreshDataButton, exportButton);
         return filterBar;
     }
 
@@ -314,6 +321,14 @@ public class RevenueTrackingUI extends BorderPane {
         revenueTable.setPrefHeight(500);
 
         revenueTable.setColumnResizePolicy(TableView.UNCONSTRAINED_RESIZE_POLICY);
+        // The filtered data is a read-only view of the revenue store, which sorts its row numbers itself
+        revenueTable.setSortPolicy(table -> {
+            if (table.getItems() instanceof RevenueStore.Rows) {
+                ((RevenueStore.Rows) table.getItems()).sort(table.getComparator());
+                return true;
+            }
+            return TableView.DEFAULT_SORT_POLICY.call(table);
+        });
         revenueTable.getColumns().addAll(venueCol, dateCol, bookingTypeCol, roomRateCol, ticketSalesCol, totalCol, clientPayableCol);
 
         content.getChildren().add(revenueTable);
@@ -520,32 +535,80 @@ public class RevenueTrackingUI extends BorderPane {
         }
     }
 
+    /**
+     * Pulls the ticket sales added to the feed since the last pull, then redraws the dashboard.
+     * <p>
+     * The new sales are added to the revenue held in place, and room hire is only read again for months whose
+     * bookings have changed, so a refresh never reloads everything.
+     * </p>
+     */
+    private void refreshTicketSales() {
+        AsyncDatabase.onFxThread(dataManager.loadTicketSalesData(), result -> {
+            if (result.rejected() > 0) {
+                UIUtils.showAlert("Ticket Sales", result.rejected()
+                        + " ticket sale records could not be read and were skipped. The first was at "
+                        + result.firstError());
+            }
+            updateCharts();
+        }, error -> UIUtils.showAlert("Error", "Ticket sales could not be loaded: " + error.getMessage()
+                + ". Please try again."));
+    }
+
     /**
      * Updates all charts, tables, and summary labels based on the current filter settings.
      * <p>
-     * Retrieves the filtered revenue data, updates the revenue table, refreshes the pie and bar charts,
-     * and updates the summary labels with the latest revenue totals. Also triggers the update of the
-     * year-over-year comparison chart.
+     * The revenue of the selected dates and of the last two years is read from the database in the background, at
+     * most one aggregate query each and none for months already held, and the dashboard is redrawn when it arrives.
+     * When the selected dates are already held the dashboard is redrawn straight away without a query. A response to
+     * an older filter that arrives after a newer one is ignored.
      * </p>
      */
     private void updateCharts() {
         LocalDate fromDate = fromDatePicker.getValue();
         LocalDate toDate = toDatePicker.getValue();
         String selectedVenue = venueSelector.getValue();
+        int request = ++chartRequest;
+
+        if (dataManager.isLoaded(fromDate, toDate)) {
+            showCharts(fromDate, toDate, selectedVenue);
+        } else {
+            AsyncDatabase.onFxThread(dataManager.fetchRange(fromDate, toDate), loaded -> {
+                if (request == chartRequest) {
+                    dataManager.loadRange(loaded);
+                    showCharts(fromDate, toDate, selectedVenue);
+                }
+            }, error -> {
+                error.printStackTrace();
+                UIUtils.showAlert("Error", "Revenue could not be loaded from the database. Please try again.");
+            });
+        }
+        AsyncDatabase.onFxThread(dataManager.fetchYearComparisonData(), yearlyData -> {
+            if (request == chartRequest) {
+                updateYearlyComparisonChart(yearlyData);
+            }
+        }, Throwable::printStackTrace);
+    }
 
+    /**
+     * Shows the revenue held for a date range and venue in the table, charts and summary labels.
+     * <p>
+     * Retrieves the filtered revenue data, updates the revenue table, refreshes the pie and bar charts,
+     * and updates the summary labels with the latest revenue totals.
+     * </p>
+     *
+     * @param fromDate      the start date of the filter (inclusive)
+     * @param toDate        the end date of the filter (inclusive)
+     * @param selectedVenue the venue to filter by
+     */
+    private void showCharts(LocalDate fromDate, LocalDate toDate, String selectedVenue) {
         ObservableList<RevenueEntry> filteredData = dataManager.getFilteredData(fromDate, toDate, selectedVenue);
 
         revenueTable.setItems(filteredData);
 
-        Map<String, Double> venueRevenueMap = dataManager.getVenueRevenueMap(filteredData);
-        Map<String, Double> venueRoomRateMap = dataManager.getVenueRoomRateMap(filteredData);
-        Map<String, Double> venueTicketSalesMap = dataManager.getVenueTicketSalesMap(filteredData);
-
-        Map<String, Double> sortedRevenueMap = dataManager.getSortedVenueMap(venueRevenueMap);
-        Map<String, Double> sortedRoomMap = dataManager.getSortedVenueMap(venueRoomRateMap);
-        Map<String, Double> sortedTicketMap = dataManager.getSortedVenueMap(venueTicketSalesMap);
+        // The revenue cube gives every total the charts and labels need without going through the rows
+        RevenueSummary summary = dataManager.summarize(fromDate, toDate, selectedVenue);
 
-        revenuePieChart.setData(dataManager.generatePieChartData(sortedRevenueMap));
+        revenuePieChart.setData(dataManager.generatePieChartData(summary));
         Map<String, String> venueColors = new HashMap<>();
         venueColors.put("Main Hall", "#4472C4");
         venueColors.put("Small Hall", "#ED7D31");
@@ -557,38 +620,15 @@ public class RevenueTrackingUI extends BorderPane {
         }
         revenueBarChart.getData().clear();
 
-        XYChart.Series<String, Number> roomRateSeries = new XYChart.Series<>();
-        roomRateSeries.setName("Room Hire");
-
-        XYChart.Series<String, Number> ticketSalesSeries = new XYChart.Series<>();
-        ticketSalesSeries.setName("Ticket Sales");
-
-        for (String venue : sortedRoomMap.keySet()) {
-            roomRateSeries.getData().add(new XYChart.Data<>(venue, sortedRoomMap.get(venue)));
-        }
-
-        for (String venue : sortedTicketMap.keySet()) {
-            ticketSalesSeries.getData().add(new XYChart.Data<>(venue, sortedTicketMap.get(venue)));
-        }
-
-        revenueBarChart.getData().addAll(roomRateSeries, ticketSalesSeries);
+        revenueBarChart.getData().addAll(dataManager.generateBarChartData(summary));
 
         // --- Summary Labels ---
-        double totalRevenue = filteredData.stream().mapToDouble(RevenueEntry::getTotalRevenue).sum();
-        double roomRevenue = filteredData.stream().mapToDouble(RevenueEntry::getRoomRate).sum();
-        double ticketRevenue = filteredData.stream().mapToDouble(RevenueEntry::getTicketSales).sum();
+        totalRevenueLabel.setText(String.format("£%.2f", summary.getTotalRevenue()));
+        roomHireLabel.setText(String.format("£%.2f", summary.getTotalRoomHire()));
+        ticketSalesLabel.setText(String.format("£%.2f", summary.getTotalTicketSales()));
 
-        totalRevenueLabel.setText(String.format("£%.2f", totalRevenue));
-        roomHireLabel.setText(String.format("£%.2f", roomRevenue));
-        ticketSalesLabel.setText(String.format("£%.2f", ticketRevenue));
-
-        // Optional: update yearComparisonChart if you want
-        yearComparisonChart.getData().clear();
         yearComparisonChart.setTitle("Year-over-Year Revenue Comparison");
 
-        // Update yearly comparison chart
-        updateYearlyComparisonChart();
-
         Platform.runLater(() -> {
             styleChartText(revenuePieChart);
             styleChartText(revenueBarChart);
@@ -628,14 +668,15 @@ public class RevenueTrackingUI extends BorderPane {
     /**
      * Updates the year-over-year comparison chart with data from the revenue manager.
      * <p>
-     * Retrieves yearly revenue comparison data and populates the year comparison bar chart.
+     * Populates the year comparison bar chart with monthly revenue by year.
      * Also applies specific colors to each series for clarity.
      * </p>
+     *
+     * @param yearlyData the map of years to monthly revenue totals
      */
-    private void updateYearlyComparisonChart() {
+    private void updateYearlyComparisonChart(Map<String, Map<String, Number>> yearlyData) {
         yearComparisonChart.getData().clear();
 
-        Map<String, Map<String, Number>> yearlyData = dataManager.getYearComparisonData();
         yearComparisonChart.getData().addAll(dataManager.generateYearlyComparisonData(yearlyData));
 
         String[] yearColors = {"#2ecc40", "#005355", "#1a2c30"};
@@ -0,0 +1,329 @@
+package lancaster.ui;
+
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import javafx.util.Duration;
+import lancaster.model.SeatStatus;
+import lancaster.model.SeatingLayout;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * A seat map drawn on a single {@link Canvas} instead of one node per seat.
+ * <p>
+ * The map shows a compiled {@link SeatingLayout}: its seats as rectangles in layout coordinates, together with the
+ * fixed parts of the room such as the stage and section labels. The whole map is drawn in one pass. Afterwards,
+ * changing the colours or selection of a seat only marks that seat as dirty, and the dirty seats are redrawn on
+ * their own at the next pulse, so a click repaints one rectangle rather than restyling every seat.
+ * </p>
+ * <p>
+ * Seats are numbered as in the layout, which is the numbering of the layout's seat state, so a seat index from a
+ * click can be used with the seat state directly. Clicks and tooltips are resolved through the layout's grid
+ * spatial index, which looks at a handful of rectangles whatever the size of the room. Zooming changes the size of
+ * the canvas and draws the map again at the new scale, which keeps text and borders sharp and leaves the scene
+ * graph at a single node.
+ * </p>
+ */
+public class SeatMapCanvas extends Canvas {
+    private static final double MIN_ZOOM = 0.5;
+    private static final double MAX_ZOOM = 3.0;
+    private static final double PADDING = 10; // Blank margin around the layout.
+    private static final double HALO = 2; // How far a selected seat's highlight reaches past the seat.
+    private static final double CORNER = 5; // Corner radius of seats and blocks.
+    private static final Color SELECTION_COLOR = Color.rgb(0, 0, 0, 0.45);
+    private static final Font SEAT_FONT = Font.font("System", FontWeight.NORMAL, 6);
+
+    private SeatingLayout layout;
+
+    // Seat state shown on the map, indexed by seat number in the layout.
+    private Color[] fills = new Color[0];
+    private Color[] borders = new Color[0];
+    private final BitSet selected = new BitSet();
+    private final BitSet dirty = new BitSet();
+
+    // Fonts and colours of the layout's decorations, resolved once per layout.
+    private Font[] decorationFonts = new Font[0];
+    private Color[] decorationFills = new Color[0];
+    private Color[] decorationTextColors = new Color[0];
+
+    private double zoom = 1.0;
+    private boolean fullRedraw = true;
+    private boolean redrawScheduled;
+
+    private IntConsumer onSeatClicked = seat -> { };
+    private IntFunction<String> tooltipText = seat -> layout.getSeatLabel(seat);
+    private Tooltip tooltip;
+    private int hoveredSeat = -1;
+
+    /**
+     * Creates an empty seat map.
+     */
+    public SeatMapCanvas() {
+        addEventHandler(MouseEvent.MOUSE_CLICKED, event -> {
+            int seat = seatAt(event.getX(), event.getY());
+            if (seat >= 0) {
+                onSeatClicked.accept(seat);
+            }
+        });
+        addEventHandler(MouseEvent.MOUSE_MOVED, event -> updateTooltip(seatAt(event.getX(), event.getY())));
+        addEventHandler(MouseEvent.MOUSE_EXITED, event -> updateTooltip(-1));
+    }
+
+    /**
+     * Shows a layout. Every seat starts in the colours of an available seat and unselected.
+     *
+     * @param layout the compiled layout to draw
+     */
+    public void setLayout(SeatingLayout layout) {
+        this.layout = layout;
+        int count = layout.getSeatCount();
+        fills = new Color[count];
+        borders = new Color[count];
+        Arrays.fill(fills, SeatStatus.AVAILABLE.getFill());
+        Arrays.fill(borders, SeatStatus.AVAILABLE.getStroke());
+        selected.clear();
+
+        List<SeatingLayout.Decoration> decorations = layout.getDecorations();
+        decorationFonts = new Font[decorations.size()];
+        decorationFills = new Color[decorations.size()];
+        decorationTextColors = new Color[decorations.size()];
+        for (int i = 0; i < decorations.size(); i++) {
+            SeatingLayout.Decoration decoration = decorations.get(i);
+            decorationFonts[i] = Font.font("System", FontWeight.BOLD, decoration.getFontSize());
+            decorationFills[i] = decoration.isLabel() ? null : Color.web(decoration.getFill());
+            decorationTextColors[i] = Color.web(decoration.getTextColor());
+        }
+        layoutChanged();
+    }
+
+    /**
+     * Returns the layout shown.
+     *
+     * @return the layout, or null if none has been set
+     */
+    public SeatingLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Changes the colours of a seat. The seat is redrawn at the next pulse if anything changed.
+     *
+     * @param seat   the index of the seat
+     * @param fill   the background colour
+     * @param border the border colour
+     */
+    public void setSeatColors(int seat, Color fill, Color border) {
+        if (!fill.equals(fills[seat]) || !border.equals(borders[seat])) {
+            fills[seat] = fill;
+            borders[seat] = border;
+            markDirty(seat);
+        }
+    }
+
+    /**
+     * Highlights a seat as selected or removes the highlight. The seat is redrawn at the next pulse if it changed.
+     *
+     * @param seat       the index of the seat
+     * @param isSelected {@code true} to highlight the seat
+     */
+    public void setSelected(int seat, boolean isSelected) {
+        if (selected.get(seat) != isSelected) {
+            selected.set(seat, isSelected);
+            markDirty(seat);
+        }
+    }
+
+    /**
+     * Sets what happens when a seat is clicked.
+     *
+     * @param handler called with the index of the clicked seat
+     */
+    public void setOnSeatClicked(IntConsumer handler) {
+        this.onSeatClicked = handler;
+    }
+
+    /**
+     * Sets the text of the tooltip shown over a seat. By default the seat identifier is shown.
+     *
+     * @param text gives the tooltip text for a seat index
+     */
+    public void setTooltipText(IntFunction<String> text) {
+        this.tooltipText = text;
+    }
+
+    /**
+     * Returns the current zoom level.
+     *
+     * @return the scale from layout units to pixels
+     */
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Changes the zoom level, resizing the canvas and drawing the whole map again at the new scale.
+     *
+     * @param zoom the scale from layout units to pixels, clamped to 0.5 - 3.0
+     */
+    public void setZoom(double zoom) {
+        zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+        if (zoom != this.zoom) {
+            this.zoom = zoom;
+            layoutChanged();
+        }
+    }
+
+    /**
+     * Finds the seat under a point of the canvas.
+     *
+     * @param x the x-coordinate in canvas pixels
+     * @param y the y-coordinate in canvas pixels
+     * @return the index of the seat at that point, or -1 if there is none
+     */
+    public int seatAt(double x, double y) {
+        if (layout == null) {
+            return -1;
+        }
+        return layout.seatAt(x / zoom - PADDING, y / zoom - PADDING);
+    }
+
+    /**
+     * Draws everything that changed since the last draw: the whole map after a layout or zoom change, otherwise
+     * only the dirty seats. Normally called by the pulse scheduled when something changes.
+     */
+    public void redraw() {
+        redrawScheduled = false;
+        if (layout == null) {
+            return;
+        }
+        double contentWidth = layout.getWidth();
+        double contentHeight = layout.getHeight();
+        double seatW = layout.getSeatWidth();
+        double seatH = layout.getSeatHeight();
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.setTransform(zoom, 0, 0, zoom, zoom * PADDING, zoom * PADDING);
+        if (fullRedraw) {
+            fullRedraw = false;
+            dirty.clear();
+            setWidth(Math.ceil((contentWidth + 2 * PADDING) * zoom));
+            setHeight(Math.ceil((contentHeight + 2 * PADDING) * zoom));
+            gc.clearRect(-PADDING, -PADDING, contentWidth + 2 * PADDING, contentHeight + 2 * PADDING);
+            List<SeatingLayout.Decoration> decorations = layout.getDecorations();
+            for (int i = 0; i < decorations.size(); i++) {
+                drawDecoration(gc, decorations.get(i), i);
+            }
+            for (int seat = 0; seat < layout.getSeatCount(); seat++) {
+                drawSeat(gc, seat);
+            }
+            return;
+        }
+        for (int seat = dirty.nextSetBit(0); seat >= 0; seat = dirty.nextSetBit(seat + 1)) {
+            //the halo stays inside the gap between seats, so clearing it never touches a neighbour
+            gc.clearRect(layout.getSeatX(seat) - HALO, layout.getSeatY(seat) - HALO,
+                    seatW + 2 * HALO, seatH + 2 * HALO);
+            drawSeat(gc, seat);
+        }
+        dirty.clear();
+    }
+
+    private void drawSeat(GraphicsContext gc, int seat) {
+        double x = layout.getSeatX(seat);
+        double y = layout.getSeatY(seat);
+        double w = layout.getSeatWidth();
+        double h = layout.getSeatHeight();
+        boolean isSelected = selected.get(seat);
+        if (isSelected) {
+            gc.setFill(SELECTION_COLOR);
+            gc.fillRoundRect(x - HALO, y - HALO, w + 2 * HALO, h + 2 * HALO, 2 * (CORNER + HALO), 2 * (CORNER + HALO));
+        }
+        gc.setFill(fills[seat]);
+        gc.fillRoundRect(x, y, w, h, 2 * CORNER, 2 * CORNER);
+        gc.setStroke(borders[seat]);
+        double lineWidth = isSelected ? 2 : 1;
+        gc.setLineWidth(lineWidth);
+        gc.strokeRoundRect(x + lineWidth / 2, y + lineWidth / 2, w - lineWidth, h - lineWidth,
+                2 * CORNER, 2 * CORNER);
+
+        gc.setFill(Color.BLACK);
+        gc.setFont(SEAT_FONT);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.fillText(layout.getSeatLabel(seat), x + w / 2, y + h / 2);
+    }
+
+    private void drawDecoration(GraphicsContext gc, SeatingLayout.Decoration decoration, int index) {
+        double x = decoration.getX();
+        double y = decoration.getY();
+        double width = decoration.getWidth();
+        double height = decoration.getHeight();
+        gc.setFont(decorationFonts[index]);
+        if (decoration.isLabel()) {
+            gc.setFill(decorationTextColors[index]);
+            gc.setTextAlign(TextAlignment.LEFT);
+            gc.setTextBaseline(VPos.TOP);
+            gc.fillText(decoration.getText(), x, y);
+            return;
+        }
+        gc.setFill(decorationFills[index]);
+        gc.fillRoundRect(x, y, width, height, 2 * CORNER, 2 * CORNER);
+        if (!decoration.isRoundBottom()) {
+            //round the top corners only, by letting a square rectangle cover the rounded bottom ones
+            gc.fillRect(x, y + CORNER, width, height - CORNER);
+        }
+        gc.setFill(decorationTextColors[index]);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.fillText(decoration.getText(), x + width / 2, y + height / 2);
+    }
+
+    private void updateTooltip(int seat) {
+        if (seat == hoveredSeat) {
+            return;
+        }
+        hoveredSeat = seat;
+        if (seat < 0) {
+            if (tooltip != null) {
+                Tooltip.uninstall(this, tooltip);
+            }
+            return;
+        }
+        if (tooltip == null) {
+            tooltip = new Tooltip();
+            tooltip.setShowDelay(Duration.millis(300));
+        }
+        tooltip.setText(tooltipText.apply(seat));
+        Tooltip.install(this, tooltip);
+    }
+
+    private void layoutChanged() {
+        fullRedraw = true;
+        scheduleRedraw();
+    }
+
+    private void markDirty(int seat) {
+        dirty.set(seat);
+        scheduleRedraw();
+    }
+
+    /**
+     * Coalesces every change made in one event into a single draw.
+     */
+    private void scheduleRedraw() {
+        if (!redrawScheduled) {
+            redrawScheduled = true;
+            Platform.runLater(this::redraw);
+        }
+    }
+}
@@ -5,6 +5,10 @@ import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import lancaster.model.BookingDetails;
+import lancaster.utils.AsyncDatabase;
+
+import java.util.function.BooleanSupplier;
 
 /**
  * This class provides the user interface for creating and managing a single booking.
@@ -174,8 +178,11 @@ public class SingleBookingUI {
         submitButton.setPrefSize(150, 40);
         submitButton.setStyle("-fx-font-size: 16px;");
 
-        // Runnable to create bookings
-        Runnable createBookings = () -> {
+        // The booking this form last added to the pending group, so a failed submit can take it back out
+        BookingDetails[] added = new BookingDetails[1];
+
+        // Adds the form's booking to the pending group, returning false if the form is not filled in correctly
+        BooleanSupplier createBookings = () -> {
             String clientName = clientField.getText();
             String eventName = eventField.getText();
             String startTime = startTimeBox.getValue();
@@ -187,7 +194,7 @@ public class SingleBookingUI {
             // Ensure that a room configuration type is selected
             if (selectedRoomType == null) {
                 UIUtils.showAlert("Error", "Please select a seating configuration.");
-                return;
+                return false;
             }
 
             if (allDayCheckBox.isSelected()) {
@@ -197,29 +204,46 @@ public class SingleBookingUI {
 
             if (clientName.isEmpty() || eventName.isEmpty() || startTime == null || endTime == null) {
                 UIUtils.showAlert("Error", "Please fill in all fields.");
-                return;
+                return false;
             }
 
             if (startTime.compareTo(endTime) >= 0 && !endTime.equals("00:00")) {
                 UIUtils.showAlert("Error", "End time must be later than start time.");
-                return;
+                return false;
             }
 
             // Create the booking with room configuration
-            bookingManager.createSingleBooking(anchorPaneNode.getDate(), room, startTime, endTime, eventName, clientName, selectedRoomType);
+            added[0] = bookingManager.createSingleBooking(anchorPaneNode.getDate(), room, startTime, endTime, eventName, clientName, selectedRoomType);
+            return true;
         };
 
         addBookingButton.setOnAction(e -> {
-            createBookings.run();
+            if (!createBookings.getAsBoolean()) {
+                return;
+            }
             UIUtils.showAlert("Success", "Booking added to pending list.");
             showSingleBookingScreen();
         });
 
         submitButton.setOnAction(e -> {
-            createBookings.run();
-            bookingManager.getBookingGroup().submitAll();
-            UIUtils.showAlert("Success", "Booking submitted.");
-            mainView.getChildren().setAll(calendarView);
+            if (!createBookings.getAsBoolean()) {
+                return;
+            }
+            BookingDetails booking = added[0];
+            // Save in the background and keep the page from being changed or submitted twice meanwhile
+            submitButton.setDisable(true);
+            addBookingButton.setDisable(true);
+            AsyncDatabase.onFxThread(bookingManager.getBookingGroup().submitAllAsync(), ids -> {
+                bookingManager.getBookingGroup().getBookings().clear();
+                UIUtils.showAlert("Success", "Booking submitted.");
+                mainView.getChildren().setAll(calendarView);
+            }, error -> {
+                // Take this form's booking back out, so submitting again does not add it a second time
+                bookingManager.getBookingGroup().getBookings().remove(booking);
+                submitButton.setDisable(false);
+                addBookingButton.setDisable(false);
+                UIUtils.showAlert("Error", "The booking could not be submitted, nothing was saved. Please try again.");
+            });
         });
 
         buttonBox.getChildren().addAll(addBookingButton, submitButton);
@@ -23,6 +23,7 @@ import java.util.stream.IntStream;
  * <p>
  * These include methods for creating headers, room cells,
  * booking cells, text fields, time dropdowns, date chips, calendar containers, and showing alerts.
+ * The components are given style classes from {@code bookingStyles.css}, which the selection pane loads.
  * </p>
  */
 public class UIUtils {
@@ -42,20 +43,20 @@ public class UIUtils {
 
         Button backButton = new Button("Back");
         backButton.setPrefSize(100, 30);
-        backButton.setStyle("-fx-font-size: 14px;");
+        backButton.getStyleClass().add("form-control");
         backButton.setOnAction(backAction::accept);
 
         Label titleLabel = new Label(title);
         StackPane titleWrapper = new StackPane();
-        titleWrapper.setStyle("-fx-background-color: #2ECC40; -fx-padding: 10px 25px; -fx-background-radius: 5px;");
+        titleWrapper.getStyleClass().add("header-title");
         titleWrapper.setPadding(new Insets(8));
         titleWrapper.getChildren().add(titleLabel);
-        titleLabel.setStyle("-fx-font-size: 20px;");
+        titleLabel.getStyleClass().add("header-title-label");
 
         header.getChildren().addAll(backButton, titleWrapper);
         if (!bookingGroup.getBookings().isEmpty()) {
             Label pendingLabel = new Label("Pending Bookings: " + bookingGroup.getBookings().size());
-            pendingLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #2ECC40;");
+            pendingLabel.getStyleClass().add("pending-count");
             header.getChildren().add(pendingLabel);
         }
         return header;
@@ -64,7 +65,7 @@ public class UIUtils {
     /**
      * Creates a room cell UI component representing a single room.
      * <p>
-     * The room cell includes the room name and changes its style on mouse hover and click.
+     * The room cell includes the room name and is highlighted by the stylesheet while the mouse is over it.
      * </p>
      *
      * @param room    the name of the room to be displayed
@@ -76,17 +77,12 @@ public class UIUtils {
         roomCell.setAlignment(Pos.CENTER_LEFT);
         roomCell.setPrefHeight(60);
         roomCell.setPrefWidth(500);
-        roomCell.setStyle("-fx-background-color: #e0ffe4; -fx-border-color: #122023; -fx-border-width: 1px;"
-                + " -fx-padding: 10px 20px; -fx-background-radius: 5px;");
+        roomCell.getStyleClass().add("room-cell");
 
         Label roomLabel = new Label(room);
-        roomLabel.setStyle("-fx-font-size: 18px;");
+        roomLabel.getStyleClass().add("room-cell-label");
         roomCell.getChildren().add(roomLabel);
 
-        roomCell.setOnMouseEntered(e -> roomCell.setStyle("-fx-background-color: #FFFFFF; -fx-border-color: #122023; -fx-border-width: 1px;"
-                + " -fx-padding: 10px 20px; -fx-background-radius: 5px;"));
-        roomCell.setOnMouseExited(e -> roomCell.setStyle("-fx-background-color: #e0ffe4; -fx-border-color: #122023; -fx-border-width: 1px;"
-                + " -fx-padding: 10px 20px; -fx-background-radius: 5px;"));
         roomCell.setOnMouseClicked(onClick::accept);
 
         return roomCell;
@@ -110,21 +106,18 @@ public class UIUtils {
         bookingCell.setAlignment(Pos.CENTER_LEFT);
         bookingCell.setPrefHeight(80);
         bookingCell.setPrefWidth(500);
-        bookingCell.setStyle("-fx-background-color: #e0ffe4; -fx-border-color: #122023; -fx-border-width: 1px;"
-                + " -fx-padding: 10px 20px; -fx-background-radius: 5px;");
+        bookingCell.getStyleClass().add("booking-cell");
 
         VBox details = new VBox(5);
         Label eventLabel = new Label(booking.getEventName());
-        eventLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
+        eventLabel.getStyleClass().add("booking-cell-title");
         Label detailsLabel = new Label(booking.getRoom() + " on " + booking.getDate() +
                 " from " + booking.getStartTime() + " to " + booking.getEndTime());
-        detailsLabel.setStyle("-fx-font-size: 14px;");
+        detailsLabel.getStyleClass().add("booking-cell-details");
         details.getChildren().addAll(eventLabel, detailsLabel);
 
         Button removeButton = new Button("✕");
-        removeButton.setStyle("-fx-background-color: white; -fx-text-fill: #122023; " +
-                "-fx-font-weight: bold; -fx-padding: 2px 6px; " +
-                "-fx-border-radius: 50%; -fx-background-radius: 50%;");
+        removeButton.getStyleClass().add("remove-button");
         removeButton.setOnAction(e -> {
             bookingGroup.getBookings().remove(index); // Use BookingGroup instead of BookingDetails
             refresh.run();
@@ -150,7 +143,7 @@ public class UIUtils {
         field.setPromptText(prompt);
         field.setPrefWidth(width);
         field.setPrefHeight(height);
-        field.setStyle("-fx-font-size: 14px;");
+        field.getStyleClass().add("form-control");
         return field;
     }
 
@@ -193,16 +186,14 @@ public class UIUtils {
                                    Map<LocalDate, List<BookingManager.RoomBooking>> dailyBookings) {
         Label dateChip = new Label(date.toString());
         dateChip.setPadding(new Insets(5, 10, 5, 10));
-        dateChip.setStyle("-fx-background-color: #00B232; -fx-text-fill: white; " +
-                "-fx-background-radius: 15px; -fx-font-weight: bold; -fx-font-size: 14px;");
+        dateChip.getStyleClass().add("date-chip");
 
         HBox chipBox = new HBox(5);
         chipBox.setAlignment(Pos.CENTER_LEFT);
         chipBox.getChildren().add(dateChip);
 
         Button removeButton = new Button("×");
-        removeButton.setStyle("-fx-background-color: transparent; -fx-text-fill: white; " +
-                "-fx-font-weight: bold; -fx-font-size: 16px;");
+        removeButton.getStyleClass().add("date-chip-remove");
         removeButton.setOnAction(e -> {
             selectedDates.remove(date);
             dailyBookings.remove(date);
@@ -211,7 +202,7 @@ public class UIUtils {
         });
         chipBox.getChildren().add(removeButton);
 
-        chipBox.setStyle("-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 3, 0, 0, 1);");
+        chipBox.getStyleClass().add("date-chip-box");
         flowPane.getChildren().add(chipBox);
     }
 
@@ -244,7 +235,7 @@ public class UIUtils {
         VBox calendarBox = (VBox) compactCalendar;
         calendarBox.setPrefSize(300, 250);
         calendarBox.setMaxSize(300, 250);
-        calendarBox.setStyle("-fx-background-color: #e0ffe4; -fx-background-radius: 8px; -fx-padding: 10px;");
+        calendarBox.getStyleClass().add("calendar-picker");
 
         HBox calendarButtons = new HBox(15);
         calendarButtons.setAlignment(Pos.CENTER);
@@ -252,7 +243,7 @@ public class UIUtils {
 
         Button clearDatesButton = new Button("Clear");
         clearDatesButton.setPrefSize(100, 30);
-        clearDatesButton.setStyle("-fx-font-size: 14px;");
+        clearDatesButton.getStyleClass().add("form-control");
         clearDatesButton.setOnAction(e -> {
             dateSelectionCalendar.clearAllSelections();
             selectedDates.clear();
@@ -265,7 +256,7 @@ public class UIUtils {
 
         Button doneDatesButton = new Button("Done");
         doneDatesButton.setPrefSize(100, 30);
-        doneDatesButton.setStyle("-fx-font-size: 14px;");
+        doneDatesButton.getStyleClass().add("form-control");
         doneDatesButton.setOnAction(e -> {
             calendarContainer.setVisible(false);
             calendarContainer.setManaged(false);
@@ -274,7 +265,7 @@ public class UIUtils {
         calendarButtons.getChildren().addAll(clearDatesButton, doneDatesButton);
 
         Label calendarTitle = new Label("Select Multiple Dates");
-        calendarTitle.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-padding: 0 0 10 0;");
+        calendarTitle.getStyleClass().add("calendar-picker-title");
 
         dateSelectionCalendar.setOnDateSelectionChanged(() -> {
             Set<LocalDate> calendarSelectedDates = dateSelectionCalendar.getSelectedDates();
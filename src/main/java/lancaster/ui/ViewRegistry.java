@@ -0,0 +1,112 @@
+package lancaster.ui;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.util.Duration;
+import lancaster.utils.StartupTimer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A registry of the views of a window, each created the first time it is needed.
+ * <p>
+ * A view is registered with a name and a factory, and costs nothing until {@link #get(String)} asks for it. The
+ * view is then created once and the same node is returned from then on. This keeps views the user never opens
+ * off the startup path.
+ * </p>
+ * <p>
+ * Views can also be preloaded once the window is usable, with {@link #preloadWhenIdle(Duration)}. Preloading
+ * creates one view per turn of the JavaFX thread, in the order they were registered, so input and animation
+ * keep getting handled between views. A view opened before its turn is simply skipped.
+ * </p>
+ * <p>
+ * The registry must only be used from the JavaFX thread.
+ * </p>
+ */
+public final class ViewRegistry {
+    private final Map<String, Supplier<? extends Node>> factories = new LinkedHashMap<>();
+    private final Map<String, Node> views = new HashMap<>();
+    private boolean preloadStarted;
+
+    /**
+     * Registers a view. It is not created until it is first asked for or preloaded.
+     * @param name      The name the view is asked for by
+     * @param factory   Creates the view; called at most once
+     * @throws IllegalStateException if a view is already registered under the name
+     */
+    public void register(String name, Supplier<? extends Node> factory) {
+        if (factories.putIfAbsent(name, factory) != null) {
+            throw new IllegalStateException("A view is already registered as " + name);
+        }
+    }
+
+    /**
+     * Returns a view, creating it if this is the first time it is needed.
+     * @param name      The name the view was registered under
+     * @return the view
+     * @throws IllegalArgumentException if no view is registered under the name
+     */
+    public Node get(String name) {
+        Node view = views.get(name);
+        return view != null ? view : create(name, false);
+    }
+
+    /**
+     * @param name      The name the view was registered under
+     * @return whether the view has been created
+     */
+    public boolean isCreated(String name) {
+        return views.containsKey(name);
+    }
+
+    /**
+     * Creates every registered view that has not been created yet, one per turn of the JavaFX thread, after the
+     * thread has had a delay to settle. Calling this again does nothing.
+     * @param delay     How long to wait before creating the first view
+     */
+    public void preloadWhenIdle(Duration delay) {
+        if (preloadStarted) {
+            return;
+        }
+        preloadStarted = true;
+        Deque<String> pending = new ArrayDeque<>(factories.keySet());
+        PauseTransition wait = new PauseTransition(delay);
+        wait.setOnFinished(event -> preloadNext(pending));
+        wait.play();
+    }
+
+    private void preloadNext(Deque<String> pending) {
+        String name = pending.poll();
+        while (name != null && views.containsKey(name)) {
+            name = pending.poll();
+        }
+        if (name == null) {
+            return;
+        }
+        try {
+            create(name, true);
+        } catch (RuntimeException e) {
+            //the view will be created again, and fail visibly, when it is opened
+            e.printStackTrace();
+        }
+        Platform.runLater(() -> preloadNext(pending));
+    }
+
+    private Node create(String name, boolean preloaded) {
+        Supplier<? extends Node> factory = factories.get(name);
+        if (factory == null) {
+            throw new IllegalArgumentException("No view is registered as " + name);
+        }
+        long start = System.nanoTime();
+        Node view = factory.get();
+        StartupTimer.recordView(name, System.nanoTime() - start, preloaded);
+        views.put(name, view);
+        return view;
+    }
+}
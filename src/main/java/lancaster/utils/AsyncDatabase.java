@@ -0,0 +1,233 @@
+package lancaster.utils;
+
+import javafx.application.Platform;
+import lancaster.boxOfficeInterface.BoxOfficeJDBC;
+import lancaster.model.BookingDetails;
+import lancaster.model.Event;
+import lancaster.model.Review;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The {@code AsyncDatabase} class runs database work off the JavaFX application thread.
+ * <p>
+ * Every method returns a {@link CompletableFuture} that completes on a dedicated executor, so a controller can start
+ * a query from an event handler and keep the UI responsive while the round trip is in flight. On a JDK with virtual
+ * threads each call gets its own virtual thread; otherwise a small pool of daemon threads sized to the
+ * {@link ConnectionPool} is used, since more threads than connections would only queue on the pool.
+ * </p>
+ * <p>
+ * Results are handed back to the UI with {@link #onFxThread(CompletableFuture, Consumer, Consumer)}, which runs the
+ * callbacks through {@link Platform#runLater(Runnable)}. Callbacks must never touch the scene graph from the
+ * executor.
+ * </p>
+ */
+public final class AsyncDatabase {
+    private static final int FALLBACK_THREADS = 8; //Matches the default db.pool.maxSize
+
+    private static volatile AsyncDatabase instance; //Shared facade, created on first use
+
+    private final ExecutorService executor;
+
+    /**
+     * A unit of work against {@link DBUtils}, run on the database executor.
+     * @param <T>   The type of the result
+     */
+    @FunctionalInterface
+    public interface DatabaseCall<T> {
+        T call(DBUtils db) throws Exception;
+    }
+
+    /**
+     * A unit of work against {@link BoxOfficeJDBC}, run on the database executor.
+     * @param <T>   The type of the result
+     */
+    @FunctionalInterface
+    public interface BoxOfficeCall<T> {
+        T call(BoxOfficeJDBC boxOffice) throws Exception;
+    }
+
+    private AsyncDatabase(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the shared facade, creating its executor on first use.
+     * @return  The shared asynchronous database facade
+     */
+    public static AsyncDatabase getInstance() {
+        AsyncDatabase async = instance;
+        if (async == null) {
+            synchronized (AsyncDatabase.class) {
+                async = instance;
+                if (async == null) {
+                    async = new AsyncDatabase(createExecutor());
+                    instance = async;
+                }
+            }
+        }
+        return async;
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor when the running JDK has one, or a fixed pool of daemon threads.
+     * <p>
+     * The project compiles for Java 16, so the virtual thread factory is looked up reflectively.
+     * </p>
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            //no virtual threads on this JDK
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(FALLBACK_THREADS, task -> {
+                Thread thread = new Thread(task, "lancaster-db-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Runs work against a fresh {@link DBUtils} on the database executor.
+     * <p>
+     * Checked exceptions complete the future exceptionally rather than being thrown.
+     * </p>
+     * @param call  The work to run
+     * @return      A future completed with the result of the work
+     * @param <T>   The type of the result
+     */
+    public <T> CompletableFuture<T> submit(DatabaseCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call(new DBUtils());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Runs work that reaches the database by other means, such as a shared index, on the database executor.
+     * @param call  The work to run
+     * @return      A future completed with the result of the work
+     * @param <T>   The type of the result
+     */
+    public <T> CompletableFuture<T> supply(Callable<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Runs work against a fresh {@link BoxOfficeJDBC} on the database executor.
+     * @param call  The work to run
+     * @return      A future completed with the result of the work
+     * @param <T>   The type of the result
+     */
+    public <T> CompletableFuture<T> submitBoxOffice(BoxOfficeCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call(new BoxOfficeJDBC());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * @see DBUtils#checkCredentials(String, String)
+     */
+    public CompletableFuture<Boolean> checkCredentials(String username, String password) {
+        return submit(db -> db.checkCredentials(username, password));
+    }
+
+    /**
+     * @see DBUtils#bookingConflict(Date, Time, Time, int)
+     */
+    public CompletableFuture<Boolean> bookingConflict(Date eventDate, Time startTime, Time endTime, int roomId) {
+        return submit(db -> db.bookingConflict(eventDate, startTime, endTime, roomId));
+    }
+
+    /**
+     * @see DBUtils#createBookingsWithEvents(List, String, String, String, String)
+     */
+    public CompletableFuture<List<Integer>> createBookingsWithEvents(List<BookingDetails> details, String clientEmail,
+                                                                     String clientPhone, String clientAddress,
+                                                                     String status) {
+        return submit(db -> db.createBookingsWithEvents(details, clientEmail, clientPhone, clientAddress, status));
+    }
+
+    /**
+     * @see DBUtils#getReviews()
+     */
+    public CompletableFuture<ArrayList<Review>> getReviews() {
+        return submit(DBUtils::getReviews);
+    }
+
+    /**
+     * @see DBUtils#getEventForDay(Date)
+     */
+    public CompletableFuture<ArrayList<Event>> getEventForDay(Date date) {
+        return submit(db -> db.getEventForDay(date));
+    }
+
+    /**
+     * Hands the outcome of a future to the JavaFX application thread.
+     * <p>
+     * Exactly one of the callbacks runs, through {@link Platform#runLater(Runnable)}. The error passed to
+     * {@code onError} is the underlying cause, not the {@link CompletionException} wrapping it.
+     * </p>
+     * @param future    The future to wait on
+     * @param onSuccess Called with the result on the JavaFX thread
+     * @param onError   Called with the failure on the JavaFX thread
+     * @param <T>       The type of the result
+     */
+    public static <T> void onFxThread(CompletableFuture<T> future, Consumer<? super T> onSuccess,
+                                      Consumer<Throwable> onError) {
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                onError.accept(unwrap(error));
+            }
+        }));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * Stops accepting new work. Calls already running are left to finish.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
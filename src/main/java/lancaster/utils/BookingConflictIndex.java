@@ -0,0 +1,383 @@
+package lancaster.utils;
+
+import lancaster.model.BookingDetails;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The {@code BookingConflictIndex} class answers "is this room free at this time" from memory.
+ * <p>
+ * Booked events are held per room in an interval tree, a treap ordered by start time where every node also
+ * records the latest end time below it. An overlap query walks a single path from the root, so it costs
+ * O(log n) in the number of events in the room rather than a database round trip per check.
+ * </p>
+ * <p>
+ * Events are loaded a calendar month at a time, the first time a check touches that month, and a loaded month
+ * is read again once it is older than the refresh interval so bookings made from other machines are picked up.
+ * Writes made through {@link DBUtils} are added straight away with {@link #add(BookedSlot)}. Events are keyed by
+ * ID, so an event that is both loaded and added is only held once.
+ * </p>
+ * <p>
+ * Two bookings conflict when their time ranges truly overlap: a booking that starts at the moment another ends is
+ * not a conflict. An end time of midnight means the end of the day, as it does when bookings are saved.
+ * </p>
+ */
+public final class BookingConflictIndex {
+    private final Loader loader;
+    private final long refreshNanos;
+
+    private final Map<Integer, IntervalTree> trees = new HashMap<>();
+    private final Map<Integer, BookedSlot> slots = new HashMap<>();
+    private final Map<YearMonth, Set<Integer>> eventsByMonth = new HashMap<>();
+    private final Map<YearMonth, Long> loadedAt = new HashMap<>();
+    private Map<String, Integer> roomIds;
+
+    /**
+     * Reads booked events and room IDs from the database.
+     */
+    public interface Loader {
+        /**
+         * @return  Every room's ID keyed by room name
+         * @throws SQLException If a database access error occurs
+         */
+        Map<String, Integer> loadRoomIds() throws SQLException;
+
+        /**
+         * @return  Every event from one date to another inclusive
+         * @throws SQLException If a database access error occurs
+         */
+        List<BookedSlot> loadEvents(LocalDate from, LocalDate to) throws SQLException;
+    }
+
+    /**
+     * A booked event: the room it is in and the time it takes up.
+     */
+    public record BookedSlot(int eventId, int roomId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+    }
+
+    /**
+     * Creates an empty index.
+     * @param loader        Where events and rooms are read from
+     * @param refreshMs     How long a loaded month is trusted before it is read again, in milliseconds
+     */
+    public BookingConflictIndex(Loader loader, long refreshMs) {
+        this.loader = loader;
+        this.refreshNanos = refreshMs * 1_000_000L;
+    }
+
+    /**
+     * Checks whether a time range overlaps any booked event in a room.
+     * @param roomId        The ID of the room being booked
+     * @param date          The date of the booking
+     * @param startTime     The start time of the booking
+     * @param endTime       The end time of the booking, midnight meaning the end of the day
+     * @return              True if an event in the room overlaps the range
+     * @throws SQLException If the month has to be loaded and the database cannot be read
+     */
+    public synchronized boolean overlaps(int roomId, LocalDate date, LocalTime startTime, LocalTime endTime)
+            throws SQLException {
+        ensureLoaded(date, date);
+        IntervalTree tree = trees.get(roomId);
+        long[] range = range(date, startTime, endTime);
+        return tree != null && tree.overlaps(range[0], range[1]);
+    }
+
+    /**
+     * Finds every pending booking that overlaps a booked event or another pending booking.
+     * <p>
+     * The pending bookings are sorted by room and start time and swept once, keeping the latest end time seen in
+     * the room so far; each is also checked against the room's interval tree. The whole check is O(n log n) in
+     * the number of pending bookings.
+     * </p>
+     * @param pending       The bookings waiting to be submitted
+     * @return              The positions in {@code pending} of the bookings that conflict
+     * @throws SQLException If a month has to be loaded and the database cannot be read
+     */
+    public synchronized Set<Integer> findConflicts(List<BookingDetails> pending) throws SQLException {
+        Set<Integer> conflicts = new HashSet<>();
+        if (pending.isEmpty()) {
+            return conflicts;
+        }
+
+        LocalDate first = null;
+        LocalDate last = null;
+        List<long[]> ranges = new ArrayList<>(pending.size());
+        for (BookingDetails booking : pending) {
+            first = first == null || booking.getDate().isBefore(first) ? booking.getDate() : first;
+            last = last == null || booking.getDate().isAfter(last) ? booking.getDate() : last;
+            ranges.add(range(booking.getDate(), LocalTime.parse(booking.getStartTime()),
+                    LocalTime.parse(booking.getEndTime())));
+        }
+        ensureLoaded(first, last);
+
+        List<Integer> order = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer, String>comparing(i -> pending.get(i).getRoom())
+                .thenComparingLong(i -> ranges.get(i)[0]));
+
+        String room = null;
+        long latestEnd = Long.MIN_VALUE;
+        int latestOwner = -1;
+        for (int i : order) {
+            BookingDetails booking = pending.get(i);
+            long[] range = ranges.get(i);
+            if (!booking.getRoom().equals(room)) {
+                room = booking.getRoom();
+                latestEnd = Long.MIN_VALUE;
+                latestOwner = -1;
+            }
+
+            //against the other pending bookings in the room that start no later than this one
+            if (range[0] < latestEnd) {
+                conflicts.add(i);
+                conflicts.add(latestOwner);
+            }
+            if (range[1] > latestEnd) {
+                latestEnd = range[1];
+                latestOwner = i;
+            }
+
+            //against the events already booked
+            Integer roomId = roomIds.get(room);
+            IntervalTree tree = roomId == null ? null : trees.get(roomId);
+            if (tree != null && tree.overlaps(range[0], range[1])) {
+                conflicts.add(i);
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Looks up a room's ID by its name.
+     * @param roomName      The name of the room
+     * @return              The room's ID, or null if there is no such room
+     * @throws SQLException If the rooms have to be loaded and the database cannot be read
+     */
+    public synchronized Integer getRoomId(String roomName) throws SQLException {
+        loadRoomIds();
+        return roomIds.get(roomName);
+    }
+
+    /**
+     * Adds an event that has just been saved. Events in months that have not been loaded yet are skipped, since
+     * they will be read from the database with the rest of their month.
+     * @param slot  The saved event
+     */
+    public synchronized void add(BookedSlot slot) {
+        if (loadedAt.containsKey(YearMonth.from(slot.date()))) {
+            insert(slot);
+        }
+    }
+
+    /**
+     * Removes an event, for example after it was cancelled.
+     * @param eventId   The ID of the event
+     */
+    public synchronized void remove(int eventId) {
+        BookedSlot slot = slots.remove(eventId);
+        if (slot != null) {
+            long[] range = range(slot.date(), slot.startTime(), slot.endTime());
+            trees.get(slot.roomId()).remove(range[0], eventId);
+            Set<Integer> month = eventsByMonth.get(YearMonth.from(slot.date()));
+            if (month != null) {
+                month.remove(eventId);
+            }
+        }
+    }
+
+    /**
+     * Forgets everything, so the next check reads from the database again.
+     */
+    public synchronized void clear() {
+        trees.clear();
+        slots.clear();
+        eventsByMonth.clear();
+        loadedAt.clear();
+        roomIds = null;
+    }
+
+    private void loadRoomIds() throws SQLException {
+        if (roomIds == null) {
+            roomIds = new HashMap<>(loader.loadRoomIds());
+        }
+    }
+
+    /**
+     * Loads every month from one date to another that is missing or stale, with one query per run of months.
+     */
+    private void ensureLoaded(LocalDate from, LocalDate to) throws SQLException {
+        loadRoomIds();
+        long now = System.nanoTime();
+        YearMonth runStart = null;
+        YearMonth end = YearMonth.from(to);
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(end); month = month.plusMonths(1)) {
+            Long loaded = loadedAt.get(month);
+            boolean needed = loaded == null || now - loaded > refreshNanos;
+            if (needed && runStart == null) {
+                runStart = month;
+            } else if (!needed && runStart != null) {
+                load(runStart, month.minusMonths(1), now);
+                runStart = null;
+            }
+        }
+        if (runStart != null) {
+            load(runStart, end, now);
+        }
+    }
+
+    private void load(YearMonth from, YearMonth to, long now) throws SQLException {
+        List<BookedSlot> loaded = loader.loadEvents(from.atDay(1), to.atEndOfMonth());
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            Set<Integer> stale = eventsByMonth.get(month);
+            if (stale != null) {
+                for (int eventId : new ArrayList<>(stale)) {
+                    remove(eventId);
+                }
+            }
+            loadedAt.put(month, now);
+        }
+        for (BookedSlot slot : loaded) {
+            insert(slot);
+        }
+    }
+
+    private void insert(BookedSlot slot) {
+        if (slots.containsKey(slot.eventId())) {
+            return;
+        }
+        long[] range = range(slot.date(), slot.startTime(), slot.endTime());
+        if (range[1] <= range[0]) {
+            return;
+        }
+        slots.put(slot.eventId(), slot);
+        trees.computeIfAbsent(slot.roomId(), r -> new IntervalTree()).insert(range[0], range[1], slot.eventId());
+        eventsByMonth.computeIfAbsent(YearMonth.from(slot.date()), m -> new HashSet<>()).add(slot.eventId());
+    }
+
+    /**
+     * Turns a date and times into a half-open range of epoch seconds. An end at or before the start runs into the
+     * next day, so midnight ends the day.
+     */
+    private static long[] range(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        LocalDateTime start = LocalDateTime.of(date, startTime);
+        LocalDateTime end = LocalDateTime.of(date, endTime);
+        if (!end.isAfter(start)) {
+            end = end.plusDays(1);
+        }
+        return new long[]{start.toEpochSecond(ZoneOffset.UTC), end.toEpochSecond(ZoneOffset.UTC)};
+    }
+
+    /**
+     * A treap of half-open intervals ordered by start time then event ID, where each node records the latest end
+     * time in its subtree. Random priorities keep it balanced, so every operation is O(log n) expected.
+     */
+    private static final class IntervalTree {
+        private Node root;
+
+        private static final class Node {
+            private final long start;
+            private final long end;
+            private final int eventId;
+            private final int priority = ThreadLocalRandom.current().nextInt();
+            private long maxEnd;
+            private Node left;
+            private Node right;
+
+            private Node(long start, long end, int eventId) {
+                this.start = start;
+                this.end = end;
+                this.eventId = eventId;
+                this.maxEnd = end;
+            }
+        }
+
+        void insert(long start, long end, int eventId) {
+            Node[] parts = split(root, start, eventId, false);
+            root = merge(merge(parts[0], new Node(start, end, eventId)), parts[1]);
+        }
+
+        void remove(long start, int eventId) {
+            Node[] below = split(root, start, eventId, false);
+            Node[] match = split(below[1], start, eventId, true);
+            root = merge(below[0], match[1]);
+        }
+
+        /**
+         * Follows the single path that can hold an overlap: go left while the left subtree ends after the query
+         * starts, since if nothing there overlaps then nothing to the right can either.
+         */
+        boolean overlaps(long start, long end) {
+            Node node = root;
+            while (node != null) {
+                if (node.start < end && start < node.end) {
+                    return true;
+                }
+                node = node.left != null && node.left.maxEnd > start ? node.left : node.right;
+            }
+            return false;
+        }
+
+        /**
+         * Splits a subtree into the nodes before a key and the rest. With {@code inclusive} the key itself goes
+         * to the first part.
+         */
+        private static Node[] split(Node node, long start, int eventId, boolean inclusive) {
+            if (node == null) {
+                return new Node[2];
+            }
+            int cmp = node.start != start ? Long.compare(node.start, start) : Integer.compare(node.eventId, eventId);
+            if (cmp < 0 || (inclusive && cmp == 0)) {
+                Node[] parts = split(node.right, start, eventId, inclusive);
+                node.right = parts[0];
+                parts[0] = update(node);
+                return parts;
+            }
+            Node[] parts = split(node.left, start, eventId, inclusive);
+            node.left = parts[1];
+            parts[1] = update(node);
+            return parts;
+        }
+
+        private static Node merge(Node a, Node b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            if (a.priority > b.priority) {
+                a.right = merge(a.right, b);
+                return update(a);
+            }
+            b.left = merge(a, b.left);
+            return update(b);
+        }
+
+        private static Node update(Node node) {
+            long maxEnd = node.end;
+            if (node.left != null) {
+                maxEnd = Math.max(maxEnd, node.left.maxEnd);
+            }
+            if (node.right != null) {
+                maxEnd = Math.max(maxEnd, node.right.maxEnd);
+            }
+            node.maxEnd = maxEnd;
+            return node;
+        }
+    }
+}
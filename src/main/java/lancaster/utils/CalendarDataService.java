@@ -0,0 +1,164 @@
+package lancaster.utils;
+
+import lancaster.model.Event;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The {@code CalendarDataService} class keeps whole months of events in memory for the calendar views.
+ * <p>
+ * A month is loaded with one range query through {@link DBUtils#getEventsBetween(Date, Date)} on the
+ * {@link AsyncDatabase} executor and grouped by day. While the calendar shows a month, the months either side are
+ * prefetched in the background, so paging through months and opening a day's sheet are normally served from
+ * memory. The least recently used months are dropped once more than {@value #MAX_MONTHS} are held.
+ * </p>
+ * <p>
+ * Each month is held as the future of its load, so callers asking for a month that is still loading share the
+ * one query. Writes through {@link DBUtils} invalidate the months they touch, and a failed load is dropped so the
+ * next request tries again.
+ * </p>
+ * <p>
+ * Bookings made on other machines do not invalidate anything here, so a loaded month is only trusted for
+ * {@code calendar.refreshMs} in {@code config.properties} (default one minute). Asking for a month held longer than
+ * that, for example when paging back to it, reads it again.
+ * </p>
+ */
+public final class CalendarDataService {
+    private static final int MAX_MONTHS = 6;
+    private static final long DEFAULT_REFRESH_MS = 60_000;
+
+    private static final CalendarDataService instance = new CalendarDataService();
+
+    private final LinkedHashMap<YearMonth, CompletableFuture<Map<LocalDate, List<Event>>>> months =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<YearMonth, CompletableFuture<Map<LocalDate, List<Event>>>> eldest) {
+                    if (size() > MAX_MONTHS) {
+                        loadedAt.remove(eldest.getKey());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+    private final Map<YearMonth, Long> loadedAt = new HashMap<>(); //When each month held started loading
+    private final long refreshNanos;
+
+    private CalendarDataService() {
+        long refreshMs = DEFAULT_REFRESH_MS;
+        try {
+            refreshMs = Long.parseLong(ConnectionPool.loadProperties()
+                    .getProperty("calendar.refreshMs", String.valueOf(DEFAULT_REFRESH_MS)));
+        } catch (IOException | NumberFormatException e) {
+            //keep the default; the calendar works without a config file
+        }
+        this.refreshNanos = refreshMs * 1_000_000L;
+    }
+
+    /**
+     * @return  The shared calendar data service
+     */
+    public static CalendarDataService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Gets the events of a month grouped by day, loading the month if it is not held or has been held too long.
+     * @param month     The month to get
+     * @return          A future of the month's events keyed by date; days without events are left out
+     */
+    public synchronized CompletableFuture<Map<LocalDate, List<Event>>> getMonth(YearMonth month) {
+        CompletableFuture<Map<LocalDate, List<Event>>> future = months.get(month);
+        long now = System.nanoTime();
+        if (future == null || (future.isDone() && now - loadedAt.get(month) > refreshNanos)) {
+            loadedAt.put(month, now);
+            future = AsyncDatabase.getInstance()
+                    .submit(db -> groupByDay(db.getEventsBetween(Date.valueOf(month.atDay(1)),
+                            Date.valueOf(month.atEndOfMonth()))));
+            months.put(month, future);
+
+            CompletableFuture<Map<LocalDate, List<Event>>> loading = future;
+            future.whenComplete((events, error) -> {
+                if (error != null) {
+                    forget(month, loading);
+                }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * Gets the events of a day, loading its month if it is not held.
+     * @param date      The day to get
+     * @return          A future of the day's events ordered by start time
+     */
+    public CompletableFuture<List<Event>> getDay(LocalDate date) {
+        return getMonth(YearMonth.from(date)).thenApply(events -> events.getOrDefault(date, List.of()));
+    }
+
+    /**
+     * Gets the events of a day only if its month has already been loaded.
+     * @param date      The day to get
+     * @return          The day's events ordered by start time, or null if the month is not in memory yet
+     */
+    public synchronized List<Event> getDayIfLoaded(LocalDate date) {
+        CompletableFuture<Map<LocalDate, List<Event>>> future = months.get(YearMonth.from(date));
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join().getOrDefault(date, List.of());
+    }
+
+    /**
+     * Loads a month and the months either side of it in the background.
+     * @param month     The month being shown
+     */
+    public synchronized void prefetchAround(YearMonth month) {
+        getMonth(month);
+        getMonth(month.minusMonths(1));
+        getMonth(month.plusMonths(1));
+        //touch the shown month again so it is the last to be evicted
+        months.get(month);
+    }
+
+    /**
+     * Drops the month of a date so it is read again next time, after an event on that date was written.
+     * @param date      The date of the event that changed
+     */
+    public synchronized void invalidate(LocalDate date) {
+        months.remove(YearMonth.from(date));
+        loadedAt.remove(YearMonth.from(date));
+    }
+
+    /**
+     * Drops every month held.
+     */
+    public synchronized void invalidateAll() {
+        months.clear();
+        loadedAt.clear();
+    }
+
+    private synchronized void forget(YearMonth month, CompletableFuture<Map<LocalDate, List<Event>>> loading) {
+        if (months.remove(month, loading)) {
+            loadedAt.remove(month);
+        }
+    }
+
+    private static Map<LocalDate, List<Event>> groupByDay(List<Event> events) {
+        Map<LocalDate, List<Event>> byDay = new HashMap<>();
+        for (Event event : events) {
+            byDay.computeIfAbsent(event.getEvent_date().toLocalDate(), d -> new ArrayList<>()).add(event);
+        }
+        byDay.replaceAll((date, list) -> Collections.unmodifiableList(list));
+        return Collections.unmodifiableMap(byDay);
+    }
+}
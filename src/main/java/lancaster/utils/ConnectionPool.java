@@ -0,0 +1,431 @@
+package lancaster.utils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code ConnectionPool} class shares a bounded set of database connections across the application.
+ * <p>
+ * The pool reads {@code config.properties} once, then hands out connections through {@link #getConnection()}.
+ * The returned connection is a handle over a pooled physical connection, calling {@code close()} on it gives the
+ * physical connection back to the pool instead of closing the socket. This lets {@link DBUtils},
+ * {@code BoxOfficeJDBC} and {@code MarketingJDBC} borrow a connection per call without paying for a new TCP and
+ * authentication handshake every time.
+ * </p>
+ * <p>
+ * Connections are validated when borrowed, idle connections above the minimum are evicted after a timeout and
+ * connections that are held longer than the leak threshold are reported together with the stack trace of the
+ * code that borrowed them. All settings are optional and read from the same properties file:
+ * <ul>
+ *   <li>{@code db.pool.maxSize} - most physical connections open at once (default 8)</li>
+ *   <li>{@code db.pool.minIdle} - idle connections kept open by eviction (default 1)</li>
+ *   <li>{@code db.pool.borrowTimeoutMs} - how long a borrower waits for a free connection (default 10000)</li>
+ *   <li>{@code db.pool.idleTimeoutMs} - idle time before a connection is evicted (default 600000)</li>
+ *   <li>{@code db.pool.leakThresholdMs} - hold time before a leak is reported, 0 disables (default 60000)</li>
+ *   <li>{@code db.pool.validationBypassMs} - skip validation if returned this recently (default 500)</li>
+ *   <li>{@code db.pool.statementCacheSize} - prepared statements cached per connection, 0 disables (default 32)</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Each pooled connection carries a {@link StatementCache}, so {@code prepareStatement} on a borrowed connection
+ * reuses the statement prepared by an earlier borrower for the same SQL text. The hit and miss counters are
+ * exposed through {@link #getStatementCacheHits()} and {@link #getStatementCacheMisses()}.
+ * </p>
+ */
+public final class ConnectionPool {
+    private static final String CONFIG_RESOURCE = "config.properties";
+    private static final String CONFIG_FILE = "src/main/resources/config.properties";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private static volatile ConnectionPool instance; //Shared pool for the whole application
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long leakThresholdMs;
+    private final long validationBypassMs;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a pool from the given properties.
+     *
+     * @param props the database and pool settings
+     */
+    ConnectionPool(Properties props) {
+        this.url = props.getProperty("db.url");
+        this.connectionProperties = new Properties();
+        connectionProperties.setProperty("user", props.getProperty("db.username"));
+        connectionProperties.setProperty("password", props.getProperty("db.password"));
+        //let the driver send a JDBC batch as one multi-row insert unless the url already says otherwise
+        if (!url.contains("rewriteBatchedStatements")) {
+            connectionProperties.setProperty("rewriteBatchedStatements", "true");
+        }
+        this.maxSize = Integer.parseInt(props.getProperty("db.pool.maxSize", "8"));
+        this.minIdle = Integer.parseInt(props.getProperty("db.pool.minIdle", "1"));
+        this.borrowTimeoutMs = Long.parseLong(props.getProperty("db.pool.borrowTimeoutMs", "10000"));
+        this.idleTimeoutMs = Long.parseLong(props.getProperty("db.pool.idleTimeoutMs", "600000"));
+        this.leakThresholdMs = Long.parseLong(props.getProperty("db.pool.leakThresholdMs", "60000"));
+        this.validationBypassMs = Long.parseLong(props.getProperty("db.pool.validationBypassMs", "500"));
+        this.statementCacheSize = Integer.parseInt(props.getProperty("db.pool.statementCacheSize", "32"));
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1000, Math.min(idleTimeoutMs, leakThresholdMs > 0 ? leakThresholdMs : idleTimeoutMs) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the shared pool, creating it on first use.
+     * @return                          The application wide connection pool
+     * @throws IOException              If the config file cannot be read
+     * @throws ClassNotFoundException   If the jdbc class cannot be found
+     */
+    public static ConnectionPool getInstance() throws IOException, ClassNotFoundException {
+        ConnectionPool pool = instance;
+        if (pool == null) {
+            synchronized (ConnectionPool.class) {
+                pool = instance;
+                if (pool == null) {
+                    Class.forName("com.mysql.cj.jdbc.Driver");
+                    pool = new ConnectionPool(loadProperties());
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "connection-pool-shutdown"));
+                    instance = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Reads the database configuration, preferring the classpath copy and falling back to the source tree.
+     * @return              The loaded properties
+     * @throws IOException  If neither copy of the config file can be read
+     */
+    static Properties loadProperties() throws IOException {
+        Properties props = new Properties();
+        try (InputStream input = ConnectionPool.class.getClassLoader().getResourceAsStream(CONFIG_RESOURCE)) {
+            if (input != null) {
+                props.load(input);
+                return props;
+            }
+        }
+
+        try (FileInputStream fis = new FileInputStream(CONFIG_FILE)) {
+            props.load(fis);
+        }
+        return props;
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none are idle and the pool is not full.
+     * <p>
+     * The caller must close the returned connection, preferably with try-with-resources, to give it back.
+     * </p>
+     * @return              A validated connection handle
+     * @throws SQLException If the pool is shut down, no connection frees up in time or the database is unreachable
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMs + "ms waiting for a database connection ("
+                        + borrowed.size() + "/" + maxSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(DriverManager.getConnection(url, connectionProperties));
+                created.incrementAndGet();
+            }
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowTrace = leakThresholdMs > 0 ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            borrowCount.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection that is still alive, closing any dead ones on the way.
+     * @return  A live idle connection, or null if there are none
+     */
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            //connections returned moments ago are trusted to save a round trip
+            if (System.currentTimeMillis() - pooled.lastUsed <= validationBypassMs) {
+                return pooled;
+            }
+            try {
+                if (pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    return pooled;
+                }
+            } catch (SQLException ignored) {
+                //fall through and discard the broken connection
+            }
+            closeQuietly(pooled);
+        }
+        return null;
+    }
+
+    /**
+     * Gives a borrowed connection back to the pool, resetting any transaction state the borrower left behind.
+     * @param pooled    The connection being returned
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        pooled.lastUsed = System.currentTimeMillis();
+        pooled.borrowTrace = null;
+        if (pooled.statements != null) {
+            pooled.statements.releaseAll();
+        }
+
+        boolean reusable = !shutdown;
+        try {
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            idle.offerFirst(pooled);
+        } else {
+            closeQuietly(pooled);
+        }
+        permits.release();
+    }
+
+    /**
+     * Evicts connections idle for longer than the idle timeout and reports borrowed connections held past the
+     * leak threshold. Runs periodically on the housekeeping thread.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        //oldest idle connections sit at the tail of the deque
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > minIdle) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsed > idleTimeoutMs && idle.remove(pooled)) {
+                closeQuietly(pooled);
+            }
+        }
+
+        if (leakThresholdMs > 0) {
+            for (PooledConnection pooled : borrowed) {
+                Throwable trace = pooled.borrowTrace;
+                if (!pooled.leakReported && trace != null && now - pooled.borrowedAt > leakThresholdMs) {
+                    pooled.leakReported = true;
+                    System.err.println("Possible connection leak: connection held for "
+                            + (now - pooled.borrowedAt) + "ms");
+                    trace.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes every idle connection and stops the housekeeping thread. Borrowed connections are closed as they
+     * are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    /**
+     * Closes the physical connection, ignoring any error since the connection is being discarded anyway.
+     * @param pooled    The connection to close
+     */
+    private static void closeQuietly(PooledConnection pooled) {
+        if (pooled.statements != null) {
+            pooled.statements.clear();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+            //nothing useful can be done with a connection that fails to close
+        }
+    }
+
+    /**
+     * @return  The number of connections currently borrowed
+     */
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    /**
+     * @return  The number of open connections waiting in the pool
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return  The number of physical connections opened since the pool was created
+     */
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * @return  The number of times a connection has been borrowed since the pool was created
+     */
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    /**
+     * @return  The number of prepared statements served from a connection's statement cache
+     */
+    public long getStatementCacheHits() {
+        return statementHits.sum();
+    }
+
+    /**
+     * @return  The number of prepared statements that had to be parsed because they were not cached
+     */
+    public long getStatementCacheMisses() {
+        return statementMisses.sum();
+    }
+
+    /**
+     * A physical connection owned by the pool along with its bookkeeping.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Throwable borrowTrace;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementHits, statementMisses)
+                    : null;
+        }
+
+        /**
+         * Creates a handle for one borrow. The handle stops working once closed, so a stale reference cannot
+         * touch a connection that has since been lent to someone else.
+         * @return  A connection proxy that returns this connection to the pool on close
+         */
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    /**
+     * Forwards calls to the physical connection until the borrower closes the handle.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (closed ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (pooled.statements != null && method.getName().equals("prepareStatement")) {
+                //only the plain and generated-keys forms are cached, other variants go straight to the driver
+                Class<?>[] params = method.getParameterTypes();
+                if (params.length == 1) {
+                    return pooled.statements.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (params.length == 2 && params[1] == int.class) {
+                    return pooled.statements.prepare((String) args[0], (Integer) args[1]);
+                }
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
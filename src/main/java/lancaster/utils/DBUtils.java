@@ -7,54 +7,144 @@ import javafx.scene.control.Alert;
 import javafx.event.ActionEvent;
 import javafx.stage.Stage;
 import lancaster.model.Booking;
+import lancaster.model.BookingDetails;
 import lancaster.model.Event;
+import lancaster.model.RevenueCalculator;
 import lancaster.model.Review;
 
 import javax.imageio.plugins.jpeg.JPEGImageReadParam;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Properties;
+import java.util.Map;
 
 
 /**
  * The {@code DBUtils} class creates utilities for the code that require the database
  * <p>
- * This class uses methods that will require a {@code connection} to the database via JDBC. The class itself
- * will create a {@code connection} when constructed and will use that connection until closed in some
- * certain methods.
+ * This class uses methods that will require a {@code connection} to the database via JDBC. Each method borrows
+ * a {@code connection} from the shared {@link ConnectionPool} and gives it back when it is done, so creating a
+ * {@code DBUtils} is cheap and no method leaves the connection closed for the next caller.
  * </p>
  *
  */
 public class DBUtils {
-    private static Connection connection; //Connection to the database
+    private static final int DEFAULT_SEATING_CONFIG_ID = 1; //Seating configuration used when none is chosen
+
+    private static volatile BookingConflictIndex conflictIndex; //Shared in-memory index of booked events
+
+    //how long an event lasts in seconds; an end time at or before the start, such as the 00:00 that ends an
+    //all-day booking, is on the next day
+    private static final String EVENT_SECONDS = """
+                    (TIME_TO_SEC(e.end_time) - TIME_TO_SEC(e.start_time)
+                        + CASE WHEN e.end_time <= e.start_time THEN 86400 ELSE 0 END)""";
+
+    //the columns every revenue query prices its events by, read back by charge(); needs events e and bookings b
+    private static final String EVENT_PRICING = """
+                    CASE
+                        WHEN DATEDIFF(b.end_date, b.start_date) >= 6 THEN 'WEEKLY'
+                        WHEN %1$s >= 7 * 3600 THEN 'FULL_DAY'
+                        WHEN e.start_time >= '17:00:00' THEN 'EVENING'
+                        WHEN %1$s >= 3 * 3600 THEN 'MORNING_AFTERNOON'
+                        ELSE 'HOURLY'
+                    END AS booking_type,
+                    CASE DAYOFWEEK(e.event_date)
+                        WHEN 1 THEN 'SUNDAY'
+                        WHEN 6 THEN 'FRIDAY_TO_SATURDAY'
+                        WHEN 7 THEN 'FRIDAY_TO_SATURDAY'
+                        ELSE 'MONDAY_TO_THURSDAY'
+                    END AS day_type,
+                    CEIL(%1$s / 3600) AS hours""".formatted(EVENT_SECONDS);
+
+    //prices events on the installed tariff
+    private static final RevenueCalculator CALCULATOR = new RevenueCalculator();
+
+    private final ConnectionPool pool; //Shared pool that connections to the database are borrowed from
 
     /**
-     * Constructor for DBUtils that creates a connection between the user and the database
+     * Constructor for DBUtils that attaches to the shared connection pool, creating it on first use
      * @throws SQLException             If a database access error occurs
      * @throws IOException              If an error occurs reading from input stream
      * @throws ClassNotFoundException   If the jdbc class cannot be found
      */
     public DBUtils() throws SQLException, IOException, ClassNotFoundException {
-        Properties props = new Properties();
+        this.pool = ConnectionPool.getInstance();
+    }
 
-        //read from config file to get correct database username and password
-        try (FileInputStream fis = new FileInputStream("src/main/resources/config.properties")) {
-            props.load(fis);
+    /**
+     * This will get the shared index of booked events used for conflict checks, creating it on first use
+     * <p>
+     * A loaded month is read again after {@code db.conflictIndex.refreshMs} in {@code config.properties}
+     * (default one minute) so bookings made from other machines are seen.
+     * </p>
+     * @return                  The shared booking conflict index
+     * @throws IOException      If the config file cannot be read
+     */
+    public BookingConflictIndex getConflictIndex() throws IOException {
+        BookingConflictIndex index = conflictIndex;
+        if (index == null) {
+            synchronized (DBUtils.class) {
+                index = conflictIndex;
+                if (index == null) {
+                    long refreshMs = Long.parseLong(ConnectionPool.loadProperties()
+                            .getProperty("db.conflictIndex.refreshMs", "60000"));
+                    index = new BookingConflictIndex(new ConflictIndexLoader(pool), refreshMs);
+                    conflictIndex = index;
+                }
+            }
         }
+        return index;
+    }
 
-        String url = props.getProperty("db.url");
-        String username = props.getProperty("db.username");
-        String password = props.getProperty("db.password");
+    /**
+     * Reads the rooms and booked events that the {@link BookingConflictIndex} is built from
+     */
+    private static final class ConflictIndexLoader implements BookingConflictIndex.Loader {
+        private final ConnectionPool pool;
 
+        private ConflictIndexLoader(ConnectionPool pool) {
+            this.pool = pool;
+        }
 
-        connection = DriverManager.getConnection(url, username, password);
+        @Override
+        public Map<String, Integer> loadRoomIds() throws SQLException {
+            try (Connection connection = pool.getConnection()) {
+                return getRoomIds(connection);
+            }
+        }
 
-        Class.forName("com.mysql.cj.jdbc.Driver");
+        @Override
+        public List<BookingConflictIndex.BookedSlot> loadEvents(LocalDate from, LocalDate to) throws SQLException {
+            String query = """
+                        SELECT event_id, room_id, event_date, start_time, end_time FROM events
+                        WHERE event_date BETWEEN ? AND ?
+                    """;
+            List<BookingConflictIndex.BookedSlot> slots = new ArrayList<>();
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setDate(1, Date.valueOf(from));
+                statement.setDate(2, Date.valueOf(to));
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        slots.add(new BookingConflictIndex.BookedSlot(
+                                rs.getInt("event_id"),
+                                rs.getInt("room_id"),
+                                rs.getDate("event_date").toLocalDate(),
+                                rs.getTime("start_time").toLocalTime(),
+                                rs.getTime("end_time").toLocalTime()));
+                    }
+                }
+            }
+            return slots;
+        }
     }
 
     /**
@@ -83,19 +173,20 @@ public class DBUtils {
 
         List<Booking> sheet = new ArrayList<>();
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setDate(1, Date.valueOf(date));
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                //get all table columns and create a new booking object to be added to the list
-                String roomName = rs.getString("room_name");
-                LocalDate endDate = rs.getDate("end_date").toLocalDate();
-                LocalTime startTime = rs.getTime("start_time").toLocalTime();
-                LocalTime endTime = rs.getTime("end_time").toLocalTime();
-                String customerName = rs.getString("customer_name");
-                String configName = rs.getString("configuration_name");
-                sheet.add(new Booking(roomName, date, endDate, startTime, endTime, customerName, configName));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    //get all table columns and create a new booking object to be added to the list
+                    String roomName = rs.getString("room_name");
+                    LocalDate endDate = rs.getDate("end_date").toLocalDate();
+                    LocalTime startTime = rs.getTime("start_time").toLocalTime();
+                    LocalTime endTime = rs.getTime("end_time").toLocalTime();
+                    String customerName = rs.getString("customer_name");
+                    String configName = rs.getString("configuration_name");
+                    sheet.add(new Booking(roomName, date, endDate, startTime, endTime, customerName, configName));
+                }
             }
         }
 
@@ -120,15 +211,16 @@ public class DBUtils {
               AND end_time >= ?;
         """;
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setDate(1, Date.valueOf(date));
             stmt.setTime(2, Time.valueOf(endTime));
             stmt.setTime(3, Time.valueOf(startTime));
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                //return true if there is a value found
-                return rs.getInt(1) > 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    //return true if there is a value found
+                    return rs.getInt(1) > 0;
+                }
             }
         }
 
@@ -143,15 +235,16 @@ public class DBUtils {
         String query = "SELECT room_name FROM rooms;";
         List<String> roomNames = new ArrayList<>();
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            ResultSet rs = stmt.executeQuery();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String roomName = rs.getString("room_name");
+                    roomNames.add(roomName);
+                }
 
-            while (rs.next()) {
-                String roomName = rs.getString("room_name");
-                roomNames.add(roomName);
+                return roomNames;
             }
-
-            return roomNames;
         } catch (SQLException e) {
             throw new RuntimeException("Error retrieving room names", e);
         }
@@ -159,60 +252,60 @@ public class DBUtils {
 
 
     /**
-     * This will log in a user if inserted credentials are correct, if not alert an error
-     * @param event         The event of the button press, used to get window to change
+     * This will check the inserted credentials against the accounts in the database
+     * <p>
+     * It makes no UI changes, so it is safe to call off the JavaFX thread.
+     * </p>
      * @param username      The inputted username to be checked in the database
      * @param password      The inputted password to be checked in the database
-     * @throws IOException  If there is an error loading the FXML
+     * @return              True if an account matches both the username and password
      */
-    public void loginUser(ActionEvent event, String username, String password) throws IOException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("MySQL JDBC driver not found", e);
-        }
-
-        PreparedStatement preparedStatement;
-        ResultSet resultSet;
-        try {
-            preparedStatement = connection.prepareStatement("SELECT username, password FROM Account WHERE password = ? AND username = ?");
+    public boolean checkCredentials(String username, String password) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement("SELECT username, password FROM Account WHERE password = ? AND username = ?")) {
             preparedStatement.setString(1, password);
             preparedStatement.setString(2, username);
-            resultSet = preparedStatement.executeQuery();
-
-            if (!resultSet.isBeforeFirst()) {
-                System.out.println("Credentials not found in db");
-                connection.close();
-                Alert alert = new Alert(Alert.AlertType.ERROR);
-                alert.setContentText("Provided credentials are incorrect");
-                alert.show();
-            } else {
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
-                    String retrieveUsername = resultSet.getString("username");
-                    String retrievePassword = resultSet.getString("password");
-                    if (password.equals(retrievePassword) && username.equals(retrieveUsername)) {
-                        Stage primaryStage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-                        // Relocate the user to the selection page
-                        FXMLLoader loader = new FXMLLoader(DBUtils.class.getResource("/lancaster/ui/selectionPane.fxml"));
-                        Parent selectionPane = loader.load();
-                        primaryStage.getScene().setRoot(selectionPane);
-                        primaryStage.show();
-                        connection.close();
-                        break;
-                    } else {
-                        // the password is wrong
-                        System.out.println("Passwords do not match");
-                        Alert alert = new Alert(Alert.AlertType.ERROR);
-                        alert.setContentText("Provided credentials are incorrect");
-                        alert.show();
+                    //compare again in java since the database collation may ignore case
+                    if (password.equals(resultSet.getString("password")) && username.equals(resultSet.getString("username"))) {
+                        return true;
                     }
                 }
             }
+            System.out.println("Credentials not found in db");
+            return false;
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * This will log in a user if inserted credentials are correct, if not alert an error
+     * <p>
+     * This runs the credential check on the calling thread; the login screen uses
+     * {@link AsyncDatabase#checkCredentials(String, String)} instead so the JavaFX thread is not blocked.
+     * </p>
+     * @param event         The event of the button press, used to get window to change
+     * @param username      The inputted username to be checked in the database
+     * @param password      The inputted password to be checked in the database
+     * @throws IOException  If there is an error loading the FXML
+     */
+    public void loginUser(ActionEvent event, String username, String password) throws IOException {
+        if (checkCredentials(username, password)) {
+            Stage primaryStage = (Stage) ((Node) event.getSource()).getScene().getWindow();
+            // Relocate the user to the selection page
+            FXMLLoader loader = new FXMLLoader(DBUtils.class.getResource("/lancaster/ui/selectionPane.fxml"));
+            Parent selectionPane = loader.load();
+            primaryStage.getScene().setRoot(selectionPane);
+            primaryStage.show();
+        } else {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setContentText("Provided credentials are incorrect");
+            alert.show();
+        }
+    }
+
     /**
      * This will create a new booking entry into the database
      * @param roomID        The ID of the room the event will take place
@@ -230,8 +323,8 @@ public class DBUtils {
                          end_date, customer_name, customer_email, customer_phone, customer_address, booking_status)
                         VALUES (null, ?, ?, ?, ?, ?, ?, ?, ?)
                         """;
-        try {
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, roomID);
             statement.setDate(2, startDate);
             statement.setDate(3, endDate);
@@ -242,6 +335,8 @@ public class DBUtils {
             statement.setString(8, status);
 
             statement.execute();
+            //the length of a booking decides the booking type its events are priced at
+            invalidateCachedMonths(startDate.toLocalDate(), endDate.toLocalDate());
         }
         catch (SQLException e){
             throw new RuntimeException("Error creating booking");
@@ -249,6 +344,18 @@ public class DBUtils {
 
     }
 
+    /**
+     * Drops the calendar and revenue months covering a range of dates, after something in them was written
+     * @param from  The first date written
+     * @param to    The last date written, inclusive
+     */
+    private static void invalidateCachedMonths(LocalDate from, LocalDate to) {
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            CalendarDataService.getInstance().invalidate(month.atDay(1));
+            RevenueRollupCache.getInstance().invalidate(month.atDay(1));
+        }
+    }
+
     /**
      * This will create a new event entry into the database
      * @param roomID            The room ID the event is taking place
@@ -265,8 +372,8 @@ public class DBUtils {
                     VALUES(null, null, ?, ?, ?, ?, ?, ?)
                 """;
 
-        try{
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             statement.setInt(1, roomID);
             statement.setInt(2, seating_configID);
             statement.setString(3, name);
@@ -275,16 +382,284 @@ public class DBUtils {
             statement.setTime(6, endTime);
 
             statement.execute();
-            //close the connection after a booking and event are added
-            connection.close();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (keys.next()) {
+                    getConflictIndex().add(new BookingConflictIndex.BookedSlot(keys.getInt(1), roomID,
+                            eventDate.toLocalDate(), startTime.toLocalTime(), endTime.toLocalTime()));
+                }
+            }
+            invalidateCachedMonths(eventDate.toLocalDate(), eventDate.toLocalDate());
         }
-        catch(SQLException e){
+        catch(SQLException | IOException e){
             throw new RuntimeException("Error creating event");
         }
     }
 
+    /**
+     * This will create bookings and their events in one transaction, so either all of them are saved or none are
+     * <p>
+     * The pending bookings are grouped by room and one booking row is written per room, spanning the first to the
+     * last date booked in that room. Bookings and events are each sent as a single JDBC batch and the generated
+     * booking IDs are written into {@code events.booking_id}. A group of any size therefore costs a handful of
+     * round trips: the room lookup, the two batches and the commit. If any insert fails the whole group is rolled
+     * back. An end time of midnight is saved as the last second of the day.
+     * </p>
+     * <p>
+     * Whether the rooms are free is decided here, not by the {@link BookingConflictIndex}, which can be a refresh
+     * behind. The rows of the rooms being booked are locked first, so two terminals booking the same room take
+     * turns, and then every event is checked against the events table and against the other events of the group.
+     * If any of them clashes nothing is saved.
+     * </p>
+     * @param details       The pending bookings, one per event, all for the same client
+     * @param clientEmail   The email address of the client booking the event/s
+     * @param clientPhone   The telephone number of the client booking the event/s
+     * @param clientAddress The address of the client booking the event/s
+     * @param status        The status of the bookings, in default should be "pending"
+     * @return              The IDs of the bookings created, one per room
+     * @throws IllegalStateException If an event clashes with one already booked or with another in the group
+     */
+    public List<Integer> createBookingsWithEvents(List<BookingDetails> details, String clientEmail,
+                                                  String clientPhone, String clientAddress, String status) {
+        if (details.isEmpty()) {
+            return List.of();
+        }
+
+        String bookingQuery = """
+                        INSERT INTO bookings (booking_id, room_id, start_date,
+                         end_date, customer_name, customer_email, customer_phone, customer_address, booking_status)
+                        VALUES (null, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """;
+        String eventQuery = """
+                    INSERT INTO events (event_id, booking_id, room_id, seating_config_id, Name, event_date, start_time, end_time)
+                    VALUES(null, ?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        try (Connection connection = pool.getConnection()) {
+            Map<String, Integer> roomIds = getRoomIds(connection);
+
+            //group the events by room, keeping the order they were added in
+            Map<String, List<BookingDetails>> byRoom = new LinkedHashMap<>();
+            for (BookingDetails detail : details) {
+                if (!roomIds.containsKey(detail.getRoom())) {
+                    throw new RuntimeException("Unknown room: " + detail.getRoom());
+                }
+                byRoom.computeIfAbsent(detail.getRoom(), r -> new ArrayList<>()).add(detail);
+            }
+
+            connection.setAutoCommit(false);
+            try {
+                checkRoomsFree(connection, byRoom, roomIds);
+
+                List<Integer> bookingIds = new ArrayList<>();
+                try (PreparedStatement statement = connection.prepareStatement(bookingQuery, Statement.RETURN_GENERATED_KEYS)) {
+                    for (Map.Entry<String, List<BookingDetails>> entry : byRoom.entrySet()) {
+                        LocalDate first = null;
+                        LocalDate last = null;
+                        for (BookingDetails detail : entry.getValue()) {
+                            first = first == null || detail.getDate().isBefore(first) ? detail.getDate() : first;
+                            last = last == null || detail.getDate().isAfter(last) ? detail.getDate() : last;
+                        }
+                        statement.setInt(1, roomIds.get(entry.getKey()));
+                        statement.setDate(2, Date.valueOf(first));
+                        statement.setDate(3, Date.valueOf(last));
+                        statement.setString(4, entry.getValue().get(0).getClientName());
+                        statement.setString(5, clientEmail);
+                        statement.setString(6, clientPhone);
+                        statement.setString(7, clientAddress);
+                        statement.setString(8, status);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            bookingIds.add(keys.getInt(1));
+                        }
+                    }
+                }
+                if (bookingIds.size() != byRoom.size()) {
+                    throw new SQLException("Expected " + byRoom.size() + " booking IDs but got " + bookingIds.size());
+                }
+
+                List<BookingConflictIndex.BookedSlot> saved = new ArrayList<>();
+                try (PreparedStatement statement = connection.prepareStatement(eventQuery, Statement.RETURN_GENERATED_KEYS)) {
+                    int index = 0;
+                    for (Map.Entry<String, List<BookingDetails>> entry : byRoom.entrySet()) {
+                        int bookingId = bookingIds.get(index++);
+                        for (BookingDetails detail : entry.getValue()) {
+                            LocalTime start = LocalTime.parse(detail.getStartTime());
+                            LocalTime end = savedEndTime(detail);
+                            statement.setInt(1, bookingId);
+                            statement.setInt(2, roomIds.get(entry.getKey()));
+                            statement.setInt(3, DEFAULT_SEATING_CONFIG_ID);
+                            statement.setString(4, detail.getEventName());
+                            statement.setDate(5, Date.valueOf(detail.getDate()));
+                            statement.setTime(6, Time.valueOf(start));
+                            statement.setTime(7, Time.valueOf(end));
+                            statement.addBatch();
+                            saved.add(new BookingConflictIndex.BookedSlot(0, roomIds.get(entry.getKey()),
+                                    detail.getDate(), start, end));
+                        }
+                    }
+                    statement.executeBatch();
+
+                    //pair the generated event IDs with the events, which come back in insert order
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (int i = 0; i < saved.size() && keys.next(); i++) {
+                            BookingConflictIndex.BookedSlot slot = saved.get(i);
+                            saved.set(i, new BookingConflictIndex.BookedSlot(keys.getInt(1), slot.roomId(),
+                                    slot.date(), slot.startTime(), slot.endTime()));
+                        }
+                    }
+                }
+
+                connection.commit();
+
+                //keep the conflict index current; events without a generated ID are picked up on its next refresh
+                BookingConflictIndex conflicts = getConflictIndex();
+                for (BookingConflictIndex.BookedSlot slot : saved) {
+                    if (slot.eventId() != 0) {
+                        conflicts.add(slot);
+                    }
+                    invalidateCachedMonths(slot.date(), slot.date());
+                }
+                return bookingIds;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Error creating bookings", e);
+        }
+    }
+
+    /**
+     * The end time an event is saved with, where an end time of midnight is the last second of the day
+     */
+    private static LocalTime savedEndTime(BookingDetails detail) {
+        LocalTime end = LocalTime.parse(detail.getEndTime());
+        return end.equals(LocalTime.MIDNIGHT) ? LocalTime.of(23, 59, 59) : end;
+    }
+
+    /**
+     * This checks, inside the booking transaction, that none of the events about to be saved clashes
+     * <p>
+     * The room rows are locked in ID order, so concurrent bookings of a room wait for each other until commit
+     * and never deadlock. Each event is then checked against the events already in its room and against the
+     * events before it in the group.
+     * </p>
+     * @param connection    The connection of the transaction, with auto-commit off
+     * @param byRoom        The events to be saved, grouped by room name
+     * @param roomIds       Every room's ID keyed by room name
+     * @throws SQLException If there is an error in connection or table names have changed
+     * @throws IllegalStateException If an event clashes
+     */
+    private static void checkRoomsFree(Connection connection, Map<String, List<BookingDetails>> byRoom,
+                                       Map<String, Integer> roomIds) throws SQLException {
+        List<Integer> locked = new ArrayList<>();
+        for (String room : byRoom.keySet()) {
+            locked.add(roomIds.get(room));
+        }
+        Collections.sort(locked);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT room_id FROM rooms WHERE room_id = ? FOR UPDATE")) {
+            for (int roomId : locked) {
+                statement.setInt(1, roomId);
+                //only the lock is wanted, which is held until the transaction ends
+                statement.executeQuery().close();
+            }
+        }
+
+        for (Map.Entry<String, List<BookingDetails>> entry : byRoom.entrySet()) {
+            int roomId = roomIds.get(entry.getKey());
+            List<BookingDetails> checked = new ArrayList<>();
+            for (BookingDetails detail : entry.getValue()) {
+                LocalTime start = LocalTime.parse(detail.getStartTime());
+                LocalTime end = savedEndTime(detail);
+                for (BookingDetails other : checked) {
+                    if (other.getDate().equals(detail.getDate())
+                            && start.isBefore(savedEndTime(other))
+                            && LocalTime.parse(other.getStartTime()).isBefore(end)) {
+                        throw new IllegalStateException(describeClash(detail)
+                                + " overlaps another booking in the group");
+                    }
+                }
+                if (eventOverlaps(connection, roomId, Date.valueOf(detail.getDate()), Time.valueOf(start),
+                        Time.valueOf(end))) {
+                    throw new IllegalStateException(describeClash(detail) + " overlaps an event already booked");
+                }
+                checked.add(detail);
+            }
+        }
+    }
+
+    private static String describeClash(BookingDetails detail) {
+        return detail.getRoom() + " on " + detail.getDate() + " from " + detail.getStartTime() + " to "
+                + detail.getEndTime();
+    }
+
+    /**
+     * This checks the events table for an event in a room whose time overlaps the one given
+     * <p>
+     * An event that starts exactly when the other ends does not overlap it.
+     * </p>
+     * @param connection    The connection to run the query on
+     * @param roomId        The ID of the room
+     * @param eventDate     The date of the event
+     * @param startTime     The start time of the event
+     * @param endTime       The end time of the event
+     * @return              A boolean of whether an event already booked overlaps
+     * @throws SQLException If there is an error in connection or table names have changed
+     */
+    private static boolean eventOverlaps(Connection connection, int roomId, Date eventDate, Time startTime,
+                                         Time endTime) throws SQLException {
+        String query = """
+                    SELECT event_id FROM events
+                    WHERE room_id = ?
+                    AND event_date = ?
+                    AND start_time < ?
+                    AND end_time > ?
+                    LIMIT 1
+                """;
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, roomId);
+            statement.setDate(2, eventDate);
+            statement.setTime(3, endTime);
+            statement.setTime(4, startTime);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * This will get every room's ID keyed by room name
+     * @param connection    The connection to run the query on
+     * @return              Map of room name to room ID
+     * @throws SQLException If there is an error in connection or table names have changed
+     */
+    private static Map<String, Integer> getRoomIds(Connection connection) throws SQLException {
+        Map<String, Integer> roomIds = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT room_id, room_name FROM rooms");
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                roomIds.put(rs.getString("room_name"), rs.getInt("room_id"));
+            }
+        }
+        return roomIds;
+    }
+
     /**
      * This checks if there will be a conflict when trying to make a new booking
+     * <p>
+     * The check is answered by the shared {@link BookingConflictIndex}, which only reads the database the first
+     * time a month is checked and when it refreshes, so it is meant for warning early while a booking is entered.
+     * It can miss a booking made on another machine since the last refresh; whether a booking is saved is decided
+     * by {@link #createBookingsWithEvents(List, String, String, String, String)}. A booking that starts exactly when
+     * another ends does not conflict.
+     * </p>
      * @param eventDate     The date of the event being booked
      * @param startTime     The start time of the event being booked
      * @param endTime       The end time of the event being booked
@@ -292,30 +667,12 @@ public class DBUtils {
      * @return              A boolean of whether there is a conflict
      */
     public boolean bookingConflict(Date eventDate, Time startTime, Time endTime, int room_id){
-        String query = """
-                    SELECT event_id FROM events
-                    WHERE event_date = ?
-                    AND start_time <= ?
-                    AND end_time >= ?
-                    AND room_id = ?
-                """;
         try {
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setDate(1, eventDate);
-            statement.setTime(2, endTime);
-            statement.setTime(3, startTime);
-            statement.setInt(4, room_id);
-
-            ResultSet rs = statement.executeQuery();
-
-            //return true if there is a conflict
-            return rs.isBeforeFirst();
-
-        } catch (SQLException e) {
-            throw new RuntimeException("Error checking booking clash");
+            return getConflictIndex().overlaps(room_id, eventDate.toLocalDate(), startTime.toLocalTime(),
+                    endTime.toLocalTime());
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Error checking booking clash", e);
         }
-
-
     }
 
     /**
@@ -329,9 +686,9 @@ public class DBUtils {
                     SELECT * FROM Review
                 """;
 
-        try {
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet rs = statement.executeQuery();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet rs = statement.executeQuery()) {
             while (rs.next()){
                 //should use table names but lazy
                 Review rev = new Review(rs.getInt(1), rs.getInt(2),
@@ -343,7 +700,6 @@ public class DBUtils {
         catch (SQLException e){
             throw new RuntimeException("Error getting reviews");
         }
-        connection.close();
         return reviews;
     }
 
@@ -360,12 +716,13 @@ public class DBUtils {
                        WHERE r.room_name = ?;
                        """;
 
-        try{
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, name);
-            ResultSet resultSet = statement.executeQuery();
-            while(resultSet.next()){
-                return resultSet.getInt(1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while(resultSet.next()){
+                    return resultSet.getInt(1);
+                }
             }
         }
         catch (SQLException e){
@@ -375,32 +732,269 @@ public class DBUtils {
     }
 
     /**
-     * Gets all the events in a day
+     * The booking type some events are charged as and their room hire.
+     */
+    private record EventCharge(RevenueCalculator.BookingType bookingType, double roomHire) {
+    }
+
+    /**
+     * Prices events from the {@link #EVENT_PRICING} columns of a revenue query
+     * <p>
+     * The events are charged as the booking type the query suggests if the tariff prices it for their room, and
+     * otherwise as {@link RevenueCalculator#chargedBookingType} decides. Rooms the tariff does not know earn nothing.
+     * </p>
+     * @param rs        The row, holding the pricing columns
+     * @param roomName  The name of the room the events are in
+     * @param events    How many events the row stands for
+     * @return          The booking type the events are charged as and their total room hire
+     * @throws SQLException If the pricing columns cannot be read
+     */
+    private static EventCharge charge(ResultSet rs, String roomName, int events) throws SQLException {
+        RevenueCalculator.BookingType suggested = RevenueCalculator.BookingType.valueOf(rs.getString("booking_type"));
+        RevenueCalculator.VenueSpace space = RevenueCalculator.spaceOf(roomName);
+        if (space == null) {
+            return new EventCharge(suggested, 0);
+        }
+        RevenueCalculator.DayType day = RevenueCalculator.DayType.valueOf(rs.getString("day_type"));
+        RevenueCalculator.BookingType charged = CALCULATOR.chargedBookingType(space, day, suggested);
+        return new EventCharge(charged,
+                CALCULATOR.calculateEventRevenue(space, day, charged, rs.getInt("hours"), false) * events);
+    }
+
+    /**
+     * Gets the room hire earned by each room on each day of a range, by booking type, summed by the database
+     * <p>
+     * Events are priced on the installed {@link lancaster.model.Tariff}, the way {@link RevenueCalculator} quotes a
+     * booking. The booking type of an event is worked out in the query: {@code WEEKLY} when its booking spans a
+     * week or more, otherwise {@code FULL_DAY} for seven hours or more, {@code EVENING} from 17:00,
+     * {@code MORNING_AFTERNOON} for three hours or more, and {@code HOURLY} for anything shorter. A type the tariff
+     * has no price for in that room is charged by the hour instead, or as a full day where there are no hourly
+     * prices. An event ending at or before its start time, such as 00:00, ends on the next day, and part of an hour
+     * counts as a whole one. The database groups the events by day, room, booking type, day type and hours, so
+     * only a handful of rows per room and day are read, never the events themselves.
+     * </p>
+     * @param from  First day of the range
+     * @param to    Last day of the range, inclusive
+     * @return      The revenue of each room, day and booking type with events, ordered by date and room
+     */
+    public List<RevenueRollupCache.DailyRevenue> getDailyRevenue(LocalDate from, LocalDate to) {
+        String query = """
+                    SELECT e.event_date, r.room_name, COUNT(*) AS events,
+                    %s
+                    FROM events e
+                    JOIN rooms r ON e.room_id = r.room_id
+                    LEFT JOIN bookings b ON b.booking_id = e.booking_id
+                    WHERE e.event_date BETWEEN ? AND ?
+                    GROUP BY e.event_date, r.room_name, booking_type, day_type, hours
+                    ORDER BY e.event_date, r.room_name
+                """.formatted(EVENT_PRICING);
+        record Key(LocalDate date, String venue, RevenueCalculator.BookingType bookingType) {
+        }
+        Map<Key, RevenueRollupCache.DailyRevenue> days = new LinkedHashMap<>();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setDate(1, Date.valueOf(from));
+            statement.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate date = rs.getDate("event_date").toLocalDate();
+                    String room = rs.getString("room_name");
+                    int events = rs.getInt("events");
+                    EventCharge charge = charge(rs, room, events);
+                    days.merge(new Key(date, room, charge.bookingType()),
+                            new RevenueRollupCache.DailyRevenue(date, room, charge.bookingType(), events,
+                                    charge.roomHire()),
+                            (a, b) -> new RevenueRollupCache.DailyRevenue(date, room, a.bookingType(),
+                                    a.events() + b.events(), a.roomHire() + b.roomHire()));
+                }
+            }
+        }
+        catch (SQLException e){
+            throw new RuntimeException("Error getting daily revenue", e);
+        }
+        return new ArrayList<>(days.values());
+    }
+
+    /**
+     * Gets the room hire earned by each room in each month of a range, summed by the database
+     * <p>
+     * Events are priced as in {@link #getDailyRevenue(LocalDate, LocalDate)}. The database groups them by year,
+     * month, room, booking type, day type and hours, and the priced groups are added up by month and room.
+     * </p>
+     * @param from  First day of the range
+     * @param to    Last day of the range, inclusive
+     * @return      The revenue of each room and month with events, ordered by month and room
+     */
+    public List<RevenueRollupCache.MonthlyRevenue> getMonthlyRevenue(LocalDate from, LocalDate to) {
+        String query = """
+                    SELECT YEAR(e.event_date) AS year, MONTH(e.event_date) AS month, r.room_name,
+                           COUNT(*) AS events,
+                    %s
+                    FROM events e
+                    JOIN rooms r ON e.room_id = r.room_id
+                    LEFT JOIN bookings b ON b.booking_id = e.booking_id
+                    WHERE e.event_date BETWEEN ? AND ?
+                    GROUP BY YEAR(e.event_date), MONTH(e.event_date), r.room_name, booking_type, day_type, hours
+                    ORDER BY year, month, r.room_name
+                """.formatted(EVENT_PRICING);
+        record Key(YearMonth month, String venue) {
+        }
+        Map<Key, RevenueRollupCache.MonthlyRevenue> months = new LinkedHashMap<>();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setDate(1, Date.valueOf(from));
+            statement.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    YearMonth month = YearMonth.of(rs.getInt("year"), rs.getInt("month"));
+                    String room = rs.getString("room_name");
+                    int events = rs.getInt("events");
+                    double roomHire = charge(rs, room, events).roomHire();
+                    months.merge(new Key(month, room),
+                            new RevenueRollupCache.MonthlyRevenue(month, room, events, roomHire),
+                            (a, b) -> new RevenueRollupCache.MonthlyRevenue(month, room, a.events() + b.events(),
+                                    a.roomHire() + b.roomHire()));
+                }
+            }
+        }
+        catch (SQLException e){
+            throw new RuntimeException("Error getting monthly revenue", e);
+        }
+        return new ArrayList<>(months.values());
+    }
+
+    /**
+     * Receives the revenue of one event at a time from
+     * {@link #streamEventRevenue(LocalDate, LocalDate, Collection, EventRevenueHandler)}.
+     */
+    @FunctionalInterface
+    public interface EventRevenueHandler {
+        void accept(LocalDate date, String event, String venue, LocalTime startTime, LocalTime endTime,
+                    double roomHire) throws IOException;
+    }
+
+    /**
+     * Streams the room hire of every event in a range to a handler, one row at a time, without holding the events
+     * <p>
+     * The statement is forward-only with the driver's streaming fetch size, so the database sends rows as they are
+     * read and memory use stays the same however many years the range covers. The connection is busy until the
+     * last row is handled, so the handler should not query the database itself. Events are priced as in
+     * {@link #getDailyRevenue(LocalDate, LocalDate)}.
+     * </p>
+     * <p>
+     * If the handler throws, for example because the export was cancelled, the query is cancelled on the server
+     * before the result set is closed. Otherwise closing it would read and throw away every row left, which for a
+     * long range keeps the caller waiting long after it gave up.
+     * </p>
+     * @param from      First day of the range
+     * @param to        Last day of the range, inclusive
+     * @param venues    The names of the rooms to include, or null for every room
+     * @param handler   Called for each event, ordered by date and start time
+     * @return          The number of events handled
+     * @throws IOException If the handler fails
+     */
+    public long streamEventRevenue(LocalDate from, LocalDate to, Collection<String> venues,
+                                   EventRevenueHandler handler) throws IOException {
+        StringBuilder query = new StringBuilder("""
+                    SELECT e.event_date, e.name, r.room_name, e.start_time, e.end_time,
+                    %s
+                    FROM events e
+                    JOIN rooms r ON e.room_id = r.room_id
+                    LEFT JOIN bookings b ON b.booking_id = e.booking_id
+                    WHERE e.event_date BETWEEN ? AND ?
+                """.formatted(EVENT_PRICING));
+        if (venues != null) {
+            query.append(" AND r.room_name IN (");
+            query.append(String.join(", ", Collections.nCopies(Math.max(venues.size(), 1), "?")));
+            query.append(")");
+        }
+        query.append(" ORDER BY e.event_date, e.start_time");
+
+        long rows = 0;
+        //not from the statement cache, so the streaming fetch size does not stay on a shared statement
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query.toString(),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setDate(1, Date.valueOf(from));
+            statement.setDate(2, Date.valueOf(to));
+            if (venues != null) {
+                int index = 3;
+                for (String venue : venues) {
+                    statement.setString(index++, venue);
+                }
+                if (venues.isEmpty()) {
+                    statement.setString(index, "");
+                }
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                try {
+                    while (rs.next()) {
+                        String room = rs.getString(3);
+                        handler.accept(rs.getDate(1).toLocalDate(), rs.getString(2), room,
+                                rs.getTime(4).toLocalTime(), rs.getTime(5).toLocalTime(),
+                                charge(rs, room, 1).roomHire());
+                        rows++;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    //closing a streaming result set reads every row still to come, so stop the query first
+                    try {
+                        statement.cancel();
+                    } catch (SQLException cancelError) {
+                        e.addSuppressed(cancelError);
+                    }
+                    throw e;
+                }
+            }
+        }
+        catch (SQLException e){
+            throw new RuntimeException("Error streaming event revenue", e);
+        }
+        return rows;
+    }
+
+    /**
+     * Gets all the events in a day, with each event's room name resolved in the same query
      * @param date  Day being searched for
      * @return      List of events on given date
      */
     public ArrayList<Event> getEventForDay(Date date){
+        return getEventsBetween(date, date);
+    }
+
+    /**
+     * Gets all the events from one date to another inclusive in a single query, with each event's room name
+     * resolved in the same query
+     * @param from  First day being searched for
+     * @param to    Last day being searched for
+     * @return      List of events in the range, ordered by date and start time
+     */
+    public ArrayList<Event> getEventsBetween(Date from, Date to){
         ArrayList<Event> events = new ArrayList<>();
         String query = """
-                    SELECT * FROM events
-                    WHERE event_date = ?
+                    SELECT e.*, r.room_name FROM events e
+                    LEFT JOIN rooms r ON e.room_id = r.room_id
+                    WHERE e.event_date BETWEEN ? AND ?
+                    ORDER BY e.event_date, e.start_time
                 """;
 
-        try{
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setDate(1, date);
-            ResultSet rs = statement.executeQuery();
-            while(rs.next()){
-                events.add(new Event(rs.getInt("event_id"),
-                        rs.getInt("booking_id"),
-                        rs.getInt("room_id"),
-                        rs.getInt("seating_config_id"),
-                        rs.getString("name"),
-                        rs.getDate("event_date"),
-                        rs.getTime("start_time"),
-                        rs.getTime("end_time")));
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setDate(1, from);
+            statement.setDate(2, to);
+            try (ResultSet rs = statement.executeQuery()) {
+                while(rs.next()){
+                    events.add(new Event(rs.getInt("event_id"),
+                            rs.getInt("booking_id"),
+                            rs.getInt("room_id"),
+                            rs.getString("room_name"),
+                            rs.getInt("seating_config_id"),
+                            rs.getString("name"),
+                            rs.getDate("event_date"),
+                            rs.getTime("start_time"),
+                            rs.getTime("end_time")));
+                }
             }
-            connection.close();
         } catch (SQLException e) {
             throw new RuntimeException("Error getting daily events");
         }
@@ -420,15 +1014,15 @@ public class DBUtils {
                     WHERE room_id = ?
                 """;
 
-        try{
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, room_id);
 
-            ResultSet rs = statement.executeQuery();
-            while(rs.next()){
-                name = rs.getString("room_name");
+            try (ResultSet rs = statement.executeQuery()) {
+                while(rs.next()){
+                    name = rs.getString("room_name");
+                }
             }
-            connection.close();
         } catch (SQLException e) {
             throw new RuntimeException("Error getting room name");
         }
@@ -448,13 +1042,14 @@ public class DBUtils {
                 """;
 
 
-        try{
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, room_name);
 
-            ResultSet rs = statement.executeQuery();
-            while(rs.next()){
-                ID = rs.getInt("room_id");
+            try (ResultSet rs = statement.executeQuery()) {
+                while(rs.next()){
+                    ID = rs.getInt("room_id");
+                }
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error getting room name");
@@ -0,0 +1,128 @@
+package lancaster.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A {@link TicketSaleSource} reading ticket-sale records from a file, or from every file in a directory, as the
+ * stand-in for a box-office feed.
+ * <p>
+ * The source remembers how far into each file it has read, so a file can keep growing and new files can be dropped
+ * into the directory; each read returns only complete lines added since the last commit. A line still being
+ * written, without its line ending yet, is left for the next read. A file that has become shorter than the position
+ * read to is taken to have been replaced and is read again from the start. In a directory, hidden files and files
+ * ending in {@code .part} or {@code .tmp} are skipped so a feed can write a file under another name and rename it
+ * when it is complete, and files are read in name order.
+ * </p>
+ * <p>
+ * Reads and commits must not overlap; the {@link TicketSalesPipeline} runs one pull at a time.
+ * </p>
+ */
+public final class FileTicketSaleSource implements TicketSaleSource {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private Map<Path, Position> committed = new HashMap<>();
+    private Map<Path, Position> pending = new HashMap<>();
+
+    /**
+     * How far a file has been read.
+     */
+    private record Position(long offset, long lines) {
+    }
+
+    /**
+     * Creates a source for a file or a directory of files. The path does not have to exist yet.
+     * @param path  The file or directory
+     */
+    public FileTicketSaleSource(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public void read(LineHandler handler) throws IOException, InterruptedException {
+        pending = new HashMap<>(committed);
+        for (Path file : files()) {
+            Position from = committed.getOrDefault(file, new Position(0, 0));
+            pending.put(file, readFile(file, from, handler));
+        }
+    }
+
+    @Override
+    public void commit() {
+        committed = pending;
+    }
+
+    private List<Path> files() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isRegularFile(path)) {
+            files.add(path);
+        } else if (Files.isDirectory(path)) {
+            try (Stream<Path> entries = Files.list(path)) {
+                entries.filter(Files::isRegularFile).filter(FileTicketSaleSource::isFeedFile).sorted()
+                        .forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    private static boolean isFeedFile(Path file) {
+        String name = file.getFileName().toString();
+        return !name.startsWith(".") && !name.endsWith(".part") && !name.endsWith(".tmp");
+    }
+
+    /**
+     * Hands every complete line after a position to the handler.
+     * @return  The position after the last complete line
+     */
+    private Position readFile(Path file, Position from, LineHandler handler) throws IOException, InterruptedException {
+        String name = file.getFileName().toString();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < from.offset()) {
+                //the file was replaced by a shorter one
+                from = new Position(0, 0);
+            }
+            channel.position(from.offset());
+            long offset = from.offset();
+            long lines = from.lines();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            byte[] bytes = buffer.array();
+            byte[] line = new byte[256];
+            int lineLength = 0;
+            while (channel.read(buffer) >= 0) {
+                for (int i = 0; i < buffer.position(); i++) {
+                    byte b = bytes[i];
+                    if (b == '\n') {
+                        offset += lineLength + 1;
+                        lines++;
+                        int end = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                        handler.accept(name, lines, new String(line, 0, end, StandardCharsets.UTF_8));
+                        lineLength = 0;
+                    } else {
+                        if (lineLength == line.length) {
+                            line = Arrays.copyOf(line, lineLength * 2);
+                        }
+                        line[lineLength++] = b;
+                    }
+                }
+                buffer.clear();
+            }
+            return new Position(offset, lines);
+        } catch (NoSuchFileException e) {
+            //removed since the directory was listed, so there is nothing more to read from it
+            return from;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package lancaster.utils;
+
+import javafx.scene.Scene;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code FxFrameProfiler} class measures what one UI action costs the JavaFX thread.
+ * <p>
+ * A measurement starts when an action, such as moving the venue calendar to another day, begins updating the
+ * scene, and ends after the next pulse has applied CSS and layout. It records the elapsed time, which is the
+ * frame the user waits for, and the bytes the JavaFX thread allocated meanwhile, which is the scene-graph churn
+ * the action caused. Allocation is read from the JVM's per-thread counters, so it is only reported on JVMs that
+ * support them.
+ * </p>
+ * <p>
+ * The profiler is off unless the application is started with {@code -Dlancaster.fx.profile=true}. It then prints
+ * each measurement and a running average per label.
+ * </p>
+ */
+public final class FxFrameProfiler {
+    private static final boolean ENABLED = Boolean.getBoolean("lancaster.fx.profile");
+
+    private static final Map<String, long[]> totals = new HashMap<>(); //label -> count, nanos, bytes
+
+    private FxFrameProfiler() {
+    }
+
+    /**
+     * @return  Whether measurements are being taken
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Starts measuring an action. Call on the JavaFX thread before the action changes the scene; the measurement
+     * ends by itself after the next layout pass of the scene.
+     * @param label     What is being measured, used to group the averages
+     * @param scene     The scene the action updates, or null if it is not shown yet
+     */
+    public static void begin(String label, Scene scene) {
+        if (!ENABLED || scene == null) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        long startBytes = allocatedBytes();
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            record(label, System.nanoTime() - startNanos, startBytes < 0 ? -1 : allocatedBytes() - startBytes);
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    private static void record(String label, long nanos, long bytes) {
+        long[] total = totals.computeIfAbsent(label, l -> new long[3]);
+        total[0]++;
+        total[1] += nanos;
+        total[2] += Math.max(0, bytes);
+        System.out.printf("%s: frame %.2f ms, %s allocated (average %.2f ms, %s over %d)%n",
+                label, nanos / 1e6, formatBytes(bytes),
+                total[1] / 1e6 / total[0], formatBytes(bytes < 0 ? -1 : total[2] / total[0]), total[0]);
+    }
+
+    /**
+     * @return  Bytes allocated so far by the current thread, or -1 if the JVM does not track it
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean sunThreads
+                && sunThreads.isThreadAllocatedMemorySupported()) {
+            return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static String formatBytes(long bytes) {
+        return bytes < 0 ? "n/a" : String.format("%.1f KB", bytes / 1024.0);
+    }
+}
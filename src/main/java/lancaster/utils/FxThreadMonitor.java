@@ -0,0 +1,135 @@
+package lancaster.utils;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code FxThreadMonitor} class measures how long the JavaFX application thread is blocked.
+ * <p>
+ * A daemon thread posts a timestamped probe with {@link Platform#runLater(Runnable)} every
+ * {@value #PROBE_INTERVAL_MS} ms and waits for it to run. On an idle UI a probe runs within a frame; when an event
+ * handler is stuck on a database round trip the probe waits behind it. Any delay longer than
+ * {@value #STALL_THRESHOLD_MS} ms counts as a stall, and the monitor keeps the number of stalls, their total
+ * length and the longest one.
+ * </p>
+ * <p>
+ * The monitor is off unless the application is started with {@code -Dlancaster.fx.monitor=true}. It then prints a
+ * summary when the JVM exits, so running the same clicks before and after a change shows how much blocking the
+ * change removed.
+ * </p>
+ */
+public final class FxThreadMonitor {
+    private static final long PROBE_INTERVAL_MS = 20;
+    private static final long STALL_THRESHOLD_MS = 50;
+
+    private static final AtomicBoolean started = new AtomicBoolean();
+    private static final AtomicLong probes = new AtomicLong();
+    private static final AtomicLong stalls = new AtomicLong();
+    private static final AtomicLong blockedNanos = new AtomicLong();
+    private static final AtomicLong longestStallNanos = new AtomicLong();
+
+    private FxThreadMonitor() {
+    }
+
+    /**
+     * Starts the monitor if the {@code lancaster.fx.monitor} system property is {@code true}.
+     * Calling it again, or from a second entry point, does nothing.
+     */
+    public static void startIfEnabled() {
+        if (Boolean.getBoolean("lancaster.fx.monitor")) {
+            start();
+        }
+    }
+
+    /**
+     * Starts the monitor and registers a shutdown hook that prints the summary.
+     */
+    public static void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        Thread prober = new Thread(FxThreadMonitor::probeLoop, "lancaster-fx-monitor");
+        prober.setDaemon(true);
+        prober.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(summary()),
+                "lancaster-fx-monitor-report"));
+    }
+
+    private static void probeLoop() {
+        Object lock = new Object();
+        while (true) {
+            long posted = System.nanoTime();
+            boolean[] ran = new boolean[1];
+            try {
+                Platform.runLater(() -> {
+                    record(System.nanoTime() - posted);
+                    synchronized (lock) {
+                        ran[0] = true;
+                        lock.notifyAll();
+                    }
+                });
+                //wait for the probe so a long stall is counted once rather than once per queued probe
+                synchronized (lock) {
+                    while (!ran[0]) {
+                        lock.wait();
+                    }
+                }
+                Thread.sleep(PROBE_INTERVAL_MS);
+            } catch (IllegalStateException e) {
+                //the toolkit is not running yet
+                sleepQuietly();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void record(long delayNanos) {
+        probes.incrementAndGet();
+        if (delayNanos >= TimeUnit.MILLISECONDS.toNanos(STALL_THRESHOLD_MS)) {
+            stalls.incrementAndGet();
+            blockedNanos.addAndGet(delayNanos);
+            longestStallNanos.accumulateAndGet(delayNanos, Math::max);
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(PROBE_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return  The total time the JavaFX thread has spent in stalls, in milliseconds
+     */
+    public static long getBlockedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(blockedNanos.get());
+    }
+
+    /**
+     * @return  The longest single stall seen, in milliseconds
+     */
+    public static long getLongestStallMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(longestStallNanos.get());
+    }
+
+    /**
+     * @return  The number of stalls seen
+     */
+    public static long getStallCount() {
+        return stalls.get();
+    }
+
+    /**
+     * @return  A one-line summary of the measurements so far
+     */
+    public static String summary() {
+        return String.format("FX thread: %d probes, %d stalls over %d ms, %d ms blocked in total, longest %d ms",
+                probes.get(), getStallCount(), STALL_THRESHOLD_MS, getBlockedMillis(), getLongestStallMillis());
+    }
+}
@@ -0,0 +1,309 @@
+package lancaster.utils;
+
+import lancaster.model.Seat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code InMemoryDatabase} class is an in-process stand-in for the MySQL schema used by the DAOs.
+ * <p>
+ * It holds the {@code rooms}, {@code Seats}, {@code seating_configurations}, {@code bookings} and {@code events}
+ * tables in concurrent maps, with secondary indexes for the lookups the DAOs make: events by date, events by
+ * room ordered by end time and seats by room. Reads never block writers, so throughput and soak tests can hammer
+ * the in-memory DAO implementations from many threads on a single machine with no database server.
+ * </p>
+ * <p>
+ * The shared instance from {@link #getInstance()} is seeded with the venue's rooms, seating configurations and
+ * seat plans. {@link #populateSampleEvents(LocalDate, int, int, long)} adds generated bookings and events for
+ * load tests. It is selected with {@link StorageBackend#MEMORY}.
+ * </p>
+ */
+public final class InMemoryDatabase {
+    private static volatile InMemoryDatabase instance; //Shared store used when the memory backend is selected
+
+    private final Map<Integer, RoomRow> rooms = new ConcurrentHashMap<>();
+    private final Map<Integer, List<Seat>> seatsByRoom = new ConcurrentHashMap<>();
+    private final Map<Integer, String> seatingConfigurations = new ConcurrentHashMap<>();
+    private final Map<Integer, BookingRow> bookings = new ConcurrentHashMap<>();
+    private final Map<Integer, EventRow> events = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<LocalDate, Set<Integer>> eventsByDate = new ConcurrentSkipListMap<>();
+    private final Map<Integer, ConcurrentSkipListMap<LocalDateTime, Integer>> eventEndsByRoom = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextRoomId = new AtomicInteger(1);
+    private final AtomicInteger nextSeatId = new AtomicInteger(1);
+    private final AtomicInteger nextBookingId = new AtomicInteger(1);
+    private final AtomicInteger nextEventId = new AtomicInteger(1);
+
+    /**
+     * A row of the {@code rooms} table.
+     */
+    public record RoomRow(int roomId, String roomName, String roomType, int capacity, int classroomCapacity,
+                          int boardroomCapacity, int presentationCapacity, String facilities,
+                          String bookingPriority, String usageRestrictions) {
+    }
+
+    /**
+     * A row of the {@code bookings} table.
+     */
+    public record BookingRow(int bookingId, int roomId, LocalDate startDate, LocalDate endDate, String customerName,
+                             String customerEmail, String customerPhone, String customerAddress, String status) {
+    }
+
+    /**
+     * A row of the {@code events} table. A booking ID of 0 means the event has no booking, as a SQL null would.
+     */
+    public record EventRow(int eventId, int bookingId, int roomId, int seatingConfigId, String name,
+                           LocalDate eventDate, LocalTime startTime, LocalTime endTime, String status) {
+    }
+
+    /**
+     * Returns the shared store, creating and seeding it with the venue on first use.
+     * @return  The shared in-memory database
+     */
+    public static InMemoryDatabase getInstance() {
+        InMemoryDatabase db = instance;
+        if (db == null) {
+            synchronized (InMemoryDatabase.class) {
+                db = instance;
+                if (db == null) {
+                    db = new InMemoryDatabase();
+                    db.seedVenue();
+                    instance = db;
+                }
+            }
+        }
+        return db;
+    }
+
+    /**
+     * Adds the venue's rooms, seating configurations and seat plans.
+     */
+    public void seedVenue() {
+        addSeatingConfiguration(1, "Standard");
+        addSeatingConfiguration(2, "Classroom");
+        addSeatingConfiguration(3, "Boardroom");
+        addSeatingConfiguration(4, "Presentation");
+        addSeatingConfiguration(5, "Stalls");
+        addSeatingConfiguration(6, "Stalls and Balconies");
+
+        int mainHall = addRoom("Main Hall", "Hall", 374, 0, 0, 0, "Stage, balconies", "HIGH", null);
+        int smallHall = addRoom("Small Hall", "Hall", 95, 0, 0, 0, "Stage", "HIGH", null);
+        addRoom("Rehearsal Space", "Rehearsal", 60, 0, 0, 0, null, "MEDIUM", null);
+        addRoom("The Green Room", "Meeting", 20, 12, 10, 20, null, "LOW", null);
+        addRoom("Brontë Boardroom", "Meeting", 40, 25, 18, 40, null, "LOW", null);
+        addRoom("Dickens Den", "Meeting", 25, 15, 12, 25, null, "LOW", null);
+        addRoom("Poe Parlor", "Meeting", 30, 20, 14, 30, null, "LOW", null);
+        addRoom("Globe Room", "Meeting", 50, 30, 20, 50, null, "LOW", null);
+        addRoom("Chekhov Chamber", "Meeting", 35, 18, 16, 35, null, "LOW", null);
+
+        addSeatBlock(mainHall, 17, 22);
+        addSeatBlock(smallHall, 14, 7);
+    }
+
+    /**
+     * Adds rows of seats to a room. The first row is step-free, with its outer two seats wheelchair spaces.
+     */
+    private void addSeatBlock(int roomId, int rows, int seatsPerRow) {
+        for (int row = 1; row <= rows; row++) {
+            for (int seat = 1; seat <= seatsPerRow; seat++) {
+                boolean wheelchair = row == 1 && (seat <= 2 || seat > seatsPerRow - 2);
+                addSeat(new Seat(0, roomId, row, seat, row == 1, wheelchair));
+            }
+        }
+    }
+
+    /**
+     * Adds generated bookings and events for load tests, one booking per event spread over the rooms.
+     *
+     * @param from          The first day to fill
+     * @param days          How many consecutive days to fill
+     * @param eventsPerDay  How many events to add on each day
+     * @param seed          Seed for the random times, so runs are repeatable
+     */
+    public void populateSampleEvents(LocalDate from, int days, int eventsPerDay, long seed) {
+        Random random = new Random(seed);
+        List<RoomRow> roomList = new ArrayList<>(rooms.values());
+        roomList.sort(Comparator.comparingInt(RoomRow::roomId));
+
+        for (int day = 0; day < days; day++) {
+            LocalDate date = from.plusDays(day);
+            for (int i = 0; i < eventsPerDay; i++) {
+                RoomRow room = roomList.get(i % roomList.size());
+                LocalTime start = LocalTime.of(10 + random.nextInt(11), 0);
+                LocalTime end = start.plusHours(1 + random.nextInt(Math.max(1, 23 - start.getHour())));
+                int bookingId = addBooking(room.roomId(), date, date, "Client " + i, "client" + i + "@example.com",
+                        "0000000000", "Lancaster", "confirmed");
+                addEvent(bookingId, room.roomId(), 1, "Event " + i, date, start, end, "SCHEDULED");
+            }
+        }
+    }
+
+    /**
+     * Adds a room.
+     * @return  The new room's ID
+     */
+    public int addRoom(String roomName, String roomType, int capacity, int classroomCapacity, int boardroomCapacity,
+                       int presentationCapacity, String facilities, String bookingPriority, String usageRestrictions) {
+        int roomId = nextRoomId.getAndIncrement();
+        rooms.put(roomId, new RoomRow(roomId, roomName, roomType, capacity, classroomCapacity, boardroomCapacity,
+                presentationCapacity, facilities, bookingPriority, usageRestrictions));
+        return roomId;
+    }
+
+    /**
+     * Adds a seating configuration under a fixed ID.
+     */
+    public void addSeatingConfiguration(int seatingConfigId, String name) {
+        seatingConfigurations.put(seatingConfigId, name);
+    }
+
+    /**
+     * Adds a seat to its room's plan, keeping the plan ordered by row and seat number.
+     * A seat ID of 0 is replaced with a generated one.
+     * @param seat  The seat to add
+     */
+    public void addSeat(Seat seat) {
+        if (seat.getSeatId() == 0) {
+            seat.setSeatId(nextSeatId.getAndIncrement());
+        }
+        seatsByRoom.compute(seat.getRoomId(), (roomId, current) -> {
+            List<Seat> plan = current == null ? new ArrayList<>() : new ArrayList<>(current);
+            plan.add(seat);
+            plan.sort(Comparator.comparingInt(Seat::getRowNumber).thenComparingInt(Seat::getSeatNumber));
+            return Collections.unmodifiableList(plan);
+        });
+    }
+
+    /**
+     * Adds a booking.
+     * @return  The new booking's ID
+     */
+    public int addBooking(int roomId, LocalDate startDate, LocalDate endDate, String customerName,
+                          String customerEmail, String customerPhone, String customerAddress, String status) {
+        int bookingId = nextBookingId.getAndIncrement();
+        bookings.put(bookingId, new BookingRow(bookingId, roomId, startDate, endDate, customerName, customerEmail,
+                customerPhone, customerAddress, status));
+        return bookingId;
+    }
+
+    /**
+     * Adds an event and indexes it by date and by room.
+     * @return  The new event's ID
+     */
+    public int addEvent(int bookingId, int roomId, int seatingConfigId, String name, LocalDate eventDate,
+                        LocalTime startTime, LocalTime endTime, String status) {
+        int eventId = nextEventId.getAndIncrement();
+        events.put(eventId, new EventRow(eventId, bookingId, roomId, seatingConfigId, name, eventDate,
+                startTime, endTime, status));
+        eventsByDate.computeIfAbsent(eventDate, d -> ConcurrentHashMap.newKeySet()).add(eventId);
+        eventEndsByRoom.computeIfAbsent(roomId, r -> new ConcurrentSkipListMap<>())
+                .put(LocalDateTime.of(eventDate, endTime), eventId);
+        return eventId;
+    }
+
+    /**
+     * @return  The room with the ID, or null if there is none
+     */
+    public RoomRow getRoom(int roomId) {
+        return rooms.get(roomId);
+    }
+
+    /**
+     * @return  Every room, ordered by ID
+     */
+    public List<RoomRow> getRooms() {
+        List<RoomRow> list = new ArrayList<>(rooms.values());
+        list.sort(Comparator.comparingInt(RoomRow::roomId));
+        return list;
+    }
+
+    /**
+     * @return  The seats of a room ordered by row and seat number, empty if the room has none
+     */
+    public List<Seat> getSeats(int roomId) {
+        return seatsByRoom.getOrDefault(roomId, List.of());
+    }
+
+    /**
+     * @return  The name of the seating configuration, or null if there is none
+     */
+    public String getSeatingConfigurationName(int seatingConfigId) {
+        return seatingConfigurations.get(seatingConfigId);
+    }
+
+    /**
+     * @return  The booking with the ID, or null if there is none
+     */
+    public BookingRow getBooking(int bookingId) {
+        return bookings.get(bookingId);
+    }
+
+    /**
+     * @return  The event with the ID, or null if there is none
+     */
+    public EventRow getEvent(int eventId) {
+        return events.get(eventId);
+    }
+
+    /**
+     * @return  Every event
+     */
+    public Collection<EventRow> getEvents() {
+        return Collections.unmodifiableCollection(events.values());
+    }
+
+    /**
+     * @return  The events on a date, in no particular order
+     */
+    public List<EventRow> getEventsOn(LocalDate date) {
+        return collect(eventsByDate.getOrDefault(date, Set.of()));
+    }
+
+    /**
+     * @return  The events from one date to another inclusive, in date order
+     */
+    public List<EventRow> getEventsBetween(LocalDate from, LocalDate to) {
+        List<EventRow> list = new ArrayList<>();
+        for (Set<Integer> ids : eventsByDate.subMap(from, true, to, true).values()) {
+            list.addAll(collect(ids));
+        }
+        return list;
+    }
+
+    /**
+     * @return  The event in the room that ends last, or null if the room has no events
+     */
+    public EventRow getLastEventInRoom(int roomId) {
+        NavigableMap<LocalDateTime, Integer> ends = eventEndsByRoom.get(roomId);
+        if (ends == null) {
+            return null;
+        }
+        Map.Entry<LocalDateTime, Integer> last = ends.lastEntry();
+        return last == null ? null : events.get(last.getValue());
+    }
+
+    private List<EventRow> collect(Set<Integer> ids) {
+        List<EventRow> list = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            EventRow row = events.get(id);
+            if (row != null) {
+                list.add(row);
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,347 @@
+package lancaster.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * The {@code RevenueExporter} class writes the room hire of every event in a date range to a CSV or JSON lines file.
+ * <p>
+ * Rows are streamed from the database cursor by
+ * {@link DBUtils#streamEventRevenue(LocalDate, LocalDate, Collection, DBUtils.EventRevenueHandler)}, encoded straight
+ * into one reused {@value #BUFFER_SIZE}-byte buffer and written to a {@link FileChannel} whenever it fills, so no list
+ * of rows is ever built and a multi-year export of millions of events runs in the same memory as a day's. Progress,
+ * with the rows per second so far, is reported about every {@value #PROGRESS_MILLIS} ms.
+ * </p>
+ * <p>
+ * The file is written next to the target under a {@code .part} name and moved into place once complete, so a failed
+ * or cancelled export never leaves a truncated file where the user expects the export.
+ * </p>
+ */
+public final class RevenueExporter {
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final long PROGRESS_MILLIS = 250;
+    private static final int PROGRESS_CHECK_ROWS = 4096; //Rows between looks at the clock
+
+    /**
+     * The file formats an export can be written in.
+     */
+    public enum Format {
+        /** Comma-separated values with a header row, quoted where needed. */
+        CSV("csv"),
+        /** One JSON object per line. */
+        JSON_LINES("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * @return  The usual file extension, without the dot
+         */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * How far an export has got.
+     * @param rows          The rows written so far
+     * @param bytes         The bytes written so far
+     * @param elapsedNanos  The time since the export started
+     * @param done          Whether the export has finished
+     */
+    public record Progress(long rows, long bytes, long elapsedNanos, boolean done) {
+        /**
+         * @return  The rows written per second so far
+         */
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+        }
+    }
+
+    private final Format format;
+    private final Path file;
+    private volatile boolean cancelled;
+
+    /**
+     * Creates an exporter for one export.
+     * @param format    The format to write
+     * @param file      The file to write, replaced if it exists
+     */
+    public RevenueExporter(Format format, Path file) {
+        this.format = format;
+        this.file = file;
+    }
+
+    /**
+     * Starts the export on the {@link AsyncDatabase} executor.
+     * @param from          First day of the range
+     * @param to            Last day of the range, inclusive
+     * @param venues        The names of the rooms to include, or null for every room
+     * @param onProgress    Called with the progress from the export thread, not the JavaFX thread
+     * @return              A future of the final progress, failing with a {@link CancellationException} if the
+     *                      export was cancelled
+     */
+    public CompletableFuture<Progress> start(LocalDate from, LocalDate to, Collection<String> venues,
+                                             Consumer<Progress> onProgress) {
+        return AsyncDatabase.getInstance().submit(db -> export(db, from, to, venues, onProgress));
+    }
+
+    /**
+     * Stops the export at the next row, cancelling the query so the rows not yet read are not sent. The partly
+     * written file is deleted.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Runs the export on the calling thread.
+     * @param db            The database to read from
+     * @param from          First day of the range
+     * @param to            Last day of the range, inclusive
+     * @param venues        The names of the rooms to include, or null for every room
+     * @param onProgress    Called with the progress now and then, and once more when done
+     * @return              The final progress
+     * @throws IOException If the file cannot be written
+     * @throws CancellationException If the export was cancelled
+     */
+    public Progress export(DBUtils db, LocalDate from, LocalDate to, Collection<String> venues,
+                           Consumer<Progress> onProgress) throws IOException {
+        return write(handler -> db.streamEventRevenue(from, to, venues, handler), onProgress);
+    }
+
+    /**
+     * Writes the rows a source produces to the file through a {@link Output}, then moves the file into place.
+     */
+    Progress write(Source source, Consumer<Progress> onProgress) throws IOException {
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        Progress result = null;
+        try (Output output = new Output(format, FileChannel.open(part, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), onProgress)) {
+            source.run(output);
+            result = output.finish();
+        } finally {
+            if (result == null) {
+                Files.deleteIfExists(part);
+            }
+        }
+        try {
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        onProgress.accept(result);
+        return result;
+    }
+
+    /**
+     * Produces the rows of an export.
+     */
+    @FunctionalInterface
+    interface Source {
+        void run(DBUtils.EventRevenueHandler handler) throws IOException;
+    }
+
+    /**
+     * Encodes rows as UTF-8 into a reused buffer and writes the buffer to the channel whenever it fills.
+     */
+    private final class Output implements DBUtils.EventRevenueHandler, AutoCloseable {
+        private final Format format;
+        private final FileChannel channel;
+        private final Consumer<Progress> onProgress;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final StringBuilder row = new StringBuilder(256);
+        private final long started = System.nanoTime();
+        private long lastReport = started;
+        private long rows;
+        private long bytes;
+
+        private Output(Format format, FileChannel channel, Consumer<Progress> onProgress) throws IOException {
+            this.format = format;
+            this.channel = channel;
+            this.onProgress = onProgress;
+            if (format == Format.CSV) {
+                put("date,event,venue,start_time,end_time,hours,room_hire\n");
+            }
+        }
+
+        @Override
+        public void accept(LocalDate date, String event, String venue, LocalTime startTime, LocalTime endTime,
+                           double roomHire) throws IOException {
+            if (cancelled) {
+                throw new CancellationException("Revenue export cancelled");
+            }
+            row.setLength(0);
+            int seconds = endTime.toSecondOfDay() - startTime.toSecondOfDay();
+            //an event ending at or before its start, such as at 00:00, ends on the next day
+            double hours = (seconds <= 0 ? seconds + 24 * 3600 : seconds) / 3600.0;
+            if (format == Format.CSV) {
+                row.append(date).append(',');
+                appendCsv(event);
+                row.append(',');
+                appendCsv(venue);
+                row.append(',').append(startTime).append(',').append(endTime).append(',');
+                appendAmount(hours);
+                row.append(',');
+                appendAmount(roomHire);
+            } else {
+                row.append("{\"date\":\"").append(date).append("\",\"event\":");
+                appendJson(event);
+                row.append(",\"venue\":");
+                appendJson(venue);
+                row.append(",\"start_time\":\"").append(startTime).append("\",\"end_time\":\"").append(endTime)
+                        .append("\",\"hours\":");
+                appendAmount(hours);
+                row.append(",\"room_hire\":");
+                appendAmount(roomHire);
+                row.append('}');
+            }
+            row.append('\n');
+            put(row);
+            rows++;
+            if ((rows % PROGRESS_CHECK_ROWS) == 0) {
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_MILLIS * 1_000_000) {
+                    lastReport = now;
+                    onProgress.accept(new Progress(rows, bytes + buffer.position(), now - started, false));
+                }
+            }
+        }
+
+        private void appendCsv(String value) {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                row.append(value);
+                return;
+            }
+            row.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    row.append('"');
+                }
+                row.append(c);
+            }
+            row.append('"');
+        }
+
+        private void appendJson(String value) {
+            if (value == null) {
+                row.append("null");
+                return;
+            }
+            row.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    row.append('\\').append(c);
+                } else if (c == '\n') {
+                    row.append("\\n");
+                } else if (c == '\r') {
+                    row.append("\\r");
+                } else if (c == '\t') {
+                    row.append("\\t");
+                } else if (c < 0x20) {
+                    row.append(String.format("\\u%04x", (int) c));
+                } else {
+                    row.append(c);
+                }
+            }
+            row.append('"');
+        }
+
+        /**
+         * Appends an amount with two decimal places, without the cost of a formatter per row.
+         */
+        private void appendAmount(double amount) {
+            long pennies = Math.round(amount * 100);
+            if (pennies < 0) {
+                row.append('-');
+                pennies = -pennies;
+            }
+            long fraction = pennies % 100;
+            row.append(pennies / 100).append('.');
+            if (fraction < 10) {
+                row.append('0');
+            }
+            row.append(fraction);
+        }
+
+        /**
+         * Encodes text as UTF-8 into the buffer, writing the buffer out whenever a character might not fit.
+         */
+        private void put(CharSequence text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                if (buffer.remaining() < 4) {
+                    flush();
+                }
+                char c = text.charAt(i);
+                if (c < 0x80) {
+                    buffer.put((byte) c);
+                } else if (c < 0x800) {
+                    buffer.put((byte) (0xC0 | (c >> 6)));
+                    buffer.put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int code = Character.toCodePoint(c, text.charAt(++i));
+                    buffer.put((byte) (0xF0 | (code >> 18)));
+                    buffer.put((byte) (0x80 | ((code >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((code >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (code & 0x3F)));
+                } else if (Character.isSurrogate(c)) {
+                    //an unpaired surrogate cannot be encoded
+                    buffer.put((byte) '?');
+                } else {
+                    buffer.put((byte) (0xE0 | (c >> 12)));
+                    buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bytes += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Writes out the rest of the buffer and forces the file to disk.
+         * @return  The final progress
+         */
+        private Progress finish() throws IOException {
+            flush();
+            channel.force(false);
+            return new Progress(rows, bytes, System.nanoTime() - started, true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package lancaster.utils;
+
+import lancaster.model.RevenueCalculator;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The {@code RevenueRollupCache} class keeps revenue aggregated by the database, one calendar month per entry, for
+ * the revenue dashboard.
+ * <p>
+ * Revenue is never read booking by booking. {@link DBUtils#getDailyRevenue(LocalDate, LocalDate)} groups events by
+ * day, room and booking type in the database, and {@link DBUtils#getMonthlyRevenue(LocalDate, LocalDate)} groups them by year,
+ * month and room, so only the totals cross the wire. Both are cached by month: asking for a date range only queries
+ * the months not yet held, in one query spanning them, so changing the dashboard's dates costs one aggregate query
+ * at most, and none when the months have been seen before.
+ * </p>
+ * <p>
+ * Each month is held as the future of its load, so requests for a month that is still loading share the one query.
+ * Writes through {@link DBUtils} invalidate only the month of the date they touch, and a failed load is dropped so
+ * the next request tries again. The least recently used months are dropped once more than {@value #MAX_MONTHS} are
+ * held.
+ * </p>
+ */
+public final class RevenueRollupCache {
+    private static final int MAX_MONTHS = 48;
+
+    private static final RevenueRollupCache instance = new RevenueRollupCache();
+
+    private final LinkedHashMap<YearMonth, CompletableFuture<List<DailyRevenue>>> days = lruMap();
+    private final LinkedHashMap<YearMonth, CompletableFuture<Map<String, Double>>> months = lruMap();
+    private volatile long version; //Counts invalidations, so holders of revenue can tell it may be out of date
+
+    /**
+     * The revenue of one room on one day from one type of booking, as summed by the database.
+     * @param date          The day
+     * @param venue         The name of the room
+     * @param bookingType   The booking type of the events
+     * @param events        The number of events held
+     * @param roomHire      The room hire of those events
+     */
+    public record DailyRevenue(LocalDate date, String venue, RevenueCalculator.BookingType bookingType, int events,
+                               double roomHire) {
+    }
+
+    /**
+     * The revenue of one room in one month, as summed by the database.
+     * @param month     The month
+     * @param venue     The name of the room
+     * @param events    The number of events held
+     * @param roomHire  The room hire of those events
+     */
+    public record MonthlyRevenue(YearMonth month, String venue, int events, double roomHire) {
+    }
+
+    private RevenueRollupCache() {
+    }
+
+    /**
+     * @return  The shared revenue rollup cache
+     */
+    public static RevenueRollupCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Gets the revenue of every room for each day of a range, querying the months that are not held.
+     * @param from      The first day of the range
+     * @param to        The last day of the range, inclusive
+     * @return          A future of the days in the range with revenue, by date then room and booking type
+     */
+    public synchronized CompletableFuture<List<DailyRevenue>> getDays(LocalDate from, LocalDate to) {
+        List<CompletableFuture<List<DailyRevenue>>> parts = getMonths(days, from, to, (first, last) ->
+                AsyncDatabase.getInstance().submit(db -> db.getDailyRevenue(first.atDay(1), last.atEndOfMonth())),
+                (loaded, month) -> {
+                    List<DailyRevenue> inMonth = new ArrayList<>();
+                    for (DailyRevenue day : loaded) {
+                        if (YearMonth.from(day.date()).equals(month)) {
+                            inMonth.add(day);
+                        }
+                    }
+                    return Collections.unmodifiableList(inMonth);
+                });
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<DailyRevenue> result = new ArrayList<>();
+            for (CompletableFuture<List<DailyRevenue>> part : parts) {
+                for (DailyRevenue day : part.join()) {
+                    if (!day.date().isBefore(from) && !day.date().isAfter(to)) {
+                        result.add(day);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Gets the room hire of every room for each month of a range, querying the months that are not held.
+     * @param from      The first month of the range
+     * @param to        The last month of the range, inclusive
+     * @return          A future of the room hire keyed by month, then by room; months without events map to an
+     *                  empty map
+     */
+    public synchronized CompletableFuture<Map<YearMonth, Map<String, Double>>> getMonthTotals(YearMonth from,
+                                                                                             YearMonth to) {
+        List<CompletableFuture<Map<String, Double>>> parts = getMonths(months, from.atDay(1), to.atEndOfMonth(),
+                (first, last) -> AsyncDatabase.getInstance()
+                        .submit(db -> db.getMonthlyRevenue(first.atDay(1), last.atEndOfMonth())),
+                (loaded, month) -> {
+                    Map<String, Double> byVenue = new HashMap<>();
+                    for (MonthlyRevenue total : loaded) {
+                        if (total.month().equals(month)) {
+                            byVenue.merge(total.venue(), total.roomHire(), Double::sum);
+                        }
+                    }
+                    return Collections.unmodifiableMap(byVenue);
+                });
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).thenApply(done -> {
+            Map<YearMonth, Map<String, Double>> result = new LinkedHashMap<>();
+            YearMonth month = from;
+            for (CompletableFuture<Map<String, Double>> part : parts) {
+                result.put(month, part.join());
+                month = month.plusMonths(1);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Drops the month of a date so its revenue is read again next time, after a booking or event on that date was
+     * written.
+     * @param date      The date that changed
+     */
+    public synchronized void invalidate(LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        days.remove(month);
+        months.remove(month);
+        version++;
+    }
+
+    /**
+     * Drops every month held.
+     */
+    public synchronized void invalidateAll() {
+        days.clear();
+        months.clear();
+        version++;
+    }
+
+    /**
+     * Gets a number that changes whenever a month is invalidated. Revenue read when the version was one value may be
+     * out of date once it is another.
+     * @return  The current version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Collects the future of each month from one date to another, starting one query for the span from the first
+     * to the last month not held and splitting its result by month.
+     */
+    private <R, T> List<CompletableFuture<T>> getMonths(Map<YearMonth, CompletableFuture<T>> cache, LocalDate from,
+                                                        LocalDate to, Query<R> query, Splitter<R, T> splitter) {
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = YearMonth.from(to);
+        //held on to here, so a long range cannot evict its own months before they are returned
+        Map<YearMonth, CompletableFuture<T>> found = new HashMap<>();
+        YearMonth firstMissing = null;
+        YearMonth lastMissing = null;
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            CompletableFuture<T> held = cache.get(month);
+            if (held != null) {
+                found.put(month, held);
+            } else {
+                if (firstMissing == null) {
+                    firstMissing = month;
+                }
+                lastMissing = month;
+            }
+        }
+        if (firstMissing != null) {
+            CompletableFuture<R> loading = query.run(firstMissing, lastMissing);
+            for (YearMonth month = firstMissing; !month.isAfter(lastMissing); month = month.plusMonths(1)) {
+                if (!found.containsKey(month)) {
+                    YearMonth loadedMonth = month;
+                    CompletableFuture<T> future = loading.thenApply(loaded -> splitter.split(loaded, loadedMonth));
+                    found.put(month, future);
+                    cache.put(month, future);
+                    future.whenComplete((result, error) -> {
+                        if (error != null) {
+                            forget(cache, loadedMonth, future);
+                        }
+                    });
+                }
+            }
+        }
+        List<CompletableFuture<T>> parts = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            parts.add(found.get(month));
+        }
+        return parts;
+    }
+
+    private synchronized <T> void forget(Map<YearMonth, CompletableFuture<T>> cache, YearMonth month,
+                                         CompletableFuture<T> loading) {
+        cache.remove(month, loading);
+    }
+
+    private static <T> LinkedHashMap<YearMonth, CompletableFuture<T>> lruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<YearMonth, CompletableFuture<T>> eldest) {
+                return size() > MAX_MONTHS;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Query<R> {
+        CompletableFuture<R> run(YearMonth first, YearMonth last);
+    }
+
+    @FunctionalInterface
+    private interface Splitter<R, T> {
+        T split(R loaded, YearMonth month);
+    }
+}
@@ -0,0 +1,599 @@
+package lancaster.utils;
+
+import lancaster.model.SeatStateStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The {@code SeatHoldService} class lets box-office terminals hold and sell the seats of an event without selling
+ * the same seat twice.
+ * <p>
+ * Each event's seats are a bit array of {@code long} words. A seat is held by setting its bit with a
+ * compare-and-set, so of two terminals racing for a seat exactly one wins. There is no lock for the event or the
+ * service. Holding several seats is all or nothing: if one of them is taken, the seats already claimed are let go.
+ * </p>
+ * <p>
+ * A hold belongs to the terminal that made it. Only that terminal's {@link Hold} can release or confirm it. A hold
+ * that is not confirmed in time expires and its seats become free again. Expiry is driven by one
+ * {@link TimingWheel} ticking on a single daemon thread, rather than one timer per hold. New holds reach that
+ * thread through a lock-free queue.
+ * </p>
+ * <p>
+ * Confirming writes all the seats of a group of holds to the database, one batch per event. The seats count as sold
+ * once their batch has been written, and if it fails they are released. Holds only coordinate the terminals of
+ * this application instance. Between machines, the primary key of the {@code seat_sales} table makes a second
+ * sale of a seat fail, and the terminal that loses sees its confirmation fail. The seats already sold for an event
+ * are read back with {@link #loadSoldSeats(int, SeatStateStore)} when a seat map opens it.
+ * </p>
+ * <p>
+ * The shared service creates the {@code seat_sales} table from {@value #SEAT_SALES_DDL} the first time it needs it.
+ * If the table is missing and cannot be created, sales are only kept on this terminal, as they were before seats
+ * were recorded in the database.
+ * </p>
+ */
+public final class SeatHoldService {
+    /**
+     * The name this application instance uses for itself when holding seats, unique per process on a machine.
+     */
+    public static final String LOCAL_TERMINAL = ManagementFactory.getRuntimeMXBean().getName();
+
+    private static final long TICK_MS = 100;
+    private static final String SEAT_SALES_DDL = "/lancaster/sql/seat_sales.sql";
+
+    private static volatile SeatHoldService instance; //Shared service, created on first use
+
+    private final Persister persister;
+    private final ConcurrentHashMap<Integer, EventSeats> events = new ConcurrentHashMap<>();
+    private final Queue<Hold> newHolds = new ConcurrentLinkedQueue<>();
+    private final TimingWheel<Hold> expiries = new TimingWheel<>(currentTick());
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * Writes confirmed seats somewhere that outlives the application.
+     */
+    @FunctionalInterface
+    public interface Persister {
+        /**
+         * Records that seats of an event were sold, all in one go.
+         * @param eventId   The event the seats are for
+         * @param terminal  The terminal that sold them
+         * @param layout    The layout the seat indexes refer to
+         * @param seats     The indexes of the seats sold
+         * @throws Exception If the seats could not be recorded, in which case none of them should be
+         */
+        void persist(int eventId, String terminal, SeatStateStore layout, int[] seats) throws Exception;
+
+        /**
+         * Reads which seats of an event have been recorded as sold.
+         * @param eventId   The event
+         * @param layout    The layout to number the seats with
+         * @return          The indexes of the sold seats
+         * @throws Exception If the seats could not be read
+         */
+        default int[] loadSold(int eventId, SeatStateStore layout) throws Exception {
+            return new int[0];
+        }
+    }
+
+    /**
+     * The seats of one event: which are claimed, which of those are sold, and the hold that claimed each.
+     */
+    private static final class EventSeats {
+        private final SeatStateStore layout;
+        private final AtomicLongArray claimed;
+        private final AtomicLongArray sold;
+        private final AtomicReferenceArray<Hold> holders;
+
+        private EventSeats(SeatStateStore layout) {
+            int words = (layout.size() + 63) >>> 6;
+            this.layout = layout;
+            this.claimed = new AtomicLongArray(words);
+            this.sold = new AtomicLongArray(words);
+            this.holders = new AtomicReferenceArray<>(layout.size());
+        }
+
+        private boolean claim(int seat) {
+            int word = seat >>> 6;
+            long bit = 1L << seat;
+            long current;
+            do {
+                current = claimed.get(word);
+                if ((current & bit) != 0) {
+                    return false;
+                }
+            } while (!claimed.compareAndSet(word, current, current | bit));
+            return true;
+        }
+
+        private void unclaim(int seat) {
+            claimed.getAndAccumulate(seat >>> 6, ~(1L << seat), (current, mask) -> current & mask);
+        }
+
+        private void markSold(int seat) {
+            sold.getAndAccumulate(seat >>> 6, 1L << seat, (current, bit) -> current | bit);
+        }
+
+        private boolean isSold(int seat) {
+            return (sold.get(seat >>> 6) & (1L << seat)) != 0;
+        }
+    }
+
+    /**
+     * Seats of one event held by one terminal, created by {@link #hold(int, SeatStateStore, String, int[], long)}.
+     */
+    public static final class Hold {
+        private static final int HELD = 0;
+        private static final int CONFIRMING = 1;
+        private static final int CONFIRMED = 2;
+        private static final int RELEASED = 3;
+        private static final int EXPIRED = 4;
+
+        private final int eventId;
+        private final String terminal;
+        private final int[] seats;
+        private final long expiresAtMs;
+        private final AtomicInteger state = new AtomicInteger(HELD);
+
+        private Hold(int eventId, String terminal, int[] seats, long expiresAtMs) {
+            this.eventId = eventId;
+            this.terminal = terminal;
+            this.seats = seats;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        /**
+         * @return  The event the seats are for
+         */
+        public int getEventId() {
+            return eventId;
+        }
+
+        /**
+         * @return  The terminal that holds the seats
+         */
+        public String getTerminal() {
+            return terminal;
+        }
+
+        /**
+         * @return  A copy of the indexes of the held seats
+         */
+        public int[] getSeats() {
+            return seats.clone();
+        }
+
+        /**
+         * @return  When the hold expires if it is not confirmed, in milliseconds since the epoch
+         */
+        public long getExpiresAtMs() {
+            return expiresAtMs;
+        }
+
+        /**
+         * @return  Whether the seats are still held, so the hold can be confirmed or released
+         */
+        public boolean isActive() {
+            return state.get() == HELD;
+        }
+
+        /**
+         * @return  Whether the seats have been sold
+         */
+        public boolean isConfirmed() {
+            return state.get() == CONFIRMED;
+        }
+    }
+
+    /**
+     * Creates a service and starts its expiry thread.
+     * @param persister Writes confirmed seats
+     */
+    public SeatHoldService(Persister persister) {
+        this.persister = persister;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "lancaster-seat-holds");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the shared service, which records sold seats in the {@code seat_sales} table.
+     * @return  The shared seat hold service
+     */
+    public static SeatHoldService getInstance() {
+        SeatHoldService service = instance;
+        if (service == null) {
+            synchronized (SeatHoldService.class) {
+                service = instance;
+                if (service == null) {
+                    service = new SeatHoldService(new SeatSalesTable());
+                    instance = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Holds seats of an event for a terminal. Either every seat is held or none is.
+     * @param eventId   The event the seats are for
+     * @param layout    The layout of the event's hall; only its seat numbering is used, and every call for the
+     *                  same event must pass the same layout
+     * @param terminal  The terminal holding the seats, usually {@link #LOCAL_TERMINAL}
+     * @param seats     The indexes of the seats in the layout
+     * @param ttlMs     How long the seats are held if the hold is not confirmed, in milliseconds
+     * @return          The hold, or null if any of the seats is already held or sold
+     * @throws IllegalArgumentException If the event's seats were first held with a layout of another size
+     * @throws IndexOutOfBoundsException If a seat index is outside the layout
+     */
+    public Hold hold(int eventId, SeatStateStore layout, String terminal, int[] seats, long ttlMs) {
+        EventSeats eventSeats = seatsOf(eventId, layout);
+        for (int seat : seats) {
+            if (seat < 0 || seat >= eventSeats.layout.size()) {
+                throw new IndexOutOfBoundsException("Seat index " + seat + " out of range for event " + eventId);
+            }
+        }
+        Hold hold = new Hold(eventId, terminal, seats.clone(), System.currentTimeMillis() + ttlMs);
+        for (int i = 0; i < hold.seats.length; i++) {
+            int seat = hold.seats[i];
+            if (!eventSeats.claim(seat)) {
+                //let go of the seats claimed so far
+                for (int j = i - 1; j >= 0; j--) {
+                    eventSeats.holders.set(hold.seats[j], null);
+                    eventSeats.unclaim(hold.seats[j]);
+                }
+                return null;
+            }
+            eventSeats.holders.set(seat, hold);
+        }
+        newHolds.add(hold);
+        return hold;
+    }
+
+    /**
+     * Lets go of held seats so other terminals can take them.
+     * @param hold  The hold to release
+     * @return      Whether the seats were released; false if the hold was already confirmed, released or expired
+     */
+    public boolean release(Hold hold) {
+        if (!hold.state.compareAndSet(Hold.HELD, Hold.RELEASED)) {
+            return false;
+        }
+        free(hold);
+        return true;
+    }
+
+    /**
+     * Sells the seats of a group of holds, writing each event's seats to the database in one batch.
+     * <p>
+     * The holds are checked and marked as confirming first, so none of them can expire or be released while the
+     * batches are written. If any hold is no longer active, nothing is written and the other holds stay as they were,
+     * expiring at their usual time. If a write fails, the holds of that event and of the events not yet written are
+     * released. The holds of events written before it are confirmed, since their seats are already sold.
+     * </p>
+     * @param holds The holds to confirm, normally all for the same event
+     * @return      A future that completes once the seats are recorded, or fails with an
+     *              {@link IllegalStateException} if a hold had expired or been released
+     */
+    public CompletableFuture<Void> confirm(Collection<Hold> holds) {
+        List<Hold> confirming = new ArrayList<>(holds.size());
+        for (Hold hold : holds) {
+            if (!hold.state.compareAndSet(Hold.HELD, Hold.CONFIRMING)) {
+                for (Hold taken : confirming) {
+                    taken.state.set(Hold.HELD);
+                    //the ticker may have passed its wheel entry while it was confirming, so schedule it again
+                    newHolds.add(taken);
+                }
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("The hold on some of the seats has expired. Please choose again."));
+            }
+            confirming.add(hold);
+        }
+
+        return AsyncDatabase.getInstance().supply(() -> {
+            Set<Hold> persisted = new HashSet<>();
+            try {
+                persistAll(confirming, persisted);
+            } catch (Exception e) {
+                for (Hold hold : confirming) {
+                    if (persisted.contains(hold)) {
+                        sell(hold);
+                    } else {
+                        hold.state.set(Hold.RELEASED);
+                        free(hold);
+                    }
+                }
+                throw e;
+            }
+            for (Hold hold : confirming) {
+                sell(hold);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Reads the seats of an event sold by any terminal, on the database executor, and stops them being held here.
+     * @param eventId   The event
+     * @param layout    The layout of the event's hall, as passed to {@link #hold(int, SeatStateStore, String, int[], long)}
+     * @return          A future of the indexes of the sold seats
+     * @throws IllegalArgumentException If the event's seats were first held with a layout of another size
+     */
+    public CompletableFuture<int[]> loadSoldSeats(int eventId, SeatStateStore layout) {
+        EventSeats eventSeats = seatsOf(eventId, layout);
+        return AsyncDatabase.getInstance().supply(() -> {
+            int[] sold = persister.loadSold(eventId, eventSeats.layout);
+            for (int seat : sold) {
+                eventSeats.markSold(seat);
+                eventSeats.claim(seat);
+            }
+            return sold;
+        });
+    }
+
+    /**
+     * Checks whether a seat of an event can be held.
+     * @param eventId   The event
+     * @param seat      The index of the seat
+     * @return          Whether no terminal holds the seat and it is not sold
+     */
+    public boolean isFree(int eventId, int seat) {
+        EventSeats eventSeats = events.get(eventId);
+        return eventSeats == null || (eventSeats.claimed.get(seat >>> 6) & (1L << seat)) == 0;
+    }
+
+    /**
+     * Checks whether a seat of an event has been sold through this service.
+     * @param eventId   The event
+     * @param seat      The index of the seat
+     * @return          Whether the seat is sold
+     */
+    public boolean isSold(int eventId, int seat) {
+        EventSeats eventSeats = events.get(eventId);
+        return eventSeats != null && (eventSeats.sold.get(seat >>> 6) & (1L << seat)) != 0;
+    }
+
+    /**
+     * Checks whether a seat of an event is held by a terminal, and not yet sold.
+     * @param eventId   The event
+     * @param seat      The index of the seat
+     * @param terminal  The terminal
+     * @return          Whether the seat is held by that terminal
+     */
+    public boolean isHeldBy(int eventId, int seat, String terminal) {
+        EventSeats eventSeats = events.get(eventId);
+        if (eventSeats == null) {
+            return false;
+        }
+        Hold hold = eventSeats.holders.get(seat);
+        return hold != null && hold.terminal.equals(terminal) && hold.state.get() <= Hold.CONFIRMING;
+    }
+
+    /**
+     * Stops the expiry thread. Holds made afterwards never expire.
+     */
+    public void shutdown() {
+        ticker.shutdown();
+    }
+
+    /**
+     * Finds the seats of an event, creating them for the layout on first use.
+     * @throws IllegalArgumentException If the event's seats were created for a layout of another size
+     */
+    private EventSeats seatsOf(int eventId, SeatStateStore layout) {
+        EventSeats eventSeats = events.computeIfAbsent(eventId, id -> new EventSeats(layout));
+        if (eventSeats.layout.size() != layout.size()) {
+            throw new IllegalArgumentException("Event " + eventId + " has " + eventSeats.layout.size()
+                    + " seats, not " + layout.size() + "; its seats must always be held with the same layout");
+        }
+        return eventSeats;
+    }
+
+    private void sell(Hold hold) {
+        EventSeats eventSeats = events.get(hold.eventId);
+        for (int seat : hold.seats) {
+            eventSeats.markSold(seat);
+        }
+        hold.state.set(Hold.CONFIRMED);
+    }
+
+    private void free(Hold hold) {
+        EventSeats eventSeats = events.get(hold.eventId);
+        for (int seat : hold.seats) {
+            //clear the holder first, so a new hold on the freed seat is never overwritten
+            if (eventSeats.holders.compareAndSet(seat, hold, null) && !eventSeats.isSold(seat)) {
+                eventSeats.unclaim(seat);
+            }
+        }
+    }
+
+    /**
+     * Writes the seats of the holds, one batch per event, adding the holds of each event to {@code persisted} once
+     * its batch is written.
+     */
+    private void persistAll(List<Hold> holds, Set<Hold> persisted) throws Exception {
+        Map<Integer, List<Hold>> byEvent = new LinkedHashMap<>();
+        for (Hold hold : holds) {
+            byEvent.computeIfAbsent(hold.eventId, id -> new ArrayList<>()).add(hold);
+        }
+        for (Map.Entry<Integer, List<Hold>> entry : byEvent.entrySet()) {
+            int count = 0;
+            for (Hold hold : entry.getValue()) {
+                count += hold.seats.length;
+            }
+            int[] seats = new int[count];
+            int next = 0;
+            for (Hold hold : entry.getValue()) {
+                System.arraycopy(hold.seats, 0, seats, next, hold.seats.length);
+                next += hold.seats.length;
+            }
+            persister.persist(entry.getKey(), entry.getValue().get(0).terminal,
+                    events.get(entry.getKey()).layout, seats);
+            persisted.addAll(entry.getValue());
+        }
+    }
+
+    /**
+     * Runs on the expiry thread: moves new holds into the timing wheel and expires the ones that are due.
+     */
+    private void tick() {
+        try {
+            Hold hold;
+            while ((hold = newHolds.poll()) != null) {
+                expiries.schedule(hold, Math.floorDiv(hold.expiresAtMs, TICK_MS));
+            }
+            expiries.advanceTo(currentTick(), expired -> {
+                if (expired.state.compareAndSet(Hold.HELD, Hold.EXPIRED)) {
+                    free(expired);
+                }
+            });
+        } catch (RuntimeException e) {
+            //keep ticking; a failed tick must not stop every later expiry
+            e.printStackTrace();
+        }
+    }
+
+    private static long currentTick() {
+        return System.currentTimeMillis() / TICK_MS;
+    }
+
+    /**
+     * Records sold seats in the {@code seat_sales} table, creating the table on first use.
+     * <p>
+     * The table has the columns {@code event_id}, {@code seat_row}, {@code seat_number} and {@code terminal}, with a
+     * primary key on the first three so the same seat cannot be sold twice. Rows count from 1 as in the seats table;
+     * the column is not called {@code row_number} because that is a reserved word in MySQL 8.
+     * </p>
+     */
+    private static final class SeatSalesTable implements Persister {
+        private volatile Boolean present; //Whether the table exists, once checked
+
+        @Override
+        public void persist(int eventId, String terminal, SeatStateStore layout, int[] seats)
+                throws SQLException, IOException, ClassNotFoundException {
+            String insert = "INSERT INTO seat_sales (event_id, seat_row, seat_number, terminal) VALUES (?, ?, ?, ?)";
+            try (Connection connection = ConnectionPool.getInstance().getConnection()) {
+                if (!isPresent(connection)) {
+                    //keep the sale on this terminal only
+                    return;
+                }
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try (PreparedStatement statement = connection.prepareStatement(insert)) {
+                    for (int seat : seats) {
+                        statement.setInt(1, eventId);
+                        statement.setInt(2, layout.rowOf(seat) + 1);
+                        statement.setInt(3, layout.seatNumberOf(seat));
+                        statement.setString(4, terminal);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+        }
+
+        @Override
+        public int[] loadSold(int eventId, SeatStateStore layout)
+                throws SQLException, IOException, ClassNotFoundException {
+            String query = "SELECT seat_row, seat_number FROM seat_sales WHERE event_id = ?";
+            try (Connection connection = ConnectionPool.getInstance().getConnection()) {
+                if (!isPresent(connection)) {
+                    return new int[0];
+                }
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    statement.setInt(1, eventId);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        int[] sold = new int[16];
+                        int count = 0;
+                        while (rs.next()) {
+                            int seat = layout.indexOf(rs.getInt("seat_row") - 1, rs.getInt("seat_number"));
+                            if (seat < 0) {
+                                //a seat the layout does not have
+                                continue;
+                            }
+                            if (count == sold.length) {
+                                sold = Arrays.copyOf(sold, count * 2);
+                            }
+                            sold[count++] = seat;
+                        }
+                        return Arrays.copyOf(sold, count);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Creates the table if it does not exist yet, and remembers whether it is there.
+         */
+        private boolean isPresent(Connection connection) throws SQLException, IOException {
+            Boolean known = present;
+            if (known != null) {
+                return known;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(readDdl());
+                present = true;
+            } catch (SQLException e) {
+                //not allowed to create tables, so look for one made by hand
+                try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null,
+                        "seat_sales", new String[]{"TABLE"})) {
+                    present = tables.next();
+                }
+                if (!present) {
+                    System.err.println("The seat_sales table is missing and could not be created ("
+                            + e.getMessage() + "); seat sales are only kept on this terminal");
+                }
+            }
+            return present;
+        }
+
+        private static String readDdl() throws IOException {
+            try (InputStream in = SeatHoldService.class.getResourceAsStream(SEAT_SALES_DDL)) {
+                if (in == null) {
+                    throw new IOException("Table definition " + SEAT_SALES_DDL + " not found");
+                }
+                StringBuilder ddl = new StringBuilder();
+                for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                    if (!line.strip().startsWith("--")) {
+                        ddl.append(line).append('\n');
+                    }
+                }
+                return ddl.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package lancaster.utils;
+
+import javafx.scene.Scene;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code StartupTimer} class times the phases between starting the application, or signing in, and the main
+ * window becoming usable.
+ * <p>
+ * Startup code marks each phase as it finishes, for example when the credentials have been checked or the
+ * selection pane has been loaded. The run ends when the home pane has been laid out in a showing window, which is
+ * the point the user can interact with it. A run starts when the JVM starts and again every time the user signs
+ * in. Views created later, whether on first use or by background preloading, are recorded too, so a slow view shows
+ * up even when it is no longer on the startup path.
+ * </p>
+ * <p>
+ * Phases are always recorded, which costs one clock read each. They are only printed if the application is
+ * started with {@code -Dlancaster.startup.timing=true}.
+ * </p>
+ */
+public final class StartupTimer {
+    private static final boolean ENABLED = Boolean.getBoolean("lancaster.startup.timing");
+
+    //the clock the phases are measured on, started when the JVM did
+    private static final long JVM_START_NANOS = System.nanoTime()
+            - Math.max(0, System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime()) * 1_000_000;
+
+    private static final List<String> phases = new ArrayList<>();
+    private static final List<Long> phaseNanos = new ArrayList<>();
+    private static long runStartNanos = JVM_START_NANOS;
+    private static String runStart = "JVM start";
+    private static boolean runFinished;
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Starts a new run, for example when the user submits the login form. The phases of an unfinished run are
+     * discarded.
+     * @param label     What started the run
+     */
+    public static synchronized void startRun(String label) {
+        runStart = label;
+        runStartNanos = System.nanoTime();
+        runFinished = false;
+        phases.clear();
+        phaseNanos.clear();
+    }
+
+    /**
+     * Records that a phase of the current run has finished.
+     * @param phase     What has finished
+     */
+    public static synchronized void mark(String phase) {
+        if (runFinished) {
+            return;
+        }
+        phases.add(phase);
+        phaseNanos.add(System.nanoTime());
+    }
+
+    /**
+     * Ends the current run after the next layout pass of a scene, which is when the content just put into it can
+     * be used. Later calls do nothing until a new run is started, so screens that reload the selection pane are
+     * not counted again.
+     * @param phase     What has become interactive
+     * @param scene     The scene showing it
+     */
+    public static void finishAfterLayout(String phase, Scene scene) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            finish(phase);
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    private static synchronized void finish(String phase) {
+        if (runFinished) {
+            return;
+        }
+        mark(phase);
+        runFinished = true;
+        if (ENABLED) {
+            System.out.println(summary());
+        }
+    }
+
+    /**
+     * Records the time taken to create a view.
+     * @param view          The name of the view
+     * @param nanos         How long it took to create
+     * @param preloaded     Whether it was created by background preloading rather than because it was opened
+     */
+    public static void recordView(String view, long nanos, boolean preloaded) {
+        if (ENABLED) {
+            System.out.printf("view %s created %s in %.1f ms%n", view, preloaded ? "in the background" : "on first use",
+                    nanos / 1e6);
+        }
+    }
+
+    /**
+     * @return  The phases of the current run with the time each took and the time since the run started
+     */
+    public static synchronized String summary() {
+        StringBuilder text = new StringBuilder("startup from ").append(runStart).append(':');
+        long previous = runStartNanos;
+        for (int i = 0; i < phases.size(); i++) {
+            long nanos = phaseNanos.get(i);
+            text.append(String.format("%n  %-28s +%7.1f ms  %8.1f ms", phases.get(i), (nanos - previous) / 1e6,
+                    (nanos - runStartNanos) / 1e6));
+            previous = nanos;
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,251 @@
+package lancaster.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code StatementCache} class keeps the prepared statements of one pooled connection for reuse.
+ * <p>
+ * Statements are keyed by their SQL text (and generated-keys flag) and held in least recently used order.
+ * When the cache is full the oldest statement is closed. A borrower gets a statement handle whose
+ * {@code close()} closes any open result set, clears the parameters and puts the statement back instead of
+ * closing it, so DAOs can keep the usual try-with-resources style while the driver parses each query only once
+ * per connection.
+ * </p>
+ * <p>
+ * If the same SQL is already checked out on this connection, for example a nested query, the caller is given
+ * a plain uncached statement so the two never share state.
+ * </p>
+ */
+final class StatementCache {
+    private final Connection physical;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * Creates an empty cache for a physical connection.
+     *
+     * @param physical  the connection that statements are prepared on
+     * @param maxSize   the most statements kept open at once
+     * @param hits      counter shared across the pool for cache hits
+     * @param misses    counter shared across the pool for cache misses
+     */
+    StatementCache(Connection physical, int maxSize, LongAdder hits, LongAdder misses) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached statement for the SQL, preparing and caching one on a miss.
+     *
+     * @param sql               the SQL text of the statement
+     * @param autoGeneratedKeys a {@link Statement} generated keys flag
+     * @return a statement handle that goes back to the cache when closed
+     * @throws SQLException if the driver fails to prepare the statement
+     */
+    synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.NO_GENERATED_KEYS ? sql : autoGeneratedKeys + "#" + sql;
+        Entry entry = entries.get(key);
+
+        if (entry != null && entry.inUse) {
+            //the cached copy is busy on this connection, so give out a throwaway one
+            misses.increment();
+            return physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            entry = new Entry(physical.prepareStatement(sql, autoGeneratedKeys));
+            entries.put(key, entry);
+        }
+
+        entry.inUse = true;
+        entry.checkouts++;
+        return entry.newHandle();
+    }
+
+    /**
+     * Marks every statement as free again. Called when the connection goes back to the pool, since statements
+     * never outlive the borrow of the connection that made them.
+     */
+    synchronized void releaseAll() {
+        for (Entry entry : entries.values()) {
+            if (entry.inUse) {
+                release(entry);
+            }
+        }
+    }
+
+    /**
+     * Closes every cached statement.
+     */
+    synchronized void clear() {
+        List<Entry> all = new ArrayList<>(entries.values());
+        entries.clear();
+        for (Entry entry : all) {
+            entry.evict();
+        }
+    }
+
+    /**
+     * @return  The number of statements currently cached
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Puts a statement back for reuse, or closes it if it was evicted or cannot be reset.
+     *
+     * @param entry the statement being given back
+     */
+    private synchronized void release(Entry entry) {
+        entry.inUse = false;
+        if (entry.evicted) {
+            closeQuietly(entry.statement);
+            return;
+        }
+
+        try {
+            //close a result set the borrower left open so it does not linger until the next execute
+            ResultSet open = entry.statement.getResultSet();
+            if (open != null) {
+                open.close();
+            }
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+        } catch (SQLException e) {
+            //a statement that cannot be reset is not safe to hand out again
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next() == entry) {
+                    it.remove();
+                    break;
+                }
+            }
+            closeQuietly(entry.statement);
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            //the statement is being discarded anyway
+        }
+    }
+
+    /**
+     * A cached statement and whether it is currently checked out.
+     */
+    private final class Entry {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+        private int checkouts; //Bumped on every checkout so stale handles can be told apart
+
+        private Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        /**
+         * Drops the statement from the cache, closing it now or, if it is checked out, when it is released.
+         */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly(statement);
+            }
+        }
+
+        private PreparedStatement newHandle() {
+            return (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new Handle(this, checkouts));
+        }
+    }
+
+    /**
+     * Forwards calls to the cached statement until the borrower closes the handle.
+     */
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final int checkout;
+        private boolean closed;
+
+        private Handle(Entry entry, int checkout) {
+            this.entry = entry;
+            this.checkout = checkout;
+        }
+
+        /**
+         * @return  Whether this handle still owns the statement
+         */
+        private boolean owned() {
+            synchronized (StatementCache.this) {
+                return entry.inUse && entry.checkouts == checkout;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (owned()) {
+                            release(entry);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    break;
+            }
+
+            if (closed || !owned()) {
+                throw new SQLException("Statement has already been returned to the cache");
+            }
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
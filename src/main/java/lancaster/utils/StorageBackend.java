@@ -0,0 +1,36 @@
+package lancaster.utils;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * The storage backends that the DAO facades can run against.
+ * <p>
+ * The backend is chosen with the {@code db.backend} key in {@code config.properties}, or the
+ * {@code lancaster.db.backend} system property which takes priority so a load test can switch backend without
+ * editing the config file. Accepted values are {@code mysql} (the default) and {@code memory}.
+ * </p>
+ */
+public enum StorageBackend {
+    /** The MySQL database, reached through the {@link ConnectionPool}. */
+    MYSQL,
+    /** The in-process {@link InMemoryDatabase}, for load testing without a database server. */
+    MEMORY;
+
+    /**
+     * Works out which backend is configured.
+     * @return  The configured backend, {@link #MYSQL} if nothing is set
+     */
+    public static StorageBackend configured() {
+        String value = System.getProperty("lancaster.db.backend");
+        if (value == null) {
+            try {
+                value = ConnectionPool.loadProperties().getProperty("db.backend");
+            } catch (IOException e) {
+                //without a config file there is nothing to say otherwise
+                value = null;
+            }
+        }
+        return value == null ? MYSQL : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
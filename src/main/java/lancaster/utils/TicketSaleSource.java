@@ -0,0 +1,69 @@
+package lancaster.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * A feed of ticket-sale records for the {@link TicketSalesPipeline}.
+ * <p>
+ * A source hands out the records added since the last committed read, one line of text per record, so each refresh
+ * only reads what is new. Reading does not move the source on by itself: the pipeline calls {@link #commit()} once
+ * every record read has been applied, and a read that fails part way is simply read again next time.
+ * </p>
+ * <p>
+ * The box-office system does not offer a feed yet, so the stand-in is a {@link FileTicketSaleSource} watching a file
+ * or a directory of files, chosen with the {@code ticketSales.source} key in {@code config.properties} or the
+ * {@code lancaster.ticketSales.source} system property, which takes priority.
+ * </p>
+ */
+public interface TicketSaleSource {
+
+    /**
+     * Receives the records of a read, one line at a time.
+     */
+    @FunctionalInterface
+    interface LineHandler {
+        /**
+         * @param source        The name of the file or feed the line came from, for error messages
+         * @param lineNumber    The number of the line within the source, from 1
+         * @param line          The record, without its line ending
+         * @throws InterruptedException If the pipeline is stopped while waiting for room for the line
+         */
+        void accept(String source, long lineNumber, String line) throws InterruptedException;
+    }
+
+    /**
+     * Reads the records added since the last committed read.
+     * @param handler   Called for each record in order
+     * @throws IOException If the source cannot be read
+     * @throws InterruptedException If the handler was interrupted
+     */
+    void read(LineHandler handler) throws IOException, InterruptedException;
+
+    /**
+     * Makes the next read start after the records of the last read.
+     */
+    void commit();
+
+    /**
+     * Works out which source is configured.
+     * @return  A source reading the configured file or directory, or null if none is configured
+     */
+    static TicketSaleSource configured() {
+        String value = System.getProperty("lancaster.ticketSales.source");
+        if (value == null) {
+            try {
+                value = ConnectionPool.loadProperties().getProperty("ticketSales.source");
+            } catch (IOException e) {
+                //without a config file there is no feed
+                value = null;
+            }
+        }
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Path path = Paths.get(value.trim());
+        return new FileTicketSaleSource(path);
+    }
+}
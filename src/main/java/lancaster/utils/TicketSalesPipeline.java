@@ -0,0 +1,377 @@
+package lancaster.utils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code TicketSalesPipeline} class pulls new ticket-sale records from a {@link TicketSaleSource}, parses them
+ * on a pool of workers and hands them on, summed by date and venue.
+ * <p>
+ * A pull runs in three stages joined by bounded queues. One thread reads lines from the source and packs them into
+ * chunks of {@value #CHUNK_LINES} lines; the workers parse the chunks, skipping and counting bad records, and sum
+ * the sales of each chunk by date and venue into a batch; and one thread merges the batches into the totals of the
+ * pull. Each queue holds at most {@value #QUEUE_CAPACITY} entries, so when merging falls behind the workers wait,
+ * and when the workers are busy the reader waits: however large the feed, only a few chunks are in memory at once,
+ * and the totals grow only with the number of days and venues the pull covers.
+ * </p>
+ * <p>
+ * Nothing is handed to the {@link BatchSink} until the whole pull has been read, and the source is moved on right
+ * after the sink has taken the totals. The sink can run on an executor of its own, such as the JavaFX thread, and
+ * no pipeline thread waits for it meanwhile. A pull that fails while reading applies nothing and is read again in
+ * full next time, so no sale is ever applied twice.
+ * </p>
+ * <p>
+ * Records are lines of {@code date,venue,tickets,amount}, for example {@code 2025-04-10,Main Hall,120,1950.00}.
+ * Blank lines, lines starting with {@code #} and a header line starting with {@code date} are ignored, and a
+ * negative amount is a refund. Only one pull runs at a time; asking again while one runs returns it.
+ * </p>
+ */
+public final class TicketSalesPipeline {
+    private static final int CHUNK_LINES = 4096;
+    private static final int QUEUE_CAPACITY = 8;
+
+    //marks the end of the chunks or batches of a pull
+    private static final Chunk END_OF_CHUNKS = new Chunk("", 0, 0, List.of());
+    private static final Batch END_OF_BATCHES = new Batch(List.of(), 0, 0, 0, null, Long.MAX_VALUE);
+
+    private final TicketSaleSource source;
+    private final int workers;
+    private final ExecutorService executor;
+    private CompletableFuture<Result> running;
+
+    /**
+     * The ticket sales of one venue on one day.
+     * @param date      The day of the performance
+     * @param venue     The name of the venue
+     * @param tickets   The number of tickets sold, less any refunded
+     * @param amount    The revenue of the tickets, less any refunds
+     */
+    public record TicketSale(LocalDate date, String venue, int tickets, double amount) {
+    }
+
+    /**
+     * What a pull read and applied.
+     * @param lines         The lines read from the source
+     * @param sales         The ticket-sale records applied
+     * @param rejected      The records that could not be parsed and were skipped
+     * @param firstError    Where the first rejected record in the order read was and what was wrong with it, or
+     *                      null if none was
+     * @param elapsedNanos  How long the pull took
+     */
+    public record Result(long lines, long sales, long rejected, String firstError, long elapsedNanos) {
+    }
+
+    /**
+     * Receives the sales of a pull, once the whole pull has been read.
+     */
+    @FunctionalInterface
+    public interface BatchSink {
+        /**
+         * Applies the sales of a pull. It should apply all of them or, by throwing, none.
+         * @param batch     Ticket sales summed by date and venue
+         * @throws Exception If the sales cannot be applied, which fails the pull
+         */
+        void apply(List<TicketSale> batch) throws Exception;
+    }
+
+    /**
+     * Lines of one source, starting at line {@code firstLine} of the source and at line {@code position} of the pull.
+     */
+    private record Chunk(String source, long firstLine, long position, List<String> lines) {
+    }
+
+    /**
+     * The sales of a chunk, with its first rejected record and that record's line in the pull, or
+     * {@link Long#MAX_VALUE} if none was rejected.
+     */
+    private record Batch(List<TicketSale> sales, long lines, long records, long rejected, String firstError,
+                         long firstErrorPosition) {
+    }
+
+    /**
+     * What a pull read, before it is applied.
+     */
+    private record Pulled(List<TicketSale> sales, long lines, long records, long rejected, String firstError,
+                          long started) {
+    }
+
+    /**
+     * Creates a pipeline with a worker per spare processor, up to four.
+     * @param source    The feed to pull from
+     */
+    public TicketSalesPipeline(TicketSaleSource source) {
+        this(source, Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    /**
+     * Creates a pipeline.
+     * @param source    The feed to pull from
+     * @param workers   The number of threads parsing records
+     */
+    public TicketSalesPipeline(TicketSaleSource source, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("A ticket sales pipeline needs at least one worker");
+        }
+        this.source = source;
+        this.workers = workers;
+        //the reader, the workers and the thread applying batches all run at once
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers + 2, task -> {
+            Thread thread = new Thread(task, "lancaster-ticket-sales-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pulls the records added to the source since the last successful pull, in the background, and applies them on
+     * the thread that finished reading them.
+     * @param sink  Applies the sales pulled
+     * @return      A future of what was pulled, or the pull already running
+     */
+    public CompletableFuture<Result> pull(BatchSink sink) {
+        return pull(sink, Runnable::run);
+    }
+
+    /**
+     * Pulls the records added to the source since the last successful pull, in the background.
+     * @param sink      Applies the sales pulled
+     * @param applyOn   Runs the sink, for example {@code Platform::runLater}; the source is only moved on once the
+     *                  sink has returned
+     * @return          A future of what was pulled, or the pull already running
+     */
+    public synchronized CompletableFuture<Result> pull(BatchSink sink, Executor applyOn) {
+        if (running == null || running.isDone()) {
+            running = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return read();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor).thenApplyAsync(pulled -> {
+                if (!pulled.sales().isEmpty()) {
+                    try {
+                        sink.apply(pulled.sales());
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Ticket sales could not be applied", e);
+                    }
+                }
+                return pulled;
+            }, applyOn).thenApplyAsync(pulled -> {
+                source.commit();
+                return new Result(pulled.lines(), pulled.records(), pulled.rejected(), pulled.firstError(),
+                        System.nanoTime() - pulled.started());
+            }, executor);
+        }
+        return running;
+    }
+
+    /**
+     * Stops the worker threads once the pull running, if any, has finished.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Pulled read() throws Exception {
+        long started = System.nanoTime();
+        BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Batch> batches = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Merger merger = new Merger(batches);
+
+        List<Future<?>> parsers = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            parsers.add(executor.submit(() -> parse(chunks, batches)));
+        }
+        Future<?> merging = executor.submit(merger);
+
+        Exception readError = null;
+        try {
+            ChunkBuilder builder = new ChunkBuilder(chunks);
+            source.read(builder);
+            builder.flush();
+        } catch (Exception e) {
+            readError = e;
+        } finally {
+            //the workers keep taking chunks until they see the end, so these puts always finish
+            for (int i = 0; i < workers; i++) {
+                chunks.put(END_OF_CHUNKS);
+            }
+        }
+        for (Future<?> parser : parsers) {
+            waitFor(parser);
+        }
+        batches.put(END_OF_BATCHES);
+        waitFor(merging);
+
+        if (readError != null) {
+            throw readError;
+        }
+        return new Pulled(new ArrayList<>(merger.totals.values()), merger.lines, merger.records, merger.rejected,
+                merger.firstError, started);
+    }
+
+    private static void waitFor(Future<?> task) throws InterruptedException {
+        try {
+            task.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ticket sales pipeline stage failed", e.getCause());
+        }
+    }
+
+    /**
+     * Parses chunks until the end marker, passing each on as a batch.
+     */
+    private static Void parse(BlockingQueue<Chunk> chunks, BlockingQueue<Batch> batches)
+            throws InterruptedException {
+        Chunk chunk;
+        while ((chunk = chunks.take()) != END_OF_CHUNKS) {
+            batches.put(parse(chunk));
+        }
+        return null;
+    }
+
+    private record SaleKey(LocalDate date, String venue) {
+    }
+
+    private static TicketSale sum(TicketSale a, TicketSale b) {
+        return new TicketSale(a.date(), a.venue(), a.tickets() + b.tickets(), a.amount() + b.amount());
+    }
+
+    /**
+     * Parses the records of a chunk and sums them by date and venue.
+     */
+    private static Batch parse(Chunk chunk) {
+        Map<SaleKey, TicketSale> totals = new HashMap<>();
+        long records = 0;
+        long rejected = 0;
+        String firstError = null;
+        long firstErrorPosition = Long.MAX_VALUE;
+        for (int i = 0; i < chunk.lines().size(); i++) {
+            String line = chunk.lines().get(i).strip();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("date")) {
+                continue;
+            }
+            try {
+                TicketSale sale = parseRecord(line);
+                totals.merge(new SaleKey(sale.date(), sale.venue()), sale, TicketSalesPipeline::sum);
+                records++;
+            } catch (RuntimeException e) {
+                rejected++;
+                if (firstError == null) {
+                    firstError = chunk.source() + " line " + (chunk.firstLine() + i) + ": " + e.getMessage();
+                    firstErrorPosition = chunk.position() + i;
+                }
+            }
+        }
+        return new Batch(new ArrayList<>(totals.values()), chunk.lines().size(), records, rejected, firstError,
+                firstErrorPosition);
+    }
+
+    private static TicketSale parseRecord(String line) {
+        int venueStart = line.indexOf(',') + 1;
+        int ticketsStart = venueStart == 0 ? 0 : line.indexOf(',', venueStart) + 1;
+        int amountStart = ticketsStart == 0 ? 0 : line.indexOf(',', ticketsStart) + 1;
+        if (amountStart == 0 || line.indexOf(',', amountStart) >= 0) {
+            throw new IllegalArgumentException("Expected date,venue,tickets,amount");
+        }
+        LocalDate date = LocalDate.parse(line.substring(0, venueStart - 1).strip());
+        String venue = line.substring(venueStart, ticketsStart - 1).strip();
+        if (venue.isEmpty()) {
+            throw new IllegalArgumentException("No venue");
+        }
+        int tickets = Integer.parseInt(line.substring(ticketsStart, amountStart - 1).strip());
+        double amount = Double.parseDouble(line.substring(amountStart).strip());
+        if (!Double.isFinite(amount)) {
+            throw new IllegalArgumentException("Expected an amount but found " + line.substring(amountStart));
+        }
+        return new TicketSale(date, venue, tickets, amount);
+    }
+
+    /**
+     * Packs the lines read from the source into chunks, waiting for room in the queue when the workers are behind.
+     */
+    private static final class ChunkBuilder implements TicketSaleSource.LineHandler {
+        private final BlockingQueue<Chunk> chunks;
+        private List<String> lines = new ArrayList<>(CHUNK_LINES);
+        private String source;
+        private long firstLine;
+        private long position; //Lines of the pull before the current chunk
+
+        private ChunkBuilder(BlockingQueue<Chunk> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void accept(String source, long lineNumber, String line) throws InterruptedException {
+            if (!lines.isEmpty() && (!source.equals(this.source) || lines.size() == CHUNK_LINES)) {
+                flush();
+            }
+            if (lines.isEmpty()) {
+                this.source = source;
+                firstLine = lineNumber;
+            }
+            lines.add(line);
+        }
+
+        private void flush() throws InterruptedException {
+            if (!lines.isEmpty()) {
+                chunks.put(new Chunk(source, firstLine, position, lines));
+                position += lines.size();
+                lines = new ArrayList<>(CHUNK_LINES);
+            }
+        }
+    }
+
+    /**
+     * Merges batches into the totals of the pull until the end marker, adding up what was read. The workers finish
+     * chunks in any order, so the first error kept is the one earliest in the pull, not the one merged first.
+     */
+    private static final class Merger implements Callable<Void> {
+        private final BlockingQueue<Batch> batches;
+        private final Map<SaleKey, TicketSale> totals = new HashMap<>();
+        private long lines;
+        private long records;
+        private long rejected;
+        private String firstError;
+        private long firstErrorPosition = Long.MAX_VALUE;
+
+        private Merger(BlockingQueue<Batch> batches) {
+            this.batches = batches;
+        }
+
+        @Override
+        public Void call() throws InterruptedException {
+            Batch batch;
+            while ((batch = batches.take()) != END_OF_BATCHES) {
+                for (TicketSale sale : batch.sales()) {
+                    totals.merge(new SaleKey(sale.date(), sale.venue()), sale, TicketSalesPipeline::sum);
+                }
+                lines += batch.lines();
+                records += batch.records();
+                rejected += batch.rejected();
+                if (batch.firstErrorPosition() < firstErrorPosition) {
+                    firstError = batch.firstError();
+                    firstErrorPosition = batch.firstErrorPosition();
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package lancaster.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel for many deadlines that are checked on a fixed tick.
+ * <p>
+ * Time is counted in ticks. The wheel has several levels of 64 slots each: a slot of level 0 holds the items due
+ * in one tick, a slot of level 1 covers 64 ticks, a slot of level 2 covers 4096 ticks, and so on. An item is put
+ * in the coarsest slot that still tells it apart from now. Each time the lowest level comes round, the next
+ * level's current slot is emptied into the finer levels. Scheduling and expiring an item therefore cost a constant
+ * amount whatever the number of items, instead of one timer or priority queue entry per item.
+ * </p>
+ * <p>
+ * The wheel is not thread-safe and is meant to be driven by a single ticking thread. Items are not removed when
+ * cancelled; the caller should ignore expired items that no longer matter.
+ * </p>
+ *
+ * @param <T> the type of the scheduled items
+ */
+final class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4; // 64^4 ticks, about 19 days at 100 ms per tick.
+
+    private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private long currentTick;
+    private int size;
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadline;
+
+        private Entry(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param startTick the tick the wheel starts at
+     */
+    TimingWheel(long startTick) {
+        this.currentTick = startTick;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * @return  The last tick the wheel was advanced to
+     */
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * @return  The number of items scheduled and not yet expired
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules an item. An item whose deadline has already passed expires on the next tick.
+     *
+     * @param item     the item
+     * @param deadline the tick at which the item expires
+     */
+    void schedule(T item, long deadline) {
+        size++;
+        place(new Entry<>(item, Math.max(deadline, currentTick + 1)));
+    }
+
+    /**
+     * Moves the wheel forward, handing every item that has come due to {@code expired}.
+     *
+     * @param tick    the tick to advance to
+     * @param expired called for each expired item, in no particular order
+     */
+    void advanceTo(long tick, Consumer<? super T> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            //empty the coarser slots that start at this tick into the finer levels
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                List<Entry<T>> slot = slot(level, currentTick);
+                if (!slot.isEmpty()) {
+                    List<Entry<T>> entries = new ArrayList<>(slot);
+                    slot.clear();
+                    for (Entry<T> entry : entries) {
+                        place(entry);
+                    }
+                }
+            }
+            List<Entry<T>> due = slot(0, currentTick);
+            if (!due.isEmpty()) {
+                List<Entry<T>> entries = new ArrayList<>(due);
+                due.clear();
+                for (Entry<T> entry : entries) {
+                    if (entry.deadline <= currentTick) {
+                        size--;
+                        expired.accept(entry.item);
+                    } else {
+                        //a far deadline that was parked here a lap early
+                        place(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        slot(level, entry.deadline).add(entry);
+    }
+
+    private List<Entry<T>> slot(int level, long tick) {
+        int index = (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+        return slots.get(level * SLOTS + index);
+    }
+}
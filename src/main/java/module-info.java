@@ -9,6 +9,8 @@ module lancaster.lancasterfx {
     requires javafx.fxml;
     requires java.desktop;
     requires java.sql;
+    requires java.sql.rowset;
+    requires jdk.management;
     requires mysql.connector.j;
 
     opens lancaster to javafx.fxml;
@@ -0,0 +1,11 @@
+-- Seats sold through the box-office seat maps, one row per seat of an event.
+-- The primary key stops two terminals, on this machine or another, selling the same seat.
+-- Seat rows count from 1, front to back, as in the seats table.
+CREATE TABLE IF NOT EXISTS seat_sales (
+    event_id    INT          NOT NULL,
+    seat_row    INT          NOT NULL,
+    seat_number INT          NOT NULL,
+    terminal    VARCHAR(255) NOT NULL,
+    sold_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (event_id, seat_row, seat_number)
+)
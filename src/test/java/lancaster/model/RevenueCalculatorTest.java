@@ -0,0 +1,52 @@
+package lancaster.model;
+
+import lancaster.model.RevenueCalculator.BookingType;
+import lancaster.model.RevenueCalculator.DayType;
+import lancaster.model.RevenueCalculator.VenueSpace;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the event pricing of {@link RevenueCalculator}, used when revenue is read from the database: rooms are
+ * matched to venue spaces by name, and events are charged as a booking type the tariff has a price for.
+ */
+class RevenueCalculatorTest {
+    private final RevenueCalculator calculator = new RevenueCalculator(Tariff.getInstance());
+
+    @Test
+    void matchesRoomNamesToVenueSpaces() {
+        assertEquals(VenueSpace.MAIN_HALL, RevenueCalculator.spaceOf("Main Hall"));
+        assertEquals(VenueSpace.BRONTE_BOARDROOM, RevenueCalculator.spaceOf("Brontë Boardroom"));
+        assertEquals(VenueSpace.GREEN_ROOM, RevenueCalculator.spaceOf("The Green Room"));
+        assertEquals(VenueSpace.WHOLE_VENUE, RevenueCalculator.spaceOf("Whole Venue"));
+        assertNull(RevenueCalculator.spaceOf("Car Park"));
+    }
+
+    @Test
+    void chargesATypeTheTariffPrices() {
+        DayType monday = DayType.MONDAY_TO_THURSDAY;
+        assertEquals(BookingType.EVENING,
+                calculator.chargedBookingType(VenueSpace.MAIN_HALL, monday, BookingType.EVENING));
+        //the halls have no morning or afternoon price, so those events are charged by the hour
+        assertEquals(BookingType.HOURLY,
+                calculator.chargedBookingType(VenueSpace.MAIN_HALL, monday, BookingType.MORNING_AFTERNOON));
+        //the whole venue has no hourly price either
+        assertEquals(BookingType.FULL_DAY,
+                calculator.chargedBookingType(VenueSpace.WHOLE_VENUE, monday, BookingType.HOURLY));
+    }
+
+    @Test
+    void pricesEventsOnTheTariff() {
+        DayType friday = DayType.FRIDAY_TO_SATURDAY;
+        assertEquals(2200.0, calculator.calculateEventRevenue(VenueSpace.MAIN_HALL, friday, BookingType.EVENING, 5,
+                false), 1e-9);
+        //at least three hours are charged
+        assertEquals(975.0, calculator.calculateEventRevenue(VenueSpace.MAIN_HALL, friday, BookingType.HOURLY, 2,
+                false), 1e-9);
+        //each day of a weekly booking carries a seventh of the week
+        assertEquals(1100.0 / 7, calculator.calculateEventRevenue(VenueSpace.GLOBE_ROOM, friday, BookingType.WEEKLY,
+                8, false), 1e-9);
+    }
+}
@@ -0,0 +1,115 @@
+package lancaster.model;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * A benchmark of filtering and summing revenue entries the way the revenue dashboard does when its filters change.
+ * <p>
+ * It loads a few million random entries spread over ten years and then, for a one-year range and the "Rooms"
+ * selection, compares a scan of {@link RevenueEntry} objects that parses every date and compares venue names, as
+ * {@link RevenueManager} used to filter, with the column store it now uses. Each round filters and then works out
+ * the per-venue totals, the monthly totals and the overall room hire: with the entry scan as separate maps, the way
+ * the dashboard used to, and with the column store as one {@link RevenueSummary}. A third round
+ * filters the column store for the table but reads the totals from the {@link RevenueCube}, as the
+ * dashboard now does. It prints the median and worst time of a round.
+ * </p>
+ */
+public class RevenueFilterBenchmark {
+    private static final int ROWS = 3_000_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+    private static final String[] VENUES = {
+            "Main Hall", "Small Hall", "Rehearsal Space", "Green Room", "Brontë Boardroom", "Dickens Den",
+            "Poe Parlor", "Globe Room", "Chekhov Chamber"
+    };
+    private static final String[] BOOKING_TYPES = {"HOURLY", "MORNING_AFTERNOON", "EVENING", "FULL_DAY", "WEEKLY"};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        RevenueManager manager = new RevenueManager();
+        RevenueStore store = manager.getStore();
+        store.clear();
+        List<RevenueEntry> entries = new ArrayList<>(ROWS);
+        LocalDate today = LocalDate.now();
+        Random random = new Random(42);
+        for (int i = 0; i < ROWS; i++) {
+            LocalDate date = today.minusDays(random.nextInt(3650));
+            String venue = VENUES[random.nextInt(VENUES.length)];
+            String bookingType = BOOKING_TYPES[random.nextInt(BOOKING_TYPES.length)];
+            double roomRate = random.nextInt(4000);
+            double ticketSales = random.nextInt(2000);
+            store.add(venue, date, bookingType, roomRate, ticketSales);
+            entries.add(new RevenueEntry(venue, date.toString(), bookingType, roomRate, ticketSales));
+        }
+        manager.getCube().rebuild(store);
+        LocalDate from = today.minusYears(1);
+
+        System.out.printf("%-8s %8s %10s %10s%n", "layout", "rows", "median ms", "max ms");
+        report("objects", () -> {
+            List<RevenueEntry> filtered = scanEntries(manager, entries, from, today);
+            summarise(manager, FXCollections.observableArrayList(filtered));
+            return filtered.size();
+        });
+        report("columns", () -> {
+            ObservableList<RevenueEntry> filtered = manager.getFilteredData(from, today, "Rooms");
+            manager.summarize(filtered);
+            return filtered.size();
+        });
+        report("cube", () -> {
+            ObservableList<RevenueEntry> filtered = manager.getFilteredData(from, today, "Rooms");
+            manager.summarize(from, today, "Rooms");
+            return filtered.size();
+        });
+    }
+
+    /**
+     * Filters the way {@link RevenueManager} did before it had a column store.
+     */
+    private static List<RevenueEntry> scanEntries(RevenueManager manager, List<RevenueEntry> entries,
+                                                  LocalDate from, LocalDate to) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        List<RevenueEntry> filtered = new ArrayList<>();
+        for (RevenueEntry entry : entries) {
+            LocalDate date = LocalDate.parse(entry.getDate(), formatter);
+            if (!date.isBefore(from) && !date.isAfter(to) && manager.isRoomVenue(entry.getVenue())) {
+                filtered.add(entry);
+            }
+        }
+        return filtered;
+    }
+
+    private static void summarise(RevenueManager manager, ObservableList<RevenueEntry> filtered) {
+        manager.getVenueRevenueMap(filtered);
+        manager.getMonthlyRevenueMap(filtered);
+        manager.calculateTotalRoomRate(filtered);
+    }
+
+    private static void report(String layout, IntSupplier round) {
+        int rows = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            rows = round.getAsInt();
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            rows = round.getAsInt();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-8s %8d %10.1f %10.1f%n", layout, rows, nanos[nanos.length / 2] / 1e6,
+                nanos[nanos.length - 1] / 1e6);
+    }
+}
@@ -0,0 +1,66 @@
+package lancaster.model;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A benchmark of best-available allocation on the Main Hall layout as the hall fills up.
+ * <p>
+ * For each occupancy level the benchmark marks a random share of the seats as sold, then asks the
+ * {@link SeatAllocator} for blocks of 1 to 8 seats, with and without a wheelchair place and with splitting allowed.
+ * It prints the median, 99th percentile and worst latency of an allocation and how many requests could be seated.
+ * The target is well under a millisecond even for a nearly sold-out hall.
+ * </p>
+ */
+public class SeatAllocatorBenchmark {
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 20_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        SeatingLayout layout = SeatingLayouts.getInstance().get("Main Hall", "Standard");
+        SeatStateStore seats = layout.newSeatStore();
+        SeatAllocator allocator = new SeatAllocator(seats, layout);
+        Random random = new Random(42);
+        for (int index = 0; index < seats.size(); index += 7) {
+            seats.loadSeat(seats.rowOf(index) + 1, seats.seatNumberOf(index), true, true);
+        }
+
+        System.out.printf("%-9s %9s %9s %9s %8s%n", "occupancy", "median us", "p99 us", "max us", "seated");
+        for (int percent : new int[]{0, 50, 80, 95, 99}) {
+            seats.reset();
+            for (int index = 0; index < seats.size(); index++) {
+                if (random.nextInt(100) < percent) {
+                    seats.setStatus(index, SeatStatus.RESERVED);
+                }
+            }
+            int seated = 0;
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                allocate(allocator, seats, i);
+            }
+            long[] nanos = new long[MEASURED_ROUNDS];
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                int[] block = allocate(allocator, seats, i);
+                nanos[i] = System.nanoTime() - start;
+                if (block != null) {
+                    seated++;
+                }
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%8d%% %9.1f %9.1f %9.1f %7d%%%n", percent, nanos[nanos.length / 2] / 1000.0,
+                    nanos[nanos.length * 99 / 100] / 1000.0, nanos[nanos.length - 1] / 1000.0,
+                    seated * 100 / MEASURED_ROUNDS);
+        }
+    }
+
+    private static int[] allocate(SeatAllocator allocator, SeatStateStore seats, int round) {
+        int partySize = round % 8 + 1;
+        int wheelchairPlaces = round % 3 == 0 ? 1 : 0;
+        return allocator.allocate(partySize, 0, seats.getRowCount() - 1, wheelchairPlaces, true);
+    }
+}
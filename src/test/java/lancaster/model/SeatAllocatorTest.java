@@ -0,0 +1,71 @@
+package lancaster.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SeatAllocator}: blocks are made of seats that are side by side on the plan, not just next to
+ * each other in the numbering.
+ */
+class SeatAllocatorTest {
+    private final SeatingLayout layout = SeatingLayouts.getInstance().get("Main Hall", "Standard");
+    private final SeatStateStore seats = layout.newSeatStore();
+
+    /**
+     * Leaves only the given seats of the hall available.
+     */
+    private void leaveFree(String... seatIds) {
+        for (int index = 0; index < seats.size(); index++) {
+            seats.setStatus(index, SeatStatus.RESERVED);
+        }
+        for (String seatId : seatIds) {
+            seats.setStatus(seats.indexOf(seatId), SeatStatus.AVAILABLE);
+        }
+    }
+
+    private int[] indexes(String... seatIds) {
+        int[] indexes = new int[seatIds.length];
+        for (int i = 0; i < seatIds.length; i++) {
+            indexes[i] = seats.indexOf(seatIds[i]);
+        }
+        return indexes;
+    }
+
+    @Test
+    void doesNotSeatAPartyAcrossTheCornerOfTheBalcony() {
+        int row = layout.indexOfRow("AA");
+        leaveFree("AA19", "AA20", "AA21", "AA22");
+        SeatAllocator allocator = new SeatAllocator(seats, layout);
+
+        assertNull(allocator.allocate(4, row, row, 0, false));
+        assertNull(allocator.allocate(3, row, row, 0, false));
+        int[] pair = allocator.allocate(2, row, row, 0, false);
+        assertTrue(Arrays.equals(pair, indexes("AA19", "AA20")) || Arrays.equals(pair, indexes("AA21", "AA22")),
+                "Expected AA19-AA20 or AA21-AA22 but got " + Arrays.toString(pair));
+    }
+
+    @Test
+    void doesNotSeatAPartyAcrossTheGapsInRowBB() {
+        int row = layout.indexOfRow("BB");
+        leaveFree("BB4", "BB5", "BB6", "BB7", "BB8");
+        SeatAllocator allocator = new SeatAllocator(seats, layout);
+
+        assertNull(allocator.allocate(4, row, row, 0, false));
+        assertArrayEquals(indexes("BB6", "BB7", "BB8"), allocator.allocate(3, row, row, 0, false));
+    }
+
+    @Test
+    void seatsAPartyAlongAStraightRow() {
+        int row = layout.indexOfRow("AA");
+        leaveFree("AA21", "AA22", "AA23", "AA24", "AA25");
+        SeatAllocator allocator = new SeatAllocator(seats, layout);
+
+        assertArrayEquals(indexes("AA21", "AA22", "AA23", "AA24", "AA25"),
+                allocator.allocate(5, row, row, 0, false));
+    }
+}
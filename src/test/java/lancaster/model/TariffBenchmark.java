@@ -0,0 +1,75 @@
+package lancaster.model;
+
+import lancaster.model.RevenueCalculator.BookingType;
+import lancaster.model.RevenueCalculator.DayType;
+import lancaster.model.RevenueCalculator.VenueSpace;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A benchmark of re-pricing a season of bookings with the tariff price matrix.
+ * <p>
+ * It makes a million random bookings over every venue space, day group and booking type, then prices them all
+ * once a round, either one {@link RevenueCalculator#calculateTotalRevenue} call per booking or with a single
+ * {@link RevenueCalculator#priceAll} call into a reused array. It prints the median and worst time of a round and
+ * the time per booking.
+ * </p>
+ */
+public class TariffBenchmark {
+    private static final int BOOKINGS = 1_000_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        VenueSpace[] spaces = new VenueSpace[BOOKINGS];
+        DayType[] days = new DayType[BOOKINGS];
+        BookingType[] types = new BookingType[BOOKINGS];
+        int[] hours = new int[BOOKINGS];
+        Random random = new Random(42);
+        for (int i = 0; i < BOOKINGS; i++) {
+            spaces[i] = VenueSpace.values()[random.nextInt(VenueSpace.values().length)];
+            days[i] = DayType.values()[random.nextInt(DayType.values().length)];
+            types[i] = BookingType.values()[random.nextInt(BookingType.values().length)];
+            hours[i] = 1 + random.nextInt(12);
+        }
+        RevenueCalculator calculator = new RevenueCalculator();
+        double[] quotes = new double[BOOKINGS];
+
+        System.out.printf("%-9s %10s %10s %12s%n", "pricing", "median ms", "max ms", "ns/booking");
+        report("per call", () -> {
+            double total = 0;
+            for (int i = 0; i < BOOKINGS; i++) {
+                total += calculator.calculateTotalRevenue(spaces[i], days[i], types[i], hours[i], true);
+            }
+            return total;
+        });
+        report("priceAll", () -> calculator.priceAll(spaces, days, types, hours, BOOKINGS, true, quotes));
+    }
+
+    private static void report(String pricing, Round round) {
+        double check = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            check += round.run();
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            check += round.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long median = nanos[nanos.length / 2];
+        System.out.printf("%-9s %10.2f %10.2f %12.2f%s%n", pricing, median / 1e6, nanos[nanos.length - 1] / 1e6,
+                (double) median / BOOKINGS, check == 0 ? " (nothing priced)" : "");
+    }
+
+    private interface Round {
+        double run();
+    }
+}
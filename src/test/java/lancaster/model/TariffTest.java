@@ -0,0 +1,108 @@
+package lancaster.model;
+
+import lancaster.model.RevenueCalculator.BookingType;
+import lancaster.model.RevenueCalculator.DayType;
+import lancaster.model.RevenueCalculator.VenueSpace;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link Tariff}: the bundled tariff file quotes every space, day and booking type at the prices that used
+ * to be written into {@link RevenueCalculator}.
+ */
+class TariffTest {
+    private static final int[] HOURS = {0, 1, 2, 3, 4, 7, 8, 9, 13, 24};
+
+    @Test
+    void quotesThePricesRevenueCalculatorUsedToHold() {
+        Tariff tariff = Tariff.getInstance();
+        RevenueCalculator calculator = new RevenueCalculator(tariff);
+        for (VenueSpace space : VenueSpace.values()) {
+            for (DayType day : DayType.values()) {
+                for (BookingType type : BookingType.values()) {
+                    for (int hours : HOURS) {
+                        for (boolean includeVAT : new boolean[]{false, true}) {
+                            String quote = space + " " + day + " " + type + " " + hours + "h"
+                                    + (includeVAT ? " with VAT" : "");
+                            double expected = legacyPrice(space, day, type, hours, includeVAT);
+                            assertEquals(expected, tariff.price(space, day, type, hours, includeVAT), 1e-9, quote);
+                            assertEquals(expected, calculator.calculateTotalRevenue(space, day, type, hours,
+                                    includeVAT), 1e-9, quote);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The prices as {@link RevenueCalculator} worked them out before they were moved into the tariff file.
+     */
+    private static double legacyPrice(VenueSpace space, DayType day, BookingType type, int hours, boolean includeVAT) {
+        boolean weekend = day == DayType.FRIDAY_TO_SATURDAY;
+        double price = 0.0;
+        switch (space) {
+            case WHOLE_VENUE:
+                if (type == BookingType.EVENING) {
+                    price = weekend ? 6750.0 : 6250.0;
+                } else if (type == BookingType.FULL_DAY) {
+                    price = weekend ? 9500.0 : 8500.0;
+                }
+                break;
+            case MAIN_HALL:
+                if (type == BookingType.HOURLY) {
+                    price = 325.0 * Math.max(3, hours);
+                } else if (type == BookingType.EVENING) {
+                    price = weekend ? 2200.0 : 1850.0;
+                } else if (type == BookingType.FULL_DAY) {
+                    price = weekend ? 4200.0 : 3800.0;
+                }
+                break;
+            case SMALL_HALL:
+                if (type == BookingType.HOURLY) {
+                    price = 225.0 * Math.max(3, hours);
+                } else if (type == BookingType.EVENING) {
+                    price = weekend ? 1300.0 : 950.0;
+                } else if (type == BookingType.FULL_DAY) {
+                    price = weekend ? 2500.0 : 2200.0;
+                }
+                break;
+            case REHEARSAL_SPACE:
+                if (type == BookingType.HOURLY) {
+                    price = 60.0 * Math.max(3, hours);
+                } else if (type == BookingType.FULL_DAY) {
+                    if (day == DayType.SUNDAY) {
+                        price = hours <= 7 ? 340.0 : 500.0;
+                    } else {
+                        price = hours <= 7 ? 240.0 : 450.0;
+                    }
+                } else if (type == BookingType.WEEKLY) {
+                    price = hours <= 8 ? 1000.0 : 1500.0;
+                }
+                break;
+            default:
+                //meeting rooms cost the same every day, and their hourly price was charged once
+                double[] prices = switch (space) {
+                    case GREEN_ROOM -> new double[]{25.0, 75.0, 130.0, 600.0};
+                    case BRONTE_BOARDROOM -> new double[]{40.0, 120.0, 200.0, 900.0};
+                    case DICKENS_DEN -> new double[]{30.0, 90.0, 150.0, 700.0};
+                    case POE_PARLOR -> new double[]{35.0, 100.0, 170.0, 800.0};
+                    case GLOBE_ROOM -> new double[]{50.0, 150.0, 250.0, 1100.0};
+                    case CHEKHOV_CHAMBER -> new double[]{38.0, 110.0, 180.0, 850.0};
+                    default -> throw new IllegalArgumentException("No legacy prices for " + space);
+                };
+                if (type == BookingType.HOURLY) {
+                    price = prices[0];
+                } else if (type == BookingType.MORNING_AFTERNOON) {
+                    price = prices[1];
+                } else if (type == BookingType.FULL_DAY) {
+                    price = prices[2];
+                } else if (type == BookingType.WEEKLY) {
+                    price = prices[3];
+                }
+                break;
+        }
+        return includeVAT ? price * 1.20 : price;
+    }
+}
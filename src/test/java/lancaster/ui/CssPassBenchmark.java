@@ -0,0 +1,248 @@
+package lancaster.ui;
+
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import lancaster.model.SeatStatus;
+import lancaster.model.SeatingLayout;
+import lancaster.model.SeatingLayouts;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A benchmark of the time JavaFX spends in its CSS pass when the venue calendar and the Main Hall seat map change
+ * state, comparing inline style strings with style classes and pseudo-classes.
+ * <p>
+ * Each round gives every cell or seat a new random status and then runs the CSS pass on the scene, the same work
+ * a pulse does after changing the date on the venue calendar or refreshing a seating plan. Three ways of showing
+ * the status are measured:
+ * </p>
+ * <ul>
+ *     <li><b>inline</b>: a style string is set on each node whose status changed, which JavaFX has to parse,
+ *     as the calendar and the node-per-seat seat maps used to do.</li>
+ *     <li><b>pseudo-class</b>: each node keeps a style class and only switches a pseudo-class, so the pass matches
+ *     rules that were parsed once with the stylesheet.</li>
+ *     <li><b>canvas</b> (seat map only): the {@link SeatMapCanvas} the seating views draw on, which is a single node,
+ *     so the CSS pass has almost nothing to do and the time is spent drawing the changed seats instead.</li>
+ * </ul>
+ * <p>
+ * It prints the median and 99th percentile time of a round. The scenes are never shown, but the JavaFX toolkit
+ * must be able to start, so the benchmark needs a display.
+ * </p>
+ */
+public class CssPassBenchmark {
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    // Same size as the venue calendar: one row per hour from 10:00 to midnight, one column per room
+    private static final int CALENDAR_ROWS = 14;
+    private static final int CALENDAR_COLUMNS = 9;
+
+    private static final String CALENDAR_STYLESHEET = "/css/bookingStyles.css";
+    private static final String[] SLOT_STYLES = {
+            "-fx-background-color: #E8F5E9; -fx-border-color: #E0E0E0; -fx-border-width: 0 1 1 0;",
+            "-fx-background-color: #FFF8E1; -fx-border-color: #E0E0E0; -fx-border-width: 0 1 1 0;",
+            "-fx-background-color: #FFEBEE; -fx-border-color: #E0E0E0; -fx-border-width: 0 1 1 0;"
+    };
+    private static final Color[] SLOT_TEXT_COLORS = {
+            Color.valueOf("#4CAF50"), Color.valueOf("#FFA000"), Color.valueOf("#D32F2F")
+    };
+    private static final PseudoClass[] STATUS_PSEUDO_CLASSES = {
+            PseudoClass.getPseudoClass("available"),
+            PseudoClass.getPseudoClass("reserved"),
+            PseudoClass.getPseudoClass("unavailable")
+    };
+    private static final PseudoClass SELECTED = PseudoClass.getPseudoClass("selected");
+
+    // Seat rules with the colours of SeatStatus; the seating views draw seats, so the app stylesheet has none
+    private static final String SEAT_STYLESHEET = "data:text/css;base64," + Base64.getEncoder().encodeToString((
+            ".seat { -fx-border-width: 1; -fx-background-radius: 5; -fx-border-radius: 5; }\n"
+                    + ".seat:available { -fx-background-color: #E8F5E9; -fx-border-color: #4CAF50; }\n"
+                    + ".seat:reserved { -fx-background-color: #FFF8E1; -fx-border-color: #FFA000; }\n"
+                    + ".seat:unavailable { -fx-background-color: #FFEBEE; -fx-border-color: #D32F2F; }\n"
+                    + ".seat:selected { -fx-border-color: #000000; -fx-border-width: 2; }\n"
+                    + ".seat .label { -fx-font-size: 6px; }\n").getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) throws Exception {
+        Platform.startup(() -> { });
+        try {
+            FutureTask<Void> benchmark = new FutureTask<>(CssPassBenchmark::run, null);
+            Platform.runLater(benchmark);
+            benchmark.get();
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    private static void run() {
+        SeatingLayout layout = SeatingLayouts.getInstance().get("Main Hall", "Standard");
+        System.out.printf("%-9s %-13s %6s %10s %10s%n", "view", "styling", "nodes", "median us", "p99 us");
+        report("calendar", "inline", CALENDAR_ROWS * CALENDAR_COLUMNS, calendar(false));
+        report("calendar", "pseudo-class", CALENDAR_ROWS * CALENDAR_COLUMNS, calendar(true));
+        report("seat map", "inline", layout.getSeatCount(), seatNodes(layout, false));
+        report("seat map", "pseudo-class", layout.getSeatCount(), seatNodes(layout, true));
+        report("seat map", "canvas", 1, seatCanvas(layout));
+    }
+
+    /**
+     * Measures the venue calendar grid: a cell with a status label for every room and hour.
+     */
+    private static long[] calendar(boolean pseudoClasses) {
+        GridPane grid = new GridPane();
+        StackPane[] cells = new StackPane[CALENDAR_ROWS * CALENDAR_COLUMNS];
+        Label[] labels = new Label[cells.length];
+        int[] statuses = new int[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            labels[i] = new Label();
+            labels[i].getStyleClass().add("venue-slot-status");
+            cells[i] = new StackPane(labels[i]);
+            cells[i].getStyleClass().add("venue-slot");
+            statuses[i] = -1;
+            grid.add(cells[i], i % CALENDAR_COLUMNS, i / CALENDAR_COLUMNS);
+        }
+        Scene scene = new Scene(grid);
+        scene.getStylesheets().add(CssPassBenchmark.class.getResource(CALENDAR_STYLESHEET).toExternalForm());
+
+        Random random = new Random(42);
+        return measure(grid, () -> {
+            for (int i = 0; i < cells.length; i++) {
+                int status = random.nextInt(SLOT_STYLES.length);
+                if (status == statuses[i]) {
+                    continue;
+                }
+                statuses[i] = status;
+                if (pseudoClasses) {
+                    for (int state = 0; state < STATUS_PSEUDO_CLASSES.length; state++) {
+                        cells[i].pseudoClassStateChanged(STATUS_PSEUDO_CLASSES[state], state == status);
+                    }
+                } else {
+                    cells[i].setStyle(SLOT_STYLES[status]);
+                    labels[i].setTextFill(SLOT_TEXT_COLORS[status]);
+                }
+                labels[i].setText(SeatStatus.values()[status].name());
+            }
+        });
+    }
+
+    /**
+     * Measures a seat map built from one labelled pane per seat, the way the seating views were built before they
+     * drew on a canvas.
+     */
+    private static long[] seatNodes(SeatingLayout layout, boolean pseudoClasses) {
+        Pane map = new Pane();
+        StackPane[] seats = new StackPane[layout.getSeatCount()];
+        int[] statuses = new int[seats.length];
+        for (int seat = 0; seat < seats.length; seat++) {
+            seats[seat] = new StackPane(new Label(layout.getSeatLabel(seat)));
+            seats[seat].getStyleClass().add("seat");
+            seats[seat].relocate(layout.getSeatX(seat), layout.getSeatY(seat));
+            seats[seat].setPrefSize(layout.getSeatWidth(), layout.getSeatHeight());
+            statuses[seat] = -1;
+            map.getChildren().add(seats[seat]);
+        }
+        Scene scene = new Scene(map);
+        scene.getStylesheets().add(SEAT_STYLESHEET);
+
+        Random random = new Random(42);
+        return measure(map, () -> {
+            for (int seat = 0; seat < seats.length; seat++) {
+                //status in the low bits, selection in bit 2
+                int status = randomSeatStatus(random);
+                if (status == statuses[seat]) {
+                    continue;
+                }
+                statuses[seat] = status;
+                SeatStatus seatStatus = SeatStatus.values()[status & 3];
+                boolean selected = (status & 4) != 0;
+                if (pseudoClasses) {
+                    for (int state = 0; state < STATUS_PSEUDO_CLASSES.length; state++) {
+                        seats[seat].pseudoClassStateChanged(STATUS_PSEUDO_CLASSES[state], state == (status & 3));
+                    }
+                    seats[seat].pseudoClassStateChanged(SELECTED, selected);
+                } else {
+                    seats[seat].setStyle("-fx-background-color: " + seatStatus.getBackgroundColor()
+                            + "; -fx-border-color: " + (selected ? "#000000" : seatStatus.getBorderColor())
+                            + "; -fx-border-width: " + (selected ? 2 : 1)
+                            + "; -fx-background-radius: 5; -fx-border-radius: 5;");
+                }
+            }
+        });
+    }
+
+    /**
+     * Measures the seat map the seating views use, which draws every seat on one canvas.
+     */
+    private static long[] seatCanvas(SeatingLayout layout) {
+        SeatMapCanvas canvas = new SeatMapCanvas();
+        canvas.setLayout(layout);
+        Pane map = new Pane(canvas);
+        new Scene(map);
+
+        Random random = new Random(42);
+        return measure(map, () -> {
+            for (int seat = 0; seat < layout.getSeatCount(); seat++) {
+                int status = randomSeatStatus(random);
+                SeatStatus seatStatus = SeatStatus.values()[status & 3];
+                canvas.setSeatColors(seat, seatStatus.getFill(), seatStatus.getStroke());
+                canvas.setSelected(seat, (status & 4) != 0);
+            }
+            canvas.redraw();
+        });
+    }
+
+    /**
+     * Picks a seat state for a fairly full hall: the status in the low two bits and whether it is selected in bit 2.
+     */
+    private static int randomSeatStatus(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 60) {
+            return SeatStatus.RESERVED.ordinal();
+        }
+        if (roll < 65) {
+            return SeatStatus.UNAVAILABLE.ordinal();
+        }
+        return roll < 70 ? SeatStatus.AVAILABLE.ordinal() | 4 : SeatStatus.AVAILABLE.ordinal();
+    }
+
+    /**
+     * Times rounds of a state change followed by the CSS pass over the root.
+     *
+     * @return the time of each measured round in nanoseconds, sorted
+     */
+    private static long[] measure(Parent root, Runnable change) {
+        root.applyCss();
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            change.run();
+            root.applyCss();
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            change.run();
+            root.applyCss();
+            nanos[round] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void report(String view, String styling, int nodes, long[] nanos) {
+        System.out.printf("%-9s %-13s %6d %10.1f %10.1f%n", view, styling, nodes,
+                nanos[nanos.length / 2] / 1000.0, nanos[nanos.length * 99 / 100] / 1000.0);
+    }
+}
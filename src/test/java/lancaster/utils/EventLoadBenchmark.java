@@ -0,0 +1,135 @@
+package lancaster.utils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A benchmark that shows how loading a day of events scales with the number of events on that day.
+ * <p>
+ * For every date in the {@code events} table the benchmark loads the day in two ways:
+ * <ul>
+ *   <li>the old way, one query for the events and then a {@link DBUtils#getRoomName(int)} call per event (N+1),
+ *   each borrowing its own connection from the pool as the {@code Event} constructor did</li>
+ *   <li>the current way, a call to {@link DBUtils#getEventForDay(Date)}, which joins the room names</li>
+ * </ul>
+ * It prints the number of queries and the median latency of each approach, ordered by events per day.
+ * The benchmark only reads, so it is safe to run against a live database.
+ * </p>
+ */
+public class EventLoadBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 15;
+
+    private static final String EVENTS_QUERY = "SELECT * FROM events WHERE event_date = ?";
+
+    /**
+     * Runs the benchmark against the database in {@code config.properties}.
+     *
+     * @param args optional maximum number of dates to measure (default 20)
+     * @throws SQLException if a database access error occurs
+     * @throws IOException if the config file cannot be read
+     * @throws ClassNotFoundException if the JDBC driver class is not found
+     */
+    public static void main(String[] args) throws SQLException, IOException, ClassNotFoundException {
+        int maxDates = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        ConnectionPool pool = ConnectionPool.getInstance();
+        DBUtils db = new DBUtils();
+
+        List<Date> dates;
+        try (Connection connection = pool.getConnection()) {
+            dates = sampleDates(connection, maxDates);
+        }
+
+        System.out.printf("%-12s %8s %12s %12s %14s %14s%n",
+                "date", "events", "queries N+1", "queries join", "median N+1 ms", "median join ms");
+        for (Date date : dates) {
+            int events = 0;
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                loadWithRoomLookups(pool, db, date);
+                db.getEventForDay(date);
+            }
+
+            long[] nPlusOne = new long[MEASURED_ROUNDS];
+            long[] joined = new long[MEASURED_ROUNDS];
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                events = loadWithRoomLookups(pool, db, date);
+                nPlusOne[i] = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                db.getEventForDay(date);
+                joined[i] = System.nanoTime() - start;
+            }
+
+            //one query for the events, then one per event for its room name; the join is always a single query
+            System.out.printf("%-12s %8d %12d %12d %14.2f %14.2f%n", date, events,
+                    events + 1, 1, median(nPlusOne) / 1e6, median(joined) / 1e6);
+        }
+        System.out.printf("statement cache: %d hits, %d misses%n",
+                pool.getStatementCacheHits(), pool.getStatementCacheMisses());
+        pool.shutdown();
+    }
+
+    /**
+     * Picks dates that have events, spread from the quietest day to the busiest.
+     *
+     * @param connection the connection to query with
+     * @param maxDates   the most dates to return
+     * @return dates ordered by number of events
+     * @throws SQLException if a database access error occurs
+     */
+    private static List<Date> sampleDates(Connection connection, int maxDates) throws SQLException {
+        List<Date> all = new ArrayList<>();
+        String query = "SELECT event_date, COUNT(*) AS n FROM events GROUP BY event_date ORDER BY n, event_date";
+        try (PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                all.add(rs.getDate("event_date"));
+            }
+        }
+
+        if (all.size() <= maxDates) {
+            return all;
+        }
+        List<Date> sample = new ArrayList<>();
+        for (int i = 0; i < maxDates; i++) {
+            sample.add(all.get(i * (all.size() - 1) / (maxDates - 1)));
+        }
+        return sample;
+    }
+
+    /**
+     * Loads a day the way the {@code Event} constructor used to, with a room-name lookup per event. Each lookup goes
+     * through {@link DBUtils#getRoomName(int)} and so borrows a connection of its own.
+     */
+    private static int loadWithRoomLookups(ConnectionPool pool, DBUtils db, Date date) throws SQLException {
+        List<Integer> roomIds = new ArrayList<>();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(EVENTS_QUERY)) {
+            stmt.setDate(1, date);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    roomIds.add(rs.getInt("room_id"));
+                }
+            }
+        }
+        for (int roomId : roomIds) {
+            db.getRoomName(roomId);
+        }
+        return roomIds.size();
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,80 @@
+package lancaster.utils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A benchmark of writing a large revenue export with {@link RevenueExporter}.
+ * <p>
+ * It feeds ten years of made-up events, several million rows, through the exporter in each format in turn, the way
+ * the database cursor would, and prints the rows per second, the size of the file and the most heap in use at any
+ * point, which should stay flat however many rows are written. No database is needed.
+ * </p>
+ */
+public class RevenueExportBenchmark {
+    private static final int DAYS = 3650;
+    private static final int EVENTS_PER_DAY = 1500;
+    private static final String[] VENUES = {
+            "Main Hall", "Small Hall", "Rehearsal Space", "Green Room", "Brontë Boardroom", "Dickens Den",
+            "Poe Parlor", "Globe Room", "Chekhov Chamber"
+    };
+    private static final String[] EVENTS = {
+            "Friday Night Concert", "Corporate Meeting", "Wedding Reception", "Film \"Noir\" Night", "Talks, Q&A"
+    };
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args unused
+     * @throws IOException if the export file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("revenue-export", ".tmp");
+        try {
+            System.out.printf("%-11s %10s %10s %10s %10s%n", "format", "rows", "rows/s", "MB", "peak heap MB");
+            for (RevenueExporter.Format format : RevenueExporter.Format.values()) {
+                resetPeakHeap();
+                RevenueExporter.Progress done = new RevenueExporter(format, file).write(handler -> {
+                    LocalDate first = LocalDate.now().minusDays(DAYS);
+                    for (int day = 0; day < DAYS; day++) {
+                        LocalDate date = first.plusDays(day);
+                        for (int i = 0; i < EVENTS_PER_DAY; i++) {
+                            LocalTime start = LocalTime.of(8 + i % 12, 0);
+                            handler.accept(date, EVENTS[i % EVENTS.length], VENUES[i % VENUES.length], start,
+                                    start.plusHours(1 + i % 3), 75.0 * (1 + i % 3));
+                        }
+                    }
+                }, progress -> { });
+                System.out.printf("%-11s %10d %10.0f %10.1f %10.1f%n", format, done.rows(), done.rowsPerSecond(),
+                        done.bytes() / 1e6, peakHeap() / 1e6);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,89 @@
+package lancaster.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests of {@link RevenueExporter} against the MySQL database in {@code config.properties}: the rows are streamed
+ * with the driver's streaming fetch size, and cancelling an export cancels the query and gives the connection back
+ * in a usable state.
+ * <p>
+ * They need a database with events in it, so they only run when asked for:
+ * {@code mvn test -Dlancaster.db.tests=true -Dtest=RevenueExporterDatabaseTest}.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "lancaster.db.tests", matches = "true")
+class RevenueExporterDatabaseTest {
+    private static final LocalDate FROM = LocalDate.of(1900, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2999, 12, 31);
+
+    @TempDir
+    Path dir;
+
+    private DBUtils db;
+    private long events;
+
+    @BeforeEach
+    void countEvents() throws Exception {
+        db = new DBUtils();
+        String query = "SELECT COUNT(*) FROM events e JOIN rooms r ON e.room_id = r.room_id "
+                + "WHERE e.event_date BETWEEN ? AND ?";
+        try (Connection connection = ConnectionPool.getInstance().getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setDate(1, java.sql.Date.valueOf(FROM));
+            statement.setDate(2, java.sql.Date.valueOf(TO));
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                events = rs.getLong(1);
+            }
+        }
+    }
+
+    @Test
+    void exportsEveryEventOfTheRange() throws Exception {
+        Path file = dir.resolve("revenue.csv");
+
+        RevenueExporter.Progress done = new RevenueExporter(RevenueExporter.Format.CSV, file)
+                .export(db, FROM, TO, null, progress -> { });
+
+        assertEquals(events, done.rows());
+        //a header row and one row per event
+        assertEquals(events + 1, Files.readAllLines(file).size());
+    }
+
+    @Test
+    void cancellingStopsTheQueryAndFreesTheConnection() throws Exception {
+        assumeTrue(events > 1, "needs at least two events to cancel part way");
+        Path file = dir.resolve("revenue.csv");
+        RevenueExporter exporter = new RevenueExporter(RevenueExporter.Format.CSV, file);
+        int active = ConnectionPool.getInstance().getActiveCount();
+
+        assertThrows(CancellationException.class, () -> exporter.write(handler ->
+                db.streamEventRevenue(FROM, TO, null, (date, event, venue, start, end, roomHire) -> {
+                    handler.accept(date, event, venue, start, end, roomHire);
+                    exporter.cancel();
+                }), progress -> { }));
+
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(dir.resolve("revenue.csv.part")));
+        assertEquals(active, ConnectionPool.getInstance().getActiveCount());
+        //the returned connection has no unread streaming result left on it
+        assertNotNull(db.getEventForDay(java.sql.Date.valueOf(LocalDate.now())));
+    }
+}
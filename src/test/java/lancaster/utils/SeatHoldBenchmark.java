@@ -0,0 +1,114 @@
+package lancaster.utils;
+
+import lancaster.model.SeatStateStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A benchmark of the {@link SeatHoldService} under many terminals working on one event.
+ * <p>
+ * Every thread plays a terminal that holds random seats of a Main Hall sized layout and releases them again, as
+ * staff clicking seats on and off would. The benchmark prints the hold and release operations per second, and
+ * checks that no seat was ever held by two terminals at once. It then holds a batch of seats with a short expiry
+ * and reports how long it took until the expiry thread had freed them all. Nothing is written to the database.
+ * </p>
+ */
+public class SeatHoldBenchmark {
+    private static final int EVENT_ID = 1;
+    private static final int SEATS = 393; // Seats in the Main Hall layout.
+    private static final long RUN_MS = 3000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of terminal threads (default 8)
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        SeatHoldService service = new SeatHoldService((eventId, terminal, layout, seats) -> { });
+        SeatStateStore layout = new SeatStateStore(new String[]{"A"}, new int[]{SEATS});
+
+        AtomicIntegerArray owners = new AtomicIntegerArray(SEATS);
+        AtomicInteger doubleHolds = new AtomicInteger();
+        LongAdder holds = new LongAdder();
+        LongAdder failedHolds = new LongAdder();
+        LongAdder releases = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.currentTimeMillis() + RUN_MS;
+
+        List<Thread> terminals = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int terminalNumber = t + 1;
+            String terminal = "terminal-" + terminalNumber;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(terminalNumber);
+                List<SeatHoldService.Hold> held = new ArrayList<>();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.currentTimeMillis() < deadline) {
+                    for (int i = 0; i < 1000; i++) {
+                        if (held.size() < 4 && random.nextBoolean()) {
+                            int seat = random.nextInt(SEATS);
+                            SeatHoldService.Hold hold = service.hold(EVENT_ID, layout, terminal, new int[]{seat}, 60_000);
+                            if (hold == null) {
+                                failedHolds.increment();
+                            } else {
+                                if (!owners.compareAndSet(seat, 0, terminalNumber)) {
+                                    doubleHolds.incrementAndGet();
+                                }
+                                held.add(hold);
+                                holds.increment();
+                            }
+                        } else if (!held.isEmpty()) {
+                            SeatHoldService.Hold hold = held.remove(random.nextInt(held.size()));
+                            owners.set(hold.getSeats()[0], 0);
+                            service.release(hold);
+                            releases.increment();
+                        }
+                    }
+                }
+                for (SeatHoldService.Hold hold : held) {
+                    owners.set(hold.getSeats()[0], 0);
+                    service.release(hold);
+                }
+            });
+            terminals.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : terminals) {
+            thread.join();
+        }
+
+        double seconds = RUN_MS / 1000.0;
+        System.out.printf("%d terminals, %d seats: %,.0f holds/s, %,.0f refused holds/s, %,.0f releases/s%n",
+                threads, SEATS, holds.sum() / seconds, failedHolds.sum() / seconds, releases.sum() / seconds);
+        System.out.println("seats held by two terminals at once: " + doubleHolds.get());
+
+        int[] all = new int[SEATS];
+        for (int seat = 0; seat < SEATS; seat++) {
+            all[seat] = seat;
+        }
+        long expiryStart = System.currentTimeMillis();
+        SeatHoldService.Hold expiring = service.hold(EVENT_ID, layout, "terminal-expiry", all, 500);
+        if (expiring == null) {
+            System.out.println("could not hold every seat; some holds were not released");
+        } else {
+            while (expiring.isActive() || !service.isFree(EVENT_ID, SEATS - 1)) {
+                Thread.sleep(10);
+            }
+            System.out.printf("hold with a 500 ms expiry freed after %d ms%n", System.currentTimeMillis() - expiryStart);
+        }
+        service.shutdown();
+    }
+}
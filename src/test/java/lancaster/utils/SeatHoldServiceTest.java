@@ -0,0 +1,263 @@
+package lancaster.utils;
+
+import lancaster.model.SeatStateStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SeatHoldService}: claims are all or nothing, holds expire on the timing wheel, and releasing an
+ * old hold never frees a seat another terminal has since taken.
+ */
+class SeatHoldServiceTest {
+    private static final long LONG_TTL_MS = 60_000;
+    private static final int EVENT = 7;
+
+    private final SeatStateStore layout = new SeatStateStore(new String[]{"A", "B", "C"}, new int[]{40, 40, 50});
+    private final List<int[]> persisted = new ArrayList<>();
+    private SeatHoldService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private SeatHoldService newService() {
+        service = new SeatHoldService((eventId, terminal, store, seats) -> {
+            synchronized (persisted) {
+                persisted.add(seats);
+            }
+        });
+        return service;
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting until " + what);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void holdsEverySeatOrNone() {
+        SeatHoldService holds = newService();
+        SeatHoldService.Hold first = holds.hold(EVENT, layout, "t1", new int[]{1, 2, 3}, LONG_TTL_MS);
+        assertNotNull(first);
+
+        //seat 3 is taken, so 64 and 65 must not stay claimed either
+        assertNull(holds.hold(EVENT, layout, "t2", new int[]{64, 65, 3}, LONG_TTL_MS));
+        assertTrue(holds.isFree(EVENT, 64));
+        assertTrue(holds.isFree(EVENT, 65));
+        assertTrue(holds.isHeldBy(EVENT, 3, "t1"));
+        assertFalse(holds.isHeldBy(EVENT, 3, "t2"));
+
+        assertNotNull(holds.hold(EVENT, layout, "t2", new int[]{64, 65}, LONG_TTL_MS));
+    }
+
+    @Test
+    void keepsEventsApart() {
+        SeatHoldService holds = newService();
+        assertNotNull(holds.hold(1, layout, "t1", new int[]{5}, LONG_TTL_MS));
+        assertNotNull(holds.hold(2, layout, "t1", new int[]{5}, LONG_TTL_MS));
+        assertFalse(holds.isFree(1, 5));
+        assertTrue(holds.isFree(3, 5));
+    }
+
+    @Test
+    void rejectsALayoutOfAnotherSize() {
+        SeatHoldService holds = newService();
+        holds.hold(EVENT, layout, "t1", new int[]{0}, LONG_TTL_MS);
+        SeatStateStore smaller = new SeatStateStore(new String[]{"A"}, new int[]{10});
+
+        assertThrows(IllegalArgumentException.class,
+                () -> holds.hold(EVENT, smaller, "t1", new int[]{1}, LONG_TTL_MS));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> holds.hold(EVENT, layout, "t1", new int[]{layout.size()}, LONG_TTL_MS));
+    }
+
+    @Test
+    void releaseFreesTheSeatsOnce() {
+        SeatHoldService holds = newService();
+        SeatHoldService.Hold hold = holds.hold(EVENT, layout, "t1", new int[]{10, 11}, LONG_TTL_MS);
+
+        assertTrue(holds.release(hold));
+        assertFalse(holds.release(hold));
+        assertFalse(hold.isActive());
+        assertTrue(holds.isFree(EVENT, 10));
+        assertTrue(holds.isFree(EVENT, 11));
+    }
+
+    @Test
+    void unconfirmedHoldsExpire() throws InterruptedException {
+        SeatHoldService holds = newService();
+        SeatHoldService.Hold hold = holds.hold(EVENT, layout, "t1", new int[]{20, 21}, 150);
+
+        await(() -> holds.isFree(EVENT, 20) && holds.isFree(EVENT, 21), "the hold expires");
+        assertFalse(hold.isActive());
+        assertFalse(holds.release(hold));
+        assertNotNull(holds.hold(EVENT, layout, "t2", new int[]{20, 21}, LONG_TTL_MS));
+    }
+
+    @Test
+    void confirmSellsTheSeatsInOneBatch() throws Exception {
+        SeatHoldService holds = newService();
+        SeatHoldService.Hold a = holds.hold(EVENT, layout, "t1", new int[]{30}, LONG_TTL_MS);
+        SeatHoldService.Hold b = holds.hold(EVENT, layout, "t1", new int[]{31, 32}, LONG_TTL_MS);
+
+        holds.confirm(List.of(a, b)).get(5, TimeUnit.SECONDS);
+
+        assertTrue(a.isConfirmed());
+        assertTrue(b.isConfirmed());
+        assertEquals(1, persisted.size());
+        assertArrayEquals(new int[]{30, 31, 32}, persisted.get(0));
+        assertTrue(holds.isSold(EVENT, 31));
+        assertFalse(holds.isFree(EVENT, 31));
+        assertFalse(holds.release(a));
+    }
+
+    @Test
+    void failedWriteReleasesTheHolds() throws InterruptedException {
+        service = new SeatHoldService((eventId, terminal, store, seats) -> {
+            throw new IllegalStateException("duplicate seat");
+        });
+        SeatHoldService.Hold hold = service.hold(EVENT, layout, "t1", new int[]{40, 41}, LONG_TTL_MS);
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> service.confirm(List.of(hold)).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertFalse(hold.isActive());
+        assertTrue(service.isFree(EVENT, 40));
+        assertFalse(service.isSold(EVENT, 40));
+    }
+
+    @Test
+    void failedWriteKeepsTheEventsAlreadyWritten() throws InterruptedException {
+        service = new SeatHoldService((eventId, terminal, store, seats) -> {
+            if (eventId != EVENT) {
+                throw new IllegalStateException("duplicate seat");
+            }
+        });
+        SeatHoldService.Hold written = service.hold(EVENT, layout, "t1", new int[]{60}, LONG_TTL_MS);
+        SeatHoldService.Hold failed = service.hold(EVENT + 1, layout, "t1", new int[]{60}, LONG_TTL_MS);
+
+        assertThrows(ExecutionException.class,
+                () -> service.confirm(List.of(written, failed)).get(5, TimeUnit.SECONDS));
+
+        assertTrue(written.isConfirmed());
+        assertTrue(service.isSold(EVENT, 60));
+        assertFalse(failed.isActive());
+        assertTrue(service.isFree(EVENT + 1, 60));
+    }
+
+    @Test
+    void confirmWithAnInactiveHoldKeepsTheOthersAndTheirExpiry() throws InterruptedException {
+        SeatHoldService holds = newService();
+        SeatHoldService.Hold kept = holds.hold(EVENT, layout, "t1", new int[]{50}, 300);
+        SeatHoldService.Hold released = holds.hold(EVENT, layout, "t1", new int[]{51}, LONG_TTL_MS);
+        holds.release(released);
+
+        assertThrows(ExecutionException.class,
+                () -> holds.confirm(List.of(kept, released)).get(5, TimeUnit.SECONDS));
+
+        assertTrue(kept.isActive());
+        assertTrue(persisted.isEmpty());
+        await(() -> holds.isFree(EVENT, 50), "the kept hold expires");
+        assertFalse(kept.isActive());
+    }
+
+    @Test
+    void soldSeatsLoadedFromTheDatabaseCannotBeHeld() throws Exception {
+        service = new SeatHoldService(new SeatHoldService.Persister() {
+            @Override
+            public void persist(int eventId, String terminal, SeatStateStore store, int[] seats) {
+            }
+
+            @Override
+            public int[] loadSold(int eventId, SeatStateStore store) {
+                return eventId == EVENT ? new int[]{store.indexOf("B3"), store.indexOf("C50")} : new int[0];
+            }
+        });
+
+        int[] sold = service.loadSoldSeats(EVENT, layout).get(5, TimeUnit.SECONDS);
+
+        assertArrayEquals(new int[]{42, 129}, sold);
+        assertTrue(service.isSold(EVENT, 42));
+        assertNull(service.hold(EVENT, layout, "t1", new int[]{41, 42}, LONG_TTL_MS));
+        assertTrue(service.isFree(EVENT, 41));
+        assertNotNull(service.hold(EVENT + 1, layout, "t1", new int[]{42}, LONG_TTL_MS));
+    }
+
+    @Test
+    void releasingAnOldHoldNeverFreesANewOne() throws InterruptedException {
+        SeatHoldService holds = newService();
+        int threads = 4;
+        int rounds = 20_000;
+        int seat = 63;
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger won = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String terminal = "t" + t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < rounds; i++) {
+                    SeatHoldService.Hold hold = holds.hold(EVENT, layout, terminal, new int[]{seat, seat + 1},
+                            LONG_TTL_MS);
+                    if (hold == null) {
+                        continue;
+                    }
+                    won.incrementAndGet();
+                    if (holders.incrementAndGet() != 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    if (!holds.isHeldBy(EVENT, seat, terminal)) {
+                        overlaps.incrementAndGet();
+                    }
+                    holders.decrementAndGet();
+                    holds.release(hold);
+                    //a second release of the old hold must not touch whoever holds the seat now
+                    holds.release(hold);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(0, overlaps.get());
+        assertTrue(won.get() > 0);
+        assertTrue(holds.isFree(EVENT, seat));
+        assertTrue(holds.isFree(EVENT, seat + 1));
+    }
+}
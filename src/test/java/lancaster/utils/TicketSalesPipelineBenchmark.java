@@ -0,0 +1,84 @@
+package lancaster.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * A benchmark of pulling a large ticket-sale feed through the {@link TicketSalesPipeline}.
+ * <p>
+ * It writes a directory of made-up ticket-sale files, a few million records over a year of performances, and pulls
+ * the whole feed with one parsing worker and then with four, into a sink that only adds up the amounts. It prints
+ * the records per second of each pull and checks that every sale arrived.
+ * </p>
+ */
+public class TicketSalesPipelineBenchmark {
+    private static final int FILES = 8;
+    private static final int RECORDS_PER_FILE = 400_000;
+    private static final String[] VENUES = {"Main Hall", "Small Hall", "Rehearsal Space", "Globe Room"};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args unused
+     * @throws IOException if the feed cannot be written
+     * @throws ExecutionException if a pull fails
+     * @throws InterruptedException if interrupted while waiting for a pull
+     */
+    public static void main(String[] args) throws IOException, ExecutionException, InterruptedException {
+        Path feed = Files.createTempDirectory("ticket-sales");
+        try {
+            long expected = writeFeed(feed);
+            System.out.printf("%-8s %10s %12s %8s%n", "workers", "records", "records/s", "total ok");
+            for (int workers : new int[]{1, 4}) {
+                TicketSalesPipeline pipeline = new TicketSalesPipeline(new FileTicketSaleSource(feed), workers);
+                long[] pennies = new long[1];
+                TicketSalesPipeline.Result result = pipeline.pull(batch -> {
+                    for (TicketSalesPipeline.TicketSale sale : batch) {
+                        pennies[0] += Math.round(sale.amount() * 100);
+                    }
+                }).get();
+                pipeline.shutdown();
+                System.out.printf("%-8d %10d %12.0f %8s%n", workers, result.sales(),
+                        result.sales() * 1e9 / result.elapsedNanos(), pennies[0] == expected);
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(feed)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(feed);
+        }
+    }
+
+    /**
+     * Writes the feed files.
+     * @return  The total amount of the sales in pennies
+     */
+    private static long writeFeed(Path feed) throws IOException {
+        Random random = new Random(42);
+        LocalDate first = LocalDate.now().minusYears(1);
+        long pennies = 0;
+        for (int file = 0; file < FILES; file++) {
+            try (BufferedWriter out = Files.newBufferedWriter(feed.resolve("sales-" + file + ".csv"),
+                    StandardCharsets.UTF_8)) {
+                out.write("date,venue,tickets,amount\n");
+                for (int i = 0; i < RECORDS_PER_FILE; i++) {
+                    int tickets = 1 + random.nextInt(6);
+                    int amount = tickets * (1000 + random.nextInt(4000));
+                    pennies += amount;
+                    out.write(first.plusDays(random.nextInt(365)) + "," + VENUES[random.nextInt(VENUES.length)] + ","
+                            + tickets + "," + amount / 100 + "." + String.format("%02d", amount % 100) + "\n");
+                }
+            }
+        }
+        return pennies;
+    }
+}
@@ -0,0 +1,170 @@
+package lancaster.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TicketSalesPipeline}: a pull that fails part way applies nothing, the next pull applies every sale
+ * exactly once, and the first error reported is the earliest in the feed.
+ */
+class TicketSalesPipelineTest {
+    private Path feed;
+    private TicketSalesPipeline pipeline;
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+        if (feed != null) {
+            try (Stream<Path> files = Files.list(feed)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(feed);
+        }
+    }
+
+    /**
+     * A directory feed that fails while reading the file named {@code broken}, as long as that file exists.
+     */
+    private static final class FailingSource implements TicketSaleSource {
+        private final FileTicketSaleSource files;
+
+        private FailingSource(Path directory) {
+            this.files = new FileTicketSaleSource(directory);
+        }
+
+        @Override
+        public void read(LineHandler handler) throws IOException, InterruptedException {
+            try {
+                files.read((source, lineNumber, line) -> {
+                    if (source.equals("broken")) {
+                        throw new UncheckedIOException(new IOException("Feed disconnected"));
+                    }
+                    handler.accept(source, lineNumber, line);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        @Override
+        public void commit() {
+            files.commit();
+        }
+    }
+
+    private static double total(List<TicketSalesPipeline.TicketSale> sales) {
+        return sales.stream().mapToDouble(TicketSalesPipeline.TicketSale::amount).sum();
+    }
+
+    private static void write(Path file, int records) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < records; i++) {
+            lines.append("2025-04-").append(10 + i % 5).append(",Main Hall,1,10.00\n");
+        }
+        Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void failedPullAppliesNothingAndIsReadAgain() throws Exception {
+        feed = Files.createTempDirectory("ticket-sales");
+        write(feed.resolve("a-first"), 10_000);
+        write(feed.resolve("broken"), 1);
+        pipeline = new TicketSalesPipeline(new FailingSource(feed), 2);
+        List<List<TicketSalesPipeline.TicketSale>> applied = new ArrayList<>();
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> pipeline.pull(applied::add).get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof IOException);
+        assertTrue(applied.isEmpty());
+
+        Files.delete(feed.resolve("broken"));
+        TicketSalesPipeline.Result result = pipeline.pull(applied::add).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, applied.size());
+        assertEquals(10_000, result.sales());
+        assertEquals(100_000.0, total(applied.get(0)), 1e-6);
+        //summed by date and venue across the whole pull
+        assertEquals(5, applied.get(0).size());
+    }
+
+    @Test
+    void failedSinkKeepsTheSourceWhereItWas() throws Exception {
+        feed = Files.createTempDirectory("ticket-sales");
+        write(feed.resolve("sales"), 100);
+        pipeline = new TicketSalesPipeline(new FileTicketSaleSource(feed), 1);
+
+        assertThrows(ExecutionException.class, () -> pipeline.pull(sales -> {
+            throw new IllegalStateException("Not now");
+        }).get(10, TimeUnit.SECONDS));
+
+        List<Double> totals = new ArrayList<>();
+        pipeline.pull(sales -> totals.add(total(sales))).get(10, TimeUnit.SECONDS);
+        write(feed.resolve("sales"), 3);
+        pipeline.pull(sales -> totals.add(total(sales))).get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(1000.0, 30.0), totals);
+    }
+
+    @Test
+    void reportsTheEarliestRejectedRecord() throws Exception {
+        //the first file is a full chunk of bad records and the second a single one, so the second file's batch is
+        //normally merged first
+        pipeline = new TicketSalesPipeline(new TicketSaleSource() {
+            @Override
+            public void read(LineHandler handler) throws InterruptedException {
+                for (int line = 1; line <= 4096; line++) {
+                    handler.accept("a", line, "2025-04-10,Main Hall,1,unpaid");
+                }
+                handler.accept("b", 1, "2025-04-10,Main Hall,1,unpaid");
+            }
+
+            @Override
+            public void commit() {
+            }
+        }, 2);
+
+        TicketSalesPipeline.Result result = pipeline.pull(sales -> { }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(4097, result.rejected());
+        assertTrue(result.firstError().startsWith("a line 1:"), result.firstError());
+    }
+
+    @Test
+    void appliesTheSalesOnTheExecutorGiven() throws Exception {
+        feed = Files.createTempDirectory("ticket-sales");
+        write(feed.resolve("sales"), 10);
+        pipeline = new TicketSalesPipeline(new FileTicketSaleSource(feed), 1);
+        ExecutorService applier = Executors.newSingleThreadExecutor(task -> new Thread(task, "applier"));
+        List<String> threads = new ArrayList<>();
+
+        try {
+            pipeline.pull(sales -> threads.add(Thread.currentThread().getName()), applier).get(10, TimeUnit.SECONDS);
+        } finally {
+            applier.shutdown();
+        }
+
+        assertEquals(List.of("applier"), threads);
+    }
+}
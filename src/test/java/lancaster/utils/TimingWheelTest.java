@@ -0,0 +1,150 @@
+package lancaster.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TimingWheel}: every item must expire on exactly the tick it is due, whichever level it was
+ * parked on and however many times it was cascaded.
+ */
+class TimingWheelTest {
+
+    /**
+     * Advances the wheel one tick at a time and records the tick each item expired on.
+     */
+    private static Map<String, Long> expireAll(TimingWheel<String> wheel, long until) {
+        Map<String, Long> expiredAt = new HashMap<>();
+        while (wheel.getCurrentTick() < until) {
+            wheel.advanceTo(wheel.getCurrentTick() + 1, item -> {
+                Long previous = expiredAt.put(item, wheel.getCurrentTick());
+                assertNull(previous, item + " expired twice");
+            });
+        }
+        return expiredAt;
+    }
+
+    @Test
+    void expiresNearDeadlineOnItsTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000);
+        wheel.schedule("a", 1001);
+        wheel.schedule("b", 1063);
+        assertEquals(2, wheel.size());
+
+        Map<String, Long> expiredAt = expireAll(wheel, 1100);
+
+        assertEquals(1001L, expiredAt.get("a"));
+        assertEquals(1063L, expiredAt.get("b"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesDeadlinesFromEveryLevel() {
+        long start = 123_457; //not on a slot boundary of any level
+        TimingWheel<String> wheel = new TimingWheel<>(start);
+        long[] deltas = {64, 65, 127, 4095, 4096, 4097, 262_143, 262_144, 300_000, 1_000_000};
+        for (long delta : deltas) {
+            wheel.schedule("+" + delta, start + delta);
+        }
+
+        Map<String, Long> expiredAt = expireAll(wheel, start + 1_000_001);
+
+        for (long delta : deltas) {
+            assertEquals(start + delta, expiredAt.get("+" + delta), "deadline +" + delta);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void reparksDeadlinesBeyondTheTopLevel() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        long lap = 1L << 24; //64^4 ticks, the span of the top level
+        wheel.schedule("lap", lap);
+        wheel.schedule("lap and a bit", lap + 4_099);
+        wheel.schedule("two laps", 2 * lap + 7);
+
+        Map<String, Long> expiredAt = expireAll(wheel, 2 * lap + 8);
+
+        assertEquals(lap, expiredAt.get("lap"));
+        assertEquals(lap + 4_099, expiredAt.get("lap and a bit"));
+        assertEquals(2 * lap + 7, expiredAt.get("two laps"));
+    }
+
+    @Test
+    void expiresPastDeadlinesOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(500);
+        wheel.schedule("late", 10);
+        wheel.schedule("now", 500);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(501, expired::add);
+
+        assertEquals(List.of("late", "now"), expired.stream().sorted().toList());
+    }
+
+    @Test
+    void advancingManyTicksAtOnceExpiresEverythingDue() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        wheel.schedule("soon", 3);
+        wheel.schedule("later", 70_000);
+        wheel.schedule("after", 70_001);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(70_000, expired::add);
+
+        assertEquals(List.of("later", "soon"), expired.stream().sorted().toList());
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void randomSchedulesExpireOnTheirDeadlines() {
+        Random random = new Random(7);
+        long start = random.nextInt(1_000_000);
+        TimingWheel<String> wheel = new TimingWheel<>(start);
+        Map<String, Long> deadlines = new HashMap<>();
+        Map<String, Long> expiredAt = new HashMap<>();
+        long end = start + 400_000;
+        int next = 0;
+        while (wheel.getCurrentTick() < end) {
+            //schedule a few items from the current tick, some of them far ahead
+            for (int i = random.nextInt(3); i > 0; i--) {
+                long delta = 1 + (random.nextBoolean() ? random.nextInt(300) : random.nextInt(300_000));
+                String item = "item " + next++;
+                long deadline = wheel.getCurrentTick() + delta;
+                deadlines.put(item, deadline);
+                wheel.schedule(item, deadline);
+            }
+            long from = wheel.getCurrentTick();
+            long to = from + 1 + random.nextInt(200);
+            wheel.advanceTo(to, item -> expiredAt.put(item, null));
+            //items that expire during a multi-tick advance must all be due by its end
+            for (Map.Entry<String, Long> entry : expiredAt.entrySet()) {
+                if (entry.getValue() == null) {
+                    long deadline = deadlines.get(entry.getKey());
+                    assertTrue(deadline > from && deadline <= to, entry.getKey() + " expired on the wrong advance");
+                    entry.setValue(to);
+                }
+            }
+        }
+
+        long last = wheel.getCurrentTick();
+        for (Map.Entry<String, Long> entry : deadlines.entrySet()) {
+            long deadline = entry.getValue();
+            if (deadline <= last) {
+                assertTrue(expiredAt.containsKey(entry.getKey()), entry.getKey() + " never expired");
+            } else {
+                assertFalse(expiredAt.containsKey(entry.getKey()), entry.getKey() + " expired early");
+            }
+        }
+        assertEquals(deadlines.size() - expiredAt.size(), wheel.size());
+    }
+}